@@ -0,0 +1,235 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+
+/**
+ * シート上に存在しないセルを表す、変更不可なブランクセル。
+ * <p>読み込み時に{@link POIUtils#getCell(Sheet, int, int)}などで存在しないセルを参照した場合に、
+ *    行やセルをシートに作成する代わりに返す。
+ * <p>値を変更するメソッドを呼んだ場合は、{@link UnsupportedOperationException}をスローする。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class BlankCell implements Cell {
+    
+    private final Sheet sheet;
+    
+    private final int column;
+    
+    private final int row;
+    
+    /**
+     * セルの位置を指定するコンストラクタ。
+     * @param sheet シート
+     * @param column 列番号
+     * @param row 行番号
+     */
+    BlankCell(final Sheet sheet, final int column, final int row) {
+        this.sheet = sheet;
+        this.column = column;
+        this.row = row;
+    }
+    
+    private UnsupportedOperationException newReadOnlyException() {
+        return new UnsupportedOperationException(
+                String.format("cell '%s' is read only.", Utils.formatCellAddress(row, column)));
+    }
+    
+    @Override
+    public int getColumnIndex() {
+        return column;
+    }
+    
+    @Override
+    public int getRowIndex() {
+        return row;
+    }
+    
+    @Override
+    public Sheet getSheet() {
+        return sheet;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @return 行が存在しない場合はnullを返す。
+     */
+    @Override
+    public Row getRow() {
+        return sheet.getRow(row);
+    }
+    
+    @Override
+    public int getCellType() {
+        return CELL_TYPE_BLANK;
+    }
+    
+    @Override
+    public int getCachedFormulaResultType() {
+        throw new IllegalStateException("Only formula cells have cached results");
+    }
+    
+    @Override
+    public String getCellFormula() {
+        throw new IllegalStateException("Cannot get a formula value from a blank cell");
+    }
+    
+    @Override
+    public double getNumericCellValue() {
+        return 0.0;
+    }
+    
+    @Override
+    public Date getDateCellValue() {
+        return null;
+    }
+    
+    @Override
+    public RichTextString getRichStringCellValue() {
+        return sheet.getWorkbook().getCreationHelper().createRichTextString("");
+    }
+    
+    @Override
+    public String getStringCellValue() {
+        return "";
+    }
+    
+    @Override
+    public boolean getBooleanCellValue() {
+        return false;
+    }
+    
+    @Override
+    public byte getErrorCellValue() {
+        throw new IllegalStateException("Cannot get a error value from a blank cell");
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>列の書式が設定されている場合はその書式、設定されていない場合はワークブックの標準の書式を返す。
+     */
+    @Override
+    public CellStyle getCellStyle() {
+        final CellStyle columnStyle = sheet.getColumnStyle(column);
+        if(columnStyle != null) {
+            return columnStyle;
+        }
+        
+        return sheet.getWorkbook().getCellStyleAt((short)0);
+    }
+    
+    @Override
+    public Comment getCellComment() {
+        return sheet.getCellComment(row, column);
+    }
+    
+    @Override
+    public Hyperlink getHyperlink() {
+        return null;
+    }
+    
+    @Override
+    public CellRangeAddress getArrayFormulaRange() {
+        throw new IllegalStateException(
+                String.format("Cell %s is not part of an array formula.", Utils.formatCellAddress(row, column)));
+    }
+    
+    @Override
+    public boolean isPartOfArrayFormulaGroup() {
+        return false;
+    }
+    
+    @Override
+    public void setCellType(final int cellType) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final double value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final Date value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final Calendar value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final RichTextString value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final String value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellFormula(final String formula) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final boolean value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellErrorValue(final byte value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellStyle(final CellStyle style) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setAsActiveCell() {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellComment(final Comment comment) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void removeCellComment() {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setHyperlink(final Hyperlink link) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void removeHyperlink() {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public String toString() {
+        return "";
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+
+/**
+ * シート内のセルの値（ラベル）とセルの対応を保持する索引。
+ * <p>初回の検索時にシートを一度だけ走査し、セルの値ごとに行→列の順で並べたセルの一覧を作成する。
+ *    以降の{@link Utils#getCell(Sheet, String, int, XlsMapperConfig)}などによるラベルの検索は、シートを走査せずにこの索引から解決する。
+ * <p>索引はシートの値が変更されないことを前提とするため、読み込み処理の間だけ{@link SheetScope#enableLabelIndex()}で有効にする。
+ *    有効でないシートに対しては、従来通りシートを走査して検索する。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class CellLabelIndex {
+    
+    /**
+     * 実行中のスレッドで有効な、シートに対する索引を取得する。
+     * @param sheet 対象のシート
+     * @return 索引が有効でない場合はnullを返す。
+     */
+    static CellLabelIndex get(final Sheet sheet) {
+        final SheetScope scope = SheetScope.find(sheet);
+        return scope != null ? scope.getLabelIndex() : null;
+    }
+    
+    private final Sheet sheet;
+    
+    /** セルの値ごとのセルの一覧（行→列の順）。未作成の場合はnull。 */
+    private Map<String, List<Cell>> labelCells;
+    
+    CellLabelIndex(final Sheet sheet) {
+        this.sheet = sheet;
+    }
+    
+    private synchronized Map<String, List<Cell>> getLabelCells(final CellFormatter cellFormatter) {
+        
+        if(labelCells != null) {
+            return labelCells;
+        }
+        
+        final Map<String, List<Cell>> map = new HashMap<>();
+        final int maxRow = POIUtils.getRows(sheet);
+        for(int i=0; i < maxRow; i++) {
+            final Row row = sheet.getRow(i);
+            if(row == null) {
+                continue;
+            }
+            
+            for(Cell cell : row) {
+                final String cellValue = POIUtils.getCellContents(cell, cellFormatter);
+                if(cellValue.isEmpty()) {
+                    // 空のラベルは検索されない
+                    continue;
+                }
+        
+                List<Cell> cells = map.get(cellValue);
+                if(cells == null) {
+                    cells = new ArrayList<>(1);
+                    map.put(cellValue, cells);
+                }
+                cells.add(cell);
+            }
+        }
+        
+        this.labelCells = map;
+        return map;
+    }
+    
+    private List<Cell> getCells(final String label, final CellFormatter cellFormatter) {
+        final List<Cell> cells = getLabelCells(cellFormatter).get(label);
+        return cells != null ? cells : Collections.<Cell>emptyList();
+    }
+    
+    /**
+     * 列→行の順に検索したときに、最初に見つかるセルを取得する。
+     * <p>{@link Utils#getCell(Sheet, String, int, boolean, XlsMapperConfig)}と同じ順序で検索する。
+     * @param label 検索するセルの値
+     * @param fromRow 検索開始位置の行
+     * @param cellFormatter セルの値のフォーマッタ
+     * @return 見つからない場合はnullを返す。
+     */
+    Cell findInColumnOrder(final String label, final int fromRow, final CellFormatter cellFormatter) {
+        
+        Cell found = null;
+        for(Cell cell : getCells(label, cellFormatter)) {
+            if(cell.getRowIndex() < fromRow) {
+                continue;
+            }
+            
+            if(found == null || cell.getColumnIndex() < found.getColumnIndex()) {
+                found = cell;
+            }
+        }
+        
+        return found;
+    }
+    
+    /**
+     * 行→列の順に検索したときに、最初に見つかるセルを取得する。
+     * <p>{@link Utils#getCell(Sheet, String, int, int, boolean, XlsMapperConfig)}と同じ順序で検索する。
+     * @param label 検索するセルの値
+     * @param fromCol 検索開始位置の列
+     * @param fromRow 検索開始位置の行
+     * @param includeFrom 検索開始位置のセルを検索対象に含めるかどうか。
+     * @param cellFormatter セルの値のフォーマッタ
+     * @return 見つからない場合はnullを返す。
+     */
+    Cell findInRowOrder(final String label, final int fromCol, final int fromRow, final boolean includeFrom,
+            final CellFormatter cellFormatter) {
+        
+        for(Cell cell : getCells(label, cellFormatter)) {
+            final int row = cell.getRowIndex();
+            final int column = cell.getColumnIndex();
+            if(row < fromRow || column < fromCol) {
+                continue;
+            }
+            
+            if(!includeFrom && row == fromRow && column == fromCol) {
+                continue;
+            }
+            
+            return cell;
+        }
+        
+        return null;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.util.Date;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.usermodel.Sheet;
+
+
+/**
+ * シートから値を取り出した、変更不可なセル。
+ * <p>{@link POIUtils#snapshotCell(Cell, CellFormatter)}で作成し、セルの値、フォーマットした値、書式、リンクのみを保持する。
+ *    数式の場合は、評価した結果を値として保持する。
+ * <p>シートを参照せずに値を取得できるため、Converterによる変換を、シートを読み込むスレッドとは別のスレッドで行える。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class CellSnapshot extends StreamingCell {
+    
+    /** フォーマットした値 */
+    private final String text;
+    
+    /** 値をフォーマットしたフォーマッタ */
+    private final CellFormatter cellFormatter;
+    
+    private final Hyperlink hyperlink;
+    
+    /** 日付が1904年始まりかどうか */
+    private final boolean date1904;
+    
+    CellSnapshot(final Sheet sheet, final int column, final int row, final CellValue value, final CellStyle style,
+            final String text, final CellFormatter cellFormatter, final Hyperlink hyperlink, final boolean date1904) {
+        super(sheet, column, row, value, style);
+        this.text = text;
+        this.cellFormatter = cellFormatter;
+        this.hyperlink = hyperlink;
+        this.date1904 = date1904;
+    }
+    
+    /**
+     * フォーマットした値を取得する。
+     * @param cellFormatter セルの値のフォーマッタ
+     * @return 取り出したときと異なるフォーマッタを指定した場合は、nullを返す。
+     */
+    String getText(final CellFormatter cellFormatter) {
+        return this.cellFormatter == cellFormatter ? text : null;
+    }
+    
+    @Override
+    public Date getDateCellValue() {
+        if(getCellType() == CELL_TYPE_BLANK) {
+            return null;
+        }
+        
+        return DateUtil.getJavaDate(getNumericCellValue(), date1904);
+    }
+    
+    @Override
+    public Hyperlink getHyperlink() {
+        return hyperlink;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @return フォーマットした値を返す。
+     */
+    @Override
+    public String toString() {
+        return text;
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Sheet;
+
+
+/**
+ * セルの位置ごとに、フォーマットしたセルの値を保持するキャッシュ。
+ * <p>レコードの読み込みでは、空セルの判定や終端のラベルの判定、結合セルの判定、Converterでの変換など、
+ *    同じセルに対して{@link CellFormatter#format(Cell)}が何度も呼ばれる。
+ *    {@link POIUtils#getCellContents(Cell, CellFormatter)}で一度フォーマットした値を保持し、2回目以降はフォーマットせずに返す。
+ * <p>保持する件数は{@link #MAX_ENTRIES}までとし、超えた場合は最も古く参照された値から破棄する。
+ * <p>キャッシュはシートの値が変更されないことを前提とするため、読み込み処理の間だけ{@link SheetScope#enableTextCache()}で有効にする。
+ *    有効でないシートに対しては、従来通り毎回フォーマットする。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class CellTextCache {
+    
+    /** 保持するセルの値の最大件数 */
+    static final int MAX_ENTRIES = 10000;
+    
+    /**
+     * 実行中のスレッドで有効な、シートに対するキャッシュを取得する。
+     * @param sheet 対象のシート
+     * @return キャッシュが有効でない場合はnullを返す。
+     */
+    static CellTextCache get(final Sheet sheet) {
+        final SheetScope scope = SheetScope.find(sheet);
+        return scope != null ? scope.getTextCache() : null;
+    }
+    
+    /** セルの位置ごとのフォーマットした値。参照順に並べる。 */
+    private final Map<Long, String> texts = new LinkedHashMap<Long, String>(256, 0.75f, true) {
+        
+        private static final long serialVersionUID = 1L;
+        
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, String> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    
+    /** 値をフォーマットしたフォーマッタ */
+    private CellFormatter cellFormatter;
+    
+    CellTextCache() {
+        
+    }
+    
+    /**
+     * フォーマットしたセルの値を取得する。
+     * <p>キャッシュに存在しない場合は、フォーマットして保持する。
+     * <p>キャッシュしたときと異なるフォーマッタを指定した場合は、保持している値を破棄する。
+     * @param cell 対象のセル
+     * @param cellFormatter セルの値のフォーマッタ
+     * @return フォーマットしたセルの値
+     */
+    synchronized String format(final Cell cell, final CellFormatter cellFormatter) {
+        
+        if(this.cellFormatter != cellFormatter) {
+            texts.clear();
+            this.cellFormatter = cellFormatter;
+        }
+        
+        final Long key = toKey(cell.getRowIndex(), cell.getColumnIndex());
+        String text = texts.get(key);
+        if(text == null) {
+            text = cellFormatter.format(cell);
+            texts.put(key, text);
+        }
+        
+        return text;
+    }
+    
+    /**
+     * 保持している値の件数を取得する。
+     * @return
+     */
+    synchronized int size() {
+        return texts.size();
+    }
+    
+    private static Long toKey(final int row, final int column) {
+        return ((long)row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+}
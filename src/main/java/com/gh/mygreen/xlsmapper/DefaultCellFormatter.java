@@ -17,7 +17,13 @@ import com.github.mygreen.cellformatter.POICellFormatter;
  */
 public class DefaultCellFormatter implements CellFormatter {
     
-    private POICellFormatter poiCellFormatter = new POICellFormatter();
+    private volatile POICellFormatter poiCellFormatter = new POICellFormatter();
+    
+    /** 空セルの判定で、常にセルの値をフォーマットするかどうか */
+    private volatile boolean formatOnEmptyCheck = false;
+    
+    /** 設定を変更不可にしたかどうか */
+    private volatile boolean frozen = false;
     
     @Override
     public String format(final Cell cell) {
@@ -26,6 +32,12 @@ public class DefaultCellFormatter implements CellFormatter {
     
     @Override
     public String format(final Cell cell, final Locale locale) {
+        
+        if(cell.getCellType() == Cell.CELL_TYPE_FORMULA) {
+            // 数式を上書きしないよう、評価した結果のセルをフォーマットする。評価に失敗した場合は、エラーの値のセルとなる。
+            return poiCellFormatter.formatAsString(new EvaluatedCell(cell, POIUtils.evaluateFormulaValue(cell)), locale);
+        }
+        
         return poiCellFormatter.formatAsString(cell, locale);
     }
     
@@ -40,9 +52,58 @@ public class DefaultCellFormatter implements CellFormatter {
     /**
      * POICellFormatterを設定する。
      * @param poiCellFormatter
+     * @throws IllegalStateException {@link #freeze()}で変更不可にしている場合。
      */
     public void setPoiCellFormatter(POICellFormatter poiCellFormatter) {
+        assertNotFrozen();
         this.poiCellFormatter = poiCellFormatter;
     }
     
+    /**
+     * 空セルの判定で、常にセルの値をフォーマットするかどうか。
+     * @since 1.0
+     * @return 初期値は'false'で、セルのタイプなどからフォーマットせずに判定できる場合は判定する。
+     */
+    public boolean isFormatOnEmptyCheck() {
+        return formatOnEmptyCheck;
+    }
+    
+    /**
+     * 空セルの判定で、常にセルの値をフォーマットするかどうか設定する。
+     * <p>{@link POIUtils#isEmptyCellContents(Cell, CellFormatter)}で、
+     *    セルの値をフォーマットした結果が空文字かどうかで判定する、従来の方法を利用する場合に'true'を設定する。
+     * @since 1.0
+     * @param formatOnEmptyCheck
+     * @throws IllegalStateException {@link #freeze()}で変更不可にしている場合。
+     */
+    public void setFormatOnEmptyCheck(boolean formatOnEmptyCheck) {
+        assertNotFrozen();
+        this.formatOnEmptyCheck = formatOnEmptyCheck;
+    }
+    
+    /**
+     * 設定を変更不可にする。
+     * <p>以降は、設定を変更すると{@link IllegalStateException}をスローする。
+     *    {@link XlsMapperConfig#freeze()}から呼ばれる。
+     * @since 1.0
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+    
+    /**
+     * 設定を変更不可にしたかどうか。
+     * @since 1.0
+     * @return {@link #freeze()}を呼んだ場合は、trueを返す。
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+    
+    private void assertNotFrozen() {
+        if(frozen) {
+            throw new IllegalStateException("cell formatter is frozen.");
+        }
+    }
+    
 }
@@ -0,0 +1,254 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+
+/**
+ * 数式のセルを評価した結果を表す、変更不可なセル。
+ * <p>{@link POIUtils#evaluateFormulaCell(Cell)}で、元のセルの数式を結果の値で上書きする代わりに返す。
+ *    位置や書式、コメントなどは元のセルと同じ値を返す。
+ * <p>値を変更するメソッドを呼んだ場合は、{@link UnsupportedOperationException}をスローする。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class EvaluatedCell implements Cell {
+    
+    /** 評価した数式のセル */
+    private final Cell cell;
+    
+    /** 評価した結果。結果がブランクの場合はnull。 */
+    private final CellValue value;
+    
+    /**
+     * 評価した結果を指定するコンストラクタ。
+     * @param cell 評価した数式のセル
+     * @param value 評価した結果
+     */
+    EvaluatedCell(final Cell cell, final CellValue value) {
+        this.cell = cell;
+        this.value = value;
+    }
+    
+    private UnsupportedOperationException newReadOnlyException() {
+        return new UnsupportedOperationException(
+                String.format("cell '%s' is read only.", Utils.formatCellAddress(cell)));
+    }
+    
+    private IllegalStateException newTypeMismatchException(final String type) {
+        return new IllegalStateException(
+                String.format("Cannot get a %s value from a evaluated cell '%s'.", type, Utils.formatCellAddress(cell)));
+    }
+    
+    @Override
+    public int getColumnIndex() {
+        return cell.getColumnIndex();
+    }
+    
+    @Override
+    public int getRowIndex() {
+        return cell.getRowIndex();
+    }
+    
+    @Override
+    public Sheet getSheet() {
+        return cell.getSheet();
+    }
+    
+    @Override
+    public Row getRow() {
+        return cell.getRow();
+    }
+    
+    @Override
+    public int getCellType() {
+        return value != null ? value.getCellType() : CELL_TYPE_BLANK;
+    }
+    
+    @Override
+    public int getCachedFormulaResultType() {
+        throw new IllegalStateException("Only formula cells have cached results");
+    }
+    
+    @Override
+    public String getCellFormula() {
+        throw new IllegalStateException("Cannot get a formula value from a evaluated cell");
+    }
+    
+    @Override
+    public double getNumericCellValue() {
+        switch(getCellType()) {
+            case CELL_TYPE_BLANK:
+                return 0.0;
+            case CELL_TYPE_NUMERIC:
+                return value.getNumberValue();
+            default:
+                throw newTypeMismatchException("numeric");
+        }
+    }
+    
+    @Override
+    public Date getDateCellValue() {
+        if(getCellType() == CELL_TYPE_BLANK) {
+            return null;
+        }
+        
+        return DateUtil.getJavaDate(getNumericCellValue(), POIUtils.isDate1904(cell.getSheet().getWorkbook()));
+    }
+    
+    @Override
+    public RichTextString getRichStringCellValue() {
+        return cell.getSheet().getWorkbook().getCreationHelper().createRichTextString(getStringCellValue());
+    }
+    
+    @Override
+    public String getStringCellValue() {
+        switch(getCellType()) {
+            case CELL_TYPE_BLANK:
+                return "";
+            case CELL_TYPE_STRING:
+                return value.getStringValue();
+            default:
+                throw newTypeMismatchException("text");
+        }
+    }
+    
+    @Override
+    public boolean getBooleanCellValue() {
+        switch(getCellType()) {
+            case CELL_TYPE_BLANK:
+                return false;
+            case CELL_TYPE_BOOLEAN:
+                return value.getBooleanValue();
+            default:
+                throw newTypeMismatchException("boolean");
+        }
+    }
+    
+    @Override
+    public byte getErrorCellValue() {
+        if(getCellType() != CELL_TYPE_ERROR) {
+            throw newTypeMismatchException("error");
+        }
+        return value.getErrorValue();
+    }
+    
+    @Override
+    public CellStyle getCellStyle() {
+        return cell.getCellStyle();
+    }
+    
+    @Override
+    public Comment getCellComment() {
+        return cell.getCellComment();
+    }
+    
+    @Override
+    public Hyperlink getHyperlink() {
+        return cell.getHyperlink();
+    }
+    
+    @Override
+    public CellRangeAddress getArrayFormulaRange() {
+        return cell.getArrayFormulaRange();
+    }
+    
+    @Override
+    public boolean isPartOfArrayFormulaGroup() {
+        return cell.isPartOfArrayFormulaGroup();
+    }
+    
+    @Override
+    public void setCellType(final int cellType) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final double value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final Date value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final Calendar value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final RichTextString value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final String value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellFormula(final String formula) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final boolean value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellErrorValue(final byte value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellStyle(final CellStyle style) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setAsActiveCell() {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellComment(final Comment comment) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void removeCellComment() {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setHyperlink(final Hyperlink link) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void removeHyperlink() {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public String toString() {
+        return value != null ? value.formatAsString() : "";
+    }
+
+}
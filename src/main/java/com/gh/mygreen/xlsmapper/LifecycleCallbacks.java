@@ -0,0 +1,160 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.gh.mygreen.xlsmapper.annotation.XlsIsEmpty;
+import com.gh.mygreen.xlsmapper.annotation.XlsPostLoad;
+import com.gh.mygreen.xlsmapper.annotation.XlsPostSave;
+import com.gh.mygreen.xlsmapper.annotation.XlsPreLoad;
+import com.gh.mygreen.xlsmapper.annotation.XlsPreSave;
+import com.gh.mygreen.xlsmapper.xml.AnnotationReadException;
+import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
+
+
+/**
+ * レコードやテーブルのクラスに定義されている、ライフサイクルのコールバックメソッドの情報。
+ * <p>{@link XlsPreLoad}、{@link XlsPostLoad}、{@link XlsPreSave}、{@link XlsPostSave}、{@link XlsIsEmpty}が
+ *    付与されたpublicメソッドを一度だけ探索して保持する。
+ * <p>作成後は変更されないため、複数のスレッドから共有して利用できる。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class LifecycleCallbacks {
+    
+    /** 対象のクラス */
+    private final Class<?> targetClass;
+    
+    /** {@link XlsPreLoad}が付与されたメソッド */
+    private final List<Method> preLoadMethods;
+    
+    /** {@link XlsPostLoad}が付与されたメソッド */
+    private final List<Method> postLoadMethods;
+    
+    /** {@link XlsPreSave}が付与されたメソッド */
+    private final List<Method> preSaveMethods;
+    
+    /** {@link XlsPostSave}が付与されたメソッド */
+    private final List<Method> postSaveMethods;
+    
+    /** {@link XlsIsEmpty}が付与された最初のメソッド */
+    private final Method isEmptyMethod;
+    
+    /** {@link XlsIsEmpty}のアノテーション */
+    private final XlsIsEmpty isEmptyAnno;
+    
+    /**
+     * クラス情報をもとに組み立てる。
+     * @param targetClass 対象のクラス
+     * @param annoReader アノテーションの読み込みクラス
+     * @throws IllegalArgumentException targetClass or annoReader is null.
+     * @throws AnnotationReadException
+     */
+    public LifecycleCallbacks(final Class<?> targetClass, final AnnotationReader annoReader) throws AnnotationReadException {
+        ArgUtils.notNull(targetClass, "targetClass");
+        ArgUtils.notNull(annoReader, "annoReader");
+        
+        this.targetClass = targetClass;
+        
+        final List<Method> preLoadMethods = new ArrayList<>();
+        final List<Method> postLoadMethods = new ArrayList<>();
+        final List<Method> preSaveMethods = new ArrayList<>();
+        final List<Method> postSaveMethods = new ArrayList<>();
+        Method isEmptyMethod = null;
+        XlsIsEmpty isEmptyAnno = null;
+        
+        for(Method method : targetClass.getMethods()) {
+            if(annoReader.getAnnotation(targetClass, method, XlsPreLoad.class) != null) {
+                preLoadMethods.add(method);
+            }
+            
+            if(annoReader.getAnnotation(targetClass, method, XlsPostLoad.class) != null) {
+                postLoadMethods.add(method);
+            }
+            
+            if(annoReader.getAnnotation(targetClass, method, XlsPreSave.class) != null) {
+                preSaveMethods.add(method);
+            }
+            
+            if(annoReader.getAnnotation(targetClass, method, XlsPostSave.class) != null) {
+                postSaveMethods.add(method);
+            }
+            
+            if(isEmptyMethod == null) {
+                final XlsIsEmpty anno = annoReader.getAnnotation(targetClass, method, XlsIsEmpty.class);
+                if(anno != null) {
+                    isEmptyMethod = method;
+                    isEmptyAnno = anno;
+                }
+            }
+        }
+        
+        this.preLoadMethods = Collections.unmodifiableList(preLoadMethods);
+        this.postLoadMethods = Collections.unmodifiableList(postLoadMethods);
+        this.preSaveMethods = Collections.unmodifiableList(preSaveMethods);
+        this.postSaveMethods = Collections.unmodifiableList(postSaveMethods);
+        this.isEmptyMethod = isEmptyMethod;
+        this.isEmptyAnno = isEmptyAnno;
+    }
+    
+    /**
+     * 対象のクラスを取得する。
+     * @return
+     */
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+    
+    /**
+     * アノテーション{@link XlsPreLoad}が付与されたメソッドを取得する。
+     * @return 変更不可なリスト。
+     */
+    public List<Method> getPreLoadMethods() {
+        return preLoadMethods;
+    }
+    
+    /**
+     * アノテーション{@link XlsPostLoad}が付与されたメソッドを取得する。
+     * @return 変更不可なリスト。
+     */
+    public List<Method> getPostLoadMethods() {
+        return postLoadMethods;
+    }
+    
+    /**
+     * アノテーション{@link XlsPreSave}が付与されたメソッドを取得する。
+     * @return 変更不可なリスト。
+     */
+    public List<Method> getPreSaveMethods() {
+        return preSaveMethods;
+    }
+    
+    /**
+     * アノテーション{@link XlsPostSave}が付与されたメソッドを取得する。
+     * @return 変更不可なリスト。
+     */
+    public List<Method> getPostSaveMethods() {
+        return postSaveMethods;
+    }
+    
+    /**
+     * アノテーション{@link XlsIsEmpty}が付与されたメソッドを取得する。
+     * @return 存在しない場合はnullを返す。
+     */
+    public Method getIsEmptyMethod() {
+        return isEmptyMethod;
+    }
+    
+    /**
+     * メソッドに付与されているアノテーション{@link XlsIsEmpty}を取得する。
+     * @return 存在しない場合はnullを返す。
+     */
+    public XlsIsEmpty getIsEmptyAnnotation() {
+        return isEmptyAnno;
+    }
+
+}
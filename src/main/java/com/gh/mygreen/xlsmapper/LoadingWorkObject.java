@@ -25,6 +25,9 @@ public class LoadingWorkObject {
     
     private SheetBindingErrors errors;
     
+    /** 読み込み中のシートの状態 */
+    private SheetScope sheetScope;
+    
     public AnnotationReader getAnnoReader() {
         return annoReader;
     }
@@ -49,6 +52,18 @@ public class LoadingWorkObject {
         this.errors = errors;
     }
     
+    /**
+     * 読み込み中のシートの状態を取得する。
+     * @return シートの読み込み中でない場合はnullを返す。
+     */
+    SheetScope getSheetScope() {
+        return sheetScope;
+    }
+    
+    void setSheetScope(SheetScope sheetScope) {
+        this.sheetScope = sheetScope;
+    }
+    
     public void addTypeBindError(final TypeBindException e, final Point position, final String fieldName, final String label) {
         final Map<String, Object> vars = new LinkedHashMap<>(e.getMessageVars());
         vars.put("validatedValue", e.getTargetValue());
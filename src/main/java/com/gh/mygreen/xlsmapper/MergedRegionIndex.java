@@ -0,0 +1,212 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+
+/**
+ * シートの結合セルの範囲を、行ごとに振り分けて保持する索引。
+ * <p>{@link POIUtils#getMergedRegion(Sheet, int, int)}による検索で、全ての結合範囲を走査しないようにする。
+ * <p>{@link POIUtils#mergeCells(Sheet, int, int, int, int)}、{@link POIUtils#removeMergedRange(Sheet, CellRangeAddress)}による
+ *    結合の追加・解除は索引にも反映する。
+ *    {@link POIUtils#insertRow(Sheet, int)}などで行をずらした場合は、次の検索時に索引を作り直す。
+ * <p>読み込み・書き込み処理の間だけ{@link SheetScope#enableMergedRegionIndex()}で有効にする。
+ *    有効でないシートに対しては、従来通り全ての結合範囲を走査する。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class MergedRegionIndex {
+    
+    /** 行ごとに振り分ける結合範囲の最大の行数。これを超える結合範囲は個別に保持する。 */
+    private static final int MAX_BUCKET_ROWS = 64;
+    
+    /**
+     * 実行中のスレッドで有効な、シートに対する索引を取得する。
+     * @param sheet 対象のシート
+     * @return 索引が有効でない場合はnullを返す。
+     */
+    static MergedRegionIndex get(final Sheet sheet) {
+        final SheetScope scope = SheetScope.find(sheet);
+        return scope != null ? scope.getMergedRegionIndex() : null;
+    }
+    
+    private final Sheet sheet;
+    
+    /** シートの結合範囲と同じ順序で並べた一覧。未作成の場合はnull。 */
+    private List<Entry> entries;
+    
+    /** 行番号ごとの結合範囲 */
+    private final Map<Integer, List<Entry>> rowBuckets = new HashMap<>();
+    
+    /** 行数が{@link #MAX_BUCKET_ROWS}を超える結合範囲 */
+    private final List<Entry> tallEntries = new ArrayList<>();
+    
+    /** 結合範囲の追加順を表す番号 */
+    private long sequence;
+    
+    MergedRegionIndex(final Sheet sheet) {
+        this.sheet = sheet;
+    }
+    
+    /**
+     * 索引を破棄し、次の検索時に作り直すようにする。
+     * <p>行の挿入・削除により、シートの結合範囲が移動・並び替えられた場合に呼び出す。
+     */
+    synchronized void invalidate() {
+        this.entries = null;
+    }
+    
+    private void ensureBuilt() {
+        
+        if(entries != null && entries.size() == sheet.getNumMergedRegions()) {
+            return;
+        }
+        
+        this.entries = new ArrayList<>();
+        rowBuckets.clear();
+        tallEntries.clear();
+        
+        final int num = sheet.getNumMergedRegions();
+        for(int i=0; i < num; i++) {
+            addEntry(sheet.getMergedRegion(i));
+        }
+    }
+    
+    private void addEntry(final CellRangeAddress range) {
+        
+        final Entry entry = new Entry(range, sequence++);
+        entries.add(entry);
+        
+        if(range.getLastRow() - range.getFirstRow() + 1 > MAX_BUCKET_ROWS) {
+            tallEntries.add(entry);
+            return;
+        }
+        
+        for(int r=range.getFirstRow(); r <= range.getLastRow(); r++) {
+            List<Entry> bucket = rowBuckets.get(r);
+            if(bucket == null) {
+                bucket = new ArrayList<>(2);
+                rowBuckets.put(r, bucket);
+            }
+            bucket.add(entry);
+        }
+    }
+    
+    /**
+     * 指定したセルを含む結合範囲を取得する。
+     * <p>複数の結合範囲が該当する場合は、シート上で先に定義されている範囲を返す。
+     * <p>索引の内容が変更されないよう、コピーした範囲を返す。
+     * @param rowIdx 行番号
+     * @param colIdx 列番号
+     * @return 結合していない場合はnullを返す。
+     */
+    synchronized CellRangeAddress find(final int rowIdx, final int colIdx) {
+        
+        ensureBuilt();
+        
+        Entry found = null;
+        final List<Entry> bucket = rowBuckets.get(rowIdx);
+        if(bucket != null) {
+            found = findFirst(bucket, rowIdx, colIdx, found);
+        }
+        found = findFirst(tallEntries, rowIdx, colIdx, found);
+        
+        return found != null ? found.range.copy() : null;
+    }
+    
+    private static Entry findFirst(final List<Entry> candidates, final int rowIdx, final int colIdx, final Entry current) {
+        
+        Entry found = current;
+        for(Entry entry : candidates) {
+            if(found != null && found.sequence < entry.sequence) {
+                continue;
+            }
+            
+            if(entry.range.isInRange(rowIdx, colIdx)) {
+                found = entry;
+            }
+        }
+        
+        return found;
+    }
+    
+    /**
+     * シートに追加した結合範囲を索引に反映する。
+     * @param range シートに追加した結合範囲
+     */
+    synchronized void added(final CellRangeAddress range) {
+        
+        if(entries == null) {
+            return;
+        }
+        
+        if(entries.size() + 1 != sheet.getNumMergedRegions()) {
+            // 索引の作成後にシートが変更されている場合
+            invalidate();
+            return;
+        }
+        
+        addEntry(range.copy());
+    }
+    
+    /**
+     * 指定した範囲と同じ結合範囲を、シートと索引から削除する。
+     * @param range 削除する結合範囲
+     * @return 該当する結合範囲が見つからない場合はfalseを返す。
+     */
+    synchronized boolean remove(final CellRangeAddress range) {
+        
+        ensureBuilt();
+        
+        for(int i=0; i < entries.size(); i++) {
+            final Entry entry = entries.get(i);
+            if(!isSameRange(entry.range, range)) {
+                continue;
+            }
+            
+            sheet.removeMergedRegion(i);
+            entries.remove(i);
+            
+            if(!tallEntries.remove(entry)) {
+                for(int r=entry.range.getFirstRow(); r <= entry.range.getLastRow(); r++) {
+                    rowBuckets.get(r).remove(entry);
+                }
+            }
+            return true;
+        }
+        
+        return false;
+    }
+    
+    private static boolean isSameRange(final CellRangeAddress range1, final CellRangeAddress range2) {
+        return range1.getFirstRow() == range2.getFirstRow()
+                && range1.getLastRow() == range2.getLastRow()
+                && range1.getFirstColumn() == range2.getFirstColumn()
+                && range1.getLastColumn() == range2.getLastColumn();
+    }
+    
+    /**
+     * 索引に保持する結合範囲。
+     */
+    private static class Entry {
+        
+        final CellRangeAddress range;
+        
+        /** 追加順の番号。値が小さいほどシート上で先に定義されている。 */
+        final long sequence;
+        
+        Entry(final CellRangeAddress range, final long sequence) {
+            this.range = range;
+            this.sequence = sequence;
+        }
+    
+    }
+
+}
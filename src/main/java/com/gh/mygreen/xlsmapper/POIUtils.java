@@ -7,10 +7,13 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.poi.hssf.model.InternalSheet;
+import org.apache.poi.hssf.model.InternalWorkbook;
 import org.apache.poi.hssf.record.DVRecord;
 import org.apache.poi.hssf.record.ExtendedFormatRecord;
 import org.apache.poi.hssf.record.Record;
@@ -21,11 +24,15 @@ import org.apache.poi.hssf.usermodel.HSSFCellStyle;
 import org.apache.poi.hssf.usermodel.HSSFDataValidation;
 import org.apache.poi.hssf.usermodel.HSSFEvaluationWorkbook;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellValue;
 import org.apache.poi.ss.usermodel.DataValidation;
 import org.apache.poi.ss.usermodel.DataValidationConstraint;
 import org.apache.poi.ss.usermodel.DataValidationHelper;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
 import org.apache.poi.ss.usermodel.Hyperlink;
 import org.apache.poi.ss.usermodel.Name;
 import org.apache.poi.ss.usermodel.Row;
@@ -38,10 +45,12 @@ import org.apache.poi.ss.util.CellReference;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFDataValidation;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.xssf.usermodel.extensions.XSSFCellAlignment;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCellAlignment;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTDataValidation;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTDataValidations;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbookPr;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorksheet;
 
 import com.gh.mygreen.xlsmapper.cellconvert.LinkType;
@@ -118,6 +127,252 @@ public class POIUtils {
         AVAILABLE_METHOD_CELL_REMOVE_HYPERLINK = available;
     }
     
+    /**
+     * 読み込み専用として扱うシートかどうか。
+     * <p>シートの読み込み中は、読み込むスレッドでのみ読み込み専用となる。
+     *    読み込み専用のシートでは、{@link #getCell(Sheet, int, int)}などで存在しない行やセルを参照しても作成せず、
+     *    変更不可なブランクセルを返す。
+     * @since 1.0
+     * @param sheet 対象のシート
+     * @return 読み込み専用の場合はtrueを返す。
+     */
+    public static boolean isReadOnly(final Sheet sheet) {
+        final SheetScope scope = SheetScope.find(sheet);
+        return scope != null && scope.isReadOnly();
+    }
+    
+    /** ワークブックごとに共有する数式の評価処理。読み込み中のワークブックのみ保持する。 */
+    private static final Map<Workbook, SharedFormulaEvaluator> FORMULA_EVALUATORS = new HashMap<>();
+    
+    /**
+     * ワークブックに対して、数式の評価処理を共有するようにする。
+     * <p>共有した評価処理は、評価した結果をキャッシュするため、同じセルを参照する数式を何度も評価しない。
+     * <p>同じワークブックを同時に読み込む場合は、登録した回数を数え、全ての読み込みで破棄されるまで共有する。
+     * @since 1.0
+     * @param workbook 対象のワークブック
+     */
+    static void registerFormulaEvaluator(final Workbook workbook) {
+        synchronized(FORMULA_EVALUATORS) {
+            SharedFormulaEvaluator shared = FORMULA_EVALUATORS.get(workbook);
+            if(shared == null) {
+                shared = new SharedFormulaEvaluator(workbook.getCreationHelper().createFormulaEvaluator());
+                FORMULA_EVALUATORS.put(workbook, shared);
+            }
+            shared.count++;
+        }
+    }
+    
+    /**
+     * ワークブックに対して共有している数式の評価処理を破棄する。
+     * <p>{@link #registerFormulaEvaluator(Workbook)}と同じ回数だけ呼び出した時点で破棄する。
+     * @since 1.0
+     * @param workbook 対象のワークブック
+     */
+    static void unregisterFormulaEvaluator(final Workbook workbook) {
+        synchronized(FORMULA_EVALUATORS) {
+            final SharedFormulaEvaluator shared = FORMULA_EVALUATORS.get(workbook);
+            if(shared != null && --shared.count <= 0) {
+                FORMULA_EVALUATORS.remove(workbook);
+            }
+        }
+    }
+    
+    /**
+     * ワークブックの数式の評価処理を取得する。
+     * @since 1.0
+     * @param workbook 対象のワークブック
+     * @return 共有している評価処理が存在しない場合は、新たに作成する。
+     */
+    public static FormulaEvaluator getFormulaEvaluator(final Workbook workbook) {
+        ArgUtils.notNull(workbook, "workbook");
+        
+        synchronized(FORMULA_EVALUATORS) {
+            final SharedFormulaEvaluator shared = FORMULA_EVALUATORS.get(workbook);
+            if(shared != null) {
+                return shared.evaluator;
+            }
+        }
+        
+        return workbook.getCreationHelper().createFormulaEvaluator();
+    }
+    
+    /**
+     * 共有している数式の評価処理と、登録された回数。
+     */
+    private static class SharedFormulaEvaluator {
+        
+        private final FormulaEvaluator evaluator;
+        
+        private int count;
+        
+        private SharedFormulaEvaluator(final FormulaEvaluator evaluator) {
+            this.evaluator = evaluator;
+        }
+        
+    }
+    
+    /**
+     * 数式のセルを評価し、結果の値を持つセルを取得する。
+     * <p>{@link FormulaEvaluator#evaluateInCell(Cell)}と異なり、元のセルの数式は変更しない。
+     * @since 1.0
+     * @param cell 数式のセル
+     * @return 結果の値を持つ変更不可なセル。
+     * @throws IllegalArgumentException {@literal cell is not formula.}
+     * @throws RuntimeException 数式の評価に失敗した場合。
+     */
+    public static Cell evaluateFormulaCell(final Cell cell) {
+        ArgUtils.notNull(cell, "cell");
+        if(cell.getCellType() != Cell.CELL_TYPE_FORMULA) {
+            throw new IllegalArgumentException(String.format("cell '%s' is not formula.", formatCellAddress(cell)));
+        }
+        
+        // 共有している評価処理は、シートを並列に読み込む場合に複数のスレッドから利用される
+        final FormulaEvaluator evaluator = getFormulaEvaluator(cell.getSheet().getWorkbook());
+        synchronized(evaluator) {
+            return new EvaluatedCell(cell, evaluator.evaluate(cell));
+        }
+    }
+    
+    /**
+     * セルの値を取り出し、シートを参照しない変更不可なセルを作成する。
+     * <p>セルの値、フォーマットした値、書式、リンクを保持する。数式の場合は、評価した結果を値として保持する。
+     *    作成したセルは、シートを読み込むスレッドとは別のスレッドで、Converterにより変換できる。
+     * @since 1.0
+     * @param cell 取り出し元のセル
+     * @param cellFormatter セルの値のフォーマッタ
+     * @return 値を取り出したセル
+     */
+    public static Cell snapshotCell(final Cell cell, final CellFormatter cellFormatter) {
+        ArgUtils.notNull(cell, "cell");
+        ArgUtils.notNull(cellFormatter, "cellFormatter");
+        
+        final CellValue value;
+        switch(cell.getCellType()) {
+            case Cell.CELL_TYPE_NUMERIC:
+                value = new CellValue(cell.getNumericCellValue());
+                break;
+            case Cell.CELL_TYPE_STRING:
+                value = new CellValue(cell.getStringCellValue());
+                break;
+            case Cell.CELL_TYPE_BOOLEAN:
+                value = CellValue.valueOf(cell.getBooleanCellValue());
+                break;
+            case Cell.CELL_TYPE_ERROR:
+                value = CellValue.getError(cell.getErrorCellValue());
+                break;
+            case Cell.CELL_TYPE_FORMULA:
+                value = evaluateFormulaValue(cell);
+                break;
+            default:
+                value = null;
+        }
+        
+        return new CellSnapshot(cell.getSheet(), cell.getColumnIndex(), cell.getRowIndex(), value, cell.getCellStyle(),
+                getCellContents(cell, cellFormatter), cellFormatter, cell.getHyperlink(), isDate1904(cell.getSheet().getWorkbook()));
+    }
+    
+    /**
+     * 数式のセルを評価した結果の値を取得する。
+     * @param cell 数式のセル
+     * @return 評価に失敗した場合は、エラーの値を返す。
+     */
+    static CellValue evaluateFormulaValue(final Cell cell) {
+        
+        final FormulaEvaluator evaluator = getFormulaEvaluator(cell.getSheet().getWorkbook());
+        try {
+            synchronized(evaluator) {
+                return evaluator.evaluate(cell);
+            }
+        } catch(RuntimeException e) {
+            return CellValue.getError(FormulaError.VALUE.getCode());
+        }
+    }
+    
+    /**
+     * ワークブックの全ての数式を事前に評価し、共有している評価処理にキャッシュする。
+     * <p>評価に失敗した数式は、マッピングの対象でない可能性があるため無視する。
+     * <p>同じワークブックを他のスレッドで読み込んでいる場合があるため、他の評価と同様に評価処理をロックして評価する。
+     * @since 1.0
+     * @param workbook 対象のワークブック
+     */
+    static void preEvaluateFormulas(final Workbook workbook) {
+        
+        final FormulaEvaluator evaluator = getFormulaEvaluator(workbook);
+        final int sheetNum = workbook.getNumberOfSheets();
+        for(int i=0; i < sheetNum; i++) {
+            for(Row row : workbook.getSheetAt(i)) {
+                for(Cell cell : row) {
+                    if(cell.getCellType() != Cell.CELL_TYPE_FORMULA) {
+                        continue;
+                    }
+                    
+                    try {
+                        synchronized(evaluator) {
+                            evaluator.evaluate(cell);
+                        }
+                    } catch(RuntimeException e) {
+                        // 変換時に改めて評価し、エラーとする
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * HSSFの内部のワークブックを取得するメソッド。取得できない場合はnull。
+     * <p>POI-3.11では公開されたAPIがないため、公開メソッド{@code getInternalWorkbook}が存在しない場合は、
+     *    非公開の{@code getWorkbook}を利用する。
+     * @since 1.0
+     */
+    private static final Method METHOD_HSSF_INTERNAL_WORKBOOK;
+    static {
+        Method method;
+        try {
+            // POI-3.12以降
+            method = HSSFWorkbook.class.getMethod("getInternalWorkbook");
+        } catch(Exception e) {
+            try {
+                method = HSSFWorkbook.class.getDeclaredMethod("getWorkbook");
+                method.setAccessible(true);
+            } catch(Exception e2) {
+                method = null;
+            }
+        }
+        
+        METHOD_HSSF_INTERNAL_WORKBOOK = method;
+    }
+    
+    /**
+     * ワークブックの日付が1904年始まりかどうか。
+     * <p>POI-3.11の公開されたAPIでは取得できないため、HSSFの場合は内部のワークブックをリフレクションで取得する。
+     * @since 1.0
+     * @param workbook
+     * @return 判定できない場合はfalseを返す。
+     */
+    static boolean isDate1904(final Workbook workbook) {
+        
+        if(workbook instanceof StreamingWorkbook) {
+            return ((StreamingWorkbook) workbook).isDate1904();
+            
+        } else if(workbook instanceof XSSFWorkbook) {
+            final CTWorkbookPr workbookPr = ((XSSFWorkbook) workbook).getCTWorkbook().getWorkbookPr();
+            return workbookPr != null && workbookPr.getDate1904();
+        
+        } else if(workbook instanceof HSSFWorkbook) {
+            if(METHOD_HSSF_INTERNAL_WORKBOOK == null) {
+                return false;
+            }
+            
+            try {
+                return ((InternalWorkbook) METHOD_HSSF_INTERNAL_WORKBOOK.invoke(workbook)).isUsing1904DateWindowing();
+            } catch(Exception e) {
+                return false;
+            }
+        }
+        
+        return false;
+    }
+    
     /**
      * シートの最大列数を取得する。
      * @see jxl.Sheet.getColumns()
@@ -127,22 +382,12 @@ public class POIUtils {
     public static int getColumns(final Sheet sheet) {
         ArgUtils.notNull(sheet, "sheet");
         
-        int minRowIndex = sheet.getFirstRowNum();
-        int maxRowIndex = sheet.getLastRowNum();
-        int maxColumnsIndex = 0;
-        for(int i = minRowIndex; i <= maxRowIndex; i++) {
-            final Row row = sheet.getRow(i);
-            if(row == null) {
-                continue;
-            }
-            
-            final int column = row.getLastCellNum();
-            if(column > maxColumnsIndex) {
-                maxColumnsIndex = column;
-            }
+        final SheetExtents extents = SheetExtents.get(sheet);
+        if(extents != null) {
+            return extents.getColumns();
         }
         
-        return maxColumnsIndex;
+        return SheetExtents.computeColumns(sheet);
     }
     
     /**
@@ -182,14 +427,23 @@ public class POIUtils {
     public static Cell getCell(final Sheet sheet, final int column, final int row) {
         ArgUtils.notNull(sheet, "sheet");
         
+        final boolean readOnly = isReadOnly(sheet);
+        
         Row rows = sheet.getRow(row);
         if(rows == null) {
+            if(readOnly) {
+                return new BlankCell(sheet, column, row);
+            }
             rows = sheet.createRow(row);
         }
         
         Cell cell = rows.getCell(column);
         if(cell == null) {
+            if(readOnly) {
+                return new BlankCell(sheet, column, row);
+            }
             cell = rows.createCell(column, Cell.CELL_TYPE_BLANK);
+            notifyCellCreated(sheet, column);
         }
         
         return cell;
@@ -205,16 +459,18 @@ public class POIUtils {
     public static Cell[] getRow(final Sheet sheet, final int row) {
         ArgUtils.notNull(sheet, "sheet");
         
+        final boolean readOnly = isReadOnly(sheet);
+        
         Row rows = sheet.getRow(row);
-        if(rows == null) {
+        if(rows == null && !readOnly) {
             rows = sheet.createRow(row);
         }
         int maxColumn = getColumns(sheet);
         Cell[] cells = new Cell[maxColumn];
         for(int i=0; i < maxColumn; i++) {
-            Cell cell = rows.getCell(i);
+            Cell cell = rows != null ? rows.getCell(i) : null;
             if(cell == null) {
-                cell = rows.createCell(i, Cell.CELL_TYPE_BLANK);
+                cell = readOnly ? new BlankCell(sheet, i, row) : rows.createCell(i, Cell.CELL_TYPE_BLANK);
             }
             cells[i] = cell;
         }
@@ -232,18 +488,25 @@ public class POIUtils {
     public static Cell[] getColumn(final Sheet sheet, final int col) {
         ArgUtils.notNull(sheet, "sheet");
         
+        final boolean readOnly = isReadOnly(sheet);
+        
         int maxRow = getRows(sheet);
         Cell[] cells = new Cell[maxRow];
         for(int i=0; i < maxRow; i++) {
             Row rows = sheet.getRow(i);
-            if(rows == null) {
+            if(rows == null && !readOnly) {
                 rows = sheet.createRow(i);
                 
             }
             
-            Cell cell = rows.getCell(col);
+            Cell cell = rows != null ? rows.getCell(col) : null;
             if(cell == null) {
-                cell = rows.createCell(col, Cell.CELL_TYPE_BLANK);
+                if(readOnly) {
+                    cell = new BlankCell(sheet, col, i);
+                } else {
+                    cell = rows.createCell(col, Cell.CELL_TYPE_BLANK);
+                    notifyCellCreated(sheet, col);
+                }
             }
             
             cells[i] = cell;
@@ -254,6 +517,7 @@ public class POIUtils {
     
     /**
      * フォーマッターを指定してセルの値を取得する
+     * <p>読み込み中のシートの場合は、一度フォーマットした値を再利用する。
      * 
      * @param cell
      * @param cellFormatter 
@@ -263,6 +527,19 @@ public class POIUtils {
         ArgUtils.notNull(cell, "cell");
         ArgUtils.notNull(cellFormatter, "cellFormatter");
         
+        if(cell instanceof CellSnapshot) {
+            // 値を取り出したときにフォーマットした値を利用する
+            final String text = ((CellSnapshot) cell).getText(cellFormatter);
+            if(text != null) {
+                return text;
+            }
+        }
+        
+        final CellTextCache cache = CellTextCache.get(cell.getSheet());
+        if(cache != null) {
+            return cache.format(cell, cellFormatter);
+        }
+        
         return cellFormatter.format(cell);
         
     }
@@ -280,6 +557,10 @@ public class POIUtils {
     /**
      * フォーマッターを指定してセルの値が空かどうか判定する。
      * <p>ブランクセルなどの判定は優先的に行う。
+     * <p>フォーマッターが{@link DefaultCellFormatter}の場合、セルのタイプと書式から判定できるときはフォーマットしない。
+     *    {@link DefaultCellFormatter#format(Cell)}を上書きしたサブクラスの場合は、フォーマットの結果が異なる可能性があるため、
+     *    常にフォーマットして判定する。
+     *    常にフォーマットして判定する場合は、{@link DefaultCellFormatter#setFormatOnEmptyCheck(boolean)}で設定する。
      * @param cell
      * @param cellFormatter
      * @return
@@ -291,9 +572,91 @@ public class POIUtils {
 //        if(isBlankCell(cell)) {
 //            return true;
 //        }
+        if(cellFormatter.getClass() == DefaultCellFormatter.class
+                && !((DefaultCellFormatter) cellFormatter).isFormatOnEmptyCheck()) {
+            final Boolean empty = judgeEmptyCellByType(cell);
+            if(empty != null) {
+                return empty;
+            }
+        }
+        
         return getCellContents(cell, cellFormatter).isEmpty();
     }
     
+    /**
+     * セルの値をフォーマットせずに、セルのタイプと書式から空かどうか判定する。
+     * <p>{@link DefaultCellFormatter}でフォーマットした結果と同じ判定になる場合のみ判定する。
+     * @param cell
+     * @return 判定できない場合はnullを返す。
+     */
+    private static Boolean judgeEmptyCellByType(final Cell cell) {
+        
+        switch(cell.getCellType()) {
+            case Cell.CELL_TYPE_BLANK:
+                // 結合されたセルは、結合範囲の先頭のセルの値にフォーマットされるため、フォーマットする
+                if(getMergedRegion(cell.getSheet(), cell.getRowIndex(), cell.getColumnIndex()) != null) {
+                    return null;
+                }
+                return true;
+            case Cell.CELL_TYPE_STRING:
+                // 文字列のセクションを持たない書式の場合、文字列はそのままの値にフォーマットされる
+                if(isPlainTextFormat(cell.getCellStyle().getDataFormatString())) {
+                    return cell.getStringCellValue().isEmpty();
+                }
+                return null;
+            case Cell.CELL_TYPE_BOOLEAN:
+            case Cell.CELL_TYPE_ERROR:
+                return false;
+            case Cell.CELL_TYPE_NUMERIC:
+                if(isNonEmptyNumberFormat(cell.getCellStyle().getDataFormatString())) {
+                    return false;
+                }
+                return null;
+            default:
+                // 数式は結果によって判定が異なるため、フォーマットする
+                return null;
+        }
+    }
+    
+    /**
+     * 文字列をそのままの値にフォーマットする書式かどうか判定する。
+     * <p>'"x"@'など、文字列のセクションにリテラルを含む書式の場合は、空文字も値を持つため'false'を返す。
+     * @param pattern 書式
+     * @return 標準の書式、または'@'のみの書式の場合は'true'を返す。
+     */
+    private static boolean isPlainTextFormat(final String pattern) {
+        return Utils.isEmpty(pattern) || pattern.equalsIgnoreCase("General") || pattern.equals("@");
+    }
+    
+    /**
+     * 数値を空文字にフォーマットすることがない書式かどうか判定する。
+     * <p>セクションの区切り、リテラル、ゼロを表示しない桁の指定（'#'、'?'）を含む場合や、
+     *    条件や色の指定のみの場合は、空文字になる可能性があるため'false'を返す。
+     * @param pattern 書式
+     * @return
+     */
+    private static boolean isNonEmptyNumberFormat(final String pattern) {
+        
+        if(Utils.isEmpty(pattern) || pattern.equalsIgnoreCase("General")) {
+            return true;
+        }
+        
+        if(pattern.indexOf(';') >= 0 || pattern.indexOf('"') >= 0) {
+            return false;
+        }
+        
+        final String body = pattern.replaceAll("\\[[^\\]]*\\]", "");
+        if(body.isEmpty()) {
+            return false;
+        }
+        
+        if((body.indexOf('#') >= 0 || body.indexOf('?') >= 0) && body.indexOf('0') < 0) {
+            return false;
+        }
+        
+        return true;
+    }
+    
 //    /**
 //     * セルの値が空かどうか。
 //     * @param cell
@@ -346,6 +709,12 @@ public class POIUtils {
         
         final CellRangeAddress range = new CellRangeAddress(startRow, endRow, startCol, endCol);
         sheet.addMergedRegion(range);
+        
+        final MergedRegionIndex mergedIndex = MergedRegionIndex.get(sheet);
+        if(mergedIndex != null) {
+            mergedIndex.added(range);
+        }
+        
         return range;
     }
     
@@ -360,6 +729,11 @@ public class POIUtils {
     public static CellRangeAddress getMergedRegion(final Sheet sheet, final int rowIdx, final int colIdx) {
         ArgUtils.notNull(sheet, "sheet");
         
+        final MergedRegionIndex mergedIndex = MergedRegionIndex.get(sheet);
+        if(mergedIndex != null) {
+            return mergedIndex.find(rowIdx, colIdx);
+        }
+        
         final int num = sheet.getNumMergedRegions();
         for(int i=0; i < num; i ++) {
             final CellRangeAddress range = sheet.getMergedRegion(i);
@@ -381,6 +755,11 @@ public class POIUtils {
         ArgUtils.notNull(sheet, "sheet");
         ArgUtils.notNull(mergedRange, "mergedRange");
         
+        final MergedRegionIndex mergedIndex = MergedRegionIndex.get(sheet);
+        if(mergedIndex != null) {
+            return mergedIndex.remove(mergedRange);
+        }
+        
         final String mergedAddress = mergedRange.formatAsString(sheet.getSheetName(), true);
         
         final int num = sheet.getNumMergedRegions();
@@ -415,6 +794,7 @@ public class POIUtils {
         }
         
         sheet.shiftRows(rowIndex, lastRow+1, 1);
+        notifyRowsChanged(sheet);
         return sheet.createRow(rowIndex);
     }
     
@@ -442,14 +822,42 @@ public class POIUtils {
         // 上に1つ行をずらす
         int lastRow = sheet.getLastRowNum();
         if(rowIndex +1 > lastRow) {
+            notifyRowsChanged(sheet);
             return row;
         }
         
         sheet.shiftRows(rowIndex+1, lastRow, -1);
+        notifyRowsChanged(sheet);
         
         return row;
     }
     
+    /**
+     * セルを作成した場合、保持しているシートの最大列数に反映する。
+     */
+    private static void notifyCellCreated(final Sheet sheet, final int column) {
+        final SheetExtents extents = SheetExtents.get(sheet);
+        if(extents != null) {
+            extents.cellCreated(column);
+        }
+    }
+    
+    /**
+     * 行を追加・削除した場合、シートの最大列数や結合範囲の索引を作り直すようにする。
+     * <p>行をずらすと結合範囲も移動するため。
+     */
+    private static void notifyRowsChanged(final Sheet sheet) {
+        final SheetExtents extents = SheetExtents.get(sheet);
+        if(extents != null) {
+            extents.invalidate();
+        }
+        
+        final MergedRegionIndex mergedIndex = MergedRegionIndex.get(sheet);
+        if(mergedIndex != null) {
+            mergedIndex.invalidate();
+        }
+    }
+    
     /**
      * セルの折り返し設定を有効にする
      * @param cell
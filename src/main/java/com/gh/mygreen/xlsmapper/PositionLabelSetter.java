@@ -0,0 +1,373 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.awt.Point;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * セルの位置情報、見出し情報をBeanに設定するクラス。
+ * <p>フィールド「positions」「labels」や、「'フィールド名' + Position」「'フィールド名' + Label」のsetter/フィールドの探索を
+ *    クラスとフィールド名ごとに一度だけ行い、その結果を保持する。
+ *    設定先が存在しない場合も「設定先なし」として保持するため、位置情報などを持たないBeanでは探索を繰り返さない。
+ * <p>{@link Utils#setPosition(int, int, Object, String)}などから利用する。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class PositionLabelSetter {
+    
+    private static final ClassValue<PositionLabelSetter> CACHE = new ClassValue<PositionLabelSetter>() {
+        
+        @Override
+        protected PositionLabelSetter computeValue(final Class<?> type) {
+            return new PositionLabelSetter(type);
+        }
+    };
+    
+    /**
+     * クラスに対応するインスタンスを取得する。
+     * @param clazz 設定対象のBeanのクラス
+     * @return
+     */
+    static PositionLabelSetter get(final Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+    
+    /** 設定対象のBeanのクラス */
+    private final Class<?> clazz;
+    
+    /** フィールド「Map&lt;String, Point&gt; positions」。存在しない場合はnull。 */
+    private final Field positionMapField;
+    
+    /** フィールド「Map&lt;String, String&gt; labels」。存在しない場合はnull。 */
+    private final Field labelMapField;
+    
+    /** フィールド名ごとの位置情報の設定先 */
+    private final ConcurrentMap<String, Sink> positionSinks = new ConcurrentHashMap<>();
+    
+    /** フィールド名ごとのMapColumn形式の位置情報の設定先 */
+    private final ConcurrentMap<String, Sink> mapPositionSinks = new ConcurrentHashMap<>();
+    
+    /** フィールド名ごとの見出し情報の設定先 */
+    private final ConcurrentMap<String, Sink> labelSinks = new ConcurrentHashMap<>();
+    
+    /** フィールド名ごとのMapColumn形式の見出し情報の設定先 */
+    private final ConcurrentMap<String, Sink> mapLabelSinks = new ConcurrentHashMap<>();
+    
+    private PositionLabelSetter(final Class<?> clazz) {
+        this.clazz = clazz;
+        this.positionMapField = findMapField(clazz, "positions");
+        this.labelMapField = findMapField(clazz, "labels");
+    }
+    
+    private static Field findMapField(final Class<?> clazz, final String fieldName) {
+        
+        final Field field = Utils.getField(clazz, fieldName);
+        if(field == null || !Map.class.isAssignableFrom(field.getType())) {
+            return null;
+        }
+        
+        try {
+            field.setAccessible(true);
+        } catch(SecurityException e) {
+            return null;
+        }
+        
+        return field;
+    }
+    
+    /**
+     * セルの位置を設定する。
+     * @param x 列
+     * @param y 行
+     * @param obj 設定対象のオブジェクト
+     * @param fieldName フィールド名
+     */
+    void setPosition(final int x, final int y, final Object obj, final String fieldName) {
+        
+        if(positionMapField != null) {
+            getOrCreateMap(positionMapField, obj).put(fieldName, new Point(x, y));
+            return;
+        }
+        
+        Sink sink = positionSinks.get(fieldName);
+        if(sink == null) {
+            sink = resolvePositionSink(fieldName);
+            positionSinks.putIfAbsent(fieldName, sink);
+        }
+        
+        if(sink.method != null) {
+            if(sink.pointArgument) {
+                invoke(sink.method, obj, "fail set position with '%s' method", new Point(x, y));
+            } else {
+                invoke(sink.method, obj, "fail set position with '%s' method", x, y);
+            }
+        
+        } else if(sink.field != null) {
+            setField(sink.field, obj, "fail set position with '%s' field", new Point(x, y));
+        }
+    
+    }
+    
+    private Sink resolvePositionSink(final String fieldName) {
+        
+        final String positionFieldName = fieldName + "Position";
+        
+        // メソッドの場合(引数が int, intの場合)
+        final Method positionMethod1 = Utils.getSetter(clazz, positionFieldName, Integer.TYPE, Integer.TYPE);
+        if(positionMethod1 != null) {
+            return new Sink(positionMethod1, false);
+        }
+        
+        // メソッドの場合(引数が Pointの場合)
+        final Method positionMethod2 = Utils.getSetter(clazz, positionFieldName, Point.class);
+        if(positionMethod2 != null) {
+            return new Sink(positionMethod2, true);
+        }
+        
+        // フィールドの場合
+        final Field positionField = Utils.getField(clazz, positionFieldName);
+        if(positionField != null) {
+            return new Sink(positionField);
+        }
+        
+        return Sink.NONE;
+    }
+    
+    /**
+     * MapColumn形式の場合のセルの位置を設定する。
+     * @param x 列
+     * @param y 行
+     * @param obj 設定対象のオブジェクト
+     * @param fieldName フィールド名
+     * @param key マップのキー
+     */
+    void setPositionWithMapColumn(final int x, final int y, final Object obj, final String fieldName, final String key) {
+        
+        if(positionMapField != null) {
+            final String mapKey = String.format("%s[%s]", fieldName, key);
+            getOrCreateMap(positionMapField, obj).put(mapKey, new Point(x, y));
+            return;
+        }
+        
+        Sink sink = mapPositionSinks.get(fieldName);
+        if(sink == null) {
+            sink = resolveMapPositionSink(fieldName);
+            mapPositionSinks.putIfAbsent(fieldName, sink);
+        }
+        
+        if(sink.method != null) {
+            if(sink.pointArgument) {
+                invoke(sink.method, obj, "fail set map position with '%s' method", key, new Point(x, y));
+            } else {
+                invoke(sink.method, obj, "fail set map position with '%s' method", key, x, y);
+            }
+        
+        } else if(sink.field != null) {
+            getOrCreateMap(sink.field, obj).put(key, new Point(x, y));
+        }
+    
+    }
+    
+    private Sink resolveMapPositionSink(final String fieldName) {
+        
+        final String positionFieldName = fieldName + "Position";
+        
+        // メソッドの場合(引数が String, int, intの場合)
+        final Method positionMethod1 = Utils.getSetter(clazz, positionFieldName, String.class, Integer.TYPE, Integer.TYPE);
+        if(positionMethod1 != null) {
+            return new Sink(positionMethod1, false);
+        }
+        
+        // メソッドの場合(引数が String, Pointの場合)
+        final Method positionMethod2 = Utils.getSetter(clazz, positionFieldName, String.class, Point.class);
+        if(positionMethod2 != null) {
+            return new Sink(positionMethod2, true);
+        }
+        
+        // フィールドの場合(Map<String, Point>)の場合
+        final Field positionField = Utils.getField(clazz, positionFieldName);
+        if(positionField != null && Map.class.isAssignableFrom(positionField.getType())) {
+            return new Sink(positionField);
+        }
+        
+        return Sink.NONE;
+    }
+    
+    /**
+     * セルの見出しを設定する。
+     * @param label 設定する見出し
+     * @param obj 設定対象のオブジェクト
+     * @param fieldName フィールド名
+     */
+    void setLabel(final String label, final Object obj, final String fieldName) {
+        
+        if(labelMapField != null) {
+            getOrCreateMap(labelMapField, obj).put(fieldName, label);
+            return;
+        }
+        
+        Sink sink = labelSinks.get(fieldName);
+        if(sink == null) {
+            sink = resolveLabelSink(fieldName);
+            labelSinks.putIfAbsent(fieldName, sink);
+        }
+        
+        if(sink.method != null) {
+            invoke(sink.method, obj, "fail set label with '%s' method", label);
+        
+        } else if(sink.field != null) {
+            setField(sink.field, obj, "fail set label with '%s' field", label);
+        }
+    
+    }
+    
+    private Sink resolveLabelSink(final String fieldName) {
+        
+        final String labelFieldName = fieldName + "Label";
+        
+        // メソッドの場合(引数が String の場合)
+        final Method labelMethod1 = Utils.getSetter(clazz, labelFieldName, String.class);
+        if(labelMethod1 != null) {
+            return new Sink(labelMethod1, false);
+        }
+        
+        // フィールドの場合
+        final Field labelField = Utils.getField(clazz, labelFieldName);
+        if(labelField != null) {
+            return new Sink(labelField);
+        }
+        
+        return Sink.NONE;
+    }
+    
+    /**
+     * MapColumn形式の場合のセルの見出しを設定する。
+     * @param label 設定する見出し
+     * @param obj 設定対象のオブジェクト
+     * @param fieldName フィールド名
+     * @param key マップのキー
+     */
+    void setLabelWithMapColumn(final String label, final Object obj, final String fieldName, final String key) {
+        
+        if(labelMapField != null) {
+            final String mapKey = String.format("%s[%s]", fieldName, key);
+            getOrCreateMap(labelMapField, obj).put(mapKey, label);
+            return;
+        }
+        
+        Sink sink = mapLabelSinks.get(fieldName);
+        if(sink == null) {
+            sink = resolveMapLabelSink(fieldName);
+            mapLabelSinks.putIfAbsent(fieldName, sink);
+        }
+        
+        if(sink.method != null) {
+            invoke(sink.method, obj, "fail set label with '%s' method", key, label);
+        
+        } else if(sink.field != null) {
+            getOrCreateMap(sink.field, obj).put(key, label);
+        }
+    
+    }
+    
+    private Sink resolveMapLabelSink(final String fieldName) {
+        
+        final String labelFieldName = fieldName + "Label";
+        
+        // メソッドの場合(引数が String, String の場合)
+        final Method labelMethod1 = Utils.getSetter(clazz, labelFieldName, String.class, String.class);
+        if(labelMethod1 != null) {
+            return new Sink(labelMethod1, false);
+        }
+        
+        // フィールドの場合(Map<String, String>)の場合
+        final Field labelField = Utils.getField(clazz, labelFieldName);
+        if(labelField != null && Map.class.isAssignableFrom(labelField.getType())) {
+            return new Sink(labelField);
+        }
+        
+        return Sink.NONE;
+    }
+    
+    /**
+     * マップ型のフィールドの値を取得する。値がnullの場合は、マップを作成して設定する。
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> Map<String, V> getOrCreateMap(final Field field, final Object obj) {
+        
+        try {
+            Object mapValue = field.get(obj);
+            if(mapValue == null) {
+                mapValue = new HashMap<String, V>();
+                field.set(obj, mapValue);
+            }
+            
+            return (Map<String, V>) mapValue;
+        
+        } catch (IllegalArgumentException | IllegalAccessException e) {
+            throw new RuntimeException(
+                    String.format("fail set '%s' field", field.getName()),
+                    e);
+        }
+    }
+    
+    private static void invoke(final Method method, final Object obj, final String message, final Object... args) {
+        try {
+            method.invoke(obj, args);
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            throw new RuntimeException(String.format(message, method.getName()), e);
+        }
+    }
+    
+    private static void setField(final Field field, final Object obj, final String message, final Object value) {
+        try {
+            field.set(obj, value);
+        } catch (IllegalArgumentException | IllegalAccessException e) {
+            throw new RuntimeException(String.format(message, field.getName()), e);
+        }
+    }
+    
+    /**
+     * 解決した設定先の情報。
+     * <p>メソッドとフィールドのどちらも持たない場合は、設定先が存在しないことを表す。
+     */
+    private static class Sink {
+        
+        /** 設定先が存在しないことを表すインスタンス */
+        static final Sink NONE = new Sink(null, null, false);
+        
+        /** 設定先のsetterメソッド */
+        final Method method;
+        
+        /** 設定先のフィールド */
+        final Field field;
+        
+        /** メソッドの引数が{@link Point}かどうか */
+        final boolean pointArgument;
+        
+        Sink(final Method method, final boolean pointArgument) {
+            this(method, null, pointArgument);
+        }
+        
+        Sink(final Field field) {
+            this(null, field, false);
+            field.setAccessible(true);
+        }
+        
+        private Sink(final Method method, final Field field, final boolean pointArgument) {
+            this.method = method;
+            this.field = field;
+            this.pointArgument = pointArgument;
+        }
+    
+    }
+
+}
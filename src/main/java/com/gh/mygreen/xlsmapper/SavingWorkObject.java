@@ -22,6 +22,9 @@ public class SavingWorkObject {
     
     private SheetBindingErrors errors;
     
+    /** 書き込み中のシートの状態 */
+    private SheetScope sheetScope;
+    
     public AnnotationReader getAnnoReader() {
         return annoReader;
     }
@@ -46,6 +49,18 @@ public class SavingWorkObject {
         this.errors = errors;
     }
     
+    /**
+     * 書き込み中のシートの状態を取得する。
+     * @return シートの書き込み中でない場合はnullを返す。
+     */
+    SheetScope getSheetScope() {
+        return sheetScope;
+    }
+    
+    void setSheetScope(SheetScope sheetScope) {
+        this.sheetScope = sheetScope;
+    }
+    
     public void addTypeBindError(final TypeBindException e, final Point position, final String fieldName, final String label) {
         this.errors.rejectSheetTypeBind(fieldName, e.getTargetValue(), e.getBindClass(),
                 position, label);
@@ -0,0 +1,311 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.gh.mygreen.xlsmapper.annotation.XlsPostLoad;
+import com.gh.mygreen.xlsmapper.annotation.XlsPostSave;
+import com.gh.mygreen.xlsmapper.annotation.XlsPreLoad;
+import com.gh.mygreen.xlsmapper.annotation.XlsPreSave;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheetName;
+import com.gh.mygreen.xlsmapper.fieldprocessor.FieldAdaptor;
+import com.gh.mygreen.xlsmapper.fieldprocessor.FieldProcessorRegstry;
+import com.gh.mygreen.xlsmapper.fieldprocessor.LoadingFieldProcessor;
+import com.gh.mygreen.xlsmapper.fieldprocessor.SavingFieldProcessor;
+import com.gh.mygreen.xlsmapper.xml.AnnotationReadException;
+import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
+
+
+/**
+ * シートにマッピングするクラスに対して、処理対象のフィールドやメソッドを事前に解決した情報（バインディングプラン）。
+ * <p>リフレクションによるフィールド・メソッドの探索、プロセッサの解決、並び替えを一度だけ行い、
+ *    {@link XlsLoader}/{@link XlsSaver}はこの情報をもとに処理を実行する。
+ * <p>作成後は変更されないため、複数のスレッドから共有して利用できる。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class SheetBindingPlan {
+    
+    /** マッピング対象のクラス */
+    private final Class<?> beanClass;
+    
+    /** 処理前に実行するメソッド（{@link XlsPreLoad}/{@link XlsPreSave}） */
+    private final List<Method> preProcessMethods;
+    
+    /** 並び替え済みのフィールド情報 */
+    private final List<FieldAdaptorProxy> adaptorProxies;
+    
+    /** 処理後に実行するメソッド（{@link XlsPostLoad}/{@link XlsPostSave}） */
+    private final List<Method> postProcessMethods;
+    
+    /** {@link XlsSheetName}が付与されているフィールド。書き込み時のみ設定される。 */
+    private final FieldAdaptor sheetNameAdaptor;
+    
+    /** プロセッサを解決したときの管理クラス */
+    private final FieldProcessorRegstry registry;
+    
+    /** プロセッサを解決したときの、管理クラスの登録の変更回数 */
+    private final int registryModificationCount;
+    
+    private SheetBindingPlan(final Class<?> beanClass, final List<Method> preProcessMethods,
+            final List<FieldAdaptorProxy> adaptorProxies, final List<Method> postProcessMethods,
+            final FieldAdaptor sheetNameAdaptor, final FieldProcessorRegstry registry, final int registryModificationCount) {
+        this.beanClass = beanClass;
+        this.preProcessMethods = Collections.unmodifiableList(preProcessMethods);
+        this.adaptorProxies = Collections.unmodifiableList(adaptorProxies);
+        this.postProcessMethods = Collections.unmodifiableList(postProcessMethods);
+        this.sheetNameAdaptor = sheetNameAdaptor;
+        this.registry = registry;
+        this.registryModificationCount = registryModificationCount;
+    }
+    
+    /**
+     * 読み込み用のプランを組み立てる。
+     * @param clazz マッピング対象のクラス
+     * @param annoReader アノテーションの読み込みクラス
+     * @param registry フィールドプロセッサの管理クラス
+     * @return
+     * @throws AnnotationReadException
+     */
+    @SuppressWarnings("rawtypes")
+    public static SheetBindingPlan createForLoading(final Class<?> clazz, final AnnotationReader annoReader,
+            final FieldProcessorRegstry registry) throws AnnotationReadException {
+        
+        ArgUtils.notNull(clazz, "clazz");
+        ArgUtils.notNull(annoReader, "annoReader");
+        ArgUtils.notNull(registry, "registry");
+        
+        // 解決中に登録が変更された場合に、古いプランとして扱うよう先に取得する
+        final int modificationCount = registry.getModificationCount();
+        
+        final List<Method> preProcessMethods = new ArrayList<>();
+        final List<FieldAdaptorProxy> adaptorProxies = new ArrayList<>();
+        final List<Method> postProcessMethods = new ArrayList<>();
+        
+        // @PreLoad用のメソッドの取得
+        for(Method method : clazz.getMethods()) {
+            
+            final XlsPreLoad preProcessAnno = annoReader.getAnnotation(clazz, method, XlsPreLoad.class);
+            if(preProcessAnno != null) {
+                preProcessMethods.add(method);
+            }
+        }
+        
+        // public メソッドの処理
+        for(Method method : clazz.getMethods()) {
+            method.setAccessible(true);
+            
+            for(Annotation anno : annoReader.getAnnotations(clazz, method)) {
+                final LoadingFieldProcessor processor = registry.getLoadingProcessor(anno);
+                if(Utils.isSetterMethod(method) && processor != null) {
+                    final FieldAdaptor adaptor = new FieldAdaptor(clazz, method, annoReader);
+                    adaptorProxies.add(new FieldAdaptorProxy(anno, processor, adaptor));
+                    break;
+                    
+                } else if(anno instanceof XlsPostLoad) {
+                    postProcessMethods.add(method);
+                    break;
+                }
+            }
+            
+        }
+        
+        // public / private / protected / default フィールドの処理
+        for(Field field : clazz.getDeclaredFields()) {
+            
+            field.setAccessible(true);
+            final FieldAdaptor adaptor = new FieldAdaptor(clazz, field, annoReader);
+            
+            // メソッドを重複している場合は排除する。
+            if(adaptorProxies.contains(adaptor)) {
+                continue;
+            }
+            
+            for(Annotation anno : annoReader.getAnnotations(clazz, field)) {
+                final LoadingFieldProcessor processor = registry.getLoadingProcessor(anno);
+                if(processor != null) {
+                    adaptorProxies.add(new FieldAdaptorProxy(anno, processor, adaptor));
+                    break;
+                }
+            }
+        }
+        
+        // 順番を並び替える
+        Collections.sort(adaptorProxies, HintOrderComparator.createForLoading());
+        
+        return new SheetBindingPlan(clazz, preProcessMethods, adaptorProxies, postProcessMethods, null,
+                registry, modificationCount);
+    }
+    
+    /**
+     * 書き込み用のプランを組み立てる。
+     * @param clazz マッピング対象のクラス
+     * @param annoReader アノテーションの読み込みクラス
+     * @param registry フィールドプロセッサの管理クラス
+     * @return
+     * @throws AnnotationReadException
+     */
+    @SuppressWarnings("rawtypes")
+    public static SheetBindingPlan createForSaving(final Class<?> clazz, final AnnotationReader annoReader,
+            final FieldProcessorRegstry registry) throws AnnotationReadException {
+        
+        ArgUtils.notNull(clazz, "clazz");
+        ArgUtils.notNull(annoReader, "annoReader");
+        ArgUtils.notNull(registry, "registry");
+        
+        // 解決中に登録が変更された場合に、古いプランとして扱うよう先に取得する
+        final int modificationCount = registry.getModificationCount();
+        
+        final List<Method> preProcessMethods = new ArrayList<>();
+        final List<FieldAdaptorProxy> adaptorProxies = new ArrayList<>();
+        final List<Method> postProcessMethods = new ArrayList<>();
+        
+        // @PreSave用のメソッドの取得
+        for(Method method : clazz.getMethods()) {
+            
+            final XlsPreSave preProcessAnno = annoReader.getAnnotation(clazz, method, XlsPreSave.class);
+            if(preProcessAnno != null) {
+                preProcessMethods.add(method);
+            }
+        }
+        
+        // public メソッドの処理
+        for(Method method : clazz.getMethods()) {
+            method.setAccessible(true);
+            for(Annotation anno : annoReader.getAnnotations(clazz, method)) {
+                final SavingFieldProcessor processor = registry.getSavingProcessor(anno);
+                if((Utils.isGetterMethod(method) || Utils.isBooleanGetterMethod(method))&& processor != null) {
+                    final FieldAdaptor adaptor = new FieldAdaptor(clazz, method, annoReader);
+                    adaptorProxies.add(new FieldAdaptorProxy(anno, processor, adaptor));
+                    break;
+                    
+                } else if(anno instanceof XlsPostSave) {
+                    postProcessMethods.add(method);
+                    break;
+                }
+            }
+        }
+        
+        // public / private/ protected /default フィールドの処理
+        for(Field field : clazz.getDeclaredFields()) {
+            
+            field.setAccessible(true);
+            final FieldAdaptor adaptor = new FieldAdaptor(clazz, field, annoReader);
+            
+            //メソッドと重複している場合は排除する
+            if(adaptorProxies.contains(adaptor)) {
+                continue;
+            }
+            
+            for(Annotation anno : annoReader.getAnnotations(clazz, field)) {
+                final SavingFieldProcessor processor = registry.getSavingProcessor(anno);
+                if(processor != null) {
+                    adaptorProxies.add(new FieldAdaptorProxy(anno, processor, adaptor));
+                    break;
+                }
+            }
+            
+        }
+        
+        // 順番を並び替える
+        Collections.sort(adaptorProxies, HintOrderComparator.createForSaving());
+        
+        return new SheetBindingPlan(clazz, preProcessMethods, adaptorProxies, postProcessMethods,
+                findSheetNameAdaptor(clazz, annoReader), registry, modificationCount);
+    }
+    
+    /**
+     * アノテーション「@XlsSheetName」が付与されているフィールド／メソッドを取得する。
+     * @param clazz
+     * @param annoReader
+     * @return 見つからない場合はnullを返す。
+     * @throws AnnotationReadException
+     */
+    private static FieldAdaptor findSheetNameAdaptor(final Class<?> clazz, final AnnotationReader annoReader) throws AnnotationReadException {
+        
+        for(Method method : clazz.getMethods()) {
+            method.setAccessible(true);
+            if(!Utils.isGetterMethod(method)) {
+                continue;
+            }
+            
+            XlsSheetName sheetNameAnno = annoReader.getAnnotation(clazz, method, XlsSheetName.class);
+            if(sheetNameAnno == null) {
+                continue;
+            }
+            
+            return new FieldAdaptor(clazz, method, annoReader);
+        }
+        
+        for(Field field : clazz.getDeclaredFields()) {
+            field.setAccessible(true);
+            
+            XlsSheetName sheetNameAnno = annoReader.getAnnotation(clazz, field, XlsSheetName.class);
+            if(sheetNameAnno == null) {
+                continue;
+            }
+            
+            return new FieldAdaptor(clazz, field, annoReader);
+        }
+        
+        // not found
+        return null;
+    }
+    
+    /**
+     * マッピング対象のクラスを取得する。
+     * @return
+     */
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+    
+    /**
+     * 処理前に実行するメソッドを取得する。
+     * @return 変更不可なリスト。
+     */
+    public List<Method> getPreProcessMethods() {
+        return preProcessMethods;
+    }
+    
+    /**
+     * 処理順に並び替えられたフィールド情報を取得する。
+     * @return 変更不可なリスト。
+     */
+    public List<FieldAdaptorProxy> getAdaptorProxies() {
+        return adaptorProxies;
+    }
+    
+    /**
+     * 処理後に実行するメソッドを取得する。
+     * @return 変更不可なリスト。
+     */
+    public List<Method> getPostProcessMethods() {
+        return postProcessMethods;
+    }
+    
+    /**
+     * アノテーション{@link XlsSheetName}が付与されたフィールドを取得する。
+     * <p>書き込み用のプランの場合のみ値が設定される。
+     * @return 存在しない場合はnullを返す。
+     */
+    public FieldAdaptor getSheetNameAdaptor() {
+        return sheetNameAdaptor;
+    }
+    
+    /**
+     * 指定したプロセッサの管理クラスの、現在の登録内容から作成したプランかどうか判定する。
+     * @param registry フィールドプロセッサの管理クラス
+     * @return 異なる管理クラスから作成した場合や、作成後にプロセッサの登録が変更された場合はfalseを返す。
+     */
+    public boolean isCreatedWith(final FieldProcessorRegstry registry) {
+        return this.registry == registry && registryModificationCount == registry.getModificationCount();
+    }
+    
+}
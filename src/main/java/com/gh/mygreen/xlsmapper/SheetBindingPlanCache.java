@@ -0,0 +1,200 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.gh.mygreen.xlsmapper.fieldprocessor.FieldProcessorRegstry;
+import com.gh.mygreen.xlsmapper.fieldprocessor.RecordColumnIndex;
+import com.gh.mygreen.xlsmapper.xml.AnnotationReadException;
+import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
+import com.gh.mygreen.xlsmapper.xml.XmlMapping;
+
+
+/**
+ * {@link SheetBindingPlan}をクラスとXMLの定義情報ごとにキャッシュするクラス。
+ * <p>レコードクラスの見出しとプロパティの対応情報（{@link RecordColumnIndex}）、
+ *    コールバックメソッドの情報（{@link LifecycleCallbacks}）も同様にキャッシュする。
+ * <p>XMLの定義がある場合は、{@link AnnotationReader#getCacheKey()}のキーごとにキャッシュを分けて保持する。
+ *    同じ{@link XmlMapping}から作成した読み込みクラスは、キャッシュを共有する。
+ *    キーが参照されなくなった場合、そのキャッシュは自動的に破棄される。
+ * <p>プランは作成時の{@link FieldProcessorRegstry}の登録内容を覚えており、
+ *    異なる管理クラスを指定した場合や、プロセッサを追加登録した後に取得した場合は、プランを作成し直す。
+ * <p>このクラスはスレッドセーフです。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class SheetBindingPlanCache {
+    
+    /** XMLの定義がない場合の読み込み用のプラン */
+    private final ConcurrentMap<Class<?>, SheetBindingPlan> loadingPlans = new ConcurrentHashMap<>();
+    
+    /** XMLの定義がない場合の書き込み用のプラン */
+    private final ConcurrentMap<Class<?>, SheetBindingPlan> savingPlans = new ConcurrentHashMap<>();
+    
+    /** XMLの定義がある場合の読み込み用のプラン */
+    private final Map<Object, ConcurrentMap<Class<?>, SheetBindingPlan>> xmlLoadingPlans =
+            Collections.synchronizedMap(new WeakHashMap<Object, ConcurrentMap<Class<?>, SheetBindingPlan>>());
+    
+    /** XMLの定義がある場合の書き込み用のプラン */
+    private final Map<Object, ConcurrentMap<Class<?>, SheetBindingPlan>> xmlSavingPlans =
+            Collections.synchronizedMap(new WeakHashMap<Object, ConcurrentMap<Class<?>, SheetBindingPlan>>());
+    
+    /** XMLの定義がない場合のレコードのカラム情報 */
+    private final ConcurrentMap<Class<?>, RecordColumnIndex> columnIndexes = new ConcurrentHashMap<>();
+    
+    /** XMLの定義がある場合のレコードのカラム情報 */
+    private final Map<Object, ConcurrentMap<Class<?>, RecordColumnIndex>> xmlColumnIndexes =
+            Collections.synchronizedMap(new WeakHashMap<Object, ConcurrentMap<Class<?>, RecordColumnIndex>>());
+    
+    /** XMLの定義がない場合のコールバックメソッドの情報 */
+    private final ConcurrentMap<Class<?>, LifecycleCallbacks> callbacks = new ConcurrentHashMap<>();
+    
+    /** XMLの定義がある場合のコールバックメソッドの情報 */
+    private final Map<Object, ConcurrentMap<Class<?>, LifecycleCallbacks>> xmlCallbacks =
+            Collections.synchronizedMap(new WeakHashMap<Object, ConcurrentMap<Class<?>, LifecycleCallbacks>>());
+    
+    /**
+     * 読み込み用のプランを取得する。
+     * <p>キャッシュに存在しない場合や、キャッシュしたプランが管理クラスの現在の登録内容と異なる場合は、組み立ててキャッシュに追加する。
+     * @param clazz マッピング対象のクラス
+     * @param annoReader アノテーションの読み込みクラス
+     * @param registry フィールドプロセッサの管理クラス
+     * @return
+     * @throws AnnotationReadException
+     */
+    public SheetBindingPlan getLoadingPlan(final Class<?> clazz, final AnnotationReader annoReader,
+            final FieldProcessorRegstry registry) throws AnnotationReadException {
+        
+        ArgUtils.notNull(clazz, "clazz");
+        ArgUtils.notNull(annoReader, "annoReader");
+        
+        final ConcurrentMap<Class<?>, SheetBindingPlan> plans = getPlanMap(loadingPlans, xmlLoadingPlans, annoReader.getCacheKey());
+        
+        SheetBindingPlan plan = plans.get(clazz);
+        if(plan == null || !plan.isCreatedWith(registry)) {
+            // プロセッサの登録内容が変わった場合は作成し直し、古いプランを置き換える
+            plan = SheetBindingPlan.createForLoading(clazz, annoReader, registry);
+            plans.put(clazz, plan);
+        }
+        
+        return plan;
+    }
+    
+    /**
+     * 書き込み用のプランを取得する。
+     * <p>キャッシュに存在しない場合や、キャッシュしたプランが管理クラスの現在の登録内容と異なる場合は、組み立ててキャッシュに追加する。
+     * @param clazz マッピング対象のクラス
+     * @param annoReader アノテーションの読み込みクラス
+     * @param registry フィールドプロセッサの管理クラス
+     * @return
+     * @throws AnnotationReadException
+     */
+    public SheetBindingPlan getSavingPlan(final Class<?> clazz, final AnnotationReader annoReader,
+            final FieldProcessorRegstry registry) throws AnnotationReadException {
+        
+        ArgUtils.notNull(clazz, "clazz");
+        ArgUtils.notNull(annoReader, "annoReader");
+        
+        final ConcurrentMap<Class<?>, SheetBindingPlan> plans = getPlanMap(savingPlans, xmlSavingPlans, annoReader.getCacheKey());
+        
+        SheetBindingPlan plan = plans.get(clazz);
+        if(plan == null || !plan.isCreatedWith(registry)) {
+            // プロセッサの登録内容が変わった場合は作成し直し、古いプランを置き換える
+            plan = SheetBindingPlan.createForSaving(clazz, annoReader, registry);
+            plans.put(clazz, plan);
+        }
+        
+        return plan;
+    }
+    
+    /**
+     * レコードクラスの見出しとプロパティの対応情報を取得する。
+     * <p>キャッシュに存在しない場合は、組み立ててキャッシュに追加する。
+     * @param recordClass レコードのクラス
+     * @param annoReader アノテーションの読み込みクラス
+     * @return
+     */
+    public RecordColumnIndex getRecordColumnIndex(final Class<?> recordClass, final AnnotationReader annoReader) {
+        
+        ArgUtils.notNull(recordClass, "recordClass");
+        ArgUtils.notNull(annoReader, "annoReader");
+        
+        final ConcurrentMap<Class<?>, RecordColumnIndex> indexes = getPlanMap(columnIndexes, xmlColumnIndexes, annoReader.getCacheKey());
+        
+        RecordColumnIndex index = indexes.get(recordClass);
+        if(index == null) {
+            index = new RecordColumnIndex(recordClass, annoReader);
+            final RecordColumnIndex existing = indexes.putIfAbsent(recordClass, index);
+            if(existing != null) {
+                index = existing;
+            }
+        }
+        
+        return index;
+    }
+    
+    /**
+     * クラスに定義されているコールバックメソッドの情報を取得する。
+     * <p>キャッシュに存在しない場合は、組み立ててキャッシュに追加する。
+     * @param targetClass レコードやテーブルのクラス
+     * @param annoReader アノテーションの読み込みクラス
+     * @return
+     * @throws AnnotationReadException
+     */
+    public LifecycleCallbacks getLifecycleCallbacks(final Class<?> targetClass, final AnnotationReader annoReader)
+            throws AnnotationReadException {
+        
+        ArgUtils.notNull(targetClass, "targetClass");
+        ArgUtils.notNull(annoReader, "annoReader");
+        
+        final ConcurrentMap<Class<?>, LifecycleCallbacks> map = getPlanMap(callbacks, xmlCallbacks, annoReader.getCacheKey());
+        
+        LifecycleCallbacks value = map.get(targetClass);
+        if(value == null) {
+            value = new LifecycleCallbacks(targetClass, annoReader);
+            final LifecycleCallbacks existing = map.putIfAbsent(targetClass, value);
+            if(existing != null) {
+                value = existing;
+            }
+        }
+        
+        return value;
+    }
+    
+    private <V> ConcurrentMap<Class<?>, V> getPlanMap(final ConcurrentMap<Class<?>, V> defaultPlans,
+            final Map<Object, ConcurrentMap<Class<?>, V>> xmlPlans, final Object cacheKey) {
+        
+        if(cacheKey == null) {
+            return defaultPlans;
+        }
+        
+        synchronized(xmlPlans) {
+            ConcurrentMap<Class<?>, V> plans = xmlPlans.get(cacheKey);
+            if(plans == null) {
+                plans = new ConcurrentHashMap<>();
+                xmlPlans.put(cacheKey, plans);
+            }
+            return plans;
+        }
+    }
+    
+    /**
+     * キャッシュしている情報を全て破棄する。
+     */
+    public void clear() {
+        loadingPlans.clear();
+        savingPlans.clear();
+        xmlLoadingPlans.clear();
+        xmlSavingPlans.clear();
+        columnIndexes.clear();
+        xmlColumnIndexes.clear();
+        callbacks.clear();
+        xmlCallbacks.clear();
+    }
+    
+}
@@ -0,0 +1,265 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.gh.mygreen.xlsmapper.annotation.XlsCell;
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsIsEmpty;
+import com.gh.mygreen.xlsmapper.annotation.XlsIterateTables;
+import com.gh.mygreen.xlsmapper.annotation.XlsLabelledCell;
+import com.gh.mygreen.xlsmapper.annotation.XlsMapColumns;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+import com.gh.mygreen.xlsmapper.annotation.XlsVerticalRecords;
+import com.gh.mygreen.xlsmapper.annotation.converter.XlsConverter;
+import com.gh.mygreen.xlsmapper.cellconvert.ConversionException;
+import com.gh.mygreen.xlsmapper.cellconvert.DefaultCellConverter;
+import com.gh.mygreen.xlsmapper.fieldprocessor.FieldAdaptor;
+import com.gh.mygreen.xlsmapper.fieldprocessor.RecordColumnIndex;
+import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
+
+
+/**
+ * シートにマッピングするクラスのアノテーション、プロセッサ、Converterを事前に解決・検証するクラス。
+ * <p>解決した情報は{@link SheetBindingPlanCache}に格納されるため、実際の読み込み・書き込み時には探索を行わない。
+ * <p>シートの内容に依存しない範囲での検証のみを行う。
+ *    見出しの位置など、シートを読み込まないと判定できない内容は、実際の処理時に検証される。
+ * <p>{@link XlsMapper#prepare(Class...)}から利用する。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class SheetBindingPreparer {
+    
+    private final XlsMapperConfig config;
+    
+    private final AnnotationReader annoReader;
+    
+    /** 検証済みのレコード、テーブルのクラス */
+    private final Set<Class<?>> preparedClasses = new HashSet<>();
+    
+    /**
+     * 設定とアノテーションの読み込みクラスを指定するコンストラクタ。
+     * @param config XlsMapperの設定
+     * @param annoReader アノテーションの読み込みクラス
+     * @throws IllegalArgumentException config or annoReader is null.
+     */
+    SheetBindingPreparer(final XlsMapperConfig config, final AnnotationReader annoReader) {
+        ArgUtils.notNull(config, "config");
+        ArgUtils.notNull(annoReader, "annoReader");
+        
+        this.config = config;
+        this.annoReader = annoReader;
+    }
+    
+    /**
+     * シートにマッピングするクラスの情報を解決し、検証する。
+     * @param clazz マッピング対象のクラス
+     * @throws XlsMapperException アノテーションの定義が不正な場合。Converterが見つからない場合。
+     * @throws IllegalArgumentException clazz is null.
+     */
+    void prepare(final Class<?> clazz) throws XlsMapperException {
+        ArgUtils.notNull(clazz, "clazz");
+        
+        final XlsSheet sheetAnno = clazz.getAnnotation(XlsSheet.class);
+        if(sheetAnno == null) {
+            throw new AnnotationInvalidException("Cannot finld annoation '@XlsSheet'", sheetAnno);
+        }
+        
+        final SheetBindingPlanCache cache = config.getBindingPlanCache();
+        
+        final SheetBindingPlan loadingPlan = cache.getLoadingPlan(clazz, annoReader, config.getFieldProcessorRegistry());
+        for(FieldAdaptorProxy proxy : loadingPlan.getAdaptorProxies()) {
+            prepareProperty(proxy.getAnnotation(), proxy.getAdaptor(), true);
+        }
+        
+        final SheetBindingPlan savingPlan = cache.getSavingPlan(clazz, annoReader, config.getFieldProcessorRegistry());
+        for(FieldAdaptorProxy proxy : savingPlan.getAdaptorProxies()) {
+            prepareProperty(proxy.getAnnotation(), proxy.getAdaptor(), false);
+        }
+    
+    }
+    
+    private void prepareProperty(final Annotation anno, final FieldAdaptor adaptor, final boolean onLoad)
+            throws XlsMapperException {
+        
+        if(anno instanceof XlsCell) {
+            final XlsCell cellAnno = (XlsCell) anno;
+            if(Utils.isNotEmpty(cellAnno.address()) && Utils.parseCellAddress(cellAnno.address()) == null) {
+                throw new AnnotationInvalidException("@XlsCell attribute 'address' cannot be valid address.", cellAnno);
+            }
+            
+            prepareConverter(adaptor, onLoad);
+        
+        } else if(anno instanceof XlsLabelledCell) {
+            prepareConverter(adaptor, onLoad);
+        
+        } else if(anno instanceof XlsHorizontalRecords) {
+            final XlsHorizontalRecords recordsAnno = (XlsHorizontalRecords) anno;
+            if(Utils.isNotEmpty(recordsAnno.headerAddress()) && Utils.parseCellAddress(recordsAnno.headerAddress()) == null) {
+                throw new AnnotationInvalidException(
+                        String.format("@XlsHorizontalRecors#headerAddress is wrong cell address '%s'.", recordsAnno.headerAddress()), recordsAnno);
+            }
+            
+            final Class<?> recordClass = getElementClass(adaptor, recordsAnno.recordClass(), onLoad, anno);
+            prepareRecordClass(recordClass);
+        
+        } else if(anno instanceof XlsVerticalRecords) {
+            final XlsVerticalRecords recordsAnno = (XlsVerticalRecords) anno;
+            if(Utils.isNotEmpty(recordsAnno.headerAddress()) && Utils.parseCellAddress(recordsAnno.headerAddress()) == null) {
+                throw new AnnotationInvalidException(
+                        String.format("@XlsVerticalRecords#headerAddress is wrong cell address '%s'.", recordsAnno.headerAddress()), recordsAnno);
+            }
+            
+            final Class<?> recordClass = getElementClass(adaptor, recordsAnno.recordClass(), onLoad, anno);
+            prepareRecordClass(recordClass);
+        
+        } else if(anno instanceof XlsIterateTables) {
+            final XlsIterateTables tablesAnno = (XlsIterateTables) anno;
+            final Class<?> tableClass = getElementClass(adaptor, tablesAnno.tableClass(), onLoad, anno);
+            prepareTableClass(tableClass);
+        }
+    
+    }
+    
+    /**
+     * レコードやテーブルのクラスを取得する。
+     * <p>アノテーションで指定されていない場合は、ListやArrayの要素のクラスを取得する。
+     */
+    private Class<?> getElementClass(final FieldAdaptor adaptor, final Class<?> annoClass, final boolean onLoad,
+            final Annotation anno) throws AnnotationInvalidException {
+        
+        final Class<?> clazz = adaptor.getTargetClass();
+        if(!Collection.class.isAssignableFrom(clazz) && !clazz.isArray()) {
+            throw new AnnotationInvalidException(
+                    String.format("Annotation '@%s' should only granted List or Array. : %s",
+                            anno.annotationType().getSimpleName(), clazz.getName()),
+                            anno);
+        }
+        
+        if(annoClass != Object.class) {
+            return annoClass;
+        }
+        
+        return onLoad ? adaptor.getLoadingGenericClassType() : adaptor.getSavingGenericClassType();
+    }
+    
+    /**
+     * レコードのクラスの情報を解決し、検証する。
+     */
+    private void prepareRecordClass(final Class<?> recordClass) throws XlsMapperException {
+        
+        if(!preparedClasses.add(recordClass)) {
+            return;
+        }
+        
+        final SheetBindingPlanCache cache = config.getBindingPlanCache();
+        prepareCallbacks(recordClass);
+        
+        final RecordColumnIndex columnIndex = cache.getRecordColumnIndex(recordClass, annoReader);
+        for(FieldAdaptor property : columnIndex.getLoadingColumnProperties()) {
+            prepareConverter(property, true);
+        }
+        
+        for(FieldAdaptor property : columnIndex.getSavingColumnProperties()) {
+            prepareConverter(property, false);
+        }
+        
+        for(FieldAdaptor property : columnIndex.getLoadingMapColumnProperties()) {
+            final XlsMapColumns mapAnno = property.getLoadingAnnotation(XlsMapColumns.class);
+            
+            Class<?> itemClass = mapAnno.itemClass();
+            if(itemClass == Object.class) {
+                itemClass = property.getLoadingGenericClassType();
+            }
+            prepareConverter(itemClass);
+        }
+        
+        for(FieldAdaptor property : columnIndex.getSavingMapColumnProperties()) {
+            final XlsMapColumns mapAnno = property.getSavingAnnotation(XlsMapColumns.class);
+            
+            Class<?> itemClass = mapAnno.itemClass();
+            if(itemClass == Object.class) {
+                itemClass = property.getSavingGenericClassType();
+            }
+            prepareConverter(itemClass);
+        }
+    
+    }
+    
+    /**
+     * {@link XlsIterateTables}のテーブルのクラスの情報を解決し、検証する。
+     */
+    private void prepareTableClass(final Class<?> tableClass) throws XlsMapperException {
+        
+        if(!preparedClasses.add(tableClass)) {
+            return;
+        }
+        
+        prepareCallbacks(tableClass);
+        
+        for(FieldAdaptor property : Utils.getLoadingPropertiesWithAnnotation(tableClass, annoReader, XlsLabelledCell.class)) {
+            prepareConverter(property, true);
+        }
+        
+        for(FieldAdaptor property : Utils.getSavingPropertiesWithAnnotation(tableClass, annoReader, XlsLabelledCell.class)) {
+            prepareConverter(property, false);
+        }
+        
+        for(FieldAdaptor property : Utils.getLoadingPropertiesWithAnnotation(tableClass, annoReader, XlsHorizontalRecords.class)) {
+            prepareProperty(property.getLoadingAnnotation(XlsHorizontalRecords.class), property, true);
+        }
+        
+        for(FieldAdaptor property : Utils.getSavingPropertiesWithAnnotation(tableClass, annoReader, XlsHorizontalRecords.class)) {
+            prepareProperty(property.getSavingAnnotation(XlsHorizontalRecords.class), property, false);
+        }
+    
+    }
+    
+    /**
+     * コールバックメソッドの情報を解決し、{@link XlsIsEmpty}が付与されたメソッドのシグネチャを検証する。
+     */
+    private void prepareCallbacks(final Class<?> targetClass) throws XlsMapperException {
+        
+        final LifecycleCallbacks callbacks = config.getBindingPlanCache().getLifecycleCallbacks(targetClass, annoReader);
+        
+        final Method isEmptyMethod = callbacks.getIsEmptyMethod();
+        if(isEmptyMethod != null) {
+            if(isEmptyMethod.getParameterTypes().length != 0
+                    || (isEmptyMethod.getReturnType() != boolean.class && isEmptyMethod.getReturnType() != Boolean.class)) {
+                throw new AnnotationInvalidException(
+                        String.format("@XlsIsEmpty should be appended method that no args and returning boolean type."),
+                        callbacks.getIsEmptyAnnotation());
+            }
+        }
+    }
+    
+    /**
+     * プロパティに対するConverterを解決する。
+     * <p>アノテーション{@link XlsConverter#converterClass()}が設定されている場合は、そのインスタンスを作成できるか検証する。
+     */
+    private void prepareConverter(final FieldAdaptor adaptor, final boolean onLoad) throws XlsMapperException {
+        
+        final XlsConverter converterAnno = onLoad ? adaptor.getLoadingAnnotation(XlsConverter.class)
+                : adaptor.getSavingAnnotation(XlsConverter.class);
+        
+        if(converterAnno != null && !converterAnno.converterClass().equals(DefaultCellConverter.class)) {
+            config.createBean(converterAnno.converterClass());
+        } else {
+            prepareConverter(adaptor.getTargetClass());
+        }
+    }
+    
+    private void prepareConverter(final Class<?> targetType) throws ConversionException {
+        if(config.getConverterRegistry().getConverter(targetType) == null) {
+            throw new ConversionException(
+                    String.format("not found CellConverter for type '%s'.", targetType.getName()),
+                    targetType);
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.gh.mygreen.xlsmapper;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+
+/**
+ * シートの最大列数を保持するクラス。
+ * <p>{@link POIUtils#getColumns(Sheet)}は全ての行を走査するため、ループの条件などで繰り返し呼ばれると負荷が高い。
+ *    一度計算した値を保持し、{@link POIUtils#getCell(Sheet, int, int)}などでセルを作成した場合はその列を反映する。
+ *    {@link POIUtils#insertRow(Sheet, int)}、{@link POIUtils#removeRow(Sheet, int)}で行を追加・削除した場合は、次の取得時に計算し直す。
+ * <p>読み込み・書き込み処理の間だけ{@link SheetScope#enableExtents()}で有効にする。
+ *    有効でないシートに対しては、従来通り全ての行を走査して計算する。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class SheetExtents {
+    
+    /**
+     * 実行中のスレッドで有効な、シートに対するインスタンスを取得する。
+     * @param sheet 対象のシート
+     * @return 有効でない場合はnullを返す。
+     */
+    static SheetExtents get(final Sheet sheet) {
+        final SheetScope scope = SheetScope.find(sheet);
+        return scope != null ? scope.getExtents() : null;
+    }
+    
+    private final Sheet sheet;
+    
+    /** 最大列数。未計算の場合は-1。 */
+    private int columns = -1;
+    
+    SheetExtents(final Sheet sheet) {
+        this.sheet = sheet;
+    }
+    
+    /**
+     * シートの最大列数を取得する。
+     * @return {@link POIUtils#getColumns(Sheet)}と同じ値。
+     */
+    synchronized int getColumns() {
+        if(columns < 0) {
+            columns = computeColumns(sheet);
+        }
+        return columns;
+    }
+    
+    /**
+     * セルを作成したことを反映する。
+     * @param column 作成したセルの列番号
+     */
+    synchronized void cellCreated(final int column) {
+        if(columns >= 0 && column >= columns) {
+            columns = column + 1;
+        }
+    }
+    
+    /**
+     * 行の追加・削除により、計算し直すようにする。
+     */
+    synchronized void invalidate() {
+        columns = -1;
+    }
+    
+    /**
+     * 全ての行を走査して、シートの最大列数を計算する。
+     * @param sheet 対象のシート
+     * @return
+     */
+    static int computeColumns(final Sheet sheet) {
+        
+        int minRowIndex = sheet.getFirstRowNum();
+        int maxRowIndex = sheet.getLastRowNum();
+        int maxColumnsIndex = 0;
+        for(int i = minRowIndex; i <= maxRowIndex; i++) {
+            final Row row = sheet.getRow(i);
+            if(row == null) {
+                continue;
+            }
+            
+            final int column = row.getLastCellNum();
+            if(column > maxColumnsIndex) {
+                maxColumnsIndex = column;
+            }
+        }
+        
+        return maxColumnsIndex;
+    }
+
+}
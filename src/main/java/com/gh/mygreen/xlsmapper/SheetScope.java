@@ -0,0 +1,191 @@
+package com.gh.mygreen.xlsmapper;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+
+/**
+ * 1つのシートを読み込み・書き込みする間だけ有効な、シートの索引などの状態を保持するクラス。
+ * <p>{@link LoadingWorkObject}、{@link SavingWorkObject}ごとに{@link #open(Sheet)}で作成し、処理の終了時に{@link #close()}で破棄する。
+ *    作成したスレッドでのみ有効となり、{@link Utils#getCell(Sheet, String, int, XlsMapperConfig)}などの検索処理は、
+ *    実行中のスレッドで有効な状態を{@link #find(Sheet)}で取得する。
+ * <p>読み込み処理の中から別の読み込み・書き込みを呼び出した場合も、状態は入れ子に保持し、終了時に呼び出し元の状態に戻す。
+ *    他のスレッドや、処理を終えた後の検索には影響しない。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class SheetScope {
+    
+    /** 実行中のスレッドで最も内側の状態 */
+    private static final ThreadLocal<SheetScope> CURRENT = new ThreadLocal<>();
+    
+    private final Sheet sheet;
+    
+    /** 呼び出し元の状態。存在しない場合はnull。 */
+    private final SheetScope parent;
+    
+    /** ラベルの索引。有効でない場合はnull。 */
+    private CellLabelIndex labelIndex;
+    
+    /** 結合範囲の索引。有効でない場合はnull。 */
+    private MergedRegionIndex mergedRegionIndex;
+    
+    /** シートの最大列数。有効でない場合はnull。 */
+    private SheetExtents extents;
+    
+    /** 読み込み専用として扱うかどうか */
+    private boolean readOnly;
+    
+    /** フォーマットしたセルの値のキャッシュ。有効でない場合はnull。 */
+    private CellTextCache textCache;
+    
+    private SheetScope(final Sheet sheet, final SheetScope parent) {
+        this.sheet = sheet;
+        this.parent = parent;
+    }
+    
+    /**
+     * シートに対する状態を作成し、実行中のスレッドで有効にする。
+     * @param sheet 対象のシート
+     * @return 作成した状態。索引などは、個別に有効にする。
+     */
+    static SheetScope open(final Sheet sheet) {
+        ArgUtils.notNull(sheet, "sheet");
+        
+        final SheetScope scope = new SheetScope(sheet, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+    
+    /**
+     * 実行中のスレッドで有効な、シートに対する状態を取得する。
+     * @param sheet 対象のシート
+     * @return 有効な状態が存在しない場合はnullを返す。
+     */
+    static SheetScope find(final Sheet sheet) {
+        
+        for(SheetScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            if(scope.sheet == sheet) {
+                return scope;
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * 状態を破棄し、呼び出し元の状態に戻す。
+     * @throws IllegalStateException 内側の状態が破棄されていない場合、または別のスレッドから呼び出した場合。
+     */
+    void close() {
+        
+        if(CURRENT.get() != this) {
+            throw new IllegalStateException("sheet scope is not current.");
+        }
+        
+        if(parent != null) {
+            CURRENT.set(parent);
+        } else {
+            CURRENT.remove();
+        }
+    }
+    
+    /**
+     * ラベルの索引を有効にする。
+     * <p>索引の作成は、最初の検索時に行う。
+     * @return 自身のインスタンス
+     */
+    SheetScope enableLabelIndex() {
+        this.labelIndex = new CellLabelIndex(sheet);
+        return this;
+    }
+    
+    /**
+     * ラベルの索引を取得する。
+     * @return 有効でない場合はnullを返す。
+     */
+    CellLabelIndex getLabelIndex() {
+        return labelIndex;
+    }
+    
+    /**
+     * 結合範囲の索引を有効にする。
+     * <p>索引の作成は、最初の検索時に行う。
+     * @return 自身のインスタンス
+     */
+    SheetScope enableMergedRegionIndex() {
+        this.mergedRegionIndex = new MergedRegionIndex(sheet);
+        return this;
+    }
+    
+    /**
+     * 結合範囲の索引を取得する。
+     * @return 有効でない場合はnullを返す。
+     */
+    MergedRegionIndex getMergedRegionIndex() {
+        return mergedRegionIndex;
+    }
+    
+    /**
+     * シートの最大列数の保持を有効にする。
+     * @return 自身のインスタンス
+     */
+    SheetScope enableExtents() {
+        this.extents = new SheetExtents(sheet);
+        return this;
+    }
+    
+    /**
+     * シートの最大列数を保持するインスタンスを取得する。
+     * @return 有効でない場合はnullを返す。
+     */
+    SheetExtents getExtents() {
+        return extents;
+    }
+    
+    /**
+     * シートを読み込み専用として扱うようにする。
+     * <p>読み込み専用のシートでは、{@link POIUtils#getCell(Sheet, int, int)}などで存在しない行やセルを参照しても作成せず、
+     *    変更不可なブランクセルを返す。
+     * @return 自身のインスタンス
+     */
+    SheetScope enableReadOnly() {
+        this.readOnly = true;
+        return this;
+    }
+    
+    /**
+     * 読み込み専用として扱うかどうか。
+     * @return 読み込み専用の場合はtrueを返す。
+     */
+    boolean isReadOnly() {
+        return readOnly;
+    }
+    
+    /**
+     * フォーマットしたセルの値のキャッシュを有効にする。
+     * @return 自身のインスタンス
+     */
+    SheetScope enableTextCache() {
+        this.textCache = new CellTextCache();
+        return this;
+    }
+    
+    /**
+     * フォーマットしたセルの値のキャッシュを取得する。
+     * @return 有効でない場合はnullを返す。
+     */
+    CellTextCache getTextCache() {
+        return textCache;
+    }
+    
+    /**
+     * 対象のシートを取得する。
+     * @return
+     */
+    Sheet getSheet() {
+        return sheet;
+    }
+
+}
@@ -0,0 +1,277 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+
+/**
+ * ストリーミングで読み込んだ、変更不可なセル。
+ * <p>シートのXML、またはレコードから読み込んだ値と書式のみを保持する。数式の場合は、ファイルに保存されている計算結果を値として保持する。
+ * <p>値を変更するメソッドを呼んだ場合は、{@link UnsupportedOperationException}をスローする。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class StreamingCell implements Cell {
+    
+    private final Sheet sheet;
+    
+    private final int column;
+    
+    private final int row;
+    
+    /** セルの値。ブランクの場合はnull。 */
+    private final CellValue value;
+    
+    private final CellStyle style;
+    
+    /**
+     * セルの位置と値を指定するコンストラクタ。
+     * @param sheet シート
+     * @param column 列番号
+     * @param row 行番号
+     * @param value セルの値。ブランクの場合はnull。
+     * @param style セルの書式
+     */
+    StreamingCell(final Sheet sheet, final int column, final int row, final CellValue value, final CellStyle style) {
+        this.sheet = sheet;
+        this.column = column;
+        this.row = row;
+        this.value = value;
+        this.style = style;
+    }
+    
+    private UnsupportedOperationException newReadOnlyException() {
+        return new UnsupportedOperationException(
+                String.format("cell '%s' is read only.", Utils.formatCellAddress(row, column)));
+    }
+    
+    private IllegalStateException newTypeMismatchException(final String type) {
+        return new IllegalStateException(
+                String.format("Cannot get a %s value from a cell '%s'.", type, Utils.formatCellAddress(row, column)));
+    }
+    
+    @Override
+    public int getColumnIndex() {
+        return column;
+    }
+    
+    @Override
+    public int getRowIndex() {
+        return row;
+    }
+    
+    @Override
+    public Sheet getSheet() {
+        return sheet;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @return 行は保持しないため、常にnullを返す。
+     */
+    @Override
+    public Row getRow() {
+        return null;
+    }
+    
+    @Override
+    public int getCellType() {
+        return value != null ? value.getCellType() : CELL_TYPE_BLANK;
+    }
+    
+    @Override
+    public int getCachedFormulaResultType() {
+        throw new IllegalStateException("Only formula cells have cached results");
+    }
+    
+    @Override
+    public String getCellFormula() {
+        throw new IllegalStateException("Cannot get a formula value from a streaming cell");
+    }
+    
+    @Override
+    public double getNumericCellValue() {
+        switch(getCellType()) {
+            case CELL_TYPE_BLANK:
+                return 0.0;
+            case CELL_TYPE_NUMERIC:
+                return value.getNumberValue();
+            default:
+                throw newTypeMismatchException("numeric");
+        }
+    }
+    
+    @Override
+    public Date getDateCellValue() {
+        if(getCellType() == CELL_TYPE_BLANK) {
+            return null;
+        }
+        
+        return DateUtil.getJavaDate(getNumericCellValue(), POIUtils.isDate1904(sheet.getWorkbook()));
+    }
+    
+    @Override
+    public RichTextString getRichStringCellValue() {
+        return sheet.getWorkbook().getCreationHelper().createRichTextString(getStringCellValue());
+    }
+    
+    @Override
+    public String getStringCellValue() {
+        switch(getCellType()) {
+            case CELL_TYPE_BLANK:
+                return "";
+            case CELL_TYPE_STRING:
+                return value.getStringValue();
+            default:
+                throw newTypeMismatchException("text");
+        }
+    }
+    
+    @Override
+    public boolean getBooleanCellValue() {
+        switch(getCellType()) {
+            case CELL_TYPE_BLANK:
+                return false;
+            case CELL_TYPE_BOOLEAN:
+                return value.getBooleanValue();
+            default:
+                throw newTypeMismatchException("boolean");
+        }
+    }
+    
+    @Override
+    public byte getErrorCellValue() {
+        if(getCellType() != CELL_TYPE_ERROR) {
+            throw newTypeMismatchException("error");
+        }
+        return value.getErrorValue();
+    }
+    
+    @Override
+    public CellStyle getCellStyle() {
+        return style;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @return コメントは読み込まないため、常にnullを返す。
+     */
+    @Override
+    public Comment getCellComment() {
+        return null;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @return リンクは読み込まないため、常にnullを返す。
+     */
+    @Override
+    public Hyperlink getHyperlink() {
+        return null;
+    }
+    
+    @Override
+    public CellRangeAddress getArrayFormulaRange() {
+        throw new IllegalStateException(
+                String.format("Cell %s is not part of an array formula.", Utils.formatCellAddress(row, column)));
+    }
+    
+    @Override
+    public boolean isPartOfArrayFormulaGroup() {
+        return false;
+    }
+    
+    @Override
+    public void setCellType(final int cellType) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final double value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final Date value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final Calendar value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final RichTextString value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final String value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellFormula(final String formula) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellValue(final boolean value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellErrorValue(final byte value) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellStyle(final CellStyle style) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setAsActiveCell() {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setCellComment(final Comment comment) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void removeCellComment() {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void setHyperlink(final Hyperlink link) {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public void removeHyperlink() {
+        throw newReadOnlyException();
+    }
+    
+    @Override
+    public String toString() {
+        return value != null ? value.formatAsString() : "";
+    }
+
+}
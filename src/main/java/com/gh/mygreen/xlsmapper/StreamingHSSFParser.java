@@ -0,0 +1,354 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.model.InternalWorkbook;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.MulRKRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.RKRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.Sheet;
+
+
+/**
+ * Excel(.xls)のレコードをイベントモデルで読み込み、1行ずつ処理するクラス。
+ * <p>ワークブック全体の情報（書式、共有文字列など）を読み込んだ後、{@link SheetHandler}で選択したシートの行のみを処理する。
+ *    セルの書式を参照できるよう、ワークブック全体の情報のみを保持した、シートを持たないワークブックを作成する。
+ * <p>数式のセルは、ファイルに保存されている計算結果を値とする。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class StreamingHSSFParser extends AbortableHSSFListener {
+    
+    /** 読み込みを続ける場合の戻り値 */
+    private static final short CONTINUE = 0;
+    
+    /** 読み込みを中断する場合の戻り値 */
+    private static final short ABORT = 1;
+    
+    /**
+     * 読み込むシートを選択し、行を処理するハンドラ。
+     */
+    interface SheetHandler {
+        
+        /**
+         * ワークブック全体の情報を読み込んだ後に、読み込むシートを選択する。
+         * @param sheetNames ワークブックの順番に並べた、シートの名前
+         * @return 読み込むシートのインデックス
+         * @throws XlsMapperException シートが見つからない場合
+         */
+        int selectSheet(List<String> sheetNames) throws XlsMapperException;
+        
+        /**
+         * 選択したシートの読み込みを開始する。
+         * @param sheet 選択したシート。セルは保持しない。
+         * @return 行を処理するハンドラ。行を読み込む必要がない場合はnull。
+         * @throws XlsMapperException
+         */
+        StreamingSheetParser.RowHandler startSheet(Sheet sheet) throws XlsMapperException;
+        
+    }
+    
+    private final SheetHandler sheetHandler;
+    
+    /** ワークブック全体の情報のレコード */
+    private final List<Record> globalRecords = new ArrayList<>();
+    
+    private final List<BoundSheetRecord> boundSheets = new ArrayList<>();
+    
+    private InternalWorkbook internalWorkbook;
+    
+    /** 書式を参照するための、シートを持たないワークブック */
+    private HSSFWorkbook workbook;
+    
+    /** BOFレコードの入れ子の深さ */
+    private int depth;
+    
+    /** ファイル中のシートの位置 */
+    private int sheetPosition = -1;
+    
+    /** 読み込むシートのファイル中の位置 */
+    private int targetPosition = -1;
+    
+    /** 読み込むシートの情報 */
+    private BoundSheetRecord targetSheet;
+    
+    /** 読み込んでいるシート。読み込むシートでない場合はnull。 */
+    private Sheet sheet;
+    
+    private StreamingSheetParser.RowHandler rowHandler;
+    
+    /** 書式のインデックスごとのキャッシュ */
+    private final Map<Integer, CellStyle> styles = new HashMap<>();
+    
+    private int currentRow = -1;
+    
+    private SortedMap<Integer, Cell> cells = new TreeMap<>();
+    
+    /** 文字列の計算結果を、続くStringRecordで受け取る数式のレコード */
+    private FormulaRecord pendingFormula;
+    
+    StreamingHSSFParser(final SheetHandler sheetHandler) {
+        this.sheetHandler = sheetHandler;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>処理中に発生した{@link XlsMapperException}は、{@link HSSFUserException}でラップしてスローする。
+     */
+    @Override
+    public short abortableProcessRecord(final Record record) throws HSSFUserException {
+        try {
+            return process(record) ? CONTINUE : ABORT;
+        } catch(XlsMapperException e) {
+            throw new HSSFUserException(e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * レコードを処理する。
+     * @return 読み込みを続ける場合はtrueを返す。
+     */
+    private boolean process(final Record record) throws XlsMapperException {
+        
+        if(record instanceof BOFRecord) {
+            depth++;
+            if(workbook == null) {
+                globalRecords.add(record);
+                
+            } else if(depth == 1 && ((BOFRecord) record).getType() != BOFRecord.TYPE_WORKBOOK) {
+                sheetPosition++;
+                if(sheetPosition == targetPosition) {
+                    return startSheet();
+                }
+            }
+            
+            return true;
+        }
+        
+        if(record instanceof EOFRecord) {
+            depth--;
+            if(workbook == null) {
+                globalRecords.add(record);
+                if(depth == 0) {
+                    createWorkbook();
+                }
+                return true;
+            }
+            
+            if(depth == 0 && sheet != null) {
+                // 読み込むシートの終わり
+                flushPendingFormula();
+                flushRow();
+                return false;
+            }
+            
+            return true;
+        }
+        
+        if(workbook == null) {
+            if(record instanceof BoundSheetRecord) {
+                boundSheets.add((BoundSheetRecord) record);
+            } else {
+                globalRecords.add(record);
+            }
+            return true;
+        }
+        
+        if(sheet == null || depth != 1) {
+            return true;
+        }
+        
+        if(record instanceof StringRecord) {
+            if(pendingFormula != null) {
+                final FormulaRecord formula = pendingFormula;
+                pendingFormula = null;
+                return addCell(formula.getRow(), formula.getColumn(),
+                        new CellValue(((StringRecord) record).getString()), formula.getXFIndex());
+            }
+            return true;
+        }
+        
+        if(!flushPendingFormula()) {
+            return false;
+        }
+        
+        if(record instanceof NumberRecord) {
+            final NumberRecord number = (NumberRecord) record;
+            return addCell(number.getRow(), number.getColumn(), new CellValue(number.getValue()), number.getXFIndex());
+            
+        } else if(record instanceof RKRecord) {
+            final RKRecord rk = (RKRecord) record;
+            return addCell(rk.getRow(), rk.getColumn(), new CellValue(rk.getRKNumber()), rk.getXFIndex());
+            
+        } else if(record instanceof MulRKRecord) {
+            final MulRKRecord mulRk = (MulRKRecord) record;
+            for(int i=0; i < mulRk.getNumColumns(); i++) {
+                if(!addCell(mulRk.getRow(), mulRk.getFirstColumn() + i, new CellValue(mulRk.getRKNumberAt(i)), mulRk.getXFAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+            
+        } else if(record instanceof LabelSSTRecord) {
+            final LabelSSTRecord label = (LabelSSTRecord) record;
+            final String value = internalWorkbook.getSSTString(label.getSSTIndex()).getString();
+            return addCell(label.getRow(), label.getColumn(), new CellValue(value), label.getXFIndex());
+            
+        } else if(record instanceof LabelRecord) {
+            final LabelRecord label = (LabelRecord) record;
+            return addCell(label.getRow(), label.getColumn(), new CellValue(label.getValue()), label.getXFIndex());
+            
+        } else if(record instanceof BoolErrRecord) {
+            final BoolErrRecord boolErr = (BoolErrRecord) record;
+            final CellValue value = boolErr.isBoolean() ? CellValue.valueOf(boolErr.getBooleanValue())
+                    : CellValue.getError(boolErr.getErrorValue());
+            return addCell(boolErr.getRow(), boolErr.getColumn(), value, boolErr.getXFIndex());
+            
+        } else if(record instanceof FormulaRecord) {
+            return addFormulaCell((FormulaRecord) record);
+            
+        } else if(record instanceof BlankRecord) {
+            final BlankRecord blank = (BlankRecord) record;
+            return addCell(blank.getRow(), blank.getColumn(), null, blank.getXFIndex());
+            
+        } else if(record instanceof MulBlankRecord) {
+            final MulBlankRecord mulBlank = (MulBlankRecord) record;
+            for(int i=0; i < mulBlank.getNumColumns(); i++) {
+                if(!addCell(mulBlank.getRow(), mulBlank.getFirstColumn() + i, null, mulBlank.getXFAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * ワークブック全体の情報から、シートを持たないワークブックを作成し、読み込むシートを選択する。
+     */
+    private void createWorkbook() throws XlsMapperException {
+        
+        this.internalWorkbook = InternalWorkbook.createWorkbook(globalRecords);
+        this.workbook = HSSFWorkbook.create(internalWorkbook);
+        globalRecords.clear();
+        
+        final List<String> sheetNames = new ArrayList<>();
+        for(BoundSheetRecord boundSheet : boundSheets) {
+            sheetNames.add(boundSheet.getSheetname());
+        }
+        
+        // シートの順番と、ファイル中のシートの位置は異なる場合がある
+        this.targetSheet = boundSheets.get(sheetHandler.selectSheet(sheetNames));
+        this.targetPosition = Arrays.asList(BoundSheetRecord.orderByBofPosition(boundSheets)).indexOf(targetSheet);
+    }
+    
+    private boolean startSheet() throws XlsMapperException {
+        
+        final Sheet sheet = workbook.createSheet(targetSheet.getSheetname());
+        this.rowHandler = sheetHandler.startSheet(sheet);
+        if(rowHandler == null) {
+            return false;
+        }
+        
+        this.sheet = sheet;
+        return true;
+    }
+    
+    private boolean addFormulaCell(final FormulaRecord formula) throws XlsMapperException {
+        
+        final CellValue value;
+        switch(formula.getCachedResultType()) {
+            case Cell.CELL_TYPE_STRING:
+                // 計算結果は、続くStringRecordに格納されている
+                pendingFormula = formula;
+                return true;
+            case Cell.CELL_TYPE_BOOLEAN:
+                value = CellValue.valueOf(formula.getCachedBooleanValue());
+                break;
+            case Cell.CELL_TYPE_ERROR:
+                value = CellValue.getError(formula.getCachedErrorValue());
+                break;
+            default:
+                value = new CellValue(formula.getValue());
+                break;
+        }
+        
+        return addCell(formula.getRow(), formula.getColumn(), value, formula.getXFIndex());
+    }
+    
+    /**
+     * StringRecordが続かない、計算結果が空文字の数式のセルを追加する。
+     */
+    private boolean flushPendingFormula() throws XlsMapperException {
+        if(pendingFormula == null) {
+            return true;
+        }
+        
+        final FormulaRecord formula = pendingFormula;
+        pendingFormula = null;
+        return addCell(formula.getRow(), formula.getColumn(), new CellValue(""), formula.getXFIndex());
+    }
+    
+    private boolean addCell(final int row, final int column, final CellValue value, final int xfIndex)
+            throws XlsMapperException {
+        
+        boolean next = true;
+        if(row != currentRow) {
+            next = flushRow();
+            currentRow = row;
+        }
+        
+        cells.put(column, new StreamingCell(sheet, column, row, value, getCellStyle(xfIndex)));
+        return next;
+    }
+    
+    /**
+     * 読み込んだ行をハンドラに渡す。
+     * @return 読み込みを続ける場合はtrueを返す。
+     */
+    private boolean flushRow() throws XlsMapperException {
+        if(cells.isEmpty()) {
+            return true;
+        }
+        
+        final boolean next = rowHandler.row(currentRow, cells);
+        cells = new TreeMap<>();
+        return next;
+    }
+    
+    private CellStyle getCellStyle(final int xfIndex) {
+        CellStyle style = styles.get(xfIndex);
+        if(style == null) {
+            style = workbook.getCellStyleAt((short) xfIndex);
+            styles.put(xfIndex, style);
+        }
+        return style;
+    }
+
+}
@@ -0,0 +1,576 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.awt.Point;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Sheet;
+
+import com.gh.mygreen.xlsmapper.annotation.RecordTerminal;
+import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsMapColumns;
+import com.gh.mygreen.xlsmapper.annotation.converter.XlsConverter;
+import com.gh.mygreen.xlsmapper.cellconvert.CellConverter;
+import com.gh.mygreen.xlsmapper.cellconvert.ConversionException;
+import com.gh.mygreen.xlsmapper.cellconvert.DefaultCellConverter;
+import com.gh.mygreen.xlsmapper.cellconvert.TypeBindException;
+import com.gh.mygreen.xlsmapper.fieldprocessor.CellNotFoundException;
+import com.gh.mygreen.xlsmapper.fieldprocessor.FieldAdaptor;
+import com.gh.mygreen.xlsmapper.fieldprocessor.RecordColumnIndex;
+import com.gh.mygreen.xlsmapper.fieldprocessor.RecordHeader;
+import com.gh.mygreen.xlsmapper.fieldprocessor.RecordsProcessorUtil;
+
+
+/**
+ * ストリーミングで読み込んだ行から、アノテーション{@link XlsHorizontalRecords}のレコードを読み込むクラス。
+ * <p>{@link com.gh.mygreen.xlsmapper.fieldprocessor.processor.HorizontalRecordsProcessor}と同じ規則で、
+ *    見出しとレコードを読み込む。ただし、前の行を参照できないため、以下の点が異なる。
+ * <ul>
+ *   <li>表の見出しの結合セルは考慮しない。結合している見出しは、属性{@link XlsHorizontalRecords#range()}で指定する。</li>
+ *   <li>属性{@link XlsColumn#merged()}の結合セルは、値が空のセルの上方向で、最も近い値を持つセルの値とする。</li>
+ * </ul>
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class StreamingHorizontalRecords {
+    
+    /** 読み込みの状態 */
+    private enum State {
+        /** 表のラベルを検索中 */
+        WAIT_LABEL,
+        /** 見出しの行を待機中 */
+        WAIT_HEADER,
+        /** レコードを読み込み中 */
+        RECORDS,
+        /** 読み込みが完了 */
+        COMPLETED,
+    }
+    
+    /** ファイルに存在しない行のセル */
+    private static final SortedMap<Integer, Cell> EMPTY_CELLS =
+            Collections.unmodifiableSortedMap(new TreeMap<Integer, Cell>());
+    
+    private final Sheet sheet;
+    
+    private final Object beanObj;
+    
+    private final XlsHorizontalRecords anno;
+    
+    private final FieldAdaptor adaptor;
+    
+    private final XlsMapperConfig config;
+    
+    private final LoadingWorkObject work;
+    
+    /** レコードを受け取るリスナー。指定されていない場合はnull。 */
+    private final StreamingRecordListener listener;
+    
+    private final Class<?> recordClass;
+    
+    private final RecordColumnIndex columnIndex;
+    
+    private final LifecycleCallbacks callbacks;
+    
+    private final RecordTerminal terminal;
+    
+    /** 属性mergedが有効なカラムがあるかどうか */
+    private final boolean hasMergedColumn;
+    
+    /** 読み込んだレコード。リスナーが指定されている場合はnull。 */
+    private final List<Object> records;
+    
+    private State state;
+    
+    /** ラベルを未設定かどうか */
+    private boolean labelPending;
+    
+    private int headerColumn;
+    
+    private int headerRow;
+    
+    private List<RecordHeader> headers;
+    
+    private int startHeaderIndex;
+    
+    /** 次に読み込むレコードの行番号 */
+    private int nextRow;
+    
+    /** 読み込んだレコードの件数 */
+    private int recordCount;
+    
+    /** 属性mergedのカラムで参照する、列ごとの上方向で最も近い値を持つセル */
+    private final Map<Integer, Cell> upperCells = new HashMap<>();
+    
+    /**
+     * 読み込みに必要な情報を指定するコンストラクタ。
+     * @param sheet 読み込み対象のシート
+     * @param beanObj シートのマッピング先のオブジェクト
+     * @param anno プロパティに付与されたアノテーション
+     * @param adaptor レコードを保持するプロパティ
+     * @param config システム設定
+     * @param work 読み込み時の情報
+     * @param listener レコードを受け取るリスナー。リストに保持する場合はnull。
+     * @throws XlsMapperException アノテーションの定義が不正な場合。
+     */
+    StreamingHorizontalRecords(final Sheet sheet, final Object beanObj, final XlsHorizontalRecords anno,
+            final FieldAdaptor adaptor, final XlsMapperConfig config, final LoadingWorkObject work,
+            final StreamingRecordListener listener) throws XlsMapperException {
+        
+        this.sheet = sheet;
+        this.beanObj = beanObj;
+        this.anno = anno;
+        this.adaptor = adaptor;
+        this.config = config;
+        this.work = work;
+        this.listener = listener;
+        
+        final Class<?> clazz = adaptor.getTargetClass();
+        if(!Collection.class.isAssignableFrom(clazz) && !clazz.isArray()) {
+            throw new AnnotationInvalidException(
+                    String.format("Annotation '@%s' should only granted List or Array. : %s", 
+                            XlsHorizontalRecords.class.getSimpleName(), clazz.getName()),
+                            anno);
+        }
+        
+        this.recordClass = anno.recordClass() == Object.class ? adaptor.getLoadingGenericClassType() : anno.recordClass();
+        this.columnIndex = config.getBindingPlanCache().getRecordColumnIndex(recordClass, work.getAnnoReader());
+        this.callbacks = config.getBindingPlanCache().getLifecycleCallbacks(recordClass, work.getAnnoReader());
+        this.terminal = anno.terminal() != null ? anno.terminal() : RecordTerminal.Empty;
+        this.records = listener == null ? new ArrayList<Object>() : null;
+        
+        boolean merged = false;
+        for(FieldAdaptor property : columnIndex.getLoadingColumnProperties()) {
+            if(property.getLoadingAnnotation(XlsColumn.class).merged()) {
+                merged = true;
+                break;
+            }
+        }
+        this.hasMergedColumn = merged;
+        
+        this.labelPending = Utils.isNotEmpty(anno.tableLabel());
+        if(Utils.isNotEmpty(anno.headerAddress())) {
+            final Point address = Utils.parseCellAddress(anno.headerAddress());
+            if(address == null) {
+                throw new AnnotationInvalidException(
+                        String.format("@XlsHorizontalRecors#headerAddress is wrong cell address '%s'.", anno.headerAddress()), anno);
+            }
+            
+            this.headerColumn = address.x;
+            this.headerRow = address.y;
+            this.state = State.WAIT_HEADER;
+            
+        } else if(Utils.isNotEmpty(anno.tableLabel())) {
+            this.state = State.WAIT_LABEL;
+            
+        } else {
+            if(anno.headerColumn() < 0 || anno.headerRow() < 0) {
+                throw new AnnotationInvalidException(
+                        String.format("@XlsHorizontalRecors#headerColumn or headerRow soulde be greather than or equal zero. (headerColulmn=%d, headerRow=%d)",
+                                anno.headerColumn(), anno.headerRow()), anno);
+            }
+            
+            this.headerColumn = anno.headerColumn();
+            this.headerRow = anno.headerRow();
+            this.state = State.WAIT_HEADER;
+        }
+    }
+    
+    /**
+     * 読み込みが完了したかどうか。
+     * @return 以降の行を読み込む必要がない場合はtrueを返す。
+     */
+    boolean isCompleted() {
+        return state == State.COMPLETED && !labelPending;
+    }
+    
+    /**
+     * 読み込んだ行を処理する。
+     * @param rowIndex 行番号
+     * @param cells 列番号順に並べた、行のセル
+     * @throws XlsMapperException
+     */
+    void row(final int rowIndex, final SortedMap<Integer, Cell> cells) throws XlsMapperException {
+        
+        if(labelPending) {
+            final Cell labelCell = findLabelCell(cells);
+            if(labelCell != null) {
+                labelPending = false;
+                Utils.setLabel(POIUtils.getCellContents(labelCell, config.getCellFormatter()), beanObj, adaptor.getName());
+                
+                if(state == State.WAIT_LABEL) {
+                    headerColumn = labelCell.getColumnIndex();
+                    headerRow = rowIndex + anno.bottom();
+                    state = State.WAIT_HEADER;
+                }
+            }
+        }
+        
+        if(state == State.WAIT_HEADER) {
+            if(rowIndex < headerRow) {
+                return;
+            }
+            
+            // 見出しの行が存在しない場合は、空の行として処理する
+            loadHeaders(rowIndex == headerRow ? cells : emptyCells());
+            if(rowIndex == headerRow) {
+                return;
+            }
+        }
+        
+        if(state == State.RECORDS) {
+            // ファイルに存在しない行は、空の行として処理する
+            while(nextRow < rowIndex && state == State.RECORDS) {
+                loadRecord(nextRow, emptyCells());
+                nextRow++;
+            }
+            
+            if(state == State.RECORDS) {
+                loadRecord(rowIndex, cells);
+                nextRow++;
+            }
+        }
+    }
+    
+    /**
+     * シートの最後の行まで読み込んだときに呼び出し、レコードをプロパティに設定する。
+     * @throws XlsMapperException 表が見つからない場合。
+     */
+    void end() throws XlsMapperException {
+        
+        if(state == State.WAIT_LABEL) {
+            if(anno.optional()) {
+                state = State.COMPLETED;
+                return;
+            }
+            throw new CellNotFoundException(sheet.getSheetName(), anno.tableLabel());
+        }
+        
+        if(state == State.WAIT_HEADER) {
+            loadHeaders(emptyCells());
+        }
+        
+        state = State.COMPLETED;
+        if(records == null) {
+            return;
+        }
+        
+        final Class<?> clazz = adaptor.getTargetClass();
+        if(clazz.isArray()) {
+            final Object array = Array.newInstance(recordClass, records.size());
+            for(int i=0; i < records.size(); i++) {
+                Array.set(array, i, records.get(i));
+            }
+            adaptor.setValue(beanObj, array);
+            
+        } else {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Collection<?> collection = Utils.convertListToCollection(records, (Class<Collection>)clazz, config.getBeanFactory());
+            adaptor.setValue(beanObj, collection);
+        }
+    }
+    
+    private static SortedMap<Integer, Cell> emptyCells() {
+        return EMPTY_CELLS;
+    }
+    
+    private Cell getCell(final SortedMap<Integer, Cell> cells, final int column, final int row) {
+        final Cell cell = cells.get(column);
+        if(cell != null) {
+            return cell;
+        }
+        return new BlankCell(sheet, column, row);
+    }
+    
+    private boolean isEmptyCell(final Cell cell) {
+        return POIUtils.isEmptyCellContents(cell, config.getCellFormatter());
+    }
+    
+    private Cell findLabelCell(final SortedMap<Integer, Cell> cells) {
+        for(Cell cell : cells.values()) {
+            if(POIUtils.getCellContents(cell, config.getCellFormatter()).equals(anno.tableLabel())) {
+                return cell;
+            }
+        }
+        return null;
+    }
+    
+    private void loadHeaders(final SortedMap<Integer, Cell> cells) throws XlsMapperException {
+        
+        final List<RecordHeader> headers = new ArrayList<>();
+        int hColumn = headerColumn;
+        int rangeCount = 1;
+        
+        while(true) {
+            Cell cell = getCell(cells, hColumn, headerRow);
+            while(isEmptyCell(cell) && rangeCount < anno.range()) {
+                cell = getCell(cells, hColumn + rangeCount, headerRow);
+                rangeCount++;
+            }
+            
+            final String cellValue = POIUtils.getCellContents(cell, config.getCellFormatter());
+            if(Utils.isEmpty(cellValue)){
+                break;
+            }
+            
+            headers.add(new RecordHeader(cellValue, rangeCount - 1));
+            hColumn = hColumn + rangeCount;
+            rangeCount = 1;
+            
+            if(anno.headerLimit() > 0 && headers.size() >= anno.headerLimit()){
+                break;
+            }
+        }
+        
+        RecordsProcessorUtil.checkColumns(sheet, columnIndex, headers);
+        
+        this.headers = headers;
+        this.startHeaderIndex = getStartHeaderIndex(headers);
+        this.nextRow = headerRow + 1;
+        this.state = State.RECORDS;
+    }
+    
+    private int getStartHeaderIndex(final List<RecordHeader> headers) {
+        
+        for(int i=0; i < headers.size(); i++) {
+            if(!columnIndex.getLoadingColumnProperties(headers.get(i).getHeaderLabel()).isEmpty()) {
+                return i;
+            }
+        }
+        
+        return 0;
+    }
+    
+    private void loadRecord(final int rowIndex, final SortedMap<Integer, Cell> cells) throws XlsMapperException {
+        
+        int hColumn = headerColumn;
+        boolean emptyFlag = true;
+        final Object record = config.createBean(recordClass);
+        
+        // パスの位置の変更
+        work.getErrors().pushNestedPath(adaptor.getName(), recordCount);
+        
+        for(Method method : callbacks.getPreLoadMethods()) {
+            Utils.invokeNeedProcessMethod(method, record, sheet, config, work.getErrors());
+        }
+        
+        loadMapColumns(cells, hColumn, rowIndex, record);
+        
+        for(int i=0; i < headers.size(); i++) {
+            final RecordHeader headerInfo = headers.get(i);
+            hColumn = hColumn + headerInfo.getHeaderRange();
+            final Cell cell = getCell(cells, hColumn, rowIndex);
+            
+            if(!isEmptyCell(cell)) {
+                emptyFlag = false;
+            }
+            
+            if(terminal == RecordTerminal.Border && i == startHeaderIndex) {
+                final CellStyle format = cell.getCellStyle();
+                if(format != null && !(format.getBorderLeft() == CellStyle.BORDER_NONE)) {
+                    emptyFlag = false;
+                } else {
+                    emptyFlag = true;
+                    break;
+                }
+            }
+            
+            if(!anno.terminateLabel().equals("")) {
+                if(POIUtils.getCellContents(cell, config.getCellFormatter()).equals(anno.terminateLabel())) {
+                    emptyFlag = true;
+                    break;
+                }
+            }
+            
+            for(FieldAdaptor property : columnIndex.getLoadingColumnProperties(headerInfo.getHeaderLabel())) {
+                Cell valueCell = cell;
+                final XlsColumn column = property.getLoadingAnnotation(XlsColumn.class);
+                if(column.headerMerged() > 0) {
+                    valueCell = getCell(cells, hColumn + column.headerMerged(), rowIndex);
+                }
+                
+                // for merged cell
+                if(column.merged() && isEmptyCell(valueCell)) {
+                    final CellStyle valueCellFormat = valueCell.getCellStyle();
+                    final Cell upperCell = upperCells.get(valueCell.getColumnIndex());
+                    if(upperCell != null
+                            && (valueCellFormat == null || valueCellFormat.getBorderTop() == CellStyle.BORDER_NONE)) {
+                        valueCell = upperCell;
+                    }
+                }
+                
+                Utils.setPosition(valueCell.getColumnIndex(), valueCell.getRowIndex(), record, property.getName());
+                Utils.setLabel(headerInfo.getHeaderLabel(), record, property.getName());
+                final CellConverter<?> converter = getCellConverter(property);
+                try {
+                    final Object value = converter.toObject(valueCell, property, config);
+                    property.setValue(record, value);
+                } catch(TypeBindException e) {
+                    work.addTypeBindError(e, valueCell, property.getName(), headerInfo.getHeaderLabel());
+                    if(!config.isSkipTypeBindFailure()) {
+                        throw e;
+                    }
+                }
+            }
+            
+            hColumn++;
+        }
+        
+        if(hasMergedColumn) {
+            updateUpperCells(cells);
+        }
+        
+        if(emptyFlag) {
+            work.getErrors().popNestedPath();
+            state = State.COMPLETED;
+            return;
+        }
+        
+        final boolean accepted = !anno.skipEmptyRecord() || !isEmptyRecord(record);
+        
+        if(listener == null) {
+            for(Method method : callbacks.getPostLoadMethods()) {
+                work.addNeedPostProcess(new NeedProcess(record, method));
+            }
+            
+            if(accepted) {
+                records.add(record);
+            }
+            
+        } else {
+            // レコードを保持しないため、すぐに実行する
+            for(Method method : callbacks.getPostLoadMethods()) {
+                Utils.invokeNeedProcessMethod(method, record, sheet, config, work.getErrors());
+            }
+            
+            if(accepted) {
+                listener.onRecord(beanObj, adaptor.getName(), record);
+            }
+        }
+        
+        if(accepted) {
+            recordCount++;
+        }
+        
+        work.getErrors().popNestedPath();
+    }
+    
+    /**
+     * 属性mergedのカラムで参照するセルを更新する。
+     * <p>下罫線のあるセルより上のセルは参照しない。
+     */
+    private void updateUpperCells(final SortedMap<Integer, Cell> cells) {
+        
+        for(Cell cell : cells.values()) {
+            final CellStyle style = cell.getCellStyle();
+            if(style != null && style.getBorderBottom() != CellStyle.BORDER_NONE) {
+                upperCells.remove(cell.getColumnIndex());
+                
+            } else if(!isEmptyCell(cell)) {
+                upperCells.put(cell.getColumnIndex(), cell);
+            }
+        }
+    }
+    
+    private void loadMapColumns(final SortedMap<Integer, Cell> cells, final int beginColumn, final int row,
+            final Object record) throws XlsMapperException {
+        
+        for(FieldAdaptor property : columnIndex.getLoadingMapColumnProperties()) {
+            final XlsMapColumns mapAnno = property.getLoadingAnnotation(XlsMapColumns.class);
+            
+            Class<?> itemClass = mapAnno.itemClass();
+            if(itemClass == Object.class) {
+                itemClass = property.getLoadingGenericClassType();
+            }
+            
+            final CellConverter<?> converter = config.getConverterRegistry().getConverter(itemClass);
+            if(converter == null) {
+                throw newNotFoundConverterExpcetion(itemClass);
+            }
+            
+            int begin = beginColumn;
+            boolean flag = false;
+            final Map<String, Object> map = new LinkedHashMap<>();
+            for(RecordHeader headerInfo : headers) {
+                if(headerInfo.getHeaderLabel().equals(mapAnno.previousColumnName())){
+                    flag = true;
+                    begin++;
+                    continue;
+                }
+                
+                if(flag){
+                    final Cell cell = getCell(cells, begin + headerInfo.getHeaderRange(), row);
+                    Utils.setPositionWithMapColumn(cell.getColumnIndex(), cell.getRowIndex(), record, property.getName(), headerInfo.getHeaderLabel());
+                    Utils.setLabelWithMapColumn(headerInfo.getHeaderLabel(), record, property.getName(), headerInfo.getHeaderLabel());
+                    
+                    try {
+                        final Object value = converter.toObject(cell, property, config);
+                        map.put(headerInfo.getHeaderLabel(), value);
+                    } catch(TypeBindException e) {
+                        e.setBindClass(itemClass);  // マップの項目のタイプに変更
+                        work.addTypeBindError(e, cell, String.format("%s[%s]", property.getName(), headerInfo.getHeaderLabel()), headerInfo.getHeaderLabel());
+                        if(!config.isSkipTypeBindFailure()) {
+                            throw e;
+                        } 
+                    }
+                }
+                begin = begin + headerInfo.getHeaderRange() + 1;
+            }
+            
+            property.setValue(record, map);
+        }
+    }
+    
+    private CellConverter<?> getCellConverter(final FieldAdaptor property) throws XlsMapperException {
+        
+        final XlsConverter converterAnno = property.getLoadingAnnotation(XlsConverter.class);
+        if(converterAnno != null && !converterAnno.converterClass().equals(DefaultCellConverter.class)) {
+            return config.createBean(converterAnno.converterClass());
+        }
+        
+        final CellConverter<?> converter = config.getConverterRegistry().getConverter(property.getTargetClass());
+        if(converter == null) {
+            throw newNotFoundConverterExpcetion(property.getTargetClass());
+        }
+        
+        return converter;
+    }
+    
+    private ConversionException newNotFoundConverterExpcetion(final Class<?> targetType) {
+        return new ConversionException(
+                String.format("not found CellConverter for type '%s'.", targetType.getName()),
+                targetType);
+    }
+    
+    private boolean isEmptyRecord(final Object record) throws AnnotationInvalidException {
+        
+        final Method method = callbacks.getIsEmptyMethod();
+        if(method == null) {
+            return false;
+        }
+        
+        try {
+            method.setAccessible(true);
+            return (boolean) method.invoke(record);
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            throw new AnnotationInvalidException(
+                    String.format("@XlsIsEmpty should be appended method that no args and returning boolean type."),
+                    callbacks.getIsEmptyAnnotation());
+        }
+    }
+
+}
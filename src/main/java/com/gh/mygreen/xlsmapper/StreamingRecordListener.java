@@ -0,0 +1,25 @@
+package com.gh.mygreen.xlsmapper;
+
+
+/**
+ * ストリーミングで読み込んだレコードを、1件ずつ受け取るインタフェース。
+ * <p>{@link XlsStreamingLoader}に指定した場合、読み込んだレコードはリストに保持せずに渡すため、
+ *    アノテーション{@link com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords}を付与したプロパティには値を設定しない。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public interface StreamingRecordListener {
+    
+    /**
+     * レコードを読み込んだときに呼ばれる。
+     * <p>レコードに対するアノテーション{@link com.gh.mygreen.xlsmapper.annotation.XlsPostLoad}のメソッドは、実行済みとなる。
+     * @param beanObj シートのマッピング先のオブジェクト
+     * @param fieldName レコードを保持するプロパティの名前
+     * @param record 読み込んだレコード
+     * @throws XlsMapperException
+     */
+    void onRecord(Object beanObj, String fieldName, Object record) throws XlsMapperException;
+
+}
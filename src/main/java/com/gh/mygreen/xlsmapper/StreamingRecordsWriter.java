@@ -0,0 +1,515 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.awt.Point;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsMapColumns;
+import com.gh.mygreen.xlsmapper.annotation.converter.XlsConverter;
+import com.gh.mygreen.xlsmapper.cellconvert.CellConverter;
+import com.gh.mygreen.xlsmapper.cellconvert.ConversionException;
+import com.gh.mygreen.xlsmapper.cellconvert.DefaultCellConverter;
+import com.gh.mygreen.xlsmapper.cellconvert.TypeBindException;
+import com.gh.mygreen.xlsmapper.fieldprocessor.CellNotFoundException;
+import com.gh.mygreen.xlsmapper.fieldprocessor.FieldAdaptor;
+import com.gh.mygreen.xlsmapper.fieldprocessor.RecordHeader;
+import com.gh.mygreen.xlsmapper.fieldprocessor.RecordsProcessorUtil;
+
+
+/**
+ * アノテーション{@link XlsHorizontalRecords}のレコードを、ストリーミングで書き込むクラス。
+ * <p>{@link #prepare()}で雛形のシートから見出しとレコードの行の書式を取得し、
+ *    雛形のレコードの行を削除する。その後、{@link #write(Sheet)}でレコードを1行ずつ追加する。
+ * <p>ストリーミングでは書き込み済みの行の前に行を追加できないため、表の下に値を持つ行がある雛形には書き込めない。
+ * <p>{@link com.gh.mygreen.xlsmapper.fieldprocessor.processor.HorizontalRecordsProcessor}と異なり、
+ *    行の挿入やコピーは行わず、全てのレコードを雛形の1行目の書式で書き込む。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class StreamingRecordsWriter {
+    
+    private final Sheet templateSheet;
+    
+    private final Object beanObj;
+    
+    private final XlsHorizontalRecords anno;
+    
+    private final FieldAdaptor adaptor;
+    
+    private final XlsMapperConfig config;
+    
+    private final SavingWorkObject work;
+    
+    /** 表が見つかったかどうか */
+    private boolean found;
+    
+    private int headerColumn;
+    
+    private int startRow;
+    
+    private List<RecordHeader> headers;
+    
+    /** 雛形のレコードの行の高さ。指定されていない場合は-1。 */
+    private short rowHeight = -1;
+    
+    /** 雛形のレコードの行の、列ごとの書式 */
+    private final Map<Integer, CellStyle> columnStyles = new TreeMap<>();
+    
+    /** 属性mergedのカラムの、列ごとの結合中の範囲 */
+    private final Map<Integer, MergingRange> mergingRanges = new HashMap<>();
+    
+    /**
+     * 書き込みに必要な情報を指定するコンストラクタ。
+     * @param templateSheet 雛形のシート
+     * @param beanObj シートのマッピング元のオブジェクト
+     * @param anno プロパティに付与されたアノテーション
+     * @param adaptor レコードを保持するプロパティ
+     * @param config システム設定
+     * @param work 書き込み時の情報
+     */
+    StreamingRecordsWriter(final Sheet templateSheet, final Object beanObj, final XlsHorizontalRecords anno,
+            final FieldAdaptor adaptor, final XlsMapperConfig config, final SavingWorkObject work) {
+        this.templateSheet = templateSheet;
+        this.beanObj = beanObj;
+        this.anno = anno;
+        this.adaptor = adaptor;
+        this.config = config;
+        this.work = work;
+    }
+    
+    /**
+     * 雛形のシートから見出しと書式を取得し、レコードを書き込む行を削除する。
+     * @throws XlsMapperException 表が見つからない場合。
+     */
+    void prepare() throws XlsMapperException {
+        
+        final Class<?> clazz = adaptor.getTargetClass();
+        if(!Collection.class.isAssignableFrom(clazz) && !clazz.isArray()) {
+            throw new AnnotationInvalidException(
+                    String.format("Annotation '@%s' should only granted List or Array. : %s",
+                            XlsHorizontalRecords.class.getSimpleName(), clazz.getName()),
+                            anno);
+        }
+        
+        setLabel();
+        
+        final Point initPosition = getHeaderPosition();
+        if(initPosition == null) {
+            return;
+        }
+        
+        this.headerColumn = initPosition.x;
+        this.startRow = initPosition.y + 1;
+        this.headers = loadHeaders(initPosition.x, initPosition.y);
+        
+        final Class<?> recordClass = anno.recordClass() == Object.class ? adaptor.getSavingGenericClassType() : anno.recordClass();
+        RecordsProcessorUtil.checkColumns(templateSheet,
+                config.getBindingPlanCache().getRecordColumnIndex(recordClass, work.getAnnoReader()), headers);
+        
+        final Row templateRow = templateSheet.getRow(startRow);
+        if(templateRow != null) {
+            if(templateRow.getHeight() != templateSheet.getDefaultRowHeight()) {
+                this.rowHeight = templateRow.getHeight();
+            }
+            
+            for(Cell cell : templateRow) {
+                columnStyles.put(cell.getColumnIndex(), cell.getCellStyle());
+            }
+        }
+        
+        removeTemplateRows(getTemplateEndRow());
+        this.found = true;
+    }
+    
+    private Point getHeaderPosition() throws XlsMapperException {
+        
+        if(Utils.isNotEmpty(anno.headerAddress())) {
+            final Point address = Utils.parseCellAddress(anno.headerAddress());
+            if(address == null) {
+                throw new AnnotationInvalidException(
+                        String.format("@XlsHorizontalRecors#headerAddress is wrong cell address '%s'.", anno.headerAddress()), anno);
+            }
+            
+            return address;
+            
+        } else if(Utils.isNotEmpty(anno.tableLabel())) {
+            try {
+                final Cell labelCell = Utils.getCell(templateSheet, anno.tableLabel(), 0, 0, config);
+                return new Point(labelCell.getColumnIndex(), labelCell.getRowIndex() + anno.bottom());
+                
+            } catch(CellNotFoundException ex) {
+                if(anno.optional()) {
+                    return null;
+                } else {
+                    throw ex;
+                }
+            }
+            
+        } else {
+            if(anno.headerColumn() < 0 || anno.headerRow() < 0) {
+                throw new AnnotationInvalidException(
+                        String.format("@XlsHorizontalRecors#headerColumn or headerRow soulde be greather than or equal zero. (headerColulmn=%d, headerRow=%d)",
+                                anno.headerColumn(), anno.headerRow()), anno);
+            }
+            
+            return new Point(anno.headerColumn(), anno.headerRow());
+        }
+    }
+    
+    private void setLabel() {
+        if(Utils.isEmpty(anno.tableLabel())) {
+            return;
+        }
+        
+        try {
+            final Cell labelCell = Utils.getCell(templateSheet, anno.tableLabel(), 0, config);
+            Utils.setLabel(POIUtils.getCellContents(labelCell, config.getCellFormatter()), beanObj, adaptor.getName());
+        } catch(CellNotFoundException e) {
+            
+        }
+    }
+    
+    private List<RecordHeader> loadHeaders(final int initColumn, final int initRow) {
+        
+        final List<RecordHeader> headers = new ArrayList<>();
+        int hColumn = initColumn;
+        int rangeCount = 1;
+        
+        while(true) {
+            Cell cell = POIUtils.getCell(templateSheet, hColumn, initRow);
+            while(POIUtils.isEmptyCellContents(cell, config.getCellFormatter()) && rangeCount < anno.range()) {
+                cell = POIUtils.getCell(templateSheet, hColumn + rangeCount, initRow);
+                rangeCount++;
+            }
+            
+            final String cellValue = POIUtils.getCellContents(cell, config.getCellFormatter());
+            if(Utils.isEmpty(cellValue)) {
+                break;
+            }
+            
+            headers.add(new RecordHeader(cellValue, rangeCount - 1));
+            hColumn = hColumn + rangeCount;
+            rangeCount = 1;
+            
+            // 結合しているセルの場合は、はじめのセルだけ取得して、後は結合分スキップする。
+            final CellRangeAddress mergedRange = POIUtils.getMergedRegion(templateSheet, cell.getRowIndex(), cell.getColumnIndex());
+            if(mergedRange != null) {
+                hColumn = hColumn + (mergedRange.getLastColumn() - mergedRange.getFirstColumn());
+            }
+            
+            if(anno.headerLimit() > 0 && headers.size() >= anno.headerLimit()) {
+                break;
+            }
+        }
+        
+        return headers;
+    }
+    
+    /**
+     * 雛形のレコードの行の終了位置を取得する。
+     * <p>{@link com.gh.mygreen.xlsmapper.fieldprocessor.processor.HorizontalRecordsProcessor}の書き込みと同じく、
+     *    先頭の見出しの列のセルに左の罫線がある行を、レコードの行とする。
+     * @return レコードの最後の行の次の行番号
+     */
+    private int getTemplateEndRow() {
+        
+        final int column = headerColumn + headers.get(0).getHeaderRange();
+        final int maxRow = POIUtils.getRows(templateSheet);
+        
+        int r = startRow;
+        while(r < maxRow) {
+            final Cell cell = POIUtils.getCell(templateSheet, column, r);
+            if(cell.getCellStyle() == null || cell.getCellStyle().getBorderLeft() == CellStyle.BORDER_NONE) {
+                break;
+            }
+            
+            if(Utils.isNotEmpty(anno.terminateLabel())
+                    && POIUtils.getCellContents(cell, config.getCellFormatter()).equals(anno.terminateLabel())) {
+                break;
+            }
+            
+            r++;
+        }
+        
+        return r;
+    }
+    
+    /**
+     * 雛形のレコードの行と、結合範囲を削除する。
+     * <p>レコードの行より下の行は、値を持たない場合のみ削除する。
+     * @param endRow レコードの最後の行の次の行番号
+     * @throws XlsMapperException レコードの行より下に、値を持つ行がある場合。
+     */
+    private void removeTemplateRows(final int endRow) throws XlsMapperException {
+        
+        // ストリーミングでは表の下の行を残したままレコードを追加できないため、値を持つ行は削除せずにエラーとする
+        for(int r=endRow; r <= templateSheet.getLastRowNum(); r++) {
+            final Row row = templateSheet.getRow(r);
+            if(row == null) {
+                continue;
+            }
+            
+            for(Cell cell : row) {
+                if(!POIUtils.isEmptyCellContents(cell, config.getCellFormatter())) {
+                    throw new XlsMapperException(String.format(
+                            "streaming save cannot keep the cell '%s' below the records of '%s'. remove the rows below the table from the template.",
+                            POIUtils.formatCellAddress(cell), adaptor.getName()));
+                }
+            }
+        }
+        
+        for(int i=templateSheet.getNumMergedRegions()-1; i >= 0; i--) {
+            final CellRangeAddress range = templateSheet.getMergedRegion(i);
+            if(range.getLastRow() >= startRow) {
+                POIUtils.removeMergedRange(templateSheet, range);
+            }
+        }
+        
+        for(int r=templateSheet.getLastRowNum(); r >= startRow; r--) {
+            final Row row = templateSheet.getRow(r);
+            if(row != null) {
+                templateSheet.removeRow(row);
+            }
+        }
+    }
+    
+    /**
+     * レコードを1行ずつ書き込む。
+     * @param sheet 書き込み先のシート。{@link #prepare()}で雛形の行を削除したシートを、ストリーミングで書き込むシート。
+     * @throws XlsMapperException
+     */
+    void write(final Sheet sheet) throws XlsMapperException {
+        
+        if(!found) {
+            return;
+        }
+        
+        final Object result = adaptor.getValue(beanObj);
+        final Iterable<?> records;
+        if(result == null) {
+            records = new ArrayList<Object>();
+        } else if(result instanceof Collection) {
+            records = (Collection<?>) result;
+        } else {
+            records = Arrays.asList((Object[]) result);
+        }
+        
+        int r = 0;
+        for(Object record : records) {
+            writeRecord(sheet, startRow + r, r, record);
+            r++;
+        }
+        
+        // 結合中の範囲を確定する
+        for(MergingRange range : mergingRanges.values()) {
+            range.merge(sheet);
+        }
+    }
+    
+    private void writeRecord(final Sheet sheet, final int rowIndex, final int recordIndex, final Object record)
+            throws XlsMapperException {
+        
+        final Row row = sheet.createRow(rowIndex);
+        if(rowHeight >= 0) {
+            row.setHeight(rowHeight);
+        }
+        
+        for(Map.Entry<Integer, CellStyle> entry : columnStyles.entrySet()) {
+            row.createCell(entry.getKey()).setCellStyle(entry.getValue());
+        }
+        
+        if(record == null) {
+            return;
+        }
+        
+        // パスの位置の変更
+        work.getErrors().pushNestedPath(adaptor.getName(), recordIndex);
+        
+        final LifecycleCallbacks callbacks = config.getBindingPlanCache().getLifecycleCallbacks(record.getClass(), work.getAnnoReader());
+        for(Method method : callbacks.getPreSaveMethods()) {
+            Utils.invokeNeedProcessMethod(method, record, sheet, config, work.getErrors());
+        }
+        
+        int hColumn = headerColumn;
+        for(RecordHeader headerInfo : headers) {
+            hColumn = hColumn + headerInfo.getHeaderRange();
+            
+            final List<FieldAdaptor> properties = config.getBindingPlanCache().getRecordColumnIndex(record.getClass(), work.getAnnoReader())
+                    .getSavingColumnProperties(headerInfo.getHeaderLabel());
+            for(FieldAdaptor property : properties) {
+                final XlsColumn column = property.getSavingAnnotation(XlsColumn.class);
+                final Cell valueCell = POIUtils.getCell(sheet, hColumn + column.headerMerged(), rowIndex);
+                
+                Utils.setPosition(valueCell.getColumnIndex(), valueCell.getRowIndex(), record, property.getName());
+                Utils.setLabel(headerInfo.getHeaderLabel(), record, property.getName());
+                final CellConverter<Object> converter = getCellConverter(property);
+                try {
+                    converter.toCell(property, property.getValue(record), sheet, valueCell.getColumnIndex(), valueCell.getRowIndex(), config);
+                } catch(TypeBindException e) {
+                    work.addTypeBindError(e, valueCell, property.getName(), headerInfo.getHeaderLabel());
+                    if(!config.isSkipTypeBindFailure()) {
+                        throw e;
+                    }
+                }
+                
+                if(column.merged() && config.isMergeCellOnSave()) {
+                    mergeWithUpperCell(sheet, valueCell);
+                }
+            }
+            
+            hColumn++;
+        }
+        
+        writeMapColumns(sheet, rowIndex, record);
+        
+        // レコードを保持しないため、すぐに実行する
+        for(Method method : callbacks.getPostSaveMethods()) {
+            Utils.invokeNeedProcessMethod(method, record, sheet, config, work.getErrors());
+        }
+        
+        work.getErrors().popNestedPath();
+    }
+    
+    /**
+     * 上部のセルと同じ値の場合、結合する範囲を広げる。
+     * <p>上部の行は一時ファイルに書き出されている場合があるため、値は列ごとに保持しておく。
+     */
+    private void mergeWithUpperCell(final Sheet sheet, final Cell cell) {
+        
+        final String value = POIUtils.getCellContents(cell, config.getCellFormatter());
+        final MergingRange range = mergingRanges.get(cell.getColumnIndex());
+        if(range != null && range.lastRow == cell.getRowIndex() - 1 && range.value.equals(value)) {
+            range.lastRow = cell.getRowIndex();
+            cell.setCellType(Cell.CELL_TYPE_BLANK);
+            return;
+        }
+        
+        if(range != null) {
+            range.merge(sheet);
+        }
+        
+        mergingRanges.put(cell.getColumnIndex(), new MergingRange(cell.getColumnIndex(), cell.getRowIndex(), value));
+    }
+    
+    private void writeMapColumns(final Sheet sheet, final int row, final Object record) throws XlsMapperException {
+        
+        final List<FieldAdaptor> properties = config.getBindingPlanCache().getRecordColumnIndex(record.getClass(), work.getAnnoReader())
+                .getSavingMapColumnProperties();
+        for(FieldAdaptor property : properties) {
+            final XlsMapColumns mapAnno = property.getSavingAnnotation(XlsMapColumns.class);
+            
+            Class<?> itemClass = mapAnno.itemClass();
+            if(itemClass == Object.class) {
+                itemClass = property.getSavingGenericClassType();
+            }
+            
+            final CellConverter<?> itemConverter = config.getConverterRegistry().getConverter(itemClass);
+            if(itemConverter == null) {
+                throw newNotFoundConverterExpcetion(itemClass);
+            }
+            final CellConverter<Object> converter = asObjectConverter(itemConverter);
+            
+            int begin = headerColumn;
+            boolean flag = false;
+            for(RecordHeader headerInfo : headers) {
+                if(headerInfo.getHeaderLabel().equals(mapAnno.previousColumnName())) {
+                    flag = true;
+                    begin++;
+                    continue;
+                }
+                
+                if(flag) {
+                    final Cell cell = POIUtils.getCell(sheet, begin + headerInfo.getHeaderRange(), row);
+                    Utils.setPositionWithMapColumn(cell.getColumnIndex(), cell.getRowIndex(), record, property.getName(), headerInfo.getHeaderLabel());
+                    Utils.setLabelWithMapColumn(headerInfo.getHeaderLabel(), record, property.getName(), headerInfo.getHeaderLabel());
+                    try {
+                        final Object itemValue = property.getValueOfMap(headerInfo.getHeaderLabel(), record);
+                        converter.toCell(property, itemValue, sheet, cell.getColumnIndex(), cell.getRowIndex(), config);
+                        
+                    } catch(TypeBindException e) {
+                        work.addTypeBindError(e, cell, String.format("%s[%s]", property.getName(), headerInfo.getHeaderLabel()), headerInfo.getHeaderLabel());
+                        if(!config.isSkipTypeBindFailure()) {
+                            throw e;
+                        }
+                    }
+                }
+                
+                begin = begin + headerInfo.getHeaderRange() + 1;
+            }
+        }
+    }
+    
+    private CellConverter<Object> getCellConverter(final FieldAdaptor property) throws XlsMapperException {
+        
+        final XlsConverter converterAnno = property.getSavingAnnotation(XlsConverter.class);
+        if(converterAnno != null && !converterAnno.converterClass().equals(DefaultCellConverter.class)) {
+            return asObjectConverter(config.createBean(converterAnno.converterClass()));
+        }
+        
+        final CellConverter<?> converter = config.getConverterRegistry().getConverter(property.getTargetClass());
+        if(converter == null) {
+            throw newNotFoundConverterExpcetion(property.getTargetClass());
+        }
+        
+        return asObjectConverter(converter);
+    }
+    
+    /**
+     * フィールドの値をそのまま渡して書き込むため、Converterの型をObjectとして扱う。
+     * <p>Converterは、フィールドのクラスタイプを元に取得しているため、値の型は一致する。
+     */
+    @SuppressWarnings("unchecked")
+    private static CellConverter<Object> asObjectConverter(final CellConverter<?> converter) {
+        return (CellConverter<Object>) converter;
+    }
+    
+    private ConversionException newNotFoundConverterExpcetion(final Class<?> targetType) {
+        return new ConversionException(
+                String.format("not found CellConverter for type '%s'.", targetType.getName()),
+                targetType);
+    }
+    
+    /**
+     * 属性mergedのカラムで、結合中の範囲。
+     */
+    private static class MergingRange {
+        
+        private final int column;
+        
+        private final int firstRow;
+        
+        private final String value;
+        
+        private int lastRow;
+        
+        MergingRange(final int column, final int firstRow, final String value) {
+            this.column = column;
+            this.firstRow = firstRow;
+            this.lastRow = firstRow;
+            this.value = value;
+        }
+        
+        void merge(final Sheet sheet) {
+            if(firstRow < lastRow) {
+                sheet.addMergedRegion(new CellRangeAddress(firstRow, lastRow, column, column));
+            }
+        }
+    }
+
+}
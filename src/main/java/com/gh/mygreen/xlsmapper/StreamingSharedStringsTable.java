@@ -0,0 +1,74 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.io.IOException;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+
+
+/**
+ * ストリーミングで読み込む際の、共有文字列のテーブル。
+ * <p>{@link ReadOnlySharedStringsTable}は、ふりがな(rPh)の文字列も本文に連結してしまうため、
+ *    ふりがなの要素の中の文字列を読み飛ばす。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class StreamingSharedStringsTable extends ReadOnlySharedStringsTable {
+    
+    /**
+     * ふりがなの要素の中かどうか。
+     * <p>親クラスのコンストラクタの中で読み込みが行われるため、初期値を代入してはいけない。
+     */
+    private boolean phoneticOpen;
+    
+    StreamingSharedStringsTable(final OPCPackage pkg) throws IOException, SAXException {
+        super(pkg);
+    }
+    
+    @Override
+    public void startElement(final String uri, final String localName, final String name, final Attributes attributes)
+            throws SAXException {
+        if(isPhoneticElement(localName, name)) {
+            phoneticOpen = true;
+            return;
+        }
+        
+        if(phoneticOpen) {
+            return;
+        }
+        
+        super.startElement(uri, localName, name, attributes);
+    }
+    
+    @Override
+    public void endElement(final String uri, final String localName, final String name) throws SAXException {
+        if(isPhoneticElement(localName, name)) {
+            phoneticOpen = false;
+            return;
+        }
+        
+        if(phoneticOpen) {
+            return;
+        }
+        
+        super.endElement(uri, localName, name);
+    }
+    
+    @Override
+    public void characters(final char[] ch, final int start, final int length) throws SAXException {
+        if(phoneticOpen) {
+            return;
+        }
+        
+        super.characters(ch, start, length);
+    }
+    
+    private static boolean isPhoneticElement(final String localName, final String name) {
+        return "rPh".equals(localName) || "rPh".equals(name);
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.model.StylesTable;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+
+/**
+ * シートのXML（sheetN.xml）をSAXで読み込み、1行ずつ{@link RowHandler}に渡すクラス。
+ * <p>保持するのは読み込み中の1行分のセルのみとする。
+ * <p>数式のセルは、ファイルに保存されている計算結果を値とする。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class StreamingSheetParser extends DefaultHandler {
+    
+    /**
+     * 読み込んだ行を処理するインタフェース。
+     */
+    interface RowHandler {
+        
+        /**
+         * 行を読み込んだときに呼ばれる。
+         * <p>値も書式も持たないセルや、ファイルに存在しない行は渡さない。
+         * @param rowIndex 行番号
+         * @param cells 列番号順に並べた、行のセル
+         * @return 以降の行の読み込みが不要な場合はfalseを返す。
+         * @throws XlsMapperException
+         */
+        boolean row(int rowIndex, SortedMap<Integer, Cell> cells) throws XlsMapperException;
+        
+    }
+    
+    /**
+     * 行の処理を中断するときにスローする例外。
+     */
+    static class StopParsingException extends SAXException {
+        
+        private static final long serialVersionUID = 1L;
+        
+        StopParsingException() {
+            super("stop parsing.");
+        }
+    }
+    
+    private final Sheet sheet;
+    
+    private final ReadOnlySharedStringsTable sharedStrings;
+    
+    private final StylesTable stylesTable;
+    
+    private final RowHandler handler;
+    
+    /** スタイル番号ごとのセルの書式 */
+    private final Map<Integer, CellStyle> styles = new HashMap<>();
+    
+    private SortedMap<Integer, Cell> currentCells;
+    
+    private int currentRow = -1;
+    
+    private int currentColumn = -1;
+    
+    private String cellType;
+    
+    /** セルのスタイル番号。指定されていない場合はnull。 */
+    private String cellStyleIndex;
+    
+    private final StringBuilder text = new StringBuilder();
+    
+    /** 値の要素（v, isの中のt）を読み込み中かどうか */
+    private boolean inValue;
+    
+    private boolean inInlineString;
+    
+    /**
+     * 読み込みに必要な情報を指定するコンストラクタ。
+     * @param sheet セルが所属するシート
+     * @param sharedStrings 共有文字列
+     * @param stylesTable スタイル情報
+     * @param handler 読み込んだ行を処理するクラス
+     */
+    StreamingSheetParser(final Sheet sheet, final ReadOnlySharedStringsTable sharedStrings,
+            final StylesTable stylesTable, final RowHandler handler) {
+        this.sheet = sheet;
+        this.sharedStrings = sharedStrings;
+        this.stylesTable = stylesTable;
+        this.handler = handler;
+    }
+    
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes attributes)
+            throws SAXException {
+        
+        if("row".equals(localName)) {
+            final String r = attributes.getValue("r");
+            currentRow = (r != null) ? Integer.parseInt(r) - 1 : currentRow + 1;
+            currentColumn = -1;
+            currentCells = new TreeMap<>();
+            
+        } else if("c".equals(localName)) {
+            final String ref = attributes.getValue("r");
+            currentColumn = (ref != null) ? new CellReference(ref).getCol() : currentColumn + 1;
+            cellType = attributes.getValue("t");
+            cellStyleIndex = attributes.getValue("s");
+            text.setLength(0);
+            
+        } else if("v".equals(localName)) {
+            inValue = true;
+            
+        } else if("is".equals(localName)) {
+            inInlineString = true;
+            
+        } else if("t".equals(localName) && inInlineString) {
+            inValue = true;
+        }
+    }
+    
+    @Override
+    public void characters(final char[] ch, final int start, final int length) throws SAXException {
+        if(inValue) {
+            text.append(ch, start, length);
+        }
+    }
+    
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+        
+        if("v".equals(localName) || "t".equals(localName)) {
+            inValue = false;
+            
+        } else if("is".equals(localName)) {
+            inInlineString = false;
+            
+        } else if("c".equals(localName)) {
+            final CellValue value = createCellValue();
+            if(value != null || cellStyleIndex != null) {
+                currentCells.put(currentColumn,
+                        new StreamingCell(sheet, currentColumn, currentRow, value, getCellStyle(cellStyleIndex)));
+            }
+            
+        } else if("row".equals(localName)) {
+            final boolean next;
+            try {
+                next = handler.row(currentRow, currentCells);
+            } catch(XlsMapperException e) {
+                throw new SAXException(e);
+            }
+            
+            currentCells = null;
+            if(!next) {
+                throw new StopParsingException();
+            }
+        }
+    }
+    
+    private CellValue createCellValue() {
+        
+        final String value = text.toString();
+        if("s".equals(cellType)) {
+            if(value.isEmpty()) {
+                return null;
+            }
+            return new CellValue(sharedStrings.getEntryAt(Integer.parseInt(value)));
+            
+        } else if("inlineStr".equals(cellType) || "str".equals(cellType) || "d".equals(cellType)) {
+            return new CellValue(value);
+            
+        } else if("b".equals(cellType)) {
+            return CellValue.valueOf("1".equals(value));
+            
+        } else if("e".equals(cellType)) {
+            try {
+                return CellValue.getError(FormulaError.forString(value).getCode());
+            } catch(IllegalArgumentException e) {
+                return new CellValue(value);
+            }
+            
+        }
+        
+        if(value.isEmpty()) {
+            return null;
+        }
+        return new CellValue(Double.parseDouble(value));
+    }
+    
+    /**
+     * スタイル番号に対するセルの書式を取得する。
+     * @param index スタイル番号
+     * @return スタイル番号が指定されていない場合は、標準の書式を返す。
+     */
+    private CellStyle getCellStyle(final String index) {
+        
+        final int styleIndex = Utils.isEmpty(index) ? 0 : Integer.parseInt(index);
+        CellStyle style = styles.get(styleIndex);
+        if(style == null) {
+            style = stylesTable.getStyleAt(styleIndex);
+            styles.put(styleIndex, style);
+        }
+        
+        return style;
+    }
+
+}
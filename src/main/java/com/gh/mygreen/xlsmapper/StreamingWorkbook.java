@@ -0,0 +1,58 @@
+package com.gh.mygreen.xlsmapper;
+
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFDataFormat;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+
+/**
+ * ストリーミングで読み込む際に、セルが所属するワークブックとして利用する空のワークブック。
+ * <p>シートの内容は保持せず、セルのフォーマットに必要な書式と日付の基準（1904年始まりかどうか）のみ、
+ *    読み込み元のファイルの情報を返す。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class StreamingWorkbook extends XSSFWorkbook {
+    
+    /** 読み込み元のファイルのスタイル情報 */
+    private final StylesTable stylesTable;
+    
+    /** 日付が1904年始まりかどうか */
+    private final boolean date1904;
+    
+    /**
+     * 読み込み元のファイルの情報を指定するコンストラクタ。
+     * @param stylesTable 読み込み元のファイルのスタイル情報
+     * @param date1904 日付が1904年始まりかどうか
+     */
+    StreamingWorkbook(final StylesTable stylesTable, final boolean date1904) {
+        super();
+        this.stylesTable = stylesTable;
+        this.date1904 = date1904;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>読み込み元のファイルの書式を参照する。
+     */
+    @Override
+    public XSSFDataFormat createDataFormat() {
+        return new XSSFDataFormat(stylesTable) {};
+    }
+    
+    @Override
+    protected boolean isDate1904() {
+        return date1904;
+    }
+    
+    /**
+     * 読み込み元のファイルのスタイル情報を取得する。
+     * @return
+     */
+    StylesTable getSourceStylesTable() {
+        return stylesTable;
+    }
+
+}
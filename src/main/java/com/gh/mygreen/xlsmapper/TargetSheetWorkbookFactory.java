@@ -0,0 +1,146 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.poi.POIXMLDocument;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.openxml4j.opc.PackagingURIHelper;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.xmlbeans.XmlException;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTSheet;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.WorkbookDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+
+
+/**
+ * 読み込む対象のシートのみを解析して、ワークブックを作成するクラス。
+ * <p>Excel(.xlsx)のファイルは、ワークブックのシートの一覧から、アノテーション{@link XlsSheet}で指定したシートを先に決める。
+ *    それ以外のシートは、内容を空のシートに置き換えてから解析するため、シートの名前と順番は変わらない。
+ * <p>Excel(.xls)のファイルは、シートを個別に解析できないため、{@link WorkbookFactory}で全て読み込む。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class TargetSheetWorkbookFactory {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TargetSheetWorkbookFactory.class);
+    
+    /** 読み込まないシートの、置き換え後の内容 */
+    private static final byte[] EMPTY_WORKSHEET = ("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+            + "<sheetData/></worksheet>").getBytes(StandardCharsets.UTF_8);
+    
+    private TargetSheetWorkbookFactory() {
+    }
+    
+    /**
+     * 読み込む対象のシートのみを解析して、ワークブックを作成する。
+     * @param xlsIn 読み込みもとのExcelファイルのストリーム。
+     * @param sheetAnnos 読み込むシートを指定したアノテーション。
+     *        シートの条件を指定していないアノテーションを含む場合は、全てのシートを解析する。
+     * @return 作成したワークブック
+     * @throws InvalidFormatException
+     * @throws IOException
+     */
+    static Workbook create(final InputStream xlsIn, final Collection<XlsSheet> sheetAnnos)
+            throws InvalidFormatException, IOException {
+        
+        final InputStream in = xlsIn.markSupported() ? xlsIn : new PushbackInputStream(xlsIn, 8);
+        if(!POIXMLDocument.hasOOXMLHeader(in)) {
+            return WorkbookFactory.create(in);
+        }
+        
+        final OPCPackage pkg = OPCPackage.open(in);
+        for(XlsSheet sheetAnno : sheetAnnos) {
+            if(!hasCondition(sheetAnno)) {
+                return new XSSFWorkbook(pkg);
+            }
+        }
+        
+        final PackagePart workbookPart = pkg.getPartsByRelationshipType(PackageRelationshipTypes.CORE_DOCUMENT).get(0);
+        final List<CTSheet> sheets;
+        try(InputStream workbookIn = workbookPart.getInputStream()) {
+            sheets = WorkbookDocument.Factory.parse(workbookIn).getWorkbook().getSheets().getSheetList();
+        } catch(XmlException e) {
+            throw new InvalidFormatException(e.getMessage());
+        }
+        
+        for(int i=0; i < sheets.size(); i++) {
+            final CTSheet sheet = sheets.get(i);
+            if(isTargetSheet(sheetAnnos, i, sheet.getName())) {
+                continue;
+            }
+            
+            final PackageRelationship relationship = workbookPart.getRelationship(sheet.getId());
+            if(relationship == null) {
+                continue;
+            }
+            
+            final URI sheetUri = PackagingURIHelper.resolvePartUri(workbookPart.getPartName().getURI(), relationship.getTargetURI());
+            final PackagePart sheetPart = pkg.getPart(PackagingURIHelper.createPartName(sheetUri));
+            if(sheetPart == null || !XSSFRelation.WORKSHEET.getContentType().equals(sheetPart.getContentType())) {
+                // グラフのシートなどは、そのまま読み込む
+                continue;
+            }
+            
+            logger.debug("skip parsing of sheet '{}'.", sheet.getName());
+            
+            // 図形やコメントなども読み込まないよう、関連も削除する
+            sheetPart.clearRelationships();
+            try(OutputStream sheetOut = sheetPart.getOutputStream()) {
+                sheetOut.write(EMPTY_WORKSHEET);
+            }
+        }
+        
+        return new XSSFWorkbook(pkg);
+    }
+    
+    /**
+     * 読み込むシートの条件を指定しているかどうか。
+     */
+    private static boolean hasCondition(final XlsSheet sheetAnno) {
+        return sheetAnno.name().length() > 0 || sheetAnno.number() >= 0 || sheetAnno.regex().length() > 0;
+    }
+    
+    /**
+     * いずれかのアノテーションで指定したシートかどうか。
+     * <p>シート名は、{@link Workbook#getSheet(String)}と同様に大文字と小文字を区別しない。
+     */
+    private static boolean isTargetSheet(final Collection<XlsSheet> sheetAnnos, final int sheetIndex, final String sheetName) {
+        
+        for(XlsSheet sheetAnno : sheetAnnos) {
+            if(sheetAnno.name().length() > 0) {
+                if(sheetAnno.name().equalsIgnoreCase(sheetName)) {
+                    return true;
+                }
+            } else if(sheetAnno.number() >= 0) {
+                if(sheetAnno.number() == sheetIndex) {
+                    return true;
+                }
+            } else if(Pattern.compile(sheetAnno.regex()).matcher(sheetName).matches()) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+
+}
@@ -353,80 +353,9 @@ public class Utils {
      * @param obj メソッドが定義されているオブジェクト
      * @param fieldName フィールド名
      */
-    @SuppressWarnings("unchecked")
     public static void setPosition(final int x, final int y, final Object obj, final String fieldName) {
-        
-        final Class<?> clazz = obj.getClass();
-        final String positionFieldName = fieldName + "Position";
-        
-        // フィールド positionsの場合
-        final String positionMapFieldName = "positions";
-        try {
-            Field positionMapField  = clazz.getDeclaredField(positionMapFieldName);
-            positionMapField.setAccessible(true);
-            if(Map.class.isAssignableFrom(positionMapField.getType())) {
-                Object positionMapValue = positionMapField.get(obj);
-                if(positionMapValue == null) {
-                    positionMapValue = new HashMap<String, Point>();
-                    positionMapField.set(obj, positionMapValue);
-                }
-                
-                ((Map<String, Point>) positionMapValue).put(fieldName, new Point(x, y));
-                return;
-            }
-        } catch (NoSuchFieldException | SecurityException e) {
-            // フィールドが見つからない場合は何もしない。
-            
-            
-        } catch (IllegalArgumentException | IllegalAccessException e) {
-            throw new RuntimeException(
-                    String.format("fail set '%s' field", positionMapFieldName), 
-                    e);
-        }
-        
-        
-        // メソッドの場合(引数が int, intの場合)
-        final Method positionMethod1 = getSetter(clazz, positionFieldName, Integer.TYPE, Integer.TYPE);
-        if(positionMethod1 != null) {
-            try {
-                positionMethod1.invoke(obj, x, y);
-                return;
-            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                throw new RuntimeException(
-                        String.format("fail set position with '%s' method", positionMethod1.getName()),
-                        e);
-            }
-            
-        }
-        
-        // メソッドの場合(引数が Pointの場合)
-        final Method positionMethod2 = getSetter(clazz, positionFieldName, Point.class);
-        if(positionMethod2 != null) {
-            try {
-                positionMethod2.invoke(obj, new Point(x, y));
-                return;
-            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                throw new RuntimeException(
-                        String.format("fail set position with '%s' method", positionMethod2.getName()),
-                        e);
-            }
-            
-        }
-        
-        // フィールドの場合
-        final Field positionField = getField(clazz, positionFieldName);
-        if(positionField != null) {
-            try {
-                positionField.setAccessible(true);
-                positionField.set(obj, new Point(x, y));
-            } catch (IllegalArgumentException | IllegalAccessException e) {
-                throw new RuntimeException(
-                        String.format("fail set position with '%s' field", positionField.getName()),
-                        e);
-            }
-        }
-        
-        
+        PositionLabelSetter.get(obj.getClass()).setPosition(x, y, obj, fieldName);
+
     }
     
     /**
@@ -521,88 +450,9 @@ public class Utils {
      * @param fieldName フィールド名
      * @param key
      */
-    @SuppressWarnings("unchecked")
     public static void setPositionWithMapColumn(final int x, final int y, final Object obj, final String fieldName, final String key) {
-        
-        final Class<?> clazz = obj.getClass();
-        final String positionFieldName = fieldName + "Position";
-        
-        // フィールド positionsの場合
-        final String positionMapFieldName = "positions";
-        try {
-            Field positionMapField  = clazz.getDeclaredField(positionMapFieldName);
-            positionMapField.setAccessible(true);
-            if(Map.class.isAssignableFrom(positionMapField.getType())) {
-                Object positionMapValue = positionMapField.get(obj);
-                if(positionMapValue == null) {
-                    positionMapValue = new HashMap<String, Point>();
-                    positionMapField.set(obj, positionMapValue);
-                }
-                
-                final String mapKey = String.format("%s[%s]", fieldName, key);
-                ((Map<String, Point>) positionMapValue).put(mapKey, new Point(x, y));
-                return;
-            }
-        } catch (NoSuchFieldException | SecurityException e) {
-            // フィールドが見つからない場合は何もしない。
-            
-            
-        } catch (IllegalArgumentException | IllegalAccessException e) {
-            throw new RuntimeException(
-                    String.format("fail set '%s' field", positionMapFieldName), 
-                    e);
-        }
-        
-        // メソッドの場合(引数が String, int, intの場合)
-        final Method positionMethod1 = getSetter(clazz, positionFieldName, String.class, Integer.TYPE, Integer.TYPE);
-        if(positionMethod1 != null) {
-            try {
-                positionMethod1.invoke(obj, key, x, y);
-                return;
-            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                throw new RuntimeException(
-                        String.format("fail set map position with '%s' method", positionMethod1.getName()),
-                        e);
-            }
-            
-        }
-        
-        // メソッドの場合(引数が String, Pointの場合)
-        final Method positionMethod2 = getSetter(clazz, positionFieldName, String.class, Point.class);
-        if(positionMethod2 != null) {
-            try {
-                positionMethod2.invoke(obj, key, new Point(x, y));
-                return;
-            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                throw new RuntimeException(
-                        String.format("fail set map position with '%s' method", positionMethod2.getName()),
-                        e);
-            }
-            
-        }
-        
-        // フィールドの場合(Map<String, Point>)の場合
-        final Field positionField = getField(clazz, positionFieldName);
-        if(positionField != null) {
-            try {
-                positionField.setAccessible(true);
-                if(Map.class.isAssignableFrom(positionField.getType())) {
-                    Object positionValue = positionField.get(obj);
-                    if(positionValue == null) {
-                        positionValue = new HashMap<String, Point>();
-                        positionField.set(obj, positionValue);
-                    }
-                    
-                    ((Map<String, Point>) positionValue).put(key, new Point(x, y));
-                }
-            } catch (IllegalArgumentException | IllegalAccessException e) {
-                throw new RuntimeException(
-                        String.format("fail set position with '%s' field", positionField.getName()),
-                        e);
-            }
-        }
-        
-        
+        PositionLabelSetter.get(obj.getClass()).setPositionWithMapColumn(x, y, obj, fieldName, key);
+
     }
     
     /**
@@ -613,64 +463,9 @@ public class Utils {
      * @param obj メソッドが定義されているオブジェクト
      * @param fieldName フィールド名
      */
-    @SuppressWarnings("unchecked")
     public static void setLabel(final String label, final Object obj, final String fieldName) {
-        
-        final Class<?> clazz = obj.getClass();
-        final String labelFieldName = fieldName + "Label";
-        
-        // フィールド labelsの場合
-        final String labelMapFieldName = "labels";
-        try {
-            Field labelMapField  = clazz.getDeclaredField(labelMapFieldName);
-            labelMapField.setAccessible(true);
-            if(Map.class.isAssignableFrom(labelMapField.getType())) {
-                Object labelMapValue = labelMapField.get(obj);
-                if(labelMapValue == null) {
-                    labelMapValue = new HashMap<String, Point>();
-                    labelMapField.set(obj, labelMapValue);
-                }
-                
-                ((Map<String, String>) labelMapValue).put(fieldName, label);
-                return;
-            }
-        } catch (NoSuchFieldException | SecurityException e) {
-            // フィールドが見つからない場合は何もしない。
-            
-        } catch (IllegalArgumentException | IllegalAccessException e) {
-            throw new RuntimeException(
-                    String.format("fail set '%s' field", labelMapFieldName), 
-                    e);
-        }
-        
-        // メソッドの場合(引数が String の場合)
-        final Method labelMethod1 = getSetter(clazz, labelFieldName, String.class);
-        if(labelMethod1 != null) {
-            try {
-                labelMethod1.invoke(obj, label);
-                return;
-            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                throw new RuntimeException(
-                        String.format("fail set label with '%s' method", labelMethod1.getName()),
-                        e);
-            }
-            
-        }
-        
-        // フィールドの場合
-        final Field labelField = getField(clazz, labelFieldName);
-        if(labelField != null) {
-            try {
-                labelField.setAccessible(true);
-                labelField.set(obj, label);
-                return;
-            } catch (IllegalArgumentException | IllegalAccessException e) {
-                throw new RuntimeException(
-                        String.format("fail set label with '%s' field", labelField.getName()),
-                        e);
-            }
-        }
-        
+        PositionLabelSetter.get(obj.getClass()).setLabel(label, obj, fieldName);
+
     }
     
     /**
@@ -761,74 +556,9 @@ public class Utils {
      * @param fieldName フィールド名
      * @param key
      */
-    @SuppressWarnings("unchecked")
     public static void setLabelWithMapColumn(final String label, final Object obj, final String fieldName, final String key) {
-        
-        final Class<?> clazz = obj.getClass();
-        final String labelFieldName = fieldName + "Label";
-        
-        // フィールド labelsの場合
-        final String labelMapFieldName = "labels";
-        try {
-            Field labelMapField  = clazz.getDeclaredField(labelMapFieldName);
-            labelMapField.setAccessible(true);
-            if(Map.class.isAssignableFrom(labelMapField.getType())) {
-                Object labelMapValue = labelMapField.get(obj);
-                if(labelMapValue == null) {
-                    labelMapValue = new HashMap<String, String>();
-                    labelMapField.set(obj, labelMapValue);
-                }
-                
-                final String mapKey = String.format("%s[%s]", fieldName, key);
-                ((Map<String, String>) labelMapValue).put(mapKey, label);
-                return;
-            }
-        } catch (NoSuchFieldException | SecurityException e) {
-            // フィールドが見つからない場合は何もしない。
-            
-        } catch (IllegalArgumentException | IllegalAccessException e) {
-            throw new RuntimeException(
-                    String.format("fail set '%s' field", labelMapFieldName), 
-                    e);
-        }
-        
-        // メソッドの場合(引数が String, String の場合)
-        final Method labelMethod1 = getSetter(clazz, labelFieldName, String.class, String.class);
-        if(labelMethod1 != null) {
-            try {
-                labelMethod1.invoke(obj, key, label);
-                return;
-            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                throw new RuntimeException(
-                        String.format("fail set label with '%s' method", labelMethod1.getName()),
-                        e);
-            }
-            
-        }
-        
-        // フィールドの場合
-        final Field labelField = getField(clazz, labelFieldName);
-        if(labelField != null) {
-            try {
-                labelField.setAccessible(true);
-                
-                if(Map.class.isAssignableFrom(labelField.getType())) {
-                    Object labelValue = labelField.get(obj);
-                    if(labelValue == null) {
-                        labelValue = new HashMap<String, Point>();
-                        labelField.set(obj, labelValue);
-                    }
-                    
-                    ((Map<String, String>) labelValue).put(key, label);
-                }
-                return;
-            } catch (IllegalArgumentException | IllegalAccessException e) {
-                throw new RuntimeException(
-                        String.format("fail set label with '%s' field", labelField.getName()),
-                        e);
-            }
-        }
-        
+        PositionLabelSetter.get(obj.getClass()).setLabelWithMapColumn(label, obj, fieldName, key);
+
     }
     
     /**
@@ -984,15 +714,24 @@ public class Utils {
         ArgUtils.notMin(from, 0, "from");
         ArgUtils.notNull(config, "config");
         
-        final int rows = POIUtils.getColumns(sheet);
-        for(int i=0; i < rows; i++) {
-            final Cell[] columns = POIUtils.getColumn(sheet, i);
-            for(int j=from; j < columns.length; j++) {
-                final String cellValue = POIUtils.getCellContents(columns[j], config.getCellFormatter());
-                if(cellValue.equals(label)) {
-                    return columns[j];
+        final CellLabelIndex labelIndex = CellLabelIndex.get(sheet);
+        if(labelIndex != null) {
+            final Cell cell = labelIndex.findInColumnOrder(label, from, config.getCellFormatter());
+            if(cell != null) {
+                return cell;
+            }
+            
+        } else {
+            final int rows = POIUtils.getColumns(sheet);
+            for(int i=0; i < rows; i++) {
+                final Cell[] columns = POIUtils.getColumn(sheet, i);
+                for(int j=from; j < columns.length; j++) {
+                    final String cellValue = POIUtils.getCellContents(columns[j], config.getCellFormatter());
+                    if(cellValue.equals(label)) {
+                        return columns[j];
+                    }
+                    
                 }
-                
             }
         }
         
@@ -1041,19 +780,28 @@ public class Utils {
         ArgUtils.notMin(fromRow, 0, "fromRow");
         ArgUtils.notNull(config, "config");
         
-        final int maxRow = POIUtils.getRows(sheet);
-        for(int i=fromRow; i < maxRow; i++) {
-            final Row row = sheet.getRow(i);
-            if(row == null) {
-                continue;
+        final CellLabelIndex labelIndex = CellLabelIndex.get(sheet);
+        if(labelIndex != null) {
+            final Cell cell = labelIndex.findInRowOrder(label, fromCol, fromRow, true, config.getCellFormatter());
+            if(cell != null) {
+                return cell;
             }
             
-            final int maxCol = row.getLastCellNum();;
-            for(int j=fromCol; j < maxCol; j++) {
-                final Cell cell = row.getCell(j, Row.CREATE_NULL_AS_BLANK);
-                final String cellValue = POIUtils.getCellContents(cell, config.getCellFormatter());
-                if(cellValue.equals(label)) {
-                    return cell;
+        } else {
+            final int maxRow = POIUtils.getRows(sheet);
+            for(int i=fromRow; i < maxRow; i++) {
+                final Row row = sheet.getRow(i);
+                if(row == null) {
+                    continue;
+                }
+                
+                final int maxCol = row.getLastCellNum();;
+                for(int j=fromCol; j < maxCol; j++) {
+                    final Cell cell = row.getCell(j, Row.CREATE_NULL_AS_BLANK);
+                    final String cellValue = POIUtils.getCellContents(cell, config.getCellFormatter());
+                    if(cellValue.equals(label)) {
+                        return cell;
+                    }
                 }
             }
         }
@@ -1116,24 +864,33 @@ public class Utils {
         int columnStart = after.getColumnIndex();
         int rowStart = after.getRowIndex();
         
-        final int maxRow = POIUtils.getRows(sheet);
-        for(int i=rowStart; i < maxRow; i++) {
-            final Row row = sheet.getRow(i);
-            if(row == null) {
-                continue;
+        final CellLabelIndex labelIndex = CellLabelIndex.get(sheet);
+        if(labelIndex != null) {
+            final Cell cell = labelIndex.findInRowOrder(label, columnStart, rowStart, includeAfter, config.getCellFormatter());
+            if(cell != null) {
+                return cell;
             }
             
-            final int maxCol = row.getLastCellNum();;
-            for(int j=columnStart; j < maxCol; j++) {
-                
-                if(!includeAfter && i == rowStart && j == columnStart) {
+        } else {
+            final int maxRow = POIUtils.getRows(sheet);
+            for(int i=rowStart; i < maxRow; i++) {
+                final Row row = sheet.getRow(i);
+                if(row == null) {
                     continue;
                 }
                 
-                final Cell cell = row.getCell(j, Row.CREATE_NULL_AS_BLANK);
-                final String cellValue = POIUtils.getCellContents(cell, config.getCellFormatter());
-                if(cellValue.equals(label)) {
-                    return cell;
+                final int maxCol = row.getLastCellNum();;
+                for(int j=columnStart; j < maxCol; j++) {
+                    
+                    if(!includeAfter && i == rowStart && j == columnStart) {
+                        continue;
+                    }
+                    
+                    final Cell cell = row.getCell(j, Row.CREATE_NULL_AS_BLANK);
+                    final String cellValue = POIUtils.getCellContents(cell, config.getCellFormatter());
+                    if(cellValue.equals(label)) {
+                        return cell;
+                    }
                 }
             }
         }
@@ -0,0 +1,107 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+
+/**
+ * ファイルから直接開いたワークブック。
+ * <p>{@link org.apache.poi.ss.usermodel.WorkbookFactory#create(InputStream)}と異なり、ファイル全体をメモリ上に読み込まず、
+ *    Excel(.xlsx)は{@link OPCPackage}で、Excel(.xls)は{@link NPOIFSFileSystem}で必要な部分のみを読み込む。
+ * <p>ワークブックを利用し終えたら、{@link #close()}で閉じる。元のファイルは変更しない。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class WorkbookFile implements Closeable {
+    
+    private final Workbook workbook;
+    
+    /** Excel(.xlsx)の場合のパッケージ */
+    private final OPCPackage pkg;
+    
+    /** Excel(.xls)の場合のファイルシステム */
+    private final NPOIFSFileSystem fs;
+    
+    private WorkbookFile(final Workbook workbook, final OPCPackage pkg, final NPOIFSFileSystem fs) {
+        this.workbook = workbook;
+        this.pkg = pkg;
+        this.fs = fs;
+    }
+    
+    /**
+     * ファイルからワークブックを開く。
+     * @param file Excelファイル
+     * @param writable ワークブックを別のストリームに書き込む場合はtrueを指定する。
+     * @return 開いたワークブック
+     * @throws InvalidFormatException Excelファイルの形式が不正な場合
+     * @throws IOException
+     */
+    static WorkbookFile open(final File file, final boolean writable) throws InvalidFormatException, IOException {
+        
+        if(isOLE2(file)) {
+            final NPOIFSFileSystem fs = new NPOIFSFileSystem(file, true);
+            try {
+                return new WorkbookFile(new HSSFWorkbook(fs.getRoot(), true), null, fs);
+            } catch(IOException | RuntimeException e) {
+                fs.close();
+                throw e;
+            }
+        }
+        
+        // 読み込み専用で開いたパッケージは、別のストリームに保存できない
+        final OPCPackage pkg = OPCPackage.open(file, writable ? PackageAccess.READ_WRITE : PackageAccess.READ);
+        try {
+            return new WorkbookFile(new XSSFWorkbook(pkg), pkg, null);
+        } catch(IOException | RuntimeException e) {
+            pkg.revert();
+            throw e;
+        }
+    }
+    
+    /**
+     * Excel(.xls)のファイルかどうか。
+     * @param file 判定するファイル
+     * @return OLE2形式のファイルの場合はtrueを返す。
+     * @throws IOException
+     */
+    static boolean isOLE2(final File file) throws IOException {
+        try(InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return POIFSFileSystem.hasPOIFSHeader(in);
+        }
+    }
+    
+    public Workbook getWorkbook() {
+        return workbook;
+    }
+    
+    /**
+     * ワークブックを閉じる。
+     * <p>パッケージへの変更は、元のファイルに保存せずに破棄する。
+     */
+    @Override
+    public void close() throws IOException {
+        if(pkg != null) {
+            pkg.revert();
+        }
+        
+        if(fs != null) {
+            fs.close();
+        }
+    }
+
+}
@@ -1,31 +1,34 @@
 package com.gh.mygreen.xlsmapper;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.gh.mygreen.xlsmapper.annotation.XlsPostLoad;
-import com.gh.mygreen.xlsmapper.annotation.XlsPreLoad;
 import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
-import com.gh.mygreen.xlsmapper.fieldprocessor.FieldAdaptor;
-import com.gh.mygreen.xlsmapper.fieldprocessor.LoadingFieldProcessor;
 import com.gh.mygreen.xlsmapper.validation.SheetBindingErrors;
 import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
-import com.gh.mygreen.xlsmapper.xml.XmlLoader;
-import com.gh.mygreen.xlsmapper.xml.bind.XmlInfo;
+import com.gh.mygreen.xlsmapper.xml.XmlLoadException;
+import com.gh.mygreen.xlsmapper.xml.XmlMapping;
 
 
 /**
@@ -64,7 +67,7 @@ public class XlsLoader {
         ArgUtils.notNull(xlsIn, "xlsIn");
         ArgUtils.notNull(clazz, "clazz");
         
-        return load(xlsIn, clazz, null, null);
+        return loadWithMapping(xlsIn, clazz, null, null);
     }
     
     /**
@@ -102,7 +105,7 @@ public class XlsLoader {
         ArgUtils.notNull(xlsIn, "xlsIn");
         ArgUtils.notNull(clazz, "clazz");
         
-        return load(xlsIn, clazz, null, errors);
+        return loadWithMapping(xlsIn, clazz, null, errors);
     }
     
     /**
@@ -123,14 +126,142 @@ public class XlsLoader {
         ArgUtils.notNull(xlsIn, "xlsIn");
         ArgUtils.notNull(clazz, "clazz");
         
-        XmlInfo xmlInfo = null;
-        if(xmlIn != null) {
-            xmlInfo = XmlLoader.load(xmlIn);
+        return loadWithMapping(xlsIn, clazz, createXmlMapping(xmlIn), errors);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、Excelファイルの１シートを読み込み、任意のクラスにマッピングする。
+     * @since 1.0
+     * @param xlsIn 読み込みもとのExcelファイルのストリーム。
+     * @param clazz マッピング先のクラスタイプ。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @param errors マッピング時のエラー情報。指定しない場合は、nulを指定する。
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     * @throws IllegalArgumentException xlsIn == null.
+     * @throws IllegalArgumentException clazz == null.
+     */
+    public <P> P loadWithMapping(final InputStream xlsIn, final Class<P> clazz, final XmlMapping xmlMapping, 
+            final SheetBindingErrors errors)
+            throws XlsMapperException, IOException {
+        ArgUtils.notNull(xlsIn, "xlsIn");
+        ArgUtils.notNull(clazz, "clazz");
+        
+        final XlsSheet sheetAnno = clazz.getAnnotation(XlsSheet.class);
+        if(sheetAnno == null) {
+            throw new AnnotationInvalidException("Cannot finld annoation '@XlsSheet'", sheetAnno);
+        }
+        
+        final Workbook book;
+        try {
+            book = createWorkbook(xlsIn, Arrays.asList(sheetAnno));
+            
+        } catch (InvalidFormatException e) {
+            throw new XlsMapperException("fail load Excel File", e);
         }
         
+        return loadWithMapping(book, clazz, xmlMapping, errors);
+    }
+    
+    /**
+     * Excelファイルの１シートを読み込み、任意のクラスにマッピングする。
+     * <p>ストリームと異なり、ファイル全体をメモリ上に読み込まない。
+     * @since 1.0
+     * @param xlsFile 読み込みもとのExcelファイル。
+     * @param clazz マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     * @throws IllegalArgumentException xlsFile == null.
+     * @throws IllegalArgumentException clazz == null.
+     */
+    public <P> P load(final File xlsFile, final Class<P> clazz) throws XlsMapperException, IOException {
+        return loadWithMapping(xlsFile, clazz, null, null);
+    }
+    
+    /**
+     * Excelファイルの１シートを読み込み、任意のクラスにマッピングする。
+     * @since 1.0
+     * @param xlsPath 読み込みもとのExcelファイルのパス。
+     * @param clazz マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     * @throws IllegalArgumentException xlsPath == null.
+     * @throws IllegalArgumentException clazz == null.
+     */
+    public <P> P load(final Path xlsPath, final Class<P> clazz) throws XlsMapperException, IOException {
+        ArgUtils.notNull(xlsPath, "xlsPath");
+        return load(xlsPath.toFile(), clazz);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、Excelファイルの１シートを読み込み、任意のクラスにマッピングする。
+     * <p>ストリームと異なり、ファイル全体をメモリ上に読み込まない。
+     *    ただし、{@link XlsMapperConfig#isLoadOnlyTargetSheets()}が有効な場合は、ストリームから読み込む。
+     * @since 1.0
+     * @param xlsFile 読み込みもとのExcelファイル。
+     * @param clazz マッピング先のクラスタイプ。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @param errors マッピング時のエラー情報。指定しない場合は、nulを指定する。
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     * @throws IllegalArgumentException xlsFile == null.
+     * @throws IllegalArgumentException clazz == null.
+     */
+    public <P> P loadWithMapping(final File xlsFile, final Class<P> clazz, final XmlMapping xmlMapping,
+            final SheetBindingErrors errors) throws XlsMapperException, IOException {
+        ArgUtils.notNull(xlsFile, "xlsFile");
+        ArgUtils.notNull(clazz, "clazz");
+        
+        if(config.isLoadOnlyTargetSheets()) {
+            try(InputStream xlsIn = new FileInputStream(xlsFile)) {
+                return loadWithMapping(xlsIn, clazz, xmlMapping, errors);
+            }
+        }
+        
+        try(WorkbookFile bookFile = openWorkbookFile(xlsFile)) {
+            return loadWithMapping(bookFile.getWorkbook(), clazz, xmlMapping, errors);
+        }
+    }
+    
+    /**
+     * 読み込み済みのワークブックの１シートを読み込み、任意のクラスにマッピングする。
+     * <p>同じワークブックから、複数のクラスを読み込む場合に利用する。
+     * @since 1.0
+     * @param book 読み込みもとのワークブック。
+     * @param clazz マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     * @throws IllegalArgumentException book == null.
+     * @throws IllegalArgumentException clazz == null.
+     */
+    public <P> P load(final Workbook book, final Class<P> clazz) throws XlsMapperException {
+        return loadWithMapping(book, clazz, null, null);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、読み込み済みのワークブックの１シートを読み込み、任意のクラスにマッピングする。
+     * @since 1.0
+     * @param book 読み込みもとのワークブック。
+     * @param clazz マッピング先のクラスタイプ。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @param errors マッピング時のエラー情報。指定しない場合は、nulを指定する。
+     * @return
+     * @throws XlsMapperException 
+     * @throws IllegalArgumentException book == null.
+     * @throws IllegalArgumentException clazz == null.
+     */
+    public <P> P loadWithMapping(final Workbook book, final Class<P> clazz, final XmlMapping xmlMapping,
+            final SheetBindingErrors errors) throws XlsMapperException {
+        ArgUtils.notNull(book, "book");
+        ArgUtils.notNull(clazz, "clazz");
+        
         final LoadingWorkObject work = new LoadingWorkObject();
         
-        final AnnotationReader annoReader = new AnnotationReader(xmlInfo);
+        final AnnotationReader annoReader = createAnnotationReader(xmlMapping);
         work.setAnnoReader(annoReader);
         
         if(errors != null) {
@@ -144,14 +275,7 @@ public class XlsLoader {
             throw new AnnotationInvalidException("Cannot finld annoation '@XlsSheet'", sheetAnno);
         }
         
-        final Workbook book;
-        try {
-            book = WorkbookFactory.create(xlsIn);
-            
-        } catch (InvalidFormatException e) {
-            throw new XlsMapperException("fail load Excel File", e);
-        }
-        
+        prepareWorkbook(book);
         try {
             final org.apache.poi.ss.usermodel.Sheet[] xlsSheet = findSheet(book, sheetAnno);
             return loadSheet(xlsSheet[0], clazz, work);
@@ -162,6 +286,8 @@ public class XlsLoader {
             } else {
                 throw e;
             }
+        } finally {
+            POIUtils.unregisterFormulaEvaluator(book);
         }
     }
     
@@ -177,7 +303,7 @@ public class XlsLoader {
         ArgUtils.notNull(xlsIn, "xlsIn");
         ArgUtils.notNull(clazz, "clazz");
         
-        return loadMultiple(xlsIn, clazz, null, null);
+        return loadMultipleWithMapping(xlsIn, clazz, null, null);
     }
     
     /**
@@ -210,7 +336,7 @@ public class XlsLoader {
         ArgUtils.notNull(xlsIn, "xlsIn");
         ArgUtils.notNull(clazz, "clazz");
         
-        return loadMultiple(xlsIn, clazz, null, errorsContainer);
+        return loadMultipleWithMapping(xlsIn, clazz, null, errorsContainer);
     }
     
     /**
@@ -223,65 +349,161 @@ public class XlsLoader {
      * @throws XlsMapperException 
      * @throws IOException 
      */
-    @SuppressWarnings("unchecked")
     public <P> P[] loadMultiple(final InputStream xlsIn, final Class<P> clazz, final InputStream xmlIn,
             final SheetBindingErrorsContainer errorsContainer) throws XlsMapperException, IOException {
         
         ArgUtils.notNull(xlsIn, "xlsIn");
         ArgUtils.notNull(clazz, "clazz");
         
-        XmlInfo xmlInfo = null;
-        if(xmlIn != null) {
-            xmlInfo = XmlLoader.load(xmlIn);
-        }
+        return loadMultipleWithMapping(xlsIn, clazz, createXmlMapping(xmlIn), errorsContainer);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、Excelファイルの複数シートを読み込み、任意のクラスにマップする。
+     * @since 1.0
+     * @param xlsIn
+     * @param clazz
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @param errorsContainer
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public <P> P[] loadMultipleWithMapping(final InputStream xlsIn, final Class<P> clazz, final XmlMapping xmlMapping,
+            final SheetBindingErrorsContainer errorsContainer) throws XlsMapperException, IOException {
         
-        final AnnotationReader annoReader = new AnnotationReader(xmlInfo);
+        ArgUtils.notNull(xlsIn, "xlsIn");
+        ArgUtils.notNull(clazz, "clazz");
         
         final XlsSheet sheetAnno = clazz.getAnnotation(XlsSheet.class);
         if(sheetAnno == null) {
             throw new AnnotationInvalidException("Cannot finld annoation '@XlsSheet'", sheetAnno);
         }
         
-        final SheetBindingErrorsContainer container;
-        if(errorsContainer != null) {
-            container = errorsContainer;
-        } else {
-            container = new SheetBindingErrorsContainer(clazz);
-        }
-        
         final Workbook book;
         try {
-            book = WorkbookFactory.create(xlsIn);
+            book = createWorkbook(xlsIn, Arrays.asList(sheetAnno));
             
         } catch (InvalidFormatException e) {
             throw new XlsMapperException("fail load Excel File", e);
         }
         
-        final List<P> list = new ArrayList<P>();
+        return loadMultipleWithMapping(book, clazz, xmlMapping, errorsContainer);
+    }
+    
+    /**
+     * Excelファイルの複数シートを読み込み、任意のクラスにマップする。
+     * <p>ストリームと異なり、ファイル全体をメモリ上に読み込まない。
+     * @since 1.0
+     * @param xlsFile 読み込みもとのExcelファイル。
+     * @param clazz マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public <P> P[] loadMultiple(final File xlsFile, final Class<P> clazz) throws XlsMapperException, IOException {
+        return loadMultipleWithMapping(xlsFile, clazz, null, null);
+    }
+    
+    /**
+     * Excelファイルの複数シートを読み込み、任意のクラスにマップする。
+     * @since 1.0
+     * @param xlsPath 読み込みもとのExcelファイルのパス。
+     * @param clazz マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public <P> P[] loadMultiple(final Path xlsPath, final Class<P> clazz) throws XlsMapperException, IOException {
+        ArgUtils.notNull(xlsPath, "xlsPath");
+        return loadMultiple(xlsPath.toFile(), clazz);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、Excelファイルの複数シートを読み込み、任意のクラスにマップする。
+     * <p>ストリームと異なり、ファイル全体をメモリ上に読み込まない。
+     *    ただし、{@link XlsMapperConfig#isLoadOnlyTargetSheets()}が有効な場合は、ストリームから読み込む。
+     * @since 1.0
+     * @param xlsFile 読み込みもとのExcelファイル。
+     * @param clazz マッピング先のクラスタイプ。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @param errorsContainer
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public <P> P[] loadMultipleWithMapping(final File xlsFile, final Class<P> clazz, final XmlMapping xmlMapping,
+            final SheetBindingErrorsContainer errorsContainer) throws XlsMapperException, IOException {
+        
+        ArgUtils.notNull(xlsFile, "xlsFile");
+        ArgUtils.notNull(clazz, "clazz");
+        
+        if(config.isLoadOnlyTargetSheets()) {
+            try(InputStream xlsIn = new FileInputStream(xlsFile)) {
+                return loadMultipleWithMapping(xlsIn, clazz, xmlMapping, errorsContainer);
+            }
+        }
+        
+        try(WorkbookFile bookFile = openWorkbookFile(xlsFile)) {
+            return loadMultipleWithMapping(bookFile.getWorkbook(), clazz, xmlMapping, errorsContainer);
+        }
+    }
+    
+    /**
+     * 読み込み済みのワークブックの複数シートを読み込み、任意のクラスにマップする。
+     * @since 1.0
+     * @param book 読み込みもとのワークブック。
+     * @param clazz マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     */
+    public <P> P[] loadMultiple(final Workbook book, final Class<P> clazz) throws XlsMapperException {
+        return loadMultipleWithMapping(book, clazz, null, null);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、読み込み済みのワークブックの複数シートを読み込み、任意のクラスにマップする。
+     * @since 1.0
+     * @param book 読み込みもとのワークブック。
+     * @param clazz マッピング先のクラスタイプ。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @param errorsContainer
+     * @return
+     * @throws XlsMapperException 
+     */
+    @SuppressWarnings("unchecked")
+    public <P> P[] loadMultipleWithMapping(final Workbook book, final Class<P> clazz, final XmlMapping xmlMapping,
+            final SheetBindingErrorsContainer errorsContainer) throws XlsMapperException {
         
+        ArgUtils.notNull(book, "book");
+        ArgUtils.notNull(clazz, "clazz");
+        
+        final AnnotationReader annoReader = createAnnotationReader(xmlMapping);
+        
+        final XlsSheet sheetAnno = clazz.getAnnotation(XlsSheet.class);
+        if(sheetAnno == null) {
+            throw new AnnotationInvalidException("Cannot finld annoation '@XlsSheet'", sheetAnno);
+        }
+        
+        final SheetBindingErrorsContainer container;
+        if(errorsContainer != null) {
+            container = errorsContainer;
+        } else {
+            container = new SheetBindingErrorsContainer(clazz);
+        }
+        
+        final List<org.apache.poi.ss.usermodel.Sheet> sheets = new ArrayList<>();
         if(sheetAnno.number() == -1 && sheetAnno.name().isEmpty() && sheetAnno.regex().isEmpty()) {
             // 読み込むシートの条件が指定されていない場合、全て読み込む
             int sheetNum = book.getNumberOfSheets();
             for(int i=0; i < sheetNum; i++) {
-                final org.apache.poi.ss.usermodel.Sheet sheet = book.getSheetAt(i);
-                
-                final LoadingWorkObject work = new LoadingWorkObject();
-                work.setAnnoReader(annoReader);
-                work.setErrors(container.findBindingResult(i));
-                list.add(loadSheet(sheet, clazz, work));
+                sheets.add(book.getSheetAt(i));
             }
             
         } else {
             // 読み込むシートの条件が指定されている場合
             try {
-                final org.apache.poi.ss.usermodel.Sheet[] xlsSheet = findSheet(book, sheetAnno);
-                for(org.apache.poi.ss.usermodel.Sheet sheet : xlsSheet) {
-                    
-                    final LoadingWorkObject work = new LoadingWorkObject();
-                    work.setAnnoReader(annoReader);
-                    work.setErrors(container.findBindingResult(list.size()));
-                    list.add(loadSheet(sheet, clazz, work));
-                }
+                sheets.addAll(Arrays.asList(findSheet(book, sheetAnno)));
                 
             } catch(SheetNotFoundException e) {
                 if(config.isIgnoreSheetNotFound()){
@@ -293,11 +515,35 @@ public class XlsLoader {
             
         }
         
+        // エラー情報は、シートの順番に作成しておく
+        final List<LoadingWorkObject> works = new ArrayList<>();
+        for(int i=0; i < sheets.size(); i++) {
+            final LoadingWorkObject work = new LoadingWorkObject();
+            work.setAnnoReader(annoReader);
+            work.setErrors(container.findBindingResult(i));
+            works.add(work);
+        }
+        
+        final List<P> list;
+        prepareWorkbook(book);
+        try {
+            if(config.getParallelLoadExecutor() != null && sheets.size() > 1 && isParallelLoadable(book)) {
+                list = loadSheetsInParallel(book, sheets, clazz, works, config.getParallelLoadExecutor());
+            } else {
+                list = new ArrayList<>();
+                for(int i=0; i < sheets.size(); i++) {
+                    list.add(loadSheet(sheets.get(i), clazz, works.get(i)));
+                }
+            }
+        } finally {
+            POIUtils.unregisterFormulaEvaluator(book);
+        }
+        
         return list.toArray((P[])Array.newInstance(clazz, list.size()));
     }
     
     public Object[] loadMultiple(final InputStream xlsIn, final Class<?>[] classes) throws XlsMapperException {
-        return loadMultiple(xlsIn, classes, null, null);
+        return loadMultipleWithMapping(xlsIn, classes, null, null);
     }
     
     public Object[] loadMultiple(final InputStream xlsIn, final Class<?>[] classes, final InputStream xmlIn) throws XlsMapperException {
@@ -306,7 +552,7 @@ public class XlsLoader {
     
     public Object[] loadMultiple(final InputStream xlsIn, final Class<?>[] classes,
             final SheetBindingErrorsContainer errorsContainer) throws XlsMapperException {
-        return loadMultiple(xlsIn, classes, null, errorsContainer);
+        return loadMultipleWithMapping(xlsIn, classes, null, errorsContainer);
     }
     
     public Object[] loadMultiple(final InputStream xlsIn, final Class<?>[] classes, final InputStream xmlIn,
@@ -315,12 +561,133 @@ public class XlsLoader {
         ArgUtils.notNull(xlsIn, "xlsIn");
         ArgUtils.notEmpty(classes, "clazz");
         
-        XmlInfo xmlInfo = null;
-        if(xmlIn != null) {
-            xmlInfo = XmlLoader.load(xmlIn);
+        return loadMultipleWithMapping(xlsIn, classes, createXmlMapping(xmlIn), errorsContainer);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、Excelファイルの複数シートを読み込み、それぞれのクラスにマップする。
+     * @since 1.0
+     * @param xlsIn
+     * @param classes
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @param errorsContainer
+     * @return
+     * @throws XlsMapperException
+     */
+    public Object[] loadMultipleWithMapping(final InputStream xlsIn, final Class<?>[] classes, final XmlMapping xmlMapping,
+            SheetBindingErrorsContainer errorsContainer) throws XlsMapperException {
+        
+        ArgUtils.notNull(xlsIn, "xlsIn");
+        ArgUtils.notEmpty(classes, "clazz");
+        
+        final List<XlsSheet> sheetAnnos = new ArrayList<>();
+        for(Class<?> clazz : classes) {
+            final XlsSheet sheetAnno = clazz.getAnnotation(XlsSheet.class);
+            if(sheetAnno != null) {
+                sheetAnnos.add(sheetAnno);
+            }
+        }
+        
+        final Workbook book;
+        try {
+            book = createWorkbook(xlsIn, sheetAnnos);
+            
+        } catch (InvalidFormatException | IOException e) {
+            throw new XlsMapperException("fail load Excel File", e);
+        }
+        
+        return loadMultipleWithMapping(book, classes, xmlMapping, errorsContainer);
+    }
+    
+    /**
+     * Excelファイルの複数シートを読み込み、それぞれのクラスにマップする。
+     * <p>ストリームと異なり、ファイル全体をメモリ上に読み込まない。
+     * @since 1.0
+     * @param xlsFile 読み込みもとのExcelファイル。
+     * @param classes マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException
+     */
+    public Object[] loadMultiple(final File xlsFile, final Class<?>[] classes) throws XlsMapperException {
+        return loadMultipleWithMapping(xlsFile, classes, null, null);
+    }
+    
+    /**
+     * Excelファイルの複数シートを読み込み、それぞれのクラスにマップする。
+     * @since 1.0
+     * @param xlsPath 読み込みもとのExcelファイルのパス。
+     * @param classes マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException
+     */
+    public Object[] loadMultiple(final Path xlsPath, final Class<?>[] classes) throws XlsMapperException {
+        ArgUtils.notNull(xlsPath, "xlsPath");
+        return loadMultiple(xlsPath.toFile(), classes);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、Excelファイルの複数シートを読み込み、それぞれのクラスにマップする。
+     * <p>ストリームと異なり、ファイル全体をメモリ上に読み込まない。
+     *    ただし、{@link XlsMapperConfig#isLoadOnlyTargetSheets()}が有効な場合は、ストリームから読み込む。
+     * @since 1.0
+     * @param xlsFile 読み込みもとのExcelファイル。
+     * @param classes マッピング先のクラスタイプ。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @param errorsContainer
+     * @return
+     * @throws XlsMapperException
+     */
+    public Object[] loadMultipleWithMapping(final File xlsFile, final Class<?>[] classes, final XmlMapping xmlMapping,
+            SheetBindingErrorsContainer errorsContainer) throws XlsMapperException {
+        
+        ArgUtils.notNull(xlsFile, "xlsFile");
+        ArgUtils.notEmpty(classes, "clazz");
+        
+        if(config.isLoadOnlyTargetSheets()) {
+            try(InputStream xlsIn = new FileInputStream(xlsFile)) {
+                return loadMultipleWithMapping(xlsIn, classes, xmlMapping, errorsContainer);
+            } catch(IOException e) {
+                throw new XlsMapperException("fail load Excel File", e);
+            }
         }
         
-        final AnnotationReader annoReader = new AnnotationReader(xmlInfo);
+        try(WorkbookFile bookFile = openWorkbookFile(xlsFile)) {
+            return loadMultipleWithMapping(bookFile.getWorkbook(), classes, xmlMapping, errorsContainer);
+        } catch(IOException e) {
+            throw new XlsMapperException("fail load Excel File", e);
+        }
+    }
+    
+    /**
+     * 読み込み済みのワークブックの複数シートを読み込み、それぞれのクラスにマップする。
+     * <p>1度の解析で、複数のクラスを読み込む場合に利用する。
+     * @since 1.0
+     * @param book 読み込みもとのワークブック。
+     * @param classes マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException
+     */
+    public Object[] loadMultiple(final Workbook book, final Class<?>[] classes) throws XlsMapperException {
+        return loadMultipleWithMapping(book, classes, null, null);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、読み込み済みのワークブックの複数シートを読み込み、それぞれのクラスにマップする。
+     * @since 1.0
+     * @param book 読み込みもとのワークブック。
+     * @param classes マッピング先のクラスタイプ。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @param errorsContainer
+     * @return
+     * @throws XlsMapperException
+     */
+    public Object[] loadMultipleWithMapping(final Workbook book, final Class<?>[] classes, final XmlMapping xmlMapping,
+            SheetBindingErrorsContainer errorsContainer) throws XlsMapperException {
+        
+        ArgUtils.notNull(book, "book");
+        ArgUtils.notEmpty(classes, "clazz");
+        
+        final AnnotationReader annoReader = createAnnotationReader(xmlMapping);
         
         final SheetBindingErrorsContainer container;
         if(errorsContainer != null) {
@@ -329,41 +696,186 @@ public class XlsLoader {
             container = new SheetBindingErrorsContainer(classes);
         }
         
-        final Workbook book;
+        final List<Object> list = new ArrayList<Object>();
+        
+        prepareWorkbook(book);
         try {
-            book = WorkbookFactory.create(xlsIn);
-            
-        } catch (InvalidFormatException | IOException e) {
+            for(Class<?> clazz : classes) {
+                final XlsSheet sheetAnno = clazz.getAnnotation(XlsSheet.class);
+                if(sheetAnno == null) {
+                    throw new AnnotationInvalidException("Cannot finld annoation '@XlsSheet'", sheetAnno);
+                }
+                
+                try {
+                    final org.apache.poi.ss.usermodel.Sheet[] xlsSheet = findSheet(book, sheetAnno);
+                    for(org.apache.poi.ss.usermodel.Sheet sheet: xlsSheet) {
+                        
+                        final LoadingWorkObject work = new LoadingWorkObject();
+                        work.setAnnoReader(annoReader);
+                        work.setErrors(container.findBindingResult(list.size()));
+                        list.add(loadSheet(sheet, clazz, work));
+                        
+                    } 
+                } catch(SheetNotFoundException ex){
+                    if(!config.isIgnoreSheetNotFound()){
+                        logger.warn("skip loading by not-found sheet.", ex);
+                        throw ex;
+                    }
+                }
+                
+            }
+        } finally {
+            POIUtils.unregisterFormulaEvaluator(book);
+        }
+        
+        return list.toArray();
+    }
+    
+    /**
+     * ファイルからワークブックを開く。
+     * @param xlsFile 読み込みもとのExcelファイル。
+     * @return 開いたワークブック
+     */
+    private WorkbookFile openWorkbookFile(final File xlsFile) throws XlsMapperException, IOException {
+        try {
+            return WorkbookFile.open(xlsFile, false);
+        } catch (InvalidFormatException e) {
             throw new XlsMapperException("fail load Excel File", e);
         }
+    }
+    
+    /**
+     * ワークブックを作成する。
+     * <p>設定により、読み込む対象のシートのみを解析する。
+     * @param xlsIn 読み込みもとのExcelファイルのストリーム。
+     * @param sheetAnnos 読み込むシートを指定したアノテーション。
+     * @return 作成したワークブック
+     */
+    private Workbook createWorkbook(final InputStream xlsIn, final Collection<XlsSheet> sheetAnnos)
+            throws InvalidFormatException, IOException {
+        
+        if(config.isLoadOnlyTargetSheets()) {
+            return TargetSheetWorkbookFactory.create(xlsIn, sheetAnnos);
+        }
         
-        final List<Object> list = new ArrayList<Object>();
-        for(Class<?> clazz : classes) {
-            final XlsSheet sheetAnno = clazz.getAnnotation(XlsSheet.class);
-            if(sheetAnno == null) {
-                throw new AnnotationInvalidException("Cannot finld annoation '@XlsSheet'", sheetAnno);
-            }
-            
+        return WorkbookFactory.create(xlsIn);
+    }
+    
+    /**
+     * 読み込むワークブックに対して、数式の評価処理を共有するようにする。
+     * <p>設定により、全ての数式を事前に評価する。
+     * @param book 読み込むワークブック
+     */
+    private void prepareWorkbook(final Workbook book) {
+        
+        POIUtils.registerFormulaEvaluator(book);
+        if(config.isPreEvaluateFormulaOnLoad()) {
+            POIUtils.preEvaluateFormulas(book);
+        }
+    }
+    
+    /**
+     * XMLを読み込み、マッピング情報を作成する。
+     * @param xmlIn XMLの入力。
+     * @return xmlInがnullの場合は、nullを返す。
+     * @throws XmlLoadException
+     */
+    private static XmlMapping createXmlMapping(final InputStream xmlIn) throws XmlLoadException {
+        if(xmlIn == null) {
+            return null;
+        }
+        
+        return XmlMapping.load(xmlIn);
+    }
+    
+    /**
+     * XMLのマッピング情報をもとに、アノテーションの読み込みクラスを作成する。
+     * @param xmlMapping XMLのマッピング情報。nullの場合はXMLの定義を利用しない。
+     * @return
+     */
+    private static AnnotationReader createAnnotationReader(final XmlMapping xmlMapping) {
+        if(xmlMapping == null) {
+            return new AnnotationReader(null);
+        }
+        
+        return xmlMapping.createAnnotationReader();
+    }
+    
+    /**
+     * ワークブックのシートを、並列に読み込めるかどうか判定する。
+     * <p>POIのワークブックはスレッドセーフではないため、シートごとに別のスレッドで読み込めるのは、XSSF形式のみとする。
+     *    XSSF形式は、シートの情報をシートごとに保持し、共有する文字列やスタイルの情報を読み込み時に変更しない。
+     *    HSSF形式は、コメントの取得時などにワークブックで共有する描画の情報を変更するため、並列に読み込まない。
+     * @param book 読み込むワークブック
+     * @return 並列に読み込める場合はtrue。
+     */
+    private static boolean isParallelLoadable(final Workbook book) {
+        return book instanceof XSSFWorkbook;
+    }
+    
+    /**
+     * 複数のシートを並列に読み込み、任意のクラスにマッピングする。
+     * <p>各シートは読み込み中は読み込み専用となり、セルの作成などの変更を行わないため、シートごとに独立して読み込める。
+     *    1つのシートは1つのスレッドのみが読み込み、ワークブックで共有する数式の評価処理は、同期して利用する。
+     * @param book 読み込むワークブック。{@link #isParallelLoadable(Workbook)}で並列に読み込めるもの。
+     * @param sheets 読み込むシート
+     * @param clazz マッピング先のクラスタイプ。
+     * @param works シートごとの作業用のオブジェクト
+     * @param executor 並列に読み込む処理
+     * @return シートの順番に並べた、読み込んだ結果
+     * @throws XlsMapperException いずれかのシートの読み込みに失敗した場合。シートの順番で最初の例外をスローする。
+     */
+    private <P> List<P> loadSheetsInParallel(final Workbook book, final List<org.apache.poi.ss.usermodel.Sheet> sheets,
+            final Class<P> clazz, final List<LoadingWorkObject> works, final ExecutorService executor) throws XlsMapperException {
+        
+        // 初回の参照時に作成される書式の情報は、複数のスレッドで作成しないよう、呼び出し元のスレッドで作成しておく
+        book.createDataFormat();
+        
+        final List<Future<P>> futures = new ArrayList<>();
+        for(int i=0; i < sheets.size(); i++) {
+            final org.apache.poi.ss.usermodel.Sheet sheet = sheets.get(i);
+            final LoadingWorkObject work = works.get(i);
+            futures.add(executor.submit(new Callable<P>() {
+                
+                @Override
+                public P call() throws Exception {
+                    return loadSheet(sheet, clazz, work);
+                }
+            }));
+        }
+        
+        // 読み込み中のシートが残らないよう、失敗した場合も全てのシートの読み込みの完了を待つ
+        final List<P> list = new ArrayList<>();
+        Throwable failure = null;
+        for(Future<P> future : futures) {
             try {
-                final org.apache.poi.ss.usermodel.Sheet[] xlsSheet = findSheet(book, sheetAnno);
-                for(org.apache.poi.ss.usermodel.Sheet sheet: xlsSheet) {
-                    
-                    final LoadingWorkObject work = new LoadingWorkObject();
-                    work.setAnnoReader(annoReader);
-                    work.setErrors(container.findBindingResult(list.size()));
-                    list.add(loadSheet(sheet, clazz, work));
-                    
-                } 
-            } catch(SheetNotFoundException ex){
-                if(!config.isIgnoreSheetNotFound()){
-                    logger.warn("skip loading by not-found sheet.", ex);
-                    throw ex;
+                list.add(future.get());
+                
+            } catch(ExecutionException e) {
+                if(failure == null) {
+                    failure = e.getCause();
                 }
+                
+            } catch(InterruptedException e) {
+                for(Future<P> remain : futures) {
+                    remain.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                throw new XlsMapperException("interrupted loading sheet.", e);
             }
-            
         }
         
-        return list.toArray();
+        if(failure instanceof XlsMapperException) {
+            throw (XlsMapperException) failure;
+        } else if(failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if(failure instanceof Error) {
+            throw (Error) failure;
+        } else if(failure != null) {
+            throw new XlsMapperException("fail load sheet.", failure);
+        }
+        
+        return list;
     }
     
     /**
@@ -375,68 +887,48 @@ public class XlsLoader {
      * @throws Exception 
      * 
      */
-    @SuppressWarnings({"rawtypes"})
     private <P> P loadSheet(final org.apache.poi.ss.usermodel.Sheet sheet, final Class<P> clazz,
             final LoadingWorkObject work) throws XlsMapperException {
         
+        // 読み込み中は存在しないセルを作成せず、シートの値を変更しないため、ラベルの索引やセルの値のキャッシュを利用する
+        final SheetScope scope = SheetScope.open(sheet)
+                .enableReadOnly()
+                .enableLabelIndex()
+                .enableMergedRegionIndex()
+                .enableExtents()
+                .enableTextCache();
+        work.setSheetScope(scope);
+        try {
+            return doLoadSheet(sheet, clazz, work);
+        } finally {
+            work.setSheetScope(null);
+            scope.close();
+        }
+    }
+    
+    private <P> P doLoadSheet(final org.apache.poi.ss.usermodel.Sheet sheet, final Class<P> clazz,
+            final LoadingWorkObject work) throws XlsMapperException {
+        
         // 値の読み込み対象のJavaBeanオブジェクトの作成
         final P beanObj = config.createBean(clazz);
         
         work.getErrors().setSheetName(sheet.getSheetName());
         
-        final List<FieldAdaptorProxy> adaptorProxies = new ArrayList<>();
+        // クラスの解析結果をキャッシュから取得する
+        final SheetBindingPlan plan = config.getBindingPlanCache().getLoadingPlan(
+                clazz, work.getAnnoReader(), config.getFieldProcessorRegistry());
         
-        // @PreLoad用のメソッドの取得と実行
-        for(Method method : clazz.getMethods()) {
-            
-            final XlsPreLoad preProcessAnno = work.getAnnoReader().getAnnotation(beanObj.getClass(), method, XlsPreLoad.class);
-            if(preProcessAnno != null) {
-                Utils.invokeNeedProcessMethod(method, beanObj, sheet, config, work.getErrors());
-            }
+        // @PreLoad用のメソッドの実行
+        for(Method method : plan.getPreProcessMethods()) {
+            Utils.invokeNeedProcessMethod(method, beanObj, sheet, config, work.getErrors());
         }
         
-        // public メソッドの処理
-        for(Method method : clazz.getMethods()) {
-            method.setAccessible(true);
-            
-            for(Annotation anno : work.getAnnoReader().getAnnotations(clazz, method)) {
-                final LoadingFieldProcessor processor = config.getFieldProcessorRegistry().getLoadingProcessor(anno);
-                if(Utils.isSetterMethod(method) && processor != null) {
-                    final FieldAdaptor adaptor = new FieldAdaptor(clazz, method, work.getAnnoReader());
-                    adaptorProxies.add(new FieldAdaptorProxy(anno, processor, adaptor));
-                    break;
-                    
-                } else if(anno instanceof XlsPostLoad) {
-                    work.addNeedPostProcess(new NeedProcess(beanObj, method));
-                    break;
-                }
-            }
-            
-        }
-        
-        // public / private / protected / default フィールドの処理
-        for(Field field : clazz.getDeclaredFields()) {
-            
-            field.setAccessible(true);
-            final FieldAdaptor adaptor = new FieldAdaptor(clazz, field, work.getAnnoReader());
-            
-            // メソッドを重複している場合は排除する。
-            if(adaptorProxies.contains(adaptor)) {
-                continue;
-            }
-            
-            for(Annotation anno : work.getAnnoReader().getAnnotations(clazz, field)) {
-                final LoadingFieldProcessor processor = config.getFieldProcessorRegistry().getLoadingProcessor(anno);
-                if(processor != null) {
-                    adaptorProxies.add(new FieldAdaptorProxy(anno, processor, adaptor));
-                    break;
-                }
-            }
+        for(Method method : plan.getPostProcessMethods()) {
+            work.addNeedPostProcess(new NeedProcess(beanObj, method));
         }
         
         // 順番を並び替えて保存処理を実行する
-        Collections.sort(adaptorProxies, HintOrderComparator.createForLoading());
-        for(FieldAdaptorProxy adaptorProxy : adaptorProxies) {
+        for(FieldAdaptorProxy adaptorProxy : plan.getAdaptorProxies()) {
             adaptorProxy.loadProcess(sheet, beanObj, config, work);
         }
         
@@ -500,7 +992,15 @@ public class XlsLoader {
         return config;
     }
     
+    /**
+     * 設定を変更する。
+     * @param config
+     * @throws IllegalStateException 現在の設定を{@link XlsMapperConfig#freeze()}で変更不可にしている場合。
+     */
     public void setConfig(XlsMapperConfig config) {
+        if(this.config != null && this.config.isFrozen()) {
+            throw new IllegalStateException("config is frozen.");
+        }
         this.config = config;
     }
 }
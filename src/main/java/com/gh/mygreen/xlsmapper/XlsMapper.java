@@ -1,10 +1,16 @@
 package com.gh.mygreen.xlsmapper;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Path;
+
+import org.apache.poi.ss.usermodel.Workbook;
 
 import com.gh.mygreen.xlsmapper.validation.SheetBindingErrors;
+import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
+import com.gh.mygreen.xlsmapper.xml.XmlMapping;
 
 
 /**
@@ -21,20 +27,50 @@ public class XlsMapper {
     
     private XlsSaver saver;
     
+    private XlsStreamingLoader streamingLoader;
+    
+    private XlsStreamingSaver streamingSaver;
+    
     public XlsMapper() {
-        this.config = new XlsMapperConfig();
+        this(new XlsMapperConfig());
+    }
+    
+    /**
+     * 設定を指定するコンストラクタ。
+     * <p>{@link XlsMapperConfig#freeze()}で変更不可にした設定を指定した場合、
+     *    作成したインスタンスは、複数のスレッドから同時に読み込み・書き込みを行えます。
+     * @since 1.0
+     * @param config マッピングする際の設定
+     * @throws IllegalArgumentException config == null.
+     */
+    public XlsMapper(final XlsMapperConfig config) {
+        ArgUtils.notNull(config, "config");
+        
+        this.config = config;
         this.loader = new XlsLoader(getConig());
         this.saver = new XlsSaver(getConig());
+        this.streamingLoader = new XlsStreamingLoader(getConig());
+        this.streamingSaver = new XlsStreamingSaver(getConig());
     }
     
     public XlsMapperConfig getConig() {
         return config;
     }
     
+    /**
+     * 設定を変更する。
+     * @param config
+     * @throws IllegalStateException 現在の設定を{@link XlsMapperConfig#freeze()}で変更不可にしている場合。
+     */
     public void setConig(XlsMapperConfig config) {
+        if(this.config.isFrozen()) {
+            throw new IllegalStateException("config is frozen.");
+        }
         this.config = config;
         getLoader().setConfig(config);
         getSaver().setConfig(config);
+        getStreamingLoader().setConfig(config);
+        getStreamingSaver().setConfig(config);
     }
     
     public XlsLoader getLoader() {
@@ -45,6 +81,24 @@ public class XlsMapper {
         return saver;
     }
     
+    /**
+     * 大きなxlsxファイルを、シート全体をメモリに展開せずに読み込むためのローダーを取得する。
+     * @since 1.0
+     * @return
+     */
+    public XlsStreamingLoader getStreamingLoader() {
+        return streamingLoader;
+    }
+    
+    /**
+     * 大量のレコードを、ワークブック全体をメモリに保持せずに書き込むためのセーバーを取得する。
+     * @since 1.0
+     * @return
+     */
+    public XlsStreamingSaver getStreamingSaver() {
+        return streamingSaver;
+    }
+    
     /**
      * Excelファイルの１シートを読み込み、任意のクラスにマッピングする。
      * @param xlsIn 読み込みもとのExcelファイルのストリーム。
@@ -106,6 +160,91 @@ public class XlsMapper {
         return loader.load(xlsIn, clazz, xmlIn, errors);
     }
     
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、Excelファイルの１シートを読み込み、任意のクラスにマッピングする。
+     * @since 1.0
+     * @param xlsIn 読み込みもとのExcelファイルのストリーム。
+     * @param clazz マッピング先のクラスタイプ。
+     * @param xmlMapping XMLによる定義を必要としない場合は、nullを指定する。
+     * @param errors マッピング時のエラー情報。指定しない場合は、nulを指定する。
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     * @throws IllegalArgumentException xlsIn == null.
+     * @throws IllegalArgumentException clazz == null.
+     */
+    public <P> P loadWithMapping(final InputStream xlsIn, final Class<P> clazz, final XmlMapping xmlMapping, final SheetBindingErrors errors) throws XlsMapperException, IOException {
+        return loader.loadWithMapping(xlsIn, clazz, xmlMapping, errors);
+    }
+    
+    /**
+     * Excelファイルの１シートを読み込み、任意のクラスにマッピングする。
+     * <p>ストリームと異なり、ファイル全体をメモリ上に読み込まない。
+     * @since 1.0
+     * @param xlsFile 読み込みもとのExcelファイル。
+     * @param clazz マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public <P> P load(final File xlsFile, final Class<P> clazz) throws XlsMapperException, IOException {
+        return loader.load(xlsFile, clazz);
+    }
+    
+    /**
+     * Excelファイルの１シートを読み込み、任意のクラスにマッピングする。
+     * @since 1.0
+     * @param xlsPath 読み込みもとのExcelファイルのパス。
+     * @param clazz マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public <P> P load(final Path xlsPath, final Class<P> clazz) throws XlsMapperException, IOException {
+        return loader.load(xlsPath, clazz);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、Excelファイルの１シートを読み込み、任意のクラスにマッピングする。
+     * @since 1.0
+     * @param xlsFile 読み込みもとのExcelファイル。
+     * @param clazz マッピング先のクラスタイプ。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @param errors マッピング時のエラー情報。指定しない場合は、nulを指定する。
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public <P> P loadWithMapping(final File xlsFile, final Class<P> clazz, final XmlMapping xmlMapping, final SheetBindingErrors errors) throws XlsMapperException, IOException {
+        return loader.loadWithMapping(xlsFile, clazz, xmlMapping, errors);
+    }
+    
+    /**
+     * 読み込み済みのワークブックの１シートを読み込み、任意のクラスにマッピングする。
+     * @since 1.0
+     * @param book 読み込みもとのワークブック。
+     * @param clazz マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     */
+    public <P> P load(final Workbook book, final Class<P> clazz) throws XlsMapperException {
+        return loader.load(book, clazz);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、読み込み済みのワークブックの１シートを読み込み、任意のクラスにマッピングする。
+     * @since 1.0
+     * @param book 読み込みもとのワークブック。
+     * @param clazz マッピング先のクラスタイプ。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @param errors マッピング時のエラー情報。指定しない場合は、nulを指定する。
+     * @return
+     * @throws XlsMapperException 
+     */
+    public <P> P loadWithMapping(final Workbook book, final Class<P> clazz, final XmlMapping xmlMapping, final SheetBindingErrors errors) throws XlsMapperException {
+        return loader.loadWithMapping(book, clazz, xmlMapping, errors);
+    }
+    
     /**
      * Excelファイルの複数シートを読み込み、任意のクラスにマップする。
      * @param xlsIn
@@ -160,6 +299,22 @@ public class XlsMapper {
         return loader.loadMultiple(xlsIn, clazz, xmlIn, errorsContainer);
     }
     
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、Excelファイルの複数シートを読み込み、任意のクラスにマップする。
+     * @since 1.0
+     * @param xlsIn
+     * @param clazz
+     * @param xmlMapping
+     * @param errorsContainer
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public <P> P[] loadMultipleWithMapping(final InputStream xlsIn, final Class<P> clazz, final XmlMapping xmlMapping,
+            SheetBindingErrorsContainer errorsContainer) throws XlsMapperException, IOException {
+        return loader.loadMultipleWithMapping(xlsIn, clazz, xmlMapping, errorsContainer);
+    }
+    
     public Object[] loadMultiple(final InputStream xlsIn, final Class<?>[] classes) throws XlsMapperException {
         return loader.loadMultiple(xlsIn, classes);
     }
@@ -178,6 +333,90 @@ public class XlsMapper {
         return loader.loadMultiple(xlsIn, classes, xmlIn, errorsContainer);
     }
     
+    public Object[] loadMultipleWithMapping(final InputStream xlsIn, final Class<?>[] classes, final XmlMapping xmlMapping,
+            final SheetBindingErrorsContainer errorsContainer) throws XlsMapperException {
+        return loader.loadMultipleWithMapping(xlsIn, classes, xmlMapping, errorsContainer);
+    }
+    
+    /**
+     * Excelファイルの複数シートを読み込み、任意のクラスにマップする。
+     * <p>ストリームと異なり、ファイル全体をメモリ上に読み込まない。
+     * @since 1.0
+     * @param xlsFile 読み込みもとのExcelファイル。
+     * @param clazz マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public <P> P[] loadMultiple(final File xlsFile, final Class<P> clazz) throws XlsMapperException, IOException {
+        return loader.loadMultiple(xlsFile, clazz);
+    }
+    
+    /**
+     * 読み込み済みのワークブックの複数シートを読み込み、任意のクラスにマップする。
+     * @since 1.0
+     * @param book 読み込みもとのワークブック。
+     * @param clazz マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     */
+    public <P> P[] loadMultiple(final Workbook book, final Class<P> clazz) throws XlsMapperException {
+        return loader.loadMultiple(book, clazz);
+    }
+    
+    /**
+     * Excelファイルの複数シートを読み込み、それぞれのクラスにマップする。
+     * <p>ストリームと異なり、ファイル全体をメモリ上に読み込まない。
+     * @since 1.0
+     * @param xlsFile 読み込みもとのExcelファイル。
+     * @param classes マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     */
+    public Object[] loadMultiple(final File xlsFile, final Class<?>[] classes) throws XlsMapperException {
+        return loader.loadMultiple(xlsFile, classes);
+    }
+    
+    /**
+     * Excelファイルの複数シートを読み込み、それぞれのクラスにマップする。
+     * @since 1.0
+     * @param xlsPath 読み込みもとのExcelファイルのパス。
+     * @param classes マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     */
+    public Object[] loadMultiple(final Path xlsPath, final Class<?>[] classes) throws XlsMapperException {
+        return loader.loadMultiple(xlsPath, classes);
+    }
+    
+    /**
+     * 読み込み済みのワークブックの複数シートを読み込み、それぞれのクラスにマップする。
+     * <p>1度の解析で、複数のクラスを読み込む場合に利用する。
+     * @since 1.0
+     * @param book 読み込みもとのワークブック。
+     * @param classes マッピング先のクラスタイプ。
+     * @return
+     * @throws XlsMapperException 
+     */
+    public Object[] loadMultiple(final Workbook book, final Class<?>[] classes) throws XlsMapperException {
+        return loader.loadMultiple(book, classes);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、読み込み済みのワークブックの複数シートを読み込み、それぞれのクラスにマップする。
+     * @since 1.0
+     * @param book 読み込みもとのワークブック。
+     * @param classes マッピング先のクラスタイプ。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @param errorsContainer
+     * @return
+     * @throws XlsMapperException 
+     */
+    public Object[] loadMultipleWithMapping(final Workbook book, final Class<?>[] classes, final XmlMapping xmlMapping,
+            final SheetBindingErrorsContainer errorsContainer) throws XlsMapperException {
+        return loader.loadMultipleWithMapping(book, classes, xmlMapping, errorsContainer);
+    }
+    
     /**
      * JavaのオブジェクトをExeclファイルに出力する。
      * <p>出力するファイルは、引数で指定した雛形となるテンプレート用のExcelファイルをもとに出力する。
@@ -204,6 +443,73 @@ public class XlsMapper {
         saver.save(templateXlsIn, xlsOut, beansObj, xmlIn);
     }
     
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定して、JavaのオブジェクトをExcelファイルに出力する。
+     * @since 1.0
+     * @param templateXlsIn
+     * @param xlsOut
+     * @param beansObj
+     * @param xmlMapping
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public void saveWithMapping(final InputStream templateXlsIn, final OutputStream xlsOut, final Object beansObj, final XmlMapping xmlMapping) throws XlsMapperException, IOException {
+        saver.saveWithMapping(templateXlsIn, xlsOut, beansObj, xmlMapping);
+    }
+    
+    /**
+     * JavaのオブジェクトをExeclファイルに出力する。
+     * <p>ストリームと異なり、雛形のファイル全体をメモリ上に読み込まない。
+     * @since 1.0
+     * @param templateXlsFile 雛形となるExcelファイル
+     * @param xlsOut 出力
+     * @param beansObj 書き込み元のオブジェクト
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public void save(final File templateXlsFile, final OutputStream xlsOut, final Object beansObj) throws XlsMapperException, IOException {
+        saver.save(templateXlsFile, xlsOut, beansObj);
+    }
+    
+    /**
+     * JavaのオブジェクトをExeclファイルに出力する。
+     * @since 1.0
+     * @param templateXlsPath 雛形となるExcelファイルのパス
+     * @param xlsOut 出力
+     * @param beansObj 書き込み元のオブジェクト
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public void save(final Path templateXlsPath, final OutputStream xlsOut, final Object beansObj) throws XlsMapperException, IOException {
+        saver.save(templateXlsPath, xlsOut, beansObj);
+    }
+    
+    /**
+     * 登録済みの雛形をもとに、JavaのオブジェクトをExeclファイルに出力する。
+     * <p>雛形は、{@link XlsMapperConfig#getTemplateRegistry()}に登録しておく。
+     * @since 1.0
+     * @param template 雛形
+     * @param xlsOut 出力
+     * @param beansObj 書き込み元のオブジェクト
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public void save(final XlsTemplate template, final OutputStream xlsOut, final Object beansObj) throws XlsMapperException, IOException {
+        saver.save(template, xlsOut, beansObj);
+    }
+    
+    /**
+     * Javaのオブジェクトを、読み込み済みのワークブックに書き込む。
+     * <p>ワークブックの出力は、呼び出し元で行う。
+     * @since 1.0
+     * @param book 雛形となるワークブック
+     * @param beansObj 書き込み元のオブジェクト
+     * @throws XlsMapperException 
+     */
+    public void save(final Workbook book, final Object beansObj) throws XlsMapperException {
+        saver.save(book, beansObj);
+    }
+    
     /**
      * 複数のオブジェクトをそれぞれのシートへ保存する。
      * @param templateXlsIn 雛形となるExcelファイルの入力
@@ -229,4 +535,88 @@ public class XlsMapper {
         saver.saveMultiple(templateXlsIn, xlsOut, beanObjs, xmlIn);
     }
     
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、複数のオブジェクトをそれぞれのシートへ保存する。
+     * @since 1.0
+     * @param templateXlsIn 雛形となるExcelファイルの入力
+     * @param xlsOut 出力
+     * @param beanObjs 書き込むオブジェクトの配列。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。
+     * @throws XlsMapperException
+     * @throws IOException 
+     */
+    public void saveMultipleWithMapping(final InputStream templateXlsIn, final OutputStream xlsOut, final Object[] beanObjs, final XmlMapping xmlMapping) throws XlsMapperException, IOException {
+        saver.saveMultipleWithMapping(templateXlsIn, xlsOut, beanObjs, xmlMapping);
+    }
+    
+    /**
+     * 複数のオブジェクトをそれぞれのシートへ保存する。
+     * <p>ストリームと異なり、雛形のファイル全体をメモリ上に読み込まない。
+     * @since 1.0
+     * @param templateXlsFile 雛形となるExcelファイル
+     * @param xlsOut 出力
+     * @param beanObjs 書き込むオブジェクトの配列。
+     * @throws XlsMapperException
+     * @throws IOException 
+     */
+    public void saveMultiple(final File templateXlsFile, final OutputStream xlsOut, final Object[] beanObjs) throws XlsMapperException, IOException {
+        saver.saveMultiple(templateXlsFile, xlsOut, beanObjs);
+    }
+    
+    /**
+     * 登録済みの雛形をもとに、複数のオブジェクトをそれぞれのシートへ保存する。
+     * @since 1.0
+     * @param template 雛形
+     * @param xlsOut 出力
+     * @param beanObjs 書き込むオブジェクトの配列。
+     * @throws XlsMapperException
+     * @throws IOException 
+     */
+    public void saveMultiple(final XlsTemplate template, final OutputStream xlsOut, final Object[] beanObjs) throws XlsMapperException, IOException {
+        saver.saveMultiple(template, xlsOut, beanObjs);
+    }
+    
+    /**
+     * 複数のオブジェクトを、読み込み済みのワークブックのそれぞれのシートへ書き込む。
+     * <p>ワークブックの出力は、呼び出し元で行う。
+     * @since 1.0
+     * @param book 雛形となるワークブック
+     * @param beanObjs 書き込むオブジェクトの配列。
+     * @throws XlsMapperException
+     */
+    public void saveMultiple(final Workbook book, final Object[] beanObjs) throws XlsMapperException {
+        saver.saveMultiple(book, beanObjs);
+    }
+    
+    /**
+     * シートにマッピングするクラスのアノテーション、Converterなどを事前に解決し、検証する。
+     * <p>アプリケーションの起動時などに呼び出すことで、定義の誤りを早期に検出し、
+     *    解決した情報をキャッシュしておくことで初回の読み込み・書き込みの処理時間を短縮する。
+     * @since 1.0
+     * @param classes マッピング対象のクラス
+     * @throws XlsMapperException アノテーションの定義が不正な場合。Converterが見つからない場合。
+     * @throws IllegalArgumentException classes is null.
+     */
+    public void prepare(final Class<?>... classes) throws XlsMapperException {
+        prepareWithMapping(null, classes);
+    }
+    
+    /**
+     * XMLのマッピング情報を指定して、シートにマッピングするクラスの情報を事前に解決し、検証する。
+     * @since 1.0
+     * @param xmlMapping XMLのマッピング情報。指定しない場合はnull。
+     * @param classes マッピング対象のクラス
+     * @throws XlsMapperException アノテーションの定義が不正な場合。Converterが見つからない場合。
+     * @throws IllegalArgumentException classes is null.
+     */
+    public void prepareWithMapping(final XmlMapping xmlMapping, final Class<?>... classes) throws XlsMapperException {
+        ArgUtils.notNull(classes, "classes");
+        
+        final AnnotationReader annoReader = xmlMapping != null ? xmlMapping.createAnnotationReader() : new AnnotationReader(null);
+        final SheetBindingPreparer preparer = new SheetBindingPreparer(getConig(), annoReader);
+        for(Class<?> clazz : classes) {
+            preparer.prepare(clazz);
+        }
+    }
+
 }
@@ -1,11 +1,16 @@
 package com.gh.mygreen.xlsmapper;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
 import com.gh.mygreen.xlsmapper.cellconvert.CellConverterRegistry;
 import com.gh.mygreen.xlsmapper.fieldprocessor.FieldProcessorRegstry;
 
 
 /**
  * マッピングする際の設定などを保持するクラス。
+ * <p>{@link #freeze()}で変更不可にした設定は、複数のスレッドから同時に読み込み・書き込みを行う
+ *    {@link XlsMapper}などで共有できます。
  * 
  * @version 0.4
  * @author T.TSUCHIE
@@ -31,6 +36,21 @@ public class XlsMapperConfig {
     /** 書き込み時にセルのコメントを修正するかどうか */
     private boolean correctCellCommentOnSave = false;
     
+    /** 読み込み時に数式を事前に評価するかどうか */
+    private boolean preEvaluateFormulaOnLoad = false;
+    
+    /** 読み込み時に、読み込む対象のシートのみを解析するかどうか */
+    private boolean loadOnlyTargetSheets = false;
+    
+    /** ストリーミングで書き込む際に、メモリ上に保持する行数 */
+    private int streamingRowWindowSize = 100;
+    
+    /** 複数のシートを並列に読み込む際の処理 */
+    private ExecutorService parallelLoadExecutor;
+    
+    /** レコードの値を並列に変換する際の処理 */
+    private ForkJoinPool parallelConversionPool;
+    
     /** POIのセルの値のフォーマッター */
     private CellFormatter cellFormatter = new DefaultCellFormatter();
     
@@ -41,9 +61,58 @@ public class XlsMapperConfig {
     /** 読み込み時のBeanのインスタンスの作成クラス */
     private FactoryCallback<Class<?>, Object> beanFactory = new DefaultBeanFactory();
     
+    /** クラスごとのバインディングプランのキャッシュ */
+    private final SheetBindingPlanCache bindingPlanCache = new SheetBindingPlanCache();
+    
+    /** 書き込み時の雛形の登録情報 */
+    private final XlsTemplateRegistry templateRegistry = new XlsTemplateRegistry();
+    
+    /** 設定を変更不可にしたかどうか */
+    private volatile boolean frozen = false;
+    
     public XlsMapperConfig() {
     }
     
+    /**
+     * 設定を変更不可にします。
+     * <p>以降は、設定の変更や、{@link CellConverterRegistry}、{@link FieldProcessorRegstry}への登録、
+     *    {@link DefaultCellFormatter}と{@link XlsTemplateRegistry}の設定の変更、
+     *    {@link XlsLoader#setConfig(XlsMapperConfig)}などによる設定の差し替えを行うと、{@link IllegalStateException}をスローします。
+     *    クラスの解析結果のキャッシュ{@link #getBindingPlanCache()}と、雛形の登録情報{@link #getTemplateRegistry()}は、
+     *    変更不可にした後も、複数のスレッドから同時に利用できます。
+     * <p>変更不可にした設定は、複数のスレッドから同時に読み込み・書き込みを行う{@link XlsMapper}などで共有できます。
+     *    ただし、独自に設定した{@link CellFormatter}や、Beanのインスタンスの作成クラスなどはスレッドセーフである必要があり、
+     *    変更不可にした後は、それらの設定も変更しないでください。
+     *    また、設定はスレッドの開始前などに作成し、他のスレッドへ安全に公開してください。
+     * @since 1.0
+     * @return 自身のインスタンス。
+     */
+    public XlsMapperConfig freeze() {
+        converterRegistry.freeze();
+        fieldProcessorRegistry.freeze();
+        templateRegistry.freeze();
+        if(cellFormatter instanceof DefaultCellFormatter) {
+            ((DefaultCellFormatter) cellFormatter).freeze();
+        }
+        this.frozen = true;
+        return this;
+    }
+    
+    /**
+     * 設定を変更不可にしたかどうか。
+     * @since 1.0
+     * @return {@link #freeze()}を呼んだ場合は、trueを返す。
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+    
+    private void assertNotFrozen() {
+        if(frozen) {
+            throw new IllegalStateException("config is frozen.");
+        }
+    }
+    
     /**
      * 指定したクラスタイプのインスタンスを作成する
      * @param clazz
@@ -68,6 +137,7 @@ public class XlsMapperConfig {
      * @return
      */
     public XlsMapperConfig setIgnoreSheetNotFound(boolean ignoreSheetNotFound) {
+        assertNotFrozen();
         this.ignoreSheetNotFound = ignoreSheetNotFound;
         return this;
     }
@@ -86,6 +156,7 @@ public class XlsMapperConfig {
      * @return
      */
     public XlsMapperConfig setSkipTypeBindFailure(boolean skipTypeBindFailure) {
+        assertNotFrozen();
         this.skipTypeBindFailure = skipTypeBindFailure;
         return this;
     }
@@ -104,6 +175,7 @@ public class XlsMapperConfig {
      * @return
      */
     public XlsMapperConfig setMergeCellOnSave(boolean mergeCellOnSave) {
+        assertNotFrozen();
         this.mergeCellOnSave = mergeCellOnSave;
         return this;
     }
@@ -124,6 +196,7 @@ public class XlsMapperConfig {
      * @return
      */
     public XlsMapperConfig setCorrectNameRangeOnSave(boolean correctNameRangeOnSave) {
+        assertNotFrozen();
         this.correctNameRangeOnSave = correctNameRangeOnSave;
         return this;
     }
@@ -144,6 +217,7 @@ public class XlsMapperConfig {
      * @param correctCellDataValidationOnSave 初期値は、'false'です。
      */
     public XlsMapperConfig setCorrectCellDataValidationOnSave(boolean correctCellDataValidationOnSave) {
+        assertNotFrozen();
         this.correctCellDataValidationOnSave = correctCellDataValidationOnSave;
         return this;
     }
@@ -168,10 +242,139 @@ public class XlsMapperConfig {
      * @param correctCellCommentOnSave
      */
     public XlsMapperConfig setCorrectCellCommentOnSave(boolean correctCellCommentOnSave) {
+        assertNotFrozen();
         this.correctCellCommentOnSave = correctCellCommentOnSave;
         return this;
     }
     
+    /**
+     * 読み込み時に数式を事前に評価するかどうか。
+     * @since 1.0
+     * @return 初期値は、'false'です。
+     */
+    public boolean isPreEvaluateFormulaOnLoad() {
+        return preEvaluateFormulaOnLoad;
+    }
+    
+    /**
+     * 読み込み時に数式を事前に評価するかどうか設定します。
+     * <p>'true'の場合、シートを読み込む前にワークブックの全ての数式を一度だけ評価し、結果をキャッシュします。
+     * <p>他のセルを参照する数式が多い場合に、セルごとの評価の負荷を軽減できます。
+     *    ただし、マッピングの対象でない数式も評価するため、数式が少ない場合は処理時間がかかります。
+     * @since 1.0
+     * @param preEvaluateFormulaOnLoad
+     */
+    public XlsMapperConfig setPreEvaluateFormulaOnLoad(boolean preEvaluateFormulaOnLoad) {
+        assertNotFrozen();
+        this.preEvaluateFormulaOnLoad = preEvaluateFormulaOnLoad;
+        return this;
+    }
+    
+    /**
+     * 読み込み時に、読み込む対象のシートのみを解析するかどうか。
+     * @since 1.0
+     * @return 初期値は、'false'です。
+     */
+    public boolean isLoadOnlyTargetSheets() {
+        return loadOnlyTargetSheets;
+    }
+    
+    /**
+     * 読み込み時に、読み込む対象のシートのみを解析するかどうか設定します。
+     * <p>'true'の場合、Excel(.xlsx)のファイルは、アノテーション{@link com.gh.mygreen.xlsmapper.annotation.XlsSheet}で指定したシート以外を
+     *    空のシートとして読み込みます。シートの数が多いワークブックでは、処理時間とメモリの使用量を削減できます。
+     * <p>ただし、読み込まないシートのセルを参照する数式は、正しく評価できません。
+     *    Excel(.xls)のファイルの場合は、全てのシートを読み込みます。
+     * @since 1.0
+     * @param loadOnlyTargetSheets 初期値は、'false'です。
+     */
+    public XlsMapperConfig setLoadOnlyTargetSheets(boolean loadOnlyTargetSheets) {
+        assertNotFrozen();
+        this.loadOnlyTargetSheets = loadOnlyTargetSheets;
+        return this;
+    }
+    
+    /**
+     * ストリーミングで書き込む際に、メモリ上に保持する行数。
+     * @since 1.0
+     * @return 初期値は、'100'です。
+     */
+    public int getStreamingRowWindowSize() {
+        return streamingRowWindowSize;
+    }
+    
+    /**
+     * ストリーミングで書き込む際に、メモリ上に保持する行数を設定します。
+     * <p>{@link XlsStreamingSaver}で書き込む際に、この行数を超えた行は一時ファイルに書き出されます。
+     * @since 1.0
+     * @param streamingRowWindowSize 1以上の値。
+     * @return
+     * @throws IllegalArgumentException streamingRowWindowSize < 1
+     */
+    public XlsMapperConfig setStreamingRowWindowSize(int streamingRowWindowSize) {
+        assertNotFrozen();
+        ArgUtils.notMin(streamingRowWindowSize, 1, "streamingRowWindowSize");
+        this.streamingRowWindowSize = streamingRowWindowSize;
+        return this;
+    }
+    
+    /**
+     * 複数のシートを並列に読み込む際の処理。
+     * @since 1.0
+     * @return 初期値は、nullです。
+     */
+    public ExecutorService getParallelLoadExecutor() {
+        return parallelLoadExecutor;
+    }
+    
+    /**
+     * 複数のシートを並列に読み込む際の処理を設定します。
+     * <p>設定した場合、{@link XlsLoader#loadMultiple(org.apache.poi.ss.usermodel.Workbook, Class)}などで
+     *    1つのクラスに対して複数のシートを読み込む際に、シートごとに並列に読み込みます。
+     *    読み込んだ結果とエラー情報は、並列に読み込まない場合と同じく、シートの順番に格納します。
+     * <p>POIのワークブックはスレッドセーフではないため、1つのワークブックを複数のスレッドから参照するこの設定は、
+     *    シートごとに独立して読み込めるXSSF形式（xlsx）のワークブックのみに適用します。HSSF形式（xls）のワークブックは、
+     *    設定した場合も並列に読み込みません。また、独自のConverterやBeanのコールバックメソッドなどから、
+     *    ワークブックを変更しないでください。
+     * <p>読み込み処理の中から、同じ処理を利用する読み込みを呼び出すと、処理の空きを待ち続ける可能性があるため注意してください。
+     *    また、処理の終了は呼び出し元で行ってください。
+     * @since 1.0
+     * @param parallelLoadExecutor 並列に読み込まない場合は、nullを指定します。
+     * @return
+     */
+    public XlsMapperConfig setParallelLoadExecutor(ExecutorService parallelLoadExecutor) {
+        assertNotFrozen();
+        this.parallelLoadExecutor = parallelLoadExecutor;
+        return this;
+    }
+    
+    /**
+     * レコードの値を並列に変換する際の処理。
+     * @since 1.0
+     * @return 初期値は、nullです。
+     */
+    public ForkJoinPool getParallelConversionPool() {
+        return parallelConversionPool;
+    }
+    
+    /**
+     * レコードの値を並列に変換する際の処理を設定します。
+     * <p>設定した場合、アノテーション{@link com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords}の読み込みを2段階で行います。
+     *    まず、シートを読み込むスレッドで全てのレコードのセルの値を取り出し、次に、取り出した値のConverterによる変換と
+     *    Beanへの設定をレコードごとに並列に行います。日付や書式の指定など、変換の負荷が高いレコードの読み込みが速くなります。
+     * <p>レコードの順番とエラー情報は、並列に変換しない場合と同じです。
+     *    ただし、空のレコードを読み飛ばす設定{@link com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords#skipEmptyRecord()}の場合は、
+     *    並列に変換しません。
+     * @since 1.0
+     * @param parallelConversionPool 並列に変換しない場合は、nullを指定します。
+     * @return
+     */
+    public XlsMapperConfig setParallelConversionPool(ForkJoinPool parallelConversionPool) {
+        assertNotFrozen();
+        this.parallelConversionPool = parallelConversionPool;
+        return this;
+    }
+    
     /**
      * POIのセルのフォーマッターを取得します。
      * @return
@@ -186,6 +389,7 @@ public class XlsMapperConfig {
      * @return
      */
     public XlsMapperConfig setCellFormatter(CellFormatter cellFormatter) {
+        assertNotFrozen();
         this.cellFormatter = cellFormatter;
         return this;
     }
@@ -204,6 +408,7 @@ public class XlsMapperConfig {
      * @return
      */
     public XlsMapperConfig setConverterRegistry(CellConverterRegistry converterRegistry) {
+        assertNotFrozen();
         this.converterRegistry = converterRegistry;
         return this;
     }
@@ -221,7 +426,9 @@ public class XlsMapperConfig {
      * @return
      */
     public XlsMapperConfig setFieldProcessorRegistry(FieldProcessorRegstry fieldProcessorRegistry) {
+        assertNotFrozen();
         this.fieldProcessorRegistry = fieldProcessorRegistry;
+        this.bindingPlanCache.clear();
         return this;
     }
     
@@ -230,6 +437,7 @@ public class XlsMapperConfig {
      * @return
      */
     public XlsMapperConfig setBeanFactory(FactoryCallback<Class<?>, Object> beanFactory) {
+        assertNotFrozen();
         this.beanFactory = beanFactory;
         return this;
     }
@@ -241,6 +449,27 @@ public class XlsMapperConfig {
      */
     public FactoryCallback<Class<?>, Object> getBeanFactory() {
         return beanFactory;
-    }    
+    }
+    
+    /**
+     * クラスごとのバインディングプランのキャッシュを取得します。
+     * <p>{@link #getFieldProcessorRegistry()}にプロセッサを追加登録した場合、以降の処理ではプランを作成し直します。
+     * @since 1.0
+     * @return
+     */
+    public SheetBindingPlanCache getBindingPlanCache() {
+        return bindingPlanCache;
+    }
+    
+    /**
+     * 書き込み時の雛形の登録情報を取得します。
+     * <p>同じ雛形に何度も書き込む場合は、雛形を登録し、{@link XlsSaver#save(XlsTemplate, java.io.OutputStream, Object)}などで利用します。
+     * @since 1.0
+     * @return
+     */
+    public XlsTemplateRegistry getTemplateRegistry() {
+        return templateRegistry;
+    }
+    
     
 }
@@ -1,13 +1,12 @@
 package com.gh.mygreen.xlsmapper;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -17,17 +16,13 @@ import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.gh.mygreen.xlsmapper.annotation.XlsPostSave;
-import com.gh.mygreen.xlsmapper.annotation.XlsPreSave;
 import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
-import com.gh.mygreen.xlsmapper.annotation.XlsSheetName;
 import com.gh.mygreen.xlsmapper.fieldprocessor.FieldAdaptor;
-import com.gh.mygreen.xlsmapper.fieldprocessor.SavingFieldProcessor;
 import com.gh.mygreen.xlsmapper.validation.SheetBindingErrors;
 import com.gh.mygreen.xlsmapper.xml.AnnotationReadException;
 import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
-import com.gh.mygreen.xlsmapper.xml.XmlLoader;
-import com.gh.mygreen.xlsmapper.xml.bind.XmlInfo;
+import com.gh.mygreen.xlsmapper.xml.XmlLoadException;
+import com.gh.mygreen.xlsmapper.xml.XmlMapping;
 
 
 /**
@@ -64,7 +59,7 @@ public class XlsSaver {
         ArgUtils.notNull(xlsOut, "xlsOut");
         ArgUtils.notNull(beanObj, "beanObj");
         
-        save(templateXlsIn, xlsOut, beanObj, null);
+        saveWithMapping(templateXlsIn, xlsOut, beanObj, null);
         
     }
     
@@ -83,17 +78,24 @@ public class XlsSaver {
         ArgUtils.notNull(xlsOut, "xlsOut");
         ArgUtils.notNull(beanObj, "beanObj");
         
-        // Xmls情報の出力
-        XmlInfo xmlInfo = null;
-        if(xmlIn != null) {
-            xmlInfo = XmlLoader.load(xmlIn);
-        }
-        
-        final AnnotationReader annoReader = new AnnotationReader(xmlInfo);
-        final SavingWorkObject work = new SavingWorkObject();
-        work.setAnnoReader(annoReader);
+        saveWithMapping(templateXlsIn, xlsOut, beanObj, createXmlMapping(xmlIn));
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定して、JavaのオブジェクトをExcelファイルに出力する。
+     * @since 1.0
+     * @param templateXlsIn
+     * @param xlsOut
+     * @param beanObj
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public void saveWithMapping(final InputStream templateXlsIn, final OutputStream xlsOut, final Object beanObj, final XmlMapping xmlMapping) throws XlsMapperException, IOException {
         
-        work.setErrors(new SheetBindingErrors(beanObj.getClass()));
+        ArgUtils.notNull(templateXlsIn, "templateXlsIn");
+        ArgUtils.notNull(xlsOut, "xlsOut");
+        ArgUtils.notNull(beanObj, "beanObj");
         
         final Workbook book;
         try {
@@ -103,6 +105,143 @@ public class XlsSaver {
             throw new XlsMapperException("fail load template Excel File", e);
         }
         
+        if(saveWorkbook(book, beanObj, xmlMapping)) {
+            book.write(xlsOut);
+        }
+    }
+    
+    /**
+     * JavaのオブジェクトをExeclファイルに出力する。
+     * <p>ストリームと異なり、雛形のファイル全体をメモリ上に読み込まない。雛形のファイルは変更しない。
+     * @since 1.0
+     * @param templateXlsFile 雛形となるExcelファイル
+     * @param xlsOut 出力
+     * @param beanObj 書き込むオブジェクト
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public void save(final File templateXlsFile, final OutputStream xlsOut, final Object beanObj) throws XlsMapperException, IOException {
+        saveWithMapping(templateXlsFile, xlsOut, beanObj, null);
+    }
+    
+    /**
+     * JavaのオブジェクトをExeclファイルに出力する。
+     * @since 1.0
+     * @param templateXlsPath 雛形となるExcelファイルのパス
+     * @param xlsOut 出力
+     * @param beanObj 書き込むオブジェクト
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public void save(final Path templateXlsPath, final OutputStream xlsOut, final Object beanObj) throws XlsMapperException, IOException {
+        ArgUtils.notNull(templateXlsPath, "templateXlsPath");
+        save(templateXlsPath.toFile(), xlsOut, beanObj);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定して、JavaのオブジェクトをExcelファイルに出力する。
+     * <p>ストリームと異なり、雛形のファイル全体をメモリ上に読み込まない。雛形のファイルは変更しない。
+     * @since 1.0
+     * @param templateXlsFile 雛形となるExcelファイル
+     * @param xlsOut 出力
+     * @param beanObj 書き込むオブジェクト
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public void saveWithMapping(final File templateXlsFile, final OutputStream xlsOut, final Object beanObj, final XmlMapping xmlMapping)
+            throws XlsMapperException, IOException {
+        
+        ArgUtils.notNull(templateXlsFile, "templateXlsFile");
+        ArgUtils.notNull(xlsOut, "xlsOut");
+        ArgUtils.notNull(beanObj, "beanObj");
+        
+        try(WorkbookFile bookFile = openWorkbookFile(templateXlsFile)) {
+            final Workbook book = bookFile.getWorkbook();
+            if(saveWorkbook(book, beanObj, xmlMapping)) {
+                book.write(xlsOut);
+            }
+        }
+    }
+    
+    /**
+     * 登録済みの雛形をもとに、JavaのオブジェクトをExeclファイルに出力する。
+     * <p>雛形は登録時に読み込み済みのため、書き込みの度に雛形を読み込まない。
+     * @since 1.0
+     * @param template 雛形。{@link XlsTemplateRegistry}に登録したもの。
+     * @param xlsOut 出力
+     * @param beanObj 書き込むオブジェクト
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public void save(final XlsTemplate template, final OutputStream xlsOut, final Object beanObj) throws XlsMapperException, IOException {
+        saveWithMapping(template, xlsOut, beanObj, null);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定して、登録済みの雛形をもとに、JavaのオブジェクトをExcelファイルに出力する。
+     * @since 1.0
+     * @param template 雛形。{@link XlsTemplateRegistry}に登録したもの。
+     * @param xlsOut 出力
+     * @param beanObj 書き込むオブジェクト
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public void saveWithMapping(final XlsTemplate template, final OutputStream xlsOut, final Object beanObj, final XmlMapping xmlMapping)
+            throws XlsMapperException, IOException {
+        
+        ArgUtils.notNull(template, "template");
+        ArgUtils.notNull(xlsOut, "xlsOut");
+        ArgUtils.notNull(beanObj, "beanObj");
+        
+        final Workbook book = template.createWorkbook();
+        if(saveWorkbook(book, beanObj, xmlMapping)) {
+            book.write(xlsOut);
+        }
+    }
+    
+    /**
+     * Javaのオブジェクトを、読み込み済みのワークブックに書き込む。
+     * <p>ワークブックの出力は、呼び出し元で行う。
+     * @since 1.0
+     * @param book 雛形となるワークブック
+     * @param beanObj 書き込むオブジェクト
+     * @throws XlsMapperException 
+     */
+    public void save(final Workbook book, final Object beanObj) throws XlsMapperException {
+        saveWithMapping(book, beanObj, null);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定して、Javaのオブジェクトを読み込み済みのワークブックに書き込む。
+     * <p>ワークブックの出力は、呼び出し元で行う。
+     * @since 1.0
+     * @param book 雛形となるワークブック
+     * @param beanObj 書き込むオブジェクト
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @throws XlsMapperException 
+     */
+    public void saveWithMapping(final Workbook book, final Object beanObj, final XmlMapping xmlMapping) throws XlsMapperException {
+        
+        ArgUtils.notNull(book, "book");
+        ArgUtils.notNull(beanObj, "beanObj");
+        
+        saveWorkbook(book, beanObj, xmlMapping);
+    }
+    
+    /**
+     * Javaのオブジェクトをワークブックに書き込む。
+     * @return シートが見つからず書き込まなかった場合は、falseを返す。
+     */
+    private boolean saveWorkbook(final Workbook book, final Object beanObj, final XmlMapping xmlMapping) throws XlsMapperException {
+        
+        final AnnotationReader annoReader = createAnnotationReader(xmlMapping);
+        final SavingWorkObject work = new SavingWorkObject();
+        work.setAnnoReader(annoReader);
+        
+        work.setErrors(new SheetBindingErrors(beanObj.getClass()));
+        
         final Class<?> clazz = beanObj.getClass();
         final XlsSheet sheetAnno = clazz.getAnnotation(XlsSheet.class);
         if(sheetAnno == null) {
@@ -115,13 +254,13 @@ public class XlsSaver {
         } catch(SheetNotFoundException e) {
             if(config.isIgnoreSheetNotFound()){
                 logger.warn("skip saving by not-found sheet.", e);
-                return;
+                return false;
             } else {
                 throw e;
             }
         }
         
-        book.write(xlsOut);
+        return true;
     }
     
     /**
@@ -138,7 +277,7 @@ public class XlsSaver {
         ArgUtils.notNull(xlsOut, "xlsOut");
         ArgUtils.notEmpty(beanObjs, "beanObjs");
         
-        saveMultiple(templateXlsIn, xlsOut, beanObjs, null);
+        saveMultipleWithMapping(templateXlsIn, xlsOut, beanObjs, null);
     }
     
     /**
@@ -157,15 +296,26 @@ public class XlsSaver {
         ArgUtils.notNull(xlsOut, "xlsOut");
         ArgUtils.notEmpty(beanObjs, "beanObjs");
         
-        // Xmls情報の出力
-        XmlInfo xmlInfo = null;
-        if(xmlIn != null) {
-            xmlInfo = XmlLoader.load(xmlIn);
-        }
+        saveMultipleWithMapping(templateXlsIn, xlsOut, beanObjs, createXmlMapping(xmlIn));
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、複数のオブジェクトをそれぞれのシートへ保存する。
+     * @since 1.0
+     * @param templateXlsIn 雛形となるExcelファイルの入力
+     * @param xlsOut 出力
+     * @param beanObjs 書き込むオブジェクトの配列。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @throws XlsMapperException
+     * @throws IOException 
+     */
+    public void saveMultipleWithMapping(final InputStream templateXlsIn, final OutputStream xlsOut, final Object[] beanObjs,
+            final XmlMapping xmlMapping) throws XlsMapperException, IOException {
         
-        final SheetBindingErrorsContainer errorsContainer = new SheetBindingErrorsContainer(getObjectNames(beanObjs));
+        ArgUtils.notNull(templateXlsIn, "templateXlsIn");
+        ArgUtils.notNull(xlsOut, "xlsOut");
+        ArgUtils.notEmpty(beanObjs, "beanObjs");
         
-        final AnnotationReader annoReader = new AnnotationReader(xmlInfo);
         final Workbook book;
         try {
             book = WorkbookFactory.create(templateXlsIn);
@@ -174,6 +324,132 @@ public class XlsSaver {
             throw new XlsMapperException("fail load template Excel File", e);
         }
         
+        saveMultipleWithMapping(book, beanObjs, xmlMapping);
+        book.write(xlsOut);
+    }
+    
+    /**
+     * 複数のオブジェクトをそれぞれのシートへ保存する。
+     * <p>ストリームと異なり、雛形のファイル全体をメモリ上に読み込まない。雛形のファイルは変更しない。
+     * @since 1.0
+     * @param templateXlsFile 雛形となるExcelファイル
+     * @param xlsOut 出力
+     * @param beanObjs 書き込むオブジェクトの配列。
+     * @throws XlsMapperException
+     * @throws IOException 
+     */
+    public void saveMultiple(final File templateXlsFile, final OutputStream xlsOut, final Object[] beanObjs)
+            throws XlsMapperException, IOException {
+        saveMultipleWithMapping(templateXlsFile, xlsOut, beanObjs, null);
+    }
+    
+    /**
+     * 複数のオブジェクトをそれぞれのシートへ保存する。
+     * @since 1.0
+     * @param templateXlsPath 雛形となるExcelファイルのパス
+     * @param xlsOut 出力
+     * @param beanObjs 書き込むオブジェクトの配列。
+     * @throws XlsMapperException
+     * @throws IOException 
+     */
+    public void saveMultiple(final Path templateXlsPath, final OutputStream xlsOut, final Object[] beanObjs)
+            throws XlsMapperException, IOException {
+        ArgUtils.notNull(templateXlsPath, "templateXlsPath");
+        saveMultiple(templateXlsPath.toFile(), xlsOut, beanObjs);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、複数のオブジェクトをそれぞれのシートへ保存する。
+     * <p>ストリームと異なり、雛形のファイル全体をメモリ上に読み込まない。雛形のファイルは変更しない。
+     * @since 1.0
+     * @param templateXlsFile 雛形となるExcelファイル
+     * @param xlsOut 出力
+     * @param beanObjs 書き込むオブジェクトの配列。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @throws XlsMapperException
+     * @throws IOException 
+     */
+    public void saveMultipleWithMapping(final File templateXlsFile, final OutputStream xlsOut, final Object[] beanObjs,
+            final XmlMapping xmlMapping) throws XlsMapperException, IOException {
+        
+        ArgUtils.notNull(templateXlsFile, "templateXlsFile");
+        ArgUtils.notNull(xlsOut, "xlsOut");
+        ArgUtils.notEmpty(beanObjs, "beanObjs");
+        
+        try(WorkbookFile bookFile = openWorkbookFile(templateXlsFile)) {
+            saveMultipleWithMapping(bookFile.getWorkbook(), beanObjs, xmlMapping);
+            bookFile.getWorkbook().write(xlsOut);
+        }
+    }
+    
+    /**
+     * 登録済みの雛形をもとに、複数のオブジェクトをそれぞれのシートへ保存する。
+     * <p>雛形は登録時に読み込み済みのため、書き込みの度に雛形を読み込まない。
+     * @since 1.0
+     * @param template 雛形。{@link XlsTemplateRegistry}に登録したもの。
+     * @param xlsOut 出力
+     * @param beanObjs 書き込むオブジェクトの配列。
+     * @throws XlsMapperException
+     * @throws IOException 
+     */
+    public void saveMultiple(final XlsTemplate template, final OutputStream xlsOut, final Object[] beanObjs)
+            throws XlsMapperException, IOException {
+        saveMultipleWithMapping(template, xlsOut, beanObjs, null);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、登録済みの雛形をもとに、複数のオブジェクトをそれぞれのシートへ保存する。
+     * @since 1.0
+     * @param template 雛形。{@link XlsTemplateRegistry}に登録したもの。
+     * @param xlsOut 出力
+     * @param beanObjs 書き込むオブジェクトの配列。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @throws XlsMapperException
+     * @throws IOException 
+     */
+    public void saveMultipleWithMapping(final XlsTemplate template, final OutputStream xlsOut, final Object[] beanObjs,
+            final XmlMapping xmlMapping) throws XlsMapperException, IOException {
+        
+        ArgUtils.notNull(template, "template");
+        ArgUtils.notNull(xlsOut, "xlsOut");
+        ArgUtils.notEmpty(beanObjs, "beanObjs");
+        
+        final Workbook book = template.createWorkbook();
+        saveMultipleWithMapping(book, beanObjs, xmlMapping);
+        book.write(xlsOut);
+    }
+    
+    /**
+     * 複数のオブジェクトを、読み込み済みのワークブックのそれぞれのシートへ書き込む。
+     * <p>ワークブックの出力は、呼び出し元で行う。
+     * @since 1.0
+     * @param book 雛形となるワークブック
+     * @param beanObjs 書き込むオブジェクトの配列。
+     * @throws XlsMapperException
+     */
+    public void saveMultiple(final Workbook book, final Object[] beanObjs) throws XlsMapperException {
+        saveMultipleWithMapping(book, beanObjs, null);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定し、複数のオブジェクトを、読み込み済みのワークブックのそれぞれのシートへ書き込む。
+     * <p>ワークブックの出力は、呼び出し元で行う。
+     * @since 1.0
+     * @param book 雛形となるワークブック
+     * @param beanObjs 書き込むオブジェクトの配列。
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @throws XlsMapperException
+     */
+    public void saveMultipleWithMapping(final Workbook book, final Object[] beanObjs, final XmlMapping xmlMapping)
+            throws XlsMapperException {
+        
+        ArgUtils.notNull(book, "book");
+        ArgUtils.notEmpty(beanObjs, "beanObjs");
+        
+        final SheetBindingErrorsContainer errorsContainer = new SheetBindingErrorsContainer(getObjectNames(beanObjs));
+        
+        final AnnotationReader annoReader = createAnnotationReader(xmlMapping);
+        
         for(int i=0; i < beanObjs.length; i++) {
             final Object beanObj = beanObjs[i];
             final Class<?> clazz = beanObj.getClass();
@@ -199,8 +475,46 @@ public class XlsSaver {
                 }
             }
         }
+    }
+    
+    /**
+     * ファイルから雛形のワークブックを開く。
+     * @param templateXlsFile 雛形となるExcelファイル
+     * @return 開いたワークブック
+     */
+    private WorkbookFile openWorkbookFile(final File templateXlsFile) throws XlsMapperException, IOException {
+        try {
+            return WorkbookFile.open(templateXlsFile, true);
+        } catch (InvalidFormatException e) {
+            throw new XlsMapperException("fail load template Excel File", e);
+        }
+    }
+    
+    /**
+     * XMLを読み込み、マッピング情報を作成する。
+     * @param xmlIn XMLの入力。
+     * @return xmlInがnullの場合は、nullを返す。
+     * @throws XmlLoadException
+     */
+    private static XmlMapping createXmlMapping(final InputStream xmlIn) throws XmlLoadException {
+        if(xmlIn == null) {
+            return null;
+        }
         
-        book.write(xlsOut);
+        return XmlMapping.load(xmlIn);
+    }
+    
+    /**
+     * XMLのマッピング情報をもとに、アノテーションの読み込みクラスを作成する。
+     * @param xmlMapping XMLのマッピング情報。nullの場合はXMLの定義を利用しない。
+     * @return
+     */
+    private static AnnotationReader createAnnotationReader(final XmlMapping xmlMapping) {
+        if(xmlMapping == null) {
+            return new AnnotationReader(null);
+        }
+        
+        return xmlMapping.createAnnotationReader();
     }
     
     private String[] getObjectNames(final Object[] beanObjs) {
@@ -219,66 +533,44 @@ public class XlsSaver {
      * @param work
      * @throws XlsMapperException 
      */
-    @SuppressWarnings({"rawtypes"})
     private void saveSheet(final org.apache.poi.ss.usermodel.Sheet sheet, final Object beanObj,
             final SavingWorkObject work) throws XlsMapperException {
         
+        // 結合範囲の追加・解除、セルの作成、行の追加・削除は反映されるため、書き込み中も利用する
+        final SheetScope scope = SheetScope.open(sheet)
+                .enableMergedRegionIndex()
+                .enableExtents();
+        work.setSheetScope(scope);
+        try {
+            doSaveSheet(sheet, beanObj, work);
+        } finally {
+            work.setSheetScope(null);
+            scope.close();
+        }
+    }
+    
+    private void doSaveSheet(final org.apache.poi.ss.usermodel.Sheet sheet, final Object beanObj,
+            final SavingWorkObject work) throws XlsMapperException {
+        
         final Class<?> clazz = beanObj.getClass();
         
         work.getErrors().setSheetName(sheet.getSheetName());
         
-        // @PreSave用のメソッドの取得と実行
-        for(Method method : clazz.getMethods()) {
-            
-            final XlsPreSave preProcessAnno = work.getAnnoReader().getAnnotation(beanObj.getClass(), method, XlsPreSave.class);
-            if(preProcessAnno != null) {
-                Utils.invokeNeedProcessMethod(method, beanObj, sheet, config, work.getErrors());
-            }
-        }
+        // クラスの解析結果をキャッシュから取得する
+        final SheetBindingPlan plan = config.getBindingPlanCache().getSavingPlan(
+                clazz, work.getAnnoReader(), config.getFieldProcessorRegistry());
         
-        final List<FieldAdaptorProxy> adaptorProxies = new ArrayList<>();
-        
-        // public メソッドの処理
-        for(Method method : clazz.getMethods()) {
-            method.setAccessible(true);
-            for(Annotation anno : work.getAnnoReader().getAnnotations(clazz, method)) {
-                final SavingFieldProcessor processor = config.getFieldProcessorRegistry().getSavingProcessor(anno);
-                if((Utils.isGetterMethod(method) || Utils.isBooleanGetterMethod(method))&& processor != null) {
-                    final FieldAdaptor adaptor = new FieldAdaptor(clazz, method, work.getAnnoReader());
-                    adaptorProxies.add(new FieldAdaptorProxy(anno, processor, adaptor));
-                    break;
-                    
-                } else if(anno instanceof XlsPostSave) {
-                    work.addNeedPostProcess(new NeedProcess(beanObj, method));
-                    break;
-                }
-            }
+        // @PreSave用のメソッドの実行
+        for(Method method : plan.getPreProcessMethods()) {
+            Utils.invokeNeedProcessMethod(method, beanObj, sheet, config, work.getErrors());
         }
         
-        // public / private/ protected /default フィールドの処理
-        for(Field field : clazz.getDeclaredFields()) {
-            
-            field.setAccessible(true);
-            final FieldAdaptor adaptor = new FieldAdaptor(clazz, field, work.getAnnoReader());
-            
-            //メソッドと重複している場合は排除する
-            if(adaptorProxies.contains(adaptor)) {
-                continue;
-            }
-            
-            for(Annotation anno : work.getAnnoReader().getAnnotations(clazz, field)) {
-                final SavingFieldProcessor processor = config.getFieldProcessorRegistry().getSavingProcessor(anno);
-                if(processor != null) {
-                    adaptorProxies.add(new FieldAdaptorProxy(anno, processor, adaptor));
-                    break;
-                }
-            }
-            
+        for(Method method : plan.getPostProcessMethods()) {
+            work.addNeedPostProcess(new NeedProcess(beanObj, method));
         }
         
         // 順番を並び替えて保存処理を実行する
-        Collections.sort(adaptorProxies, HintOrderComparator.createForSaving());
-        for(FieldAdaptorProxy adaptorProxy : adaptorProxies) {
+        for(FieldAdaptorProxy adaptorProxy : plan.getAdaptorProxies()) {
             adaptorProxy.saveProcess(sheet, beanObj, config, work);
         }
         
@@ -303,7 +595,7 @@ public class XlsSaver {
      * @throws AnnotationInvalidException
      * @throws AnnotationReadException 
      */
-    private org.apache.poi.ss.usermodel.Sheet[] findSheet(final Workbook book, final XlsSheet sheetAnno,
+    org.apache.poi.ss.usermodel.Sheet[] findSheet(final Workbook book, final XlsSheet sheetAnno,
             final Object obj, final AnnotationReader annoReader) throws SheetNotFoundException, AnnotationInvalidException, AnnotationReadException {
         
         if(sheetAnno.name().length() > 0) {
@@ -375,48 +667,30 @@ public class XlsSaver {
     /**
      * アノテーション「@XlsSheetName」が付与されているフィールド／メソッドを取得する。
      * @param obj
-     * @param config
      * @param annoReader
      * @return
      * @throws AnnotationReadException 
      */
     private FieldAdaptor getSheetNameField(final Object obj, final AnnotationReader annoReader) throws AnnotationReadException {
         
-        Class<?> clazz = obj.getClass();
-        for(Method method : clazz.getMethods()) {
-            method.setAccessible(true);
-            if(!Utils.isGetterMethod(method)) {
-                continue;
-            }
-            
-            XlsSheetName sheetNameAnno = annoReader.getAnnotation(clazz, method, XlsSheetName.class);
-            if(sheetNameAnno == null) {
-                continue;
-            }
-            
-            return new FieldAdaptor(clazz, method, annoReader);
-        }
-        
-        for(Field field : clazz.getDeclaredFields()) {
-            field.setAccessible(true);
-            
-            XlsSheetName sheetNameAnno = annoReader.getAnnotation(clazz, field, XlsSheetName.class);
-            if(sheetNameAnno == null) {
-                continue;
-            }
-            
-            return new FieldAdaptor(clazz, field, annoReader);
-        }
-        
-        // not found
-        return null;
+        final SheetBindingPlan plan = config.getBindingPlanCache().getSavingPlan(
+                obj.getClass(), annoReader, config.getFieldProcessorRegistry());
+        return plan.getSheetNameAdaptor();
     }
     
     public XlsMapperConfig getConfig() {
         return config;
     }
     
+    /**
+     * 設定を変更する。
+     * @param config
+     * @throws IllegalStateException 現在の設定を{@link XlsMapperConfig#freeze()}で変更不可にしている場合。
+     */
     public void setConfig(XlsMapperConfig config) {
+        if(this.config != null && this.config.isFrozen()) {
+            throw new IllegalStateException("config is frozen.");
+        }
         this.config = config;
     }
 }
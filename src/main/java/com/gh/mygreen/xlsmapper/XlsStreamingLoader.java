@@ -0,0 +1,483 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.xmlbeans.XmlException;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbookPr;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.WorkbookDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheetName;
+import com.gh.mygreen.xlsmapper.validation.SheetBindingErrors;
+import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
+import com.gh.mygreen.xlsmapper.xml.XmlMapping;
+
+
+/**
+ * Excelのシートを、ストリーミングで読み込みJavaBeanにマッピングするクラス。
+ * <p>{@link XlsLoader}と異なり、ワークブック全体をメモリ上に展開せず、シートを1行ずつ読み込む。
+ *    Excel(.xlsx)はシートのXMLをSAXで、Excel(.xls)はレコードをイベントモデルで読み込む。
+ *    そのため、大量の行を持つシートでも、メモリの使用量はおおよそ1行分に抑えられる。
+ * <p>対応しているアノテーションは、以下の通り。それ以外のアノテーションが付与されたプロパティは読み込まない。
+ * <ul>
+ *   <li>{@link XlsSheet}、{@link XlsSheetName}</li>
+ *   <li>{@link XlsHorizontalRecords}と、レコードに対する{@link com.gh.mygreen.xlsmapper.annotation.XlsColumn}、
+ *       {@link com.gh.mygreen.xlsmapper.annotation.XlsMapColumns}</li>
+ * </ul>
+ * <p>{@link StreamingRecordListener}を指定した場合は、レコードをリストに保持せずに1件ずつ渡す。
+ * <p>数式のセルは、ファイルに保存されている計算結果を値とする。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class XlsStreamingLoader {
+    
+    private static final Logger logger = LoggerFactory.getLogger(XlsStreamingLoader.class);
+    
+    private XlsMapperConfig config;
+    
+    public XlsStreamingLoader(final XlsMapperConfig config) {
+        this.config = config;
+    }
+    
+    public XlsStreamingLoader() {
+        this(new XlsMapperConfig());
+    }
+    
+    /**
+     * Excelファイルの１シートを読み込み、任意のクラスにマッピングする。
+     * @param xlsIn 読み込みもとのExcelファイル(.xlsx/.xls)のストリーム。
+     * @param clazz マッピング先のクラスタイプ。
+     * @return シートが見つからず、システム設定で無視する場合はnullを返す。
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public <P> P load(final InputStream xlsIn, final Class<P> clazz) throws XlsMapperException, IOException {
+        return loadWithMapping(xlsIn, clazz, null, null, null);
+    }
+    
+    /**
+     * Excelファイルの１シートを読み込み、任意のクラスにマッピングする。
+     * @param xlsIn 読み込みもとのExcelファイル(.xlsx/.xls)のストリーム。
+     * @param clazz マッピング先のクラスタイプ。
+     * @param errors マッピング時のエラー情報。指定しない場合は、nulを指定する。
+     * @return シートが見つからず、システム設定で無視する場合はnullを返す。
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public <P> P load(final InputStream xlsIn, final Class<P> clazz, final SheetBindingErrors errors)
+            throws XlsMapperException, IOException {
+        return loadWithMapping(xlsIn, clazz, null, errors, null);
+    }
+    
+    /**
+     * Excelファイルの１シートを読み込み、レコードを1件ずつリスナーに渡す。
+     * @param xlsIn 読み込みもとのExcelファイル(.xlsx/.xls)のストリーム。
+     * @param clazz マッピング先のクラスタイプ。
+     * @param listener レコードを受け取るリスナー。
+     * @return シートが見つからず、システム設定で無視する場合はnullを返す。
+     * @throws XlsMapperException 
+     * @throws IOException 
+     */
+    public <P> P load(final InputStream xlsIn, final Class<P> clazz, final StreamingRecordListener listener)
+            throws XlsMapperException, IOException {
+        return loadWithMapping(xlsIn, clazz, null, null, listener);
+    }
+    
+    /**
+     * Excelファイルの１シートを読み込み、任意のクラスにマッピングする。
+     * @param xlsIn 読み込みもとのExcelファイル(.xlsx/.xls)のストリーム。
+     * @param clazz マッピング先のクラスタイプ。
+     * @param xmlMapping アノテーションの定義をしているXMLファイルの定義。指定しない場合は、nullを指定する。
+     * @param errors マッピング時のエラー情報。指定しない場合は、nulを指定する。
+     * @param listener レコードを受け取るリスナー。レコードをリストに保持する場合は、nullを指定する。
+     * @return シートが見つからず、システム設定で無視する場合はnullを返す。
+     * @throws XlsMapperException 
+     * @throws IOException 
+     * @throws IllegalArgumentException xlsIn == null.
+     * @throws IllegalArgumentException clazz == null.
+     */
+    public <P> P loadWithMapping(final InputStream xlsIn, final Class<P> clazz, final XmlMapping xmlMapping,
+            final SheetBindingErrors errors, final StreamingRecordListener listener)
+            throws XlsMapperException, IOException {
+        ArgUtils.notNull(xlsIn, "xlsIn");
+        ArgUtils.notNull(clazz, "clazz");
+        
+        final LoadingWorkObject work = new LoadingWorkObject();
+        work.setAnnoReader(xmlMapping != null ? xmlMapping.createAnnotationReader() : new AnnotationReader(null));
+        work.setErrors(errors != null ? errors : new SheetBindingErrors(clazz));
+        
+        final XlsSheet sheetAnno = clazz.getAnnotation(XlsSheet.class);
+        if(sheetAnno == null) {
+            throw new AnnotationInvalidException("Cannot finld annoation '@XlsSheet'", sheetAnno);
+        }
+        
+        // ZIPの各エントリやレコードを必要な時に読み込めるよう、一時ファイルに書き出す
+        final File tempFile = File.createTempFile("xlsmapper", ".tmp");
+        try {
+            Files.copy(xlsIn, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            
+            if(WorkbookFile.isOLE2(tempFile)) {
+                return loadHSSF(tempFile, clazz, sheetAnno, work, listener);
+            }
+            
+            final OPCPackage pkg = OPCPackage.open(tempFile, PackageAccess.READ);
+            try {
+                return loadPackage(pkg, clazz, sheetAnno, work, listener);
+            } finally {
+                pkg.revert();
+            }
+            
+        } catch(OpenXML4JException | SAXException | XmlException | ParserConfigurationException e) {
+            throw new XlsMapperException("fail load Excel File", e);
+            
+        } catch(SheetNotFoundException e) {
+            if(config.isIgnoreSheetNotFound()){
+                logger.warn("skip loading by not-found sheet.", e);
+                return null;
+            } else {
+                throw e;
+            }
+            
+        } finally {
+            tempFile.delete();
+        }
+    }
+    
+    /**
+     * Excel(.xls)のファイルを、イベントモデルで読み込む。
+     */
+    private <P> P loadHSSF(final File file, final Class<P> clazz, final XlsSheet sheetAnno,
+            final LoadingWorkObject work, final StreamingRecordListener listener)
+                    throws XlsMapperException, IOException {
+        
+        final Pattern pattern = createSheetPattern(sheetAnno);
+        final List<SheetContext<P>> contexts = new ArrayList<>(1);
+        
+        final StreamingHSSFParser parser = new StreamingHSSFParser(new StreamingHSSFParser.SheetHandler() {
+            
+            @Override
+            public int selectSheet(final List<String> sheetNames) throws XlsMapperException {
+                for(int i=0; i < sheetNames.size(); i++) {
+                    if(isTargetSheet(sheetAnno, pattern, i, sheetNames.get(i))) {
+                        return i;
+                    }
+                }
+                
+                throw newSheetNotFoundException(sheetAnno, sheetNames.size());
+            }
+            
+            @Override
+            public StreamingSheetParser.RowHandler startSheet(final Sheet sheet) throws XlsMapperException {
+                final SheetContext<P> context = XlsStreamingLoader.this.startSheet(sheet, clazz, work, listener);
+                contexts.add(context);
+                return context.hasTables() ? context : null;
+            }
+        });
+        
+        final HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(parser);
+        
+        final NPOIFSFileSystem fs = new NPOIFSFileSystem(file, true);
+        try {
+            new HSSFEventFactory().abortableProcessWorkbookEvents(request, fs.getRoot());
+            
+            if(contexts.isEmpty()) {
+                throw newSheetNotFoundException(sheetAnno, 0);
+            }
+            
+            return endSheet(contexts.get(0), work);
+            
+        } catch(HSSFUserException e) {
+            if(e.getReason() instanceof XlsMapperException) {
+                throw (XlsMapperException) e.getReason();
+            }
+            throw new XlsMapperException("fail load Excel File", e);
+            
+        } finally {
+            fs.close();
+            for(int i=contexts.size()-1; i >= 0; i--) {
+                closeSheet(contexts.get(i), work);
+            }
+        }
+    }
+    
+    private <P> P loadPackage(final OPCPackage pkg, final Class<P> clazz, final XlsSheet sheetAnno,
+            final LoadingWorkObject work, final StreamingRecordListener listener)
+                    throws XlsMapperException, IOException, OpenXML4JException, SAXException, XmlException, ParserConfigurationException {
+        
+        final XSSFReader reader = new XSSFReader(pkg);
+        final StylesTable stylesTable = reader.getStylesTable();
+        final ReadOnlySharedStringsTable sharedStrings = new StreamingSharedStringsTable(pkg);
+        final StreamingWorkbook workbook = new StreamingWorkbook(stylesTable, isDate1904(reader));
+        
+        final Pattern pattern = createSheetPattern(sheetAnno);
+        
+        final XSSFReader.SheetIterator itr = (XSSFReader.SheetIterator) reader.getSheetsData();
+        int sheetIndex = 0;
+        while(itr.hasNext()) {
+            try(InputStream sheetIn = itr.next()) {
+                final String sheetName = itr.getSheetName();
+                if(isTargetSheet(sheetAnno, pattern, sheetIndex, sheetName)) {
+                    final Sheet sheet = workbook.createSheet(sheetName);
+                    return loadSheet(sheet, sheetIn, sharedStrings, stylesTable, clazz, work, listener);
+                }
+            }
+            sheetIndex++;
+        }
+        
+        throw newSheetNotFoundException(sheetAnno, sheetIndex);
+    }
+    
+    /**
+     * シートを正規表現で指定している場合、パターンを作成する。
+     * @return 正規表現で指定していない場合はnullを返す。
+     * @throws AnnotationInvalidException シートを指定していない場合。
+     */
+    private static Pattern createSheetPattern(final XlsSheet sheetAnno) throws AnnotationInvalidException {
+        
+        final Pattern pattern = sheetAnno.regex().length() > 0 ? Pattern.compile(sheetAnno.regex()) : null;
+        if(sheetAnno.name().isEmpty() && sheetAnno.number() < 0 && pattern == null) {
+            throw new AnnotationInvalidException("@XlsSheet requires name or number or regex parameter.", sheetAnno);
+        }
+        
+        return pattern;
+    }
+    
+    /**
+     * アノテーション{@link XlsSheet}で指定したシートかどうか。
+     */
+    private static boolean isTargetSheet(final XlsSheet sheetAnno, final Pattern pattern,
+            final int sheetIndex, final String sheetName) {
+        
+        if(sheetAnno.name().length() > 0) {
+            return sheetAnno.name().equalsIgnoreCase(sheetName);
+        } else if(sheetAnno.number() >= 0) {
+            return sheetAnno.number() == sheetIndex;
+        } else {
+            return pattern.matcher(sheetName).matches();
+        }
+    }
+    
+    private static SheetNotFoundException newSheetNotFoundException(final XlsSheet sheetAnno, final int sheetCount) {
+        
+        if(sheetAnno.name().length() > 0) {
+            return new SheetNotFoundException(sheetAnno.name());
+        } else if(sheetAnno.number() >= 0) {
+            return new SheetNotFoundException(sheetAnno.number(), sheetCount);
+        } else {
+            return new SheetNotFoundException(sheetAnno.regex());
+        }
+    }
+    
+    private <P> P loadSheet(final Sheet sheet, final InputStream sheetIn, final ReadOnlySharedStringsTable sharedStrings,
+            final StylesTable stylesTable, final Class<P> clazz, final LoadingWorkObject work,
+            final StreamingRecordListener listener)
+                    throws XlsMapperException, IOException, SAXException, ParserConfigurationException {
+        
+        final SheetContext<P> context = startSheet(sheet, clazz, work, listener);
+        try {
+            if(context.hasTables()) {
+                parseSheet(sheetIn, new StreamingSheetParser(sheet, sharedStrings, stylesTable, context));
+            }
+            
+            return endSheet(context, work);
+            
+        } finally {
+            closeSheet(context, work);
+        }
+    }
+    
+    /**
+     * シートの読み込みを開始する。
+     * <p>ストリーミングに対応していないアノテーションが付与されたプロパティは、読み込まない。
+     * @return 読み込み中のシートの情報
+     */
+    private <P> SheetContext<P> startSheet(final Sheet sheet, final Class<P> clazz, final LoadingWorkObject work,
+            final StreamingRecordListener listener) throws XlsMapperException {
+        
+        final P beanObj = config.createBean(clazz);
+        work.getErrors().setSheetName(sheet.getSheetName());
+        
+        final SheetBindingPlan plan = config.getBindingPlanCache().getLoadingPlan(
+                clazz, work.getAnnoReader(), config.getFieldProcessorRegistry());
+        
+        // @PreLoad用のメソッドの実行
+        for(Method method : plan.getPreProcessMethods()) {
+            Utils.invokeNeedProcessMethod(method, beanObj, sheet, config, work.getErrors());
+        }
+        
+        for(Method method : plan.getPostProcessMethods()) {
+            work.addNeedPostProcess(new NeedProcess(beanObj, method));
+        }
+        
+        final SheetContext<P> context = new SheetContext<>(sheet, beanObj);
+        for(FieldAdaptorProxy adaptorProxy : plan.getAdaptorProxies()) {
+            final Annotation anno = adaptorProxy.getAnnotation();
+            if(anno instanceof XlsHorizontalRecords) {
+                context.tables.add(new StreamingHorizontalRecords(sheet, beanObj, (XlsHorizontalRecords) anno,
+                        adaptorProxy.getAdaptor(), config, work, listener));
+                
+            } else if(anno instanceof XlsSheetName) {
+                adaptorProxy.loadProcess(sheet, beanObj, config, work);
+                
+            } else {
+                logger.warn("skip loading of '@{}' for property '{}', because it does not support streaming.",
+                        anno.annotationType().getSimpleName(), adaptorProxy.getAdaptor().getName());
+            }
+        }
+        
+        context.scope = SheetScope.open(sheet).enableTextCache();
+        work.setSheetScope(context.scope);
+        return context;
+    }
+    
+    /**
+     * シートの読み込み中の状態を破棄する。
+     */
+    private static void closeSheet(final SheetContext<?> context, final LoadingWorkObject work) {
+        if(context.scope != null) {
+            work.setSheetScope(null);
+            context.scope.close();
+        }
+    }
+    
+    /**
+     * シートの全ての行を読み込んだ後に、表の読み込みを完了する。
+     * @return シートのマッピング先のオブジェクト
+     */
+    private <P> P endSheet(final SheetContext<P> context, final LoadingWorkObject work) throws XlsMapperException {
+        
+        for(StreamingHorizontalRecords table : context.tables) {
+            table.end();
+        }
+        
+        //@PostLoadが付与されているメソッドの実行
+        for(NeedProcess need : work.getNeedPostProcesses()) {
+            Utils.invokeNeedProcessMethod(need.getMethod(), need.getTarget(), context.sheet, config, work.getErrors());
+        }
+        
+        return context.beanObj;
+    }
+    
+    private void parseSheet(final InputStream sheetIn, final StreamingSheetParser parser)
+            throws XlsMapperException, IOException, SAXException, ParserConfigurationException {
+        
+        // 外部エンティティの参照やエンティティの展開を制限したパーサを利用する
+        final XMLReader xmlReader = SAXHelper.newXMLReader();
+        xmlReader.setContentHandler(parser);
+        
+        try {
+            xmlReader.parse(new InputSource(sheetIn));
+            
+        } catch(StreamingSheetParser.StopParsingException e) {
+            // 全ての表を読み込んだため、以降の行は読み込まない
+            
+        } catch(SAXException e) {
+            if(e.getException() instanceof XlsMapperException) {
+                throw (XlsMapperException) e.getException();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * ワークブックの日付が1904年始まりかどうか。
+     */
+    private static boolean isDate1904(final XSSFReader reader)
+            throws IOException, OpenXML4JException, XmlException {
+        
+        try(InputStream workbookIn = reader.getWorkbookData()) {
+            final CTWorkbookPr workbookPr = WorkbookDocument.Factory.parse(workbookIn).getWorkbook().getWorkbookPr();
+            return workbookPr != null && workbookPr.getDate1904();
+        }
+    }
+    
+    /**
+     * 読み込み中のシートの情報。
+     * <p>読み込んだ行を、全ての表に渡す。
+     */
+    private static class SheetContext<P> implements StreamingSheetParser.RowHandler {
+        
+        private final Sheet sheet;
+        
+        private final P beanObj;
+        
+        private final List<StreamingHorizontalRecords> tables = new ArrayList<>();
+        
+        /** 読み込み中のシートの状態 */
+        private SheetScope scope;
+        
+        SheetContext(final Sheet sheet, final P beanObj) {
+            this.sheet = sheet;
+            this.beanObj = beanObj;
+        }
+        
+        boolean hasTables() {
+            return !tables.isEmpty();
+        }
+        
+        @Override
+        public boolean row(final int rowIndex, final SortedMap<Integer, Cell> cells) throws XlsMapperException {
+            
+            boolean completed = true;
+            for(StreamingHorizontalRecords table : tables) {
+                if(!table.isCompleted()) {
+                    table.row(rowIndex, cells);
+                    completed = completed && table.isCompleted();
+                }
+            }
+            
+            return !completed;
+        }
+    }
+    
+    public XlsMapperConfig getConfig() {
+        return config;
+    }
+    
+    /**
+     * 設定を変更する。
+     * @param config
+     * @throws IllegalStateException 現在の設定を{@link XlsMapperConfig#freeze()}で変更不可にしている場合。
+     */
+    public void setConfig(XlsMapperConfig config) {
+        if(this.config != null && this.config.isFrozen()) {
+            throw new IllegalStateException("config is frozen.");
+        }
+        this.config = config;
+    }
+
+}
@@ -0,0 +1,220 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+import com.gh.mygreen.xlsmapper.validation.SheetBindingErrors;
+import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
+import com.gh.mygreen.xlsmapper.xml.XmlMapping;
+
+
+/**
+ * JavaBeanを、ストリーミングでExcel(.xlsx)のシートに出力するクラス。
+ * <p>{@link XlsSaver}と異なり、アノテーション{@link XlsHorizontalRecords}のレコードは、
+ *    {@link SXSSFWorkbook}を利用して一定の行数ごとに一時ファイルに書き出す。
+ *    そのため、レコードの件数が多くても、メモリの使用量はおおよそ一定となる。
+ *    メモリ上に保持する行数は、{@link XlsMapperConfig#setStreamingRowWindowSize(int)}で設定する。
+ * <p>雛形となるシートには、以下の制約がある。
+ * <ul>
+ *   <li>ストリーミングで書き込む表は、シートに1つのみ。</li>
+ *   <li>表は、シートの最後に配置する。雛形のレコードの1行目より下の行は削除される。</li>
+ *   <li>全てのレコードは、雛形のレコードの1行目の書式で書き込む。
+ *       属性{@link XlsHorizontalRecords#overRecord()}、{@link XlsHorizontalRecords#remainedRecord()}は無視する。</li>
+ *   <li>入力規則、名前の範囲、コメントの位置の修正は行わない。</li>
+ * </ul>
+ * <p>表以外のプロパティは、{@link XlsSaver}と同様に雛形のシートに書き込む。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class XlsStreamingSaver {
+    
+    private static final Logger logger = LoggerFactory.getLogger(XlsStreamingSaver.class);
+    
+    private XlsMapperConfig config;
+    
+    public XlsStreamingSaver(final XlsMapperConfig config) {
+        this.config = config;
+    }
+    
+    public XlsStreamingSaver() {
+        this(new XlsMapperConfig());
+    }
+    
+    /**
+     * JavaのオブジェクトをExeclファイルに出力する。
+     * @param templateXlsIn 雛形となるExcelファイル(.xlsx)の入力
+     * @param xlsOut 出力
+     * @param beanObj 書き込むオブジェクト
+     * @throws XlsMapperException
+     * @throws IOException
+     */
+    public void save(final InputStream templateXlsIn, final OutputStream xlsOut, final Object beanObj)
+            throws XlsMapperException, IOException {
+        saveWithMapping(templateXlsIn, xlsOut, beanObj, null);
+    }
+    
+    /**
+     * 読み込み済みのXMLのマッピング情報を指定して、JavaのオブジェクトをExcelファイルに出力する。
+     * @param templateXlsIn 雛形となるExcelファイル(.xlsx)の入力
+     * @param xlsOut 出力
+     * @param beanObj 書き込むオブジェクト
+     * @param xmlMapping 読み込み済みのXMLのマッピング情報。指定しない場合は、nullを指定する。
+     * @throws XlsMapperException
+     * @throws IOException
+     * @throws IllegalArgumentException templateXlsIn == null.
+     * @throws IllegalArgumentException xlsOut == null.
+     * @throws IllegalArgumentException beanObj == null.
+     */
+    public void saveWithMapping(final InputStream templateXlsIn, final OutputStream xlsOut, final Object beanObj,
+            final XmlMapping xmlMapping) throws XlsMapperException, IOException {
+        
+        ArgUtils.notNull(templateXlsIn, "templateXlsIn");
+        ArgUtils.notNull(xlsOut, "xlsOut");
+        ArgUtils.notNull(beanObj, "beanObj");
+        
+        final AnnotationReader annoReader = xmlMapping != null ? xmlMapping.createAnnotationReader() : new AnnotationReader(null);
+        final SavingWorkObject work = new SavingWorkObject();
+        work.setAnnoReader(annoReader);
+        work.setErrors(new SheetBindingErrors(beanObj.getClass()));
+        
+        final Workbook book;
+        try {
+            book = WorkbookFactory.create(templateXlsIn);
+            
+        } catch (InvalidFormatException | IOException e) {
+            throw new XlsMapperException("fail load template Excel File", e);
+        }
+        
+        if(!(book instanceof XSSFWorkbook)) {
+            throw new XlsMapperException("streaming save supports only the template Excel File of '.xlsx'.");
+        }
+        
+        final XlsSheet sheetAnno = beanObj.getClass().getAnnotation(XlsSheet.class);
+        if(sheetAnno == null) {
+            throw new AnnotationInvalidException("Cannot finld annoation '@XlsSheet'", sheetAnno);
+        }
+        
+        final Sheet sheet;
+        try {
+            sheet = new XlsSaver(config).findSheet(book, sheetAnno, beanObj, annoReader)[0];
+        } catch(SheetNotFoundException e) {
+            if(config.isIgnoreSheetNotFound()){
+                logger.warn("skip saving by not-found sheet.", e);
+                return;
+            } else {
+                throw e;
+            }
+        }
+        
+        final StreamingRecordsWriter recordsWriter = saveTemplateSheet(sheet, beanObj, work);
+        
+        final SXSSFWorkbook streamingBook = new SXSSFWorkbook((XSSFWorkbook) book, config.getStreamingRowWindowSize());
+        try {
+            final Sheet streamingSheet = streamingBook.getSheet(sheet.getSheetName());
+            if(recordsWriter != null) {
+                recordsWriter.write(streamingSheet);
+            }
+            
+            //@PostSaveが付与されているメソッドの実行
+            for(NeedProcess need : work.getNeedPostProcesses()) {
+                Utils.invokeNeedProcessMethod(need.getMethod(), need.getTarget(), streamingSheet, config, work.getErrors());
+            }
+            
+            streamingBook.write(xlsOut);
+            
+        } finally {
+            // 一時ファイルを削除する
+            streamingBook.dispose();
+        }
+    }
+    
+    /**
+     * 表以外のプロパティを雛形のシートに書き込み、ストリーミングで書き込む表の準備をする。
+     * @return ストリーミングで書き込む表がない場合は、nullを返す。
+     */
+    private StreamingRecordsWriter saveTemplateSheet(final Sheet sheet, final Object beanObj,
+            final SavingWorkObject work) throws XlsMapperException {
+        
+        final Class<?> clazz = beanObj.getClass();
+        
+        work.getErrors().setSheetName(sheet.getSheetName());
+        
+        final SheetBindingPlan plan = config.getBindingPlanCache().getSavingPlan(
+                clazz, work.getAnnoReader(), config.getFieldProcessorRegistry());
+        
+        // @PreSave用のメソッドの実行
+        for(Method method : plan.getPreProcessMethods()) {
+            Utils.invokeNeedProcessMethod(method, beanObj, sheet, config, work.getErrors());
+        }
+        
+        for(Method method : plan.getPostProcessMethods()) {
+            work.addNeedPostProcess(new NeedProcess(beanObj, method));
+        }
+        
+        StreamingRecordsWriter recordsWriter = null;
+        
+        final SheetScope scope = SheetScope.open(sheet)
+                .enableMergedRegionIndex()
+                .enableExtents();
+        work.setSheetScope(scope);
+        try {
+            for(FieldAdaptorProxy adaptorProxy : plan.getAdaptorProxies()) {
+                if(adaptorProxy.getAnnotation() instanceof XlsHorizontalRecords) {
+                    final XlsHorizontalRecords anno = (XlsHorizontalRecords) adaptorProxy.getAnnotation();
+                    if(recordsWriter != null) {
+                        throw new AnnotationInvalidException(
+                                String.format("streaming save supports only one '@%s' in a sheet.", XlsHorizontalRecords.class.getSimpleName()),
+                                anno);
+                    }
+                    
+                    recordsWriter = new StreamingRecordsWriter(sheet, beanObj, anno, adaptorProxy.getAdaptor(), config, work);
+                    continue;
+                }
+                
+                adaptorProxy.saveProcess(sheet, beanObj, config, work);
+            }
+            
+            if(recordsWriter != null) {
+                recordsWriter.prepare();
+            }
+            
+        } finally {
+            work.setSheetScope(null);
+            scope.close();
+        }
+        
+        return recordsWriter;
+    }
+    
+    public XlsMapperConfig getConfig() {
+        return config;
+    }
+    
+    /**
+     * 設定を変更する。
+     * @param config
+     * @throws IllegalStateException 現在の設定を{@link XlsMapperConfig#freeze()}で変更不可にしている場合。
+     */
+    public void setConfig(XlsMapperConfig config) {
+        if(this.config != null && this.config.isFrozen()) {
+            throw new IllegalStateException("config is frozen.");
+        }
+        this.config = config;
+    }
+
+}
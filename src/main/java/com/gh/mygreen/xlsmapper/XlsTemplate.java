@@ -0,0 +1,147 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * {@link XlsTemplateRegistry}に登録した、書き込み時の雛形となるExcelファイル。
+ * <p>雛形のファイルの内容をバイト列として保持するキャッシュと、ワークブックの事前解析を組み合わせたもの。
+ *    ファイルの内容は登録時に一度だけ読み込み、書き込みの度に、保持したバイト列から新たなワークブックを解析する。
+ *    POIにはワークブックを複製する手段がないため、解析自体は書き込みごとに1回必要となる。
+ * <p>解析済みのワークブックの予備を、{@link XlsTemplateRegistry#getExecutor()}の別スレッドで事前に作成しておく。
+ *    書き込み時は予備を取り出すため、書き込むスレッドでは雛形の解析を待たない。
+ *    登録時に内容の確認のために解析したワークブックは、最初の書き込みで利用する。
+ *    予備を作成しない設定の場合は、2回目以降の書き込みの度に、書き込むスレッドで雛形を解析する。
+ * <p>このクラスはスレッドセーフです。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class XlsTemplate {
+    
+    private static final Logger logger = LoggerFactory.getLogger(XlsTemplate.class);
+    
+    private final String name;
+    
+    /** 雛形のファイルの内容 */
+    private final byte[] content;
+    
+    /** 解析済みのワークブックの予備 */
+    private final BlockingQueue<Workbook> spares;
+    
+    /** 予備を作成する処理。nullの場合は、予備を作成しない。 */
+    private final Executor executor;
+    
+    /** 予備を作成中かどうか */
+    private final AtomicBoolean refilling = new AtomicBoolean(false);
+    
+    /** 雛形を解析した回数 */
+    private final AtomicInteger parseCount = new AtomicInteger(0);
+    
+    XlsTemplate(final String name, final byte[] content, final int spareCount, final Executor executor)
+            throws XlsMapperException {
+        this.name = name;
+        this.content = content;
+        this.spares = new ArrayBlockingQueue<>(Math.max(spareCount, 1));
+        this.executor = spareCount > 0 ? executor : null;
+        
+        // 登録時に一度解析し、雛形として読み込めることを確認する。解析したワークブックは最初の書き込みで利用する。
+        spares.offer(parse());
+        if(this.executor != null) {
+            refill();
+        }
+    }
+    
+    /**
+     * 雛形の名前を取得する。
+     * @return {@link XlsTemplateRegistry}に登録した名前。
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * 雛形の内容を持つ、新たなワークブックを取得する。
+     * <p>取得したワークブックは呼び出し元で自由に変更でき、他の呼び出しと共有しない。
+     * @return 雛形の内容を持つワークブック。
+     * @throws XlsMapperException 雛形の解析に失敗した場合。
+     */
+    public Workbook createWorkbook() throws XlsMapperException {
+        
+        final Workbook book = spares.poll();
+        if(executor != null) {
+            refill();
+        }
+        
+        return book != null ? book : parse();
+    }
+    
+    /**
+     * 予備のワークブックを、別スレッドで補充する。
+     */
+    private void refill() {
+        
+        if(!refilling.compareAndSet(false, true)) {
+            // 既に補充中
+            return;
+        }
+        
+        try {
+            executor.execute(new Runnable() {
+                
+                @Override
+                public void run() {
+                    try {
+                        do {
+                            while(spares.remainingCapacity() > 0) {
+                                spares.offer(parse());
+                            }
+                            refilling.set(false);
+                            
+                            // 補充を終えるまでの間に取り出された場合は、補充を続ける
+                        } while(spares.remainingCapacity() > 0 && refilling.compareAndSet(false, true));
+                        
+                    } catch(XlsMapperException | RuntimeException e) {
+                        refilling.set(false);
+                        logger.warn("fail to prepare spare workbook of template '{}'.", name, e);
+                    }
+                }
+            });
+            
+        } catch(RuntimeException e) {
+            refilling.set(false);
+            logger.warn("fail to prepare spare workbook of template '{}'.", name, e);
+        }
+    }
+    
+    /**
+     * 雛形を解析した回数を取得する。
+     * @return 登録時と予備の作成時を含めた回数。
+     */
+    int getParseCount() {
+        return parseCount.get();
+    }
+    
+    private Workbook parse() throws XlsMapperException {
+        parseCount.incrementAndGet();
+        try {
+            return WorkbookFactory.create(new ByteArrayInputStream(content));
+        } catch(InvalidFormatException | IOException | IllegalArgumentException e) {
+            throw new XlsMapperException(String.format("fail load template Excel File '%s'", name), e);
+        }
+    }
+
+}
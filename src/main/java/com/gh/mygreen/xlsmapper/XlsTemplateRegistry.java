@@ -0,0 +1,202 @@
+package com.gh.mygreen.xlsmapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * 書き込み時の雛形となるExcelファイルを、名前ごとに保持するクラス。
+ * <p>同じ雛形に何度も書き込む場合に、雛形のファイルの読み込みを一度だけにする。
+ *    登録した雛形は、{@link XlsSaver#save(XlsTemplate, java.io.OutputStream, Object)}などで利用する。
+ * <p>ファイルの読み込みは一度だけになるが、ワークブックの解析は書き込みごとに必要となる。
+ *    解析は{@link #getExecutor()}の別スレッドで事前に行い、書き込み時は解析済みの予備を利用する。
+ *    解析の回数は減らないが、書き込むスレッドでは解析を待たない。
+ *    同時に書き込む数が多い場合は、{@link #setSpareCount(int)}で予備の数を増やす。
+ * <p>このクラスはスレッドセーフです。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class XlsTemplateRegistry {
+    
+    private final ConcurrentMap<String, XlsTemplate> templates = new ConcurrentHashMap<>();
+    
+    /** 雛形ごとに事前に解析しておく、ワークブックの予備の数 */
+    private volatile int spareCount = 1;
+    
+    /**
+     * 予備のワークブックを作成する、既定の処理。
+     * <p>全ての登録情報で共有し、使用しない間はスレッドを保持しない。アプリケーションの終了は妨げない。
+     */
+    private static final Executor DEFAULT_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+        
+        private final AtomicInteger count = new AtomicInteger(0);
+        
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, "xlsmapper-template-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    
+    /** 予備のワークブックを作成する処理 */
+    private volatile Executor executor = DEFAULT_EXECUTOR;
+    
+    /** 設定を変更不可にしたかどうか */
+    private volatile boolean frozen = false;
+    
+    /**
+     * 雛形を登録する。
+     * <p>同じ名前の雛形が登録されている場合は、置き換える。
+     * @param name 雛形の名前
+     * @param templateXlsIn 雛形となるExcelファイルの入力。ストリームは閉じない。
+     * @return 登録した雛形
+     * @throws XlsMapperException 雛形の解析に失敗した場合。
+     * @throws IOException
+     * @throws IllegalArgumentException name is empty.
+     * @throws IllegalArgumentException templateXlsIn == null.
+     */
+    public XlsTemplate register(final String name, final InputStream templateXlsIn) throws XlsMapperException, IOException {
+        ArgUtils.notEmpty(name, "name");
+        ArgUtils.notNull(templateXlsIn, "templateXlsIn");
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buf = new byte[8192];
+        int len;
+        while((len = templateXlsIn.read(buf)) != -1) {
+            out.write(buf, 0, len);
+        }
+        
+        return register(name, out.toByteArray());
+    }
+    
+    /**
+     * 雛形を登録する。
+     * <p>同じ名前の雛形が登録されている場合は、置き換える。
+     * @param name 雛形の名前
+     * @param templateXlsFile 雛形となるExcelファイル
+     * @return 登録した雛形
+     * @throws XlsMapperException 雛形の解析に失敗した場合。
+     * @throws IOException
+     * @throws IllegalArgumentException name is empty.
+     * @throws IllegalArgumentException templateXlsFile == null.
+     */
+    public XlsTemplate register(final String name, final File templateXlsFile) throws XlsMapperException, IOException {
+        ArgUtils.notEmpty(name, "name");
+        ArgUtils.notNull(templateXlsFile, "templateXlsFile");
+        
+        return register(name, Files.readAllBytes(templateXlsFile.toPath()));
+    }
+    
+    private XlsTemplate register(final String name, final byte[] content) throws XlsMapperException {
+        final XlsTemplate template = new XlsTemplate(name, content, spareCount, executor);
+        templates.put(name, template);
+        return template;
+    }
+    
+    /**
+     * 登録した雛形を取得する。
+     * @param name 雛形の名前
+     * @return 登録されていない場合は、nullを返す。
+     */
+    public XlsTemplate get(final String name) {
+        return templates.get(name);
+    }
+    
+    /**
+     * 登録した雛形を削除する。
+     * @param name 雛形の名前
+     * @return 削除した雛形。登録されていない場合は、nullを返す。
+     */
+    public XlsTemplate remove(final String name) {
+        return templates.remove(name);
+    }
+    
+    /**
+     * 登録した全ての雛形を削除する。
+     */
+    public void clear() {
+        templates.clear();
+    }
+    
+    /**
+     * 雛形ごとに事前に解析しておく、ワークブックの予備の数。
+     * @return 初期値は、'1'です。
+     */
+    public int getSpareCount() {
+        return spareCount;
+    }
+    
+    /**
+     * 雛形ごとに事前に解析しておく、ワークブックの予備の数を設定します。
+     * <p>設定した値は、以降に登録する雛形に適用されます。
+     * @param spareCount 予備を作成しない場合は、'0'を指定します。
+     * @return
+     * @throws IllegalStateException {@link #freeze()}で変更不可にしている場合。
+     */
+    public XlsTemplateRegistry setSpareCount(final int spareCount) {
+        assertNotFrozen();
+        ArgUtils.notMin(spareCount, 0, "spareCount");
+        this.spareCount = spareCount;
+        return this;
+    }
+    
+    /**
+     * 予備のワークブックを作成する処理。
+     * @return 初期値は、デーモンスレッドで実行する共有の処理です。
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+    
+    /**
+     * 予備のワークブックを作成する処理を設定します。
+     * <p>設定した値は、以降に登録する雛形に適用されます。
+     * @param executor 予備のワークブックを作成する処理。
+     *        nullの場合は、予備を作成せずに、最初の書き込みを除いて書き込むスレッドで雛形を解析します。
+     * @return
+     * @throws IllegalStateException {@link #freeze()}で変更不可にしている場合。
+     */
+    public XlsTemplateRegistry setExecutor(final Executor executor) {
+        assertNotFrozen();
+        this.executor = executor;
+        return this;
+    }
+    
+    /**
+     * 予備の数などの設定を変更不可にします。
+     * <p>以降は、設定を変更すると{@link IllegalStateException}をスローします。
+     *    雛形の登録と削除は、変更不可にした後も行えます。
+     * @since 1.0
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+    
+    /**
+     * 設定を変更不可にしたかどうか。
+     * @since 1.0
+     * @return {@link #freeze()}を呼んだ場合は、trueを返す。
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+    
+    private void assertNotFrozen() {
+        if(frozen) {
+            throw new IllegalStateException("registry is frozen.");
+        }
+    }
+
+}
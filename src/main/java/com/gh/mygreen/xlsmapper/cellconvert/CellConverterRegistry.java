@@ -54,6 +54,9 @@ public class CellConverterRegistry {
      */
     private Map<Class<?>, CellConverter<?>> converterMap;
     
+    /** 登録を変更不可にしたかどうか */
+    private volatile boolean frozen;
+    
     public CellConverterRegistry() {
         init();
     }
@@ -64,6 +67,8 @@ public class CellConverterRegistry {
      */
     protected void init() {
         
+        assertNotFrozen();
+        
         if(converterMap == null) {
             this.converterMap = new ConcurrentHashMap<>();
         } else {
@@ -152,8 +157,33 @@ public class CellConverterRegistry {
     public <T> void registerConverter(final Class<T> clazz, final CellConverter<T> converter) {
         ArgUtils.notNull(clazz, "clazz");
         ArgUtils.notNull(converter, "converter");
+        assertNotFrozen();
         
         converterMap.put(clazz, converter);
     }
     
+    /**
+     * 登録を変更不可にします。
+     * <p>以降は、{@link CellConverter}の登録や初期化を行うと、{@link IllegalStateException}をスローします。
+     * @since 1.0
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+    
+    /**
+     * 登録を変更不可にしたかどうか。
+     * @since 1.0
+     * @return {@link #freeze()}を呼んだ場合は、trueを返す。
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+    
+    private void assertNotFrozen() {
+        if(frozen) {
+            throw new IllegalStateException("registry is frozen.");
+        }
+    }
+    
 }
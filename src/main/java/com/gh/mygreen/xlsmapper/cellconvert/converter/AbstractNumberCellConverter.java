@@ -15,10 +15,7 @@ import java.util.Locale;
 import java.util.Map;
 
 import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CreationHelper;
-import org.apache.poi.ss.usermodel.FormulaEvaluator;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 
 import com.gh.mygreen.xlsmapper.POIUtils;
 import com.gh.mygreen.xlsmapper.Utils;
@@ -77,12 +74,9 @@ public abstract class AbstractNumberCellConverter<T extends Number> extends Abst
             
         } else if(cell.getCellType() == Cell.CELL_TYPE_FORMULA) {
             // 式を評価して再帰的に処理する。
-            final Workbook workbook = cell.getSheet().getWorkbook();
-            final CreationHelper helper = workbook.getCreationHelper();
-            final FormulaEvaluator evaluator = helper.createFormulaEvaluator();
             try {
-                // 再帰的に処理する
-                final Cell evalCell = evaluator.evaluateInCell(cell);
+                // 元のセルの数式は変更せず、評価した結果のセルを再帰的に処理する
+                final Cell evalCell = POIUtils.evaluateFormulaCell(cell);
                 return toObject(evalCell, adaptor, config);
                 
             } catch(Exception e) {
@@ -2,10 +2,16 @@ package com.gh.mygreen.xlsmapper.expression;
 
 import java.lang.ref.SoftReference;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
 
 
+/**
+ * 値をソフト参照で保持するキャッシュ。
+ * <p>このクラスはスレッドセーフです。
+ *
+ */
 public class ObjectCache<K, V> {
     
     private final Map<K, SoftReference<V>> map = new HashMap<K, SoftReference<V>>();
@@ -28,18 +34,18 @@ public class ObjectCache<K, V> {
         this.objectsToKeepCount = maxObjectsToKeep;
     }
     
-    public void compact() {
-        for (final Map.Entry<K, SoftReference<V>> entry : map.entrySet()) {
-            final SoftReference<V> ref = entry.getValue();
-            if (ref.get() == null) map.remove(entry.getKey());
+    public synchronized void compact() {
+        for (final Iterator<Map.Entry<K, SoftReference<V>>> it = map.entrySet().iterator(); it.hasNext();) {
+            final SoftReference<V> ref = it.next().getValue();
+            if (ref.get() == null) it.remove();
         }
     }
     
-    public boolean contains(final K key) {
+    public synchronized boolean contains(final K key) {
         return map.containsKey(key);
     }
     
-    public V get(final K key) {
+    public synchronized V get(final K key) {
         final SoftReference<V> softReference = map.get(key);
         if (softReference != null) {
             final V value = softReference.get();
@@ -55,7 +61,7 @@ public class ObjectCache<K, V> {
         return null;
     }
     
-    public void put(final K key, final V value) {
+    public synchronized void put(final K key, final V value) {
         map.remove(key);
         map.put(key, new SoftReference<V>(value));
     }
@@ -1,9 +1,13 @@
 package com.gh.mygreen.xlsmapper.fieldprocessor;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -18,6 +22,8 @@ import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
 
 /**
  * メソッド（setter/getter）とフィールドのアクセスを吸収するクラス。
+ * <p>値の取得・設定は、初期化時に作成した{@link MethodHandle}を利用して行う。
+ *    MethodHandleを作成できない場合は、従来通りリフレクションを利用する。
  * 
  * @author T.TSUCHIE
  *
@@ -54,6 +60,12 @@ public class FieldAdaptor {
     /** 親のクラスタイプ */
     private Class<?> parentClass;
     
+    /** 値を取得するためのハンドル。型は{@code (Object)Object}。作成できない場合はnull。 */
+    private MethodHandle valueGetter;
+    
+    /** 値を設定するためのハンドル。型は{@code (Object,Object)void}。作成できない場合はnull。 */
+    private MethodHandle valueSetter;
+    
     /**
      * フィールド情報を指定して初期化する。
      * @param clazz
@@ -69,6 +81,7 @@ public class FieldAdaptor {
         this.withField = true;
         
         initWithField(clazz, field, reader);
+        initAccessor();
 
     }
     
@@ -105,6 +118,8 @@ public class FieldAdaptor {
             throw new IllegalStateException(
                     String.format("method name '%s' should start with 'get' or 'set'", method.getName()));
         }
+        
+        initAccessor();
     }
     
     
@@ -222,6 +237,59 @@ public class FieldAdaptor {
         }
     }
     
+    /**
+     * 値を取得・設定するための{@link MethodHandle}を作成する。
+     * <p>staticなフィールドやアクセスできないメソッドなど、作成できない場合は、リフレクションによるアクセスとなる。
+     */
+    private void initAccessor() {
+        
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final MethodType getterType = MethodType.methodType(Object.class, Object.class);
+        final MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+        
+        if(withField) {
+            if(!Modifier.isStatic(targetField.getModifiers())) {
+                this.valueGetter = unreflect(lookup, targetField, false, getterType);
+                if(!Modifier.isFinal(targetField.getModifiers())) {
+                    this.valueSetter = unreflect(lookup, targetField, true, setterType);
+                }
+            }
+            
+        } else {
+            if(targetGetter != null && !Modifier.isStatic(targetGetter.getModifiers())) {
+                this.valueGetter = unreflect(lookup, targetGetter, getterType);
+            }
+            
+            if(targetSetter != null && !Modifier.isStatic(targetSetter.getModifiers())) {
+                this.valueSetter = unreflect(lookup, targetSetter, setterType);
+            }
+        }
+        
+    }
+    
+    private static MethodHandle unreflect(final MethodHandles.Lookup lookup, final Field field,
+            final boolean setter, final MethodType type) {
+        
+        try {
+            final MethodHandle handle = setter ? lookup.unreflectSetter(field) : lookup.unreflectGetter(field);
+            return handle.asType(type);
+            
+        } catch(IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+    
+    private static MethodHandle unreflect(final MethodHandles.Lookup lookup, final Method method, final MethodType type) {
+        
+        try {
+            method.setAccessible(true);
+            return lookup.unreflect(method).asType(type);
+            
+        } catch(IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+    
     private Map<Class<? extends Annotation>, Annotation> createAnnotationMap(Annotation[] annos) {
         final Map<Class<? extends Annotation>, Annotation> map = new LinkedHashMap<>();
         
@@ -275,6 +343,14 @@ public class FieldAdaptor {
     public Object getValue(final Object targetObj) {
         ArgUtils.notNull(targetObj, "targetObj");
         
+        if(valueGetter != null) {
+            try {
+                return (Object) valueGetter.invokeExact(targetObj);
+            } catch(Throwable e) {
+                throw wrapException("fail get field value.", e);
+            }
+        }
+        
         try {
             if(withField) {
                 return targetField.get(targetObj);
@@ -282,7 +358,7 @@ public class FieldAdaptor {
                 return targetGetter.invoke(targetObj);
             }
         } catch (IllegalArgumentException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException("fail get field value.");
+            throw wrapException("fail get field value.", e);
         }
         
     }
@@ -317,6 +393,15 @@ public class FieldAdaptor {
     public void setValue(final Object targetObj, final Object value) {
         ArgUtils.notNull(targetObj, "targetObj");
         
+        if(valueSetter != null) {
+            try {
+                valueSetter.invokeExact(targetObj, value);
+                return;
+            } catch(Throwable e) {
+                throw wrapException("fail set field value.", e);
+            }
+        }
+        
         try {
             if(withField) {
                 targetField.set(targetObj, value);
@@ -325,8 +410,26 @@ public class FieldAdaptor {
             }
             
         }catch (IllegalArgumentException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException("fail get field value.");
+            throw wrapException("fail set field value.", e);
+        }
+    }
+    
+    /**
+     * 値の取得・設定時の例外を、実行時例外にラップする。
+     * <p>MethodHandleとリフレクションのどちらの場合も、同じ例外となるようにする。
+     *    エラーの場合は、ラップせずにそのまま投げる。
+     * @param message 例外のメッセージ
+     * @param e 発生した例外。{@link InvocationTargetException}の場合は、メソッドが投げた例外を原因とする。
+     * @return ラップした例外
+     */
+    private static RuntimeException wrapException(final String message, final Throwable e) {
+        
+        final Throwable cause = (e instanceof InvocationTargetException) ? e.getCause() : e;
+        if(cause instanceof Error) {
+            throw (Error) cause;
         }
+        
+        return new RuntimeException(message, cause);
     }
     
     /**
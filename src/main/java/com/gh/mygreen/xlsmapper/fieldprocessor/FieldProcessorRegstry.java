@@ -3,6 +3,7 @@ package com.gh.mygreen.xlsmapper.fieldprocessor;
 import java.lang.annotation.Annotation;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.gh.mygreen.xlsmapper.ArgUtils;
 import com.gh.mygreen.xlsmapper.annotation.XlsCell;
@@ -33,6 +34,12 @@ public class FieldProcessorRegstry {
     
     private Map<Class<? extends Annotation>, SavingFieldProcessor<?>> savingPocessorMap;
     
+    /** 登録を変更不可にしたかどうか */
+    private volatile boolean frozen;
+    
+    /** 登録を変更した回数 */
+    private final AtomicInteger modificationCount = new AtomicInteger();
+    
     public FieldProcessorRegstry() {
         this.loadingPocessorMap = new ConcurrentHashMap<>();
         
@@ -45,6 +52,8 @@ public class FieldProcessorRegstry {
      */
     protected void init() {
         
+        assertNotFrozen();
+        
         if(loadingPocessorMap == null) {
             this.loadingPocessorMap = new ConcurrentHashMap<Class<? extends Annotation>, LoadingFieldProcessor<?>>();
         } else {
@@ -56,6 +65,7 @@ public class FieldProcessorRegstry {
         } else {
             savingPocessorMap.clear();
         }
+        modificationCount.incrementAndGet();
         
         //標準のフィールドプロセッサを登録する。
         registerProcessor(XlsSheetName.class, new SheetNameProcessor());
@@ -124,6 +134,7 @@ public class FieldProcessorRegstry {
     public <A extends Annotation> void registerProcessor(final Class<A> annoClass, final FieldProcessor<A> processor) {
         ArgUtils.notNull(annoClass, "annoClass");
         ArgUtils.notNull(processor, "processor");
+        assertNotFrozen();
         
         if(processor instanceof LoadingFieldProcessor) {
             loadingPocessorMap.put(annoClass, (LoadingFieldProcessor) processor);
@@ -132,6 +143,42 @@ public class FieldProcessorRegstry {
         if(processor instanceof SavingFieldProcessor) {
             savingPocessorMap.put(annoClass, (SavingFieldProcessor) processor);
         }
+        
+        modificationCount.incrementAndGet();
+    }
+    
+    /**
+     * 登録を変更した回数を取得する。
+     * <p>プロセッサを元に作成した情報をキャッシュしている場合に、現在の登録内容から作成したものかどうかの判定に利用する。
+     * @since 1.0
+     * @return {@link #init()}、{@link #registerProcessor(Class, FieldProcessor)}を呼ぶたびに値が変わる。
+     */
+    public int getModificationCount() {
+        return modificationCount.get();
+    }
+    
+    /**
+     * 登録を変更不可にします。
+     * <p>以降は、{@link FieldProcessor}の登録や初期化を行うと、{@link IllegalStateException}をスローします。
+     * @since 1.0
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+    
+    /**
+     * 登録を変更不可にしたかどうか。
+     * @since 1.0
+     * @return {@link #freeze()}を呼んだ場合は、trueを返す。
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+    
+    private void assertNotFrozen() {
+        if(frozen) {
+            throw new IllegalStateException("registry is frozen.");
+        }
     }
     
 }
@@ -0,0 +1,168 @@
+package com.gh.mygreen.xlsmapper.fieldprocessor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.gh.mygreen.xlsmapper.ArgUtils;
+import com.gh.mygreen.xlsmapper.Utils;
+import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
+import com.gh.mygreen.xlsmapper.annotation.XlsMapColumns;
+import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
+
+
+/**
+ * レコードクラスの見出し（{@link XlsColumn#columnName()}）とプロパティの対応を保持するクラス。
+ * <p>{@link Utils#getLoadingColumnProperties(Class, String, AnnotationReader)}などによるクラスの走査を一度だけ行い、
+ *    見出し名をキーとして読み込み用、書き込み用のプロパティを取得できるようにする。
+ * <p>作成後は変更されないため、複数のスレッドから共有して利用できる。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class RecordColumnIndex {
+    
+    /** レコードのクラスタイプ */
+    private final Class<?> recordClass;
+    
+    /** 読み込み用のカラムのプロパティ */
+    private final List<FieldAdaptor> loadingColumnProperties;
+    
+    /** 見出し名をキーとした読み込み用のカラムのプロパティ */
+    private final Map<String, List<FieldAdaptor>> loadingColumnMap;
+    
+    /** 書き込み用のカラムのプロパティ */
+    private final List<FieldAdaptor> savingColumnProperties;
+    
+    /** 見出し名をキーとした書き込み用のカラムのプロパティ */
+    private final Map<String, List<FieldAdaptor>> savingColumnMap;
+    
+    /** 読み込み用の{@link XlsMapColumns}のプロパティ */
+    private final List<FieldAdaptor> loadingMapColumnProperties;
+    
+    /** 書き込み用の{@link XlsMapColumns}のプロパティ */
+    private final List<FieldAdaptor> savingMapColumnProperties;
+    
+    /**
+     * レコードのクラス情報をもとに組み立てる。
+     * @param recordClass レコードのクラスタイプ
+     * @param reader アノテーションの読み込みクラス
+     * @throws IllegalArgumentException recordClass or reader is null.
+     */
+    public RecordColumnIndex(final Class<?> recordClass, final AnnotationReader reader) {
+        ArgUtils.notNull(recordClass, "recordClass");
+        ArgUtils.notNull(reader, "reader");
+        
+        this.recordClass = recordClass;
+        
+        this.loadingColumnProperties = Collections.unmodifiableList(
+                Utils.getLoadingColumnProperties(recordClass, null, reader));
+        this.loadingColumnMap = createColumnMap(loadingColumnProperties, true);
+        
+        this.savingColumnProperties = Collections.unmodifiableList(
+                Utils.getSavingColumnProperties(recordClass, null, reader));
+        this.savingColumnMap = createColumnMap(savingColumnProperties, false);
+        
+        this.loadingMapColumnProperties = Collections.unmodifiableList(
+                Utils.getLoadingMapColumnProperties(recordClass, reader));
+        this.savingMapColumnProperties = Collections.unmodifiableList(
+                Utils.getSavingMapColumnProperties(recordClass, reader));
+        
+    }
+    
+    private static Map<String, List<FieldAdaptor>> createColumnMap(final List<FieldAdaptor> properties, final boolean onLoad) {
+        
+        final Map<String, List<FieldAdaptor>> map = new LinkedHashMap<>();
+        for(FieldAdaptor property : properties) {
+            final XlsColumn column;
+            if(onLoad) {
+                column = property.getLoadingAnnotation(XlsColumn.class);
+            } else {
+                column = property.getSavingAnnotation(XlsColumn.class);
+            }
+            
+            List<FieldAdaptor> list = map.get(column.columnName());
+            if(list == null) {
+                list = new ArrayList<>();
+                map.put(column.columnName(), list);
+            }
+            list.add(property);
+        }
+        
+        for(Map.Entry<String, List<FieldAdaptor>> entry : map.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        
+        return Collections.unmodifiableMap(map);
+    }
+    
+    /**
+     * レコードのクラスタイプを取得する。
+     * @return
+     */
+    public Class<?> getRecordClass() {
+        return recordClass;
+    }
+    
+    /**
+     * アノテーション{@link XlsColumn}が付与されている読み込み用のプロパティを全て取得する。
+     * @return 変更不可なリスト。
+     */
+    public List<FieldAdaptor> getLoadingColumnProperties() {
+        return loadingColumnProperties;
+    }
+    
+    /**
+     * 見出し名を指定して、アノテーション{@link XlsColumn}が付与されている読み込み用のプロパティを取得する。
+     * @param columnName 見出し名
+     * @return 該当するものがない場合は、空のリストを返す。
+     */
+    public List<FieldAdaptor> getLoadingColumnProperties(final String columnName) {
+        final List<FieldAdaptor> list = loadingColumnMap.get(columnName);
+        if(list == null) {
+            return Collections.emptyList();
+        }
+        return list;
+    }
+    
+    /**
+     * アノテーション{@link XlsColumn}が付与されている書き込み用のプロパティを全て取得する。
+     * @return 変更不可なリスト。
+     */
+    public List<FieldAdaptor> getSavingColumnProperties() {
+        return savingColumnProperties;
+    }
+    
+    /**
+     * 見出し名を指定して、アノテーション{@link XlsColumn}が付与されている書き込み用のプロパティを取得する。
+     * @param columnName 見出し名
+     * @return 該当するものがない場合は、空のリストを返す。
+     */
+    public List<FieldAdaptor> getSavingColumnProperties(final String columnName) {
+        final List<FieldAdaptor> list = savingColumnMap.get(columnName);
+        if(list == null) {
+            return Collections.emptyList();
+        }
+        return list;
+    }
+    
+    /**
+     * アノテーション{@link XlsMapColumns}が付与されている読み込み用のプロパティを取得する。
+     * @return 変更不可なリスト。
+     */
+    public List<FieldAdaptor> getLoadingMapColumnProperties() {
+        return loadingMapColumnProperties;
+    }
+    
+    /**
+     * アノテーション{@link XlsMapColumns}が付与されている書き込み用のプロパティを取得する。
+     * @return 変更不可なリスト。
+     */
+    public List<FieldAdaptor> getSavingMapColumnProperties() {
+        return savingMapColumnProperties;
+    }
+    
+}
@@ -28,7 +28,27 @@ public class RecordsProcessorUtil {
      */
     public static void checkColumns(Sheet sheet, Class<?> recordClass, List<RecordHeader> headers, AnnotationReader reader) throws XlsMapperException {
         
-        for(FieldAdaptor property : Utils.getLoadingColumnProperties(recordClass, null, reader)) {
+        checkColumns(sheet, Utils.getLoadingColumnProperties(recordClass, null, reader), headers);
+        
+    }
+    
+    /**
+     * アノテーションXlsColumnの属性columnNameで指定した値が、ヘッダーセルに存在するかチェックする。
+     * @since 1.0
+     * @param sheet
+     * @param columnIndex レコードクラスのカラム情報
+     * @param headers
+     * @throws XlsMapperException
+     */
+    public static void checkColumns(Sheet sheet, RecordColumnIndex columnIndex, List<RecordHeader> headers) throws XlsMapperException {
+        
+        checkColumns(sheet, columnIndex.getLoadingColumnProperties(), headers);
+        
+    }
+    
+    private static void checkColumns(Sheet sheet, List<FieldAdaptor> properties, List<RecordHeader> headers) throws XlsMapperException {
+        
+        for(FieldAdaptor property : properties) {
             final XlsColumn column = property.getLoadingAnnotation(XlsColumn.class);
             
             if(!column.optional()){
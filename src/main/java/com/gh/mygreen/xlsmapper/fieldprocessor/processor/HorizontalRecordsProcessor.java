@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 
 import com.gh.mygreen.xlsmapper.AnnotationInvalidException;
 import com.gh.mygreen.xlsmapper.CellCommentStore;
+import com.gh.mygreen.xlsmapper.LifecycleCallbacks;
 import com.gh.mygreen.xlsmapper.LoadingWorkObject;
 import com.gh.mygreen.xlsmapper.NeedProcess;
 import com.gh.mygreen.xlsmapper.POIUtils;
@@ -41,19 +42,14 @@ import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
 import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
 import com.gh.mygreen.xlsmapper.annotation.XlsIsEmpty;
 import com.gh.mygreen.xlsmapper.annotation.XlsMapColumns;
-import com.gh.mygreen.xlsmapper.annotation.XlsPostLoad;
-import com.gh.mygreen.xlsmapper.annotation.XlsPostSave;
-import com.gh.mygreen.xlsmapper.annotation.XlsPreLoad;
-import com.gh.mygreen.xlsmapper.annotation.XlsPreSave;
 import com.gh.mygreen.xlsmapper.cellconvert.CellConverter;
 import com.gh.mygreen.xlsmapper.cellconvert.TypeBindException;
 import com.gh.mygreen.xlsmapper.fieldprocessor.AbstractFieldProcessor;
 import com.gh.mygreen.xlsmapper.fieldprocessor.CellNotFoundException;
 import com.gh.mygreen.xlsmapper.fieldprocessor.FieldAdaptor;
+import com.gh.mygreen.xlsmapper.fieldprocessor.RecordColumnIndex;
 import com.gh.mygreen.xlsmapper.fieldprocessor.RecordHeader;
 import com.gh.mygreen.xlsmapper.fieldprocessor.RecordsProcessorUtil;
-import com.gh.mygreen.xlsmapper.xml.AnnotationReadException;
-import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
 
 
 /**
@@ -176,14 +172,23 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
         }
         
         // Check for columns
-        RecordsProcessorUtil.checkColumns(sheet, recordClass, headers, work.getAnnoReader());
+        RecordsProcessorUtil.checkColumns(sheet,
+                config.getBindingPlanCache().getRecordColumnIndex(recordClass, work.getAnnoReader()), headers);
         
         RecordTerminal terminal = anno.terminal();
         if(terminal == null){
             terminal = RecordTerminal.Empty;
         }
         
-        final int startHeaderIndex = getStartHeaderIndex(headers, recordClass, work);
+        final int startHeaderIndex = getStartHeaderIndex(headers, recordClass, config, work);
+        
+        // 値の変換を並列に行う場合は、先に全てのレコードのセルの値を取り出す
+        final RecordConversionPipeline pipeline;
+        if(config.getParallelConversionPool() != null && !anno.skipEmptyRecord()) {
+            pipeline = new RecordConversionPipeline(config);
+        } else {
+            pipeline = null;
+        }
         
         // get records
         hRow++;
@@ -192,19 +197,22 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
             boolean emptyFlag = true;
             // recordは、マッピング先のオブジェクトのインスタンス。
             final Object record = config.createBean(recordClass);
+            final RecordColumnIndex columnIndex = config.getBindingPlanCache().getRecordColumnIndex(record.getClass(), work.getAnnoReader());
+            final LifecycleCallbacks callbacks = config.getBindingPlanCache().getLifecycleCallbacks(record.getClass(), work.getAnnoReader());
             
             // パスの位置の変更
-            work.getErrors().pushNestedPath(adaptor.getName(), result.size());
+            work.getErrors().pushNestedPath(adaptor.getName(), pipeline != null ? pipeline.getRecordCount() : result.size());
             
             // set PreProcess method
-            for(Method method : record.getClass().getMethods()) {
-                final XlsPreLoad preProcessAnno = work.getAnnoReader().getAnnotation(record.getClass(), method, XlsPreLoad.class);
-                if(preProcessAnno != null) {
-                    Utils.invokeNeedProcessMethod(method, record, sheet, config, work.getErrors());
-                }
+            for(Method method : callbacks.getPreLoadMethods()) {
+                Utils.invokeNeedProcessMethod(method, record, sheet, config, work.getErrors());
             }
             
-            loadMapColumns(sheet, headers, hColumn, hRow, record, config, work);
+            if(pipeline != null) {
+                pipeline.startRecord(record, callbacks);
+            }
+            
+            loadMapColumns(sheet, headers, hColumn, hRow, record, config, work, pipeline);
             
             for(int i=0; i < headers.size() && hRow < POIUtils.getRows(sheet); i++){
                 final RecordHeader headerInfo = headers.get(i);
@@ -234,7 +242,7 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
                 }
                 
                 // mapping from Excel columns to Object properties.
-                final List<FieldAdaptor> propeties = Utils.getLoadingColumnProperties(record.getClass(), headerInfo.getHeaderLabel(), work.getAnnoReader());
+                final List<FieldAdaptor> propeties = columnIndex.getLoadingColumnProperties(headerInfo.getHeaderLabel());
                 for(FieldAdaptor property : propeties) {
                     Cell valueCell = cell;
                     final XlsColumn column = property.getLoadingAnnotation(XlsColumn.class);
@@ -270,6 +278,11 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
                     Utils.setPosition(valueCell.getColumnIndex(), valueCell.getRowIndex(), record, property.getName());
                     Utils.setLabel(headerInfo.getHeaderLabel(), record, property.getName());
                     final CellConverter<?> converter = getLoadingCellConverter(property, config.getConverterRegistry(), config);
+                    if(pipeline != null) {
+                        pipeline.addColumn(valueCell, converter, property, headerInfo.getHeaderLabel());
+                        continue;
+                    }
+                    
                     try {
                         final Object value = converter.toObject(valueCell, property, config);
                         property.setValue(record, value);
@@ -286,20 +299,27 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
             }
             
             if(emptyFlag){
+                if(pipeline != null) {
+                    pipeline.endRecord(true);
+                }
+                
                 // パスの位置の変更
                 work.getErrors().popNestedPath();
                 break;
             }
             
-            if(!anno.skipEmptyRecord() || !isEmptyRecord(record, work.getAnnoReader())) {
-                result.add(record);
+            if(pipeline != null) {
+                // 結果への追加は、値の変換後に行う
+                pipeline.endRecord(false);
                 
-            }
-            
-            // set PostProcess method
-            for(Method method : record.getClass().getMethods()) {
-                final XlsPostLoad postProcessAnno = work.getAnnoReader().getAnnotation(record.getClass(), method, XlsPostLoad.class);
-                if(postProcessAnno != null) {
+            } else {
+                if(!anno.skipEmptyRecord() || !isEmptyRecord(record, callbacks)) {
+                    result.add(record);
+                    
+                }
+                
+                // set PostProcess method
+                for(Method method : callbacks.getPostLoadMethods()) {
                     work.addNeedPostProcess(new NeedProcess(record, method));
                 }
             }
@@ -310,6 +330,11 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
             hRow++;
         }
         
+        if(pipeline != null) {
+            pipeline.convert(config.getParallelConversionPool());
+            return pipeline.merge(adaptor.getName(), work);
+        }
+        
         return result;
     }
     
@@ -370,19 +395,21 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
      * ・カラムの定義とは、アノテーション「@XlsColumn」が付与されたもの。
      * @param headers
      * @param recordClass
+     * @param config
      * @param work
      * @return
      */
-    private int getStartHeaderIndex(List<RecordHeader> headers, Class<?> recordClass, LoadingWorkObject work) {
+    private int getStartHeaderIndex(List<RecordHeader> headers, Class<?> recordClass, XlsMapperConfig config, LoadingWorkObject work) {
         
         // レコードクラスが不明の場合、0を返す。
         if((recordClass == null || recordClass.equals(Object.class))) {
             return 0;
         }
         
+        final RecordColumnIndex columnIndex = config.getBindingPlanCache().getRecordColumnIndex(recordClass, work.getAnnoReader());
         for(int i=0; i < headers.size(); i++) {
             RecordHeader headerInfo = headers.get(i);
-            final List<FieldAdaptor> propeties = Utils.getLoadingColumnProperties(recordClass, headerInfo.getHeaderLabel(), work.getAnnoReader());
+            final List<FieldAdaptor> propeties = columnIndex.getLoadingColumnProperties(headerInfo.getHeaderLabel());
             if(!propeties.isEmpty()) {
                 return i;
             }
@@ -393,9 +420,11 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
     }
     
     private void loadMapColumns(Sheet sheet, List<RecordHeader> headerInfos, 
-            int begin, int row, Object record, XlsMapperConfig config, LoadingWorkObject work) throws XlsMapperException {
+            int begin, int row, Object record, XlsMapperConfig config, LoadingWorkObject work,
+            RecordConversionPipeline pipeline) throws XlsMapperException {
         
-        final List<FieldAdaptor> properties = Utils.getLoadingMapColumnProperties(record.getClass(), work.getAnnoReader());
+        final List<FieldAdaptor> properties = config.getBindingPlanCache().getRecordColumnIndex(record.getClass(), work.getAnnoReader())
+                .getLoadingMapColumnProperties();
         
         for(FieldAdaptor property : properties) {
             final XlsMapColumns mapAnno = property.getLoadingAnnotation(XlsMapColumns.class);
@@ -425,6 +454,12 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
                     Utils.setPositionWithMapColumn(cell.getColumnIndex(), cell.getRowIndex(), record, property.getName(), headerInfo.getHeaderLabel());
                     Utils.setLabelWithMapColumn(headerInfo.getHeaderLabel(), record, property.getName(), headerInfo.getHeaderLabel());
                     
+                    if(pipeline != null) {
+                        pipeline.addMapColumn(cell, converter, property, headerInfo.getHeaderLabel(), itemClass, map);
+                        begin = begin + headerInfo.getHeaderRange() + 1;
+                        continue;
+                    }
+                    
                     try {
                         final Object value = converter.toObject(cell, property, config);
                         map.put(headerInfo.getHeaderLabel(), value);
@@ -439,7 +474,11 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
                 begin = begin + headerInfo.getHeaderRange() + 1;
             }
             
-            property.setValue(record, map);
+            if(pipeline != null) {
+                pipeline.addMapValue(property, map);
+            } else {
+                property.setValue(record, map);
+            }
         }
     }
     
@@ -447,31 +486,26 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
      * レコードの値か空かどうか判定する。
      * <p>アノテーション<code>@XlsIsEmpty</code>のメソッドで判定を行う。
      * @param record
-     * @param annoReader
+     * @param callbacks レコードのクラスのコールバックメソッドの情報
      * @return アノテーションがない場合はfalseを返す。
-     * @throws AnnotationReadException 
      * @throws AnnotationInvalidException 
      */
-    private boolean isEmptyRecord(final Object record, final AnnotationReader annoReader) throws AnnotationReadException, AnnotationInvalidException {
+    private boolean isEmptyRecord(final Object record, final LifecycleCallbacks callbacks) throws AnnotationInvalidException {
         
-        for(Method method : record.getClass().getMethods()) {
-            final XlsIsEmpty emptyAnno = annoReader.getAnnotation(record.getClass(), method, XlsIsEmpty.class);
-            if(emptyAnno == null) {
-                continue;
-            }
-            
-            try {
-                method.setAccessible(true);
-                return (boolean) method.invoke(record);
-            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                throw new AnnotationInvalidException(
-                        String.format("@XlsIsEmpty should be appended method that no args and returning boolean type."),
-                        emptyAnno);
-            }
+        final Method method = callbacks.getIsEmptyMethod();
+        if(method == null) {
+            // メソッドが見つからない場合。
+            return false;
         }
         
-        // メソッドが見つからない場合。
-        return false;
+        try {
+            method.setAccessible(true);
+            return (boolean) method.invoke(record);
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            throw new AnnotationInvalidException(
+                    String.format("@XlsIsEmpty should be appended method that no args and returning boolean type."),
+                    callbacks.getIsEmptyAnnotation());
+        }
     }
     
     @Override
@@ -525,10 +559,12 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
      * ・カラムの定義とは、アノテーション「@XlsColumn」が付与されたもの。
      * @param headers
      * @param recordClass
+     * @param config
      * @param work
      * @return
      */
-    private int getStartHeaderIndex(List<RecordHeader> headers, final List<Object> result, Class<?> recordClass, SavingWorkObject work) {
+    private int getStartHeaderIndex(List<RecordHeader> headers, final List<Object> result, Class<?> recordClass,
+            XlsMapperConfig config, SavingWorkObject work) {
         
         // レコードクラスが不明の場合、実際のリストオブジェクトの要素から取得する
         if((recordClass == null || recordClass.equals(Object.class)) && !result.isEmpty()) {
@@ -536,9 +572,10 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
            
         }
         
+        final RecordColumnIndex columnIndex = config.getBindingPlanCache().getRecordColumnIndex(recordClass, work.getAnnoReader());
         for(int i=0; i < headers.size(); i++) {
             RecordHeader headerInfo = headers.get(i);
-            final List<FieldAdaptor> propeties = Utils.getSavingColumnProperties(recordClass, headerInfo.getHeaderLabel(), work.getAnnoReader());
+            final List<FieldAdaptor> propeties = columnIndex.getSavingColumnProperties(headerInfo.getHeaderLabel());
             if(!propeties.isEmpty()) {
                 return i;
             }
@@ -600,7 +637,8 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
         }
         
         // Check for columns
-        RecordsProcessorUtil.checkColumns(sheet, recordClass, headers, work.getAnnoReader());
+        RecordsProcessorUtil.checkColumns(sheet,
+                config.getBindingPlanCache().getRecordColumnIndex(recordClass, work.getAnnoReader()), headers);
         
         /*
          * 書き込む時には終了位置の判定は、Borderで固定する必要がある。
@@ -630,7 +668,7 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
             commentStoreList = new ArrayList<>();
         }
         
-        final int startHeaderIndex = getStartHeaderIndex(headers, result, recordClass, work);
+        final int startHeaderIndex = getStartHeaderIndex(headers, result, recordClass, config, work);
         
         // get records
         hRow++;
@@ -651,11 +689,9 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
             if(record != null) {
                 
                 // set PreProcess method
-                for(Method method : record.getClass().getMethods()) {
-                    final XlsPreSave preProcessAnno = work.getAnnoReader().getAnnotation(record.getClass(), method, XlsPreSave.class);
-                    if(preProcessAnno != null) {
-                        Utils.invokeNeedProcessMethod(method, record, sheet, config, work.getErrors());                    
-                    }
+                for(Method method : config.getBindingPlanCache().getLifecycleCallbacks(record.getClass(), work.getAnnoReader())
+                        .getPreSaveMethods()) {
+                    Utils.invokeNeedProcessMethod(method, record, sheet, config, work.getErrors());
                 }
             }
             
@@ -695,7 +731,8 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
                 
                 // mapping from Excel columns to Object properties.
                 if(record != null) {
-                    final List<FieldAdaptor> propeties = Utils.getSavingColumnProperties(record.getClass(), headerInfo.getHeaderLabel(), work.getAnnoReader());
+                    final List<FieldAdaptor> propeties = config.getBindingPlanCache().getRecordColumnIndex(record.getClass(), work.getAnnoReader())
+                            .getSavingColumnProperties(headerInfo.getHeaderLabel());
                     for(FieldAdaptor property : propeties) {
                         Cell valueCell = cell;
                         final XlsColumn column = property.getSavingAnnotation(XlsColumn.class);
@@ -826,11 +863,9 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
             
             if(record != null) {
                 // set PostProcess method
-                for(Method method : record.getClass().getMethods()) {
-                    final XlsPostSave postProcessAnno = work.getAnnoReader().getAnnotation(record.getClass(), method, XlsPostSave.class);
-                    if(postProcessAnno != null) {
-                        work.addNeedPostProcess(new NeedProcess(record, method));
-                    }
+                for(Method method : config.getBindingPlanCache().getLifecycleCallbacks(record.getClass(), work.getAnnoReader())
+                        .getPostSaveMethods()) {
+                    work.addNeedPostProcess(new NeedProcess(record, method));
                 }
             }
             
@@ -934,7 +969,8 @@ public class HorizontalRecordsProcessor extends AbstractFieldProcessor<XlsHorizo
             XlsHorizontalRecords anno, XlsMapperConfig config, SavingWorkObject work,
             RecordOperation recordOperation) throws XlsMapperException {
         
-        final List<FieldAdaptor> properties = Utils.getSavingMapColumnProperties(record.getClass(), work.getAnnoReader());
+        final List<FieldAdaptor> properties = config.getBindingPlanCache().getRecordColumnIndex(record.getClass(), work.getAnnoReader())
+                .getSavingMapColumnProperties();
         for(FieldAdaptor property : properties) {
             
             final XlsMapColumns mapAnno = property.getSavingAnnotation(XlsMapColumns.class);
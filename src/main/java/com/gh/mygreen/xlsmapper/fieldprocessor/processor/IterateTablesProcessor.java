@@ -13,6 +13,7 @@ import org.apache.poi.ss.usermodel.Sheet;
 import com.gh.mygreen.xlsmapper.AnnotationInvalidException;
 import com.gh.mygreen.xlsmapper.FieldAdaptorProxy;
 import com.gh.mygreen.xlsmapper.HintOrderComparator;
+import com.gh.mygreen.xlsmapper.LifecycleCallbacks;
 import com.gh.mygreen.xlsmapper.LoadingWorkObject;
 import com.gh.mygreen.xlsmapper.NeedProcess;
 import com.gh.mygreen.xlsmapper.SavingWorkObject;
@@ -24,10 +25,6 @@ import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecordsForIterateTables;
 import com.gh.mygreen.xlsmapper.annotation.XlsIterateTables;
 import com.gh.mygreen.xlsmapper.annotation.XlsLabelledCell;
 import com.gh.mygreen.xlsmapper.annotation.XlsLabelledCellForIterateTable;
-import com.gh.mygreen.xlsmapper.annotation.XlsPostLoad;
-import com.gh.mygreen.xlsmapper.annotation.XlsPostSave;
-import com.gh.mygreen.xlsmapper.annotation.XlsPreLoad;
-import com.gh.mygreen.xlsmapper.annotation.XlsPreSave;
 import com.gh.mygreen.xlsmapper.fieldprocessor.AbstractFieldProcessor;
 import com.gh.mygreen.xlsmapper.fieldprocessor.CellNotFoundException;
 import com.gh.mygreen.xlsmapper.fieldprocessor.FieldAdaptor;
@@ -102,16 +99,14 @@ public class IterateTablesProcessor extends AbstractFieldProcessor<XlsIterateTab
         while(currentCell != null) {
             // 1 table object instance
             final Object tableObj = config.createBean(tableClass);
+            final LifecycleCallbacks callbacks = config.getBindingPlanCache().getLifecycleCallbacks(tableObj.getClass(), work.getAnnoReader());
             
             // パスの位置の変更
             work.getErrors().pushNestedPath(adaptor.getName(), resultTableList.size());
             
             // set PreProcess method
-            for(Method method : tableObj.getClass().getMethods()) {
-                final XlsPreLoad preProcessAnno = work.getAnnoReader().getAnnotation(tableObj.getClass(), method, XlsPreLoad.class);
-                if(preProcessAnno != null) {
-                    Utils.invokeNeedProcessMethod(method, tableObj, sheet, config, work.getErrors());                    
-                }
+            for(Method method : callbacks.getPreLoadMethods()) {
+                Utils.invokeNeedProcessMethod(method, tableObj, sheet, config, work.getErrors());
             }
             
             // process single label.
@@ -129,11 +124,8 @@ public class IterateTablesProcessor extends AbstractFieldProcessor<XlsIterateTab
             currentCell = Utils.getCell(sheet, label, after, false, false, config);
             
             // set PostProcess method
-            for(Method method : tableObj.getClass().getMethods()) {
-                final XlsPostLoad postProcessAnno = work.getAnnoReader().getAnnotation(tableObj.getClass(), method, XlsPostLoad.class);
-                if(postProcessAnno != null) {
-                    work.addNeedPostProcess(new NeedProcess(tableObj, method));
-                }
+            for(Method method : callbacks.getPostLoadMethods()) {
+                work.addNeedPostProcess(new NeedProcess(tableObj, method));
             }
             
             // パスの位置の変更
@@ -295,16 +287,14 @@ public class IterateTablesProcessor extends AbstractFieldProcessor<XlsIterateTab
         for(int i=0; i < resultTableList.size(); i++) {
             
             final Object tableObj = resultTableList.get(i);
+            final LifecycleCallbacks callbacks = config.getBindingPlanCache().getLifecycleCallbacks(tableObj.getClass(), work.getAnnoReader());
             
             // パスの位置の変更
             work.getErrors().pushNestedPath(adaptor.getName(), i);
             
             // set PreProcess method
-            for(Method method : tableObj.getClass().getMethods()) {
-                final XlsPreSave preProcessAnno = work.getAnnoReader().getAnnotation(tableObj.getClass(), method, XlsPreSave.class);
-                if(preProcessAnno != null) {
-                    Utils.invokeNeedProcessMethod(method, tableObj, sheet, config, work.getErrors());                    
-                }
+            for(Method method : callbacks.getPreSaveMethods()) {
+                Utils.invokeNeedProcessMethod(method, tableObj, sheet, config, work.getErrors());
             }
             
             currentCell = Utils.getCell(sheet, label, after, false, !iterateTablesAnno.optional(), config);
@@ -328,11 +318,8 @@ public class IterateTablesProcessor extends AbstractFieldProcessor<XlsIterateTab
             after = currentCell;
             
             // set PostProcess method
-            for(Method method : tableObj.getClass().getMethods()) {
-                final XlsPostSave postProcessAnno = work.getAnnoReader().getAnnotation(tableObj.getClass(), method, XlsPostSave.class);
-                if(postProcessAnno != null) {
-                    work.addNeedPostProcess(new NeedProcess(tableObj, method));
-                }
+            for(Method method : callbacks.getPostSaveMethods()) {
+                work.addNeedPostProcess(new NeedProcess(tableObj, method));
             }
             
             // パスの位置の変更
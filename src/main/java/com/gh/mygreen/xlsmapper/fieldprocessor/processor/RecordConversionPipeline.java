@@ -0,0 +1,303 @@
+package com.gh.mygreen.xlsmapper.fieldprocessor.processor;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+import com.gh.mygreen.xlsmapper.LifecycleCallbacks;
+import com.gh.mygreen.xlsmapper.LoadingWorkObject;
+import com.gh.mygreen.xlsmapper.NeedProcess;
+import com.gh.mygreen.xlsmapper.POIUtils;
+import com.gh.mygreen.xlsmapper.XlsMapperConfig;
+import com.gh.mygreen.xlsmapper.XlsMapperException;
+import com.gh.mygreen.xlsmapper.cellconvert.CellConverter;
+import com.gh.mygreen.xlsmapper.cellconvert.TypeBindException;
+import com.gh.mygreen.xlsmapper.fieldprocessor.FieldAdaptor;
+
+
+/**
+ * レコードの読み込みを、セルの値の取り出しと変換の2段階で行うためのクラス。
+ * <p>シートを読み込むスレッドで、{@link #addColumn(Cell, CellConverter, FieldAdaptor, String)}などにより、
+ *    レコードごとにセルの値を{@link POIUtils#snapshotCell(Cell, com.gh.mygreen.xlsmapper.CellFormatter)}で取り出して保持する。
+ *    {@link #convert(ForkJoinPool)}で、取り出した値の変換とBeanへの設定をレコードごとに並列に行い、
+ *    {@link #merge(String, LoadingWorkObject)}で、変換時のエラーをレコードの順番に登録する。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+class RecordConversionPipeline {
+    
+    /** 1つのタスクで変換するレコードの数 */
+    private static final int THRESHOLD = 16;
+    
+    private final XlsMapperConfig config;
+    
+    private final List<PendingRecord> records = new ArrayList<>();
+    
+    /** 値を取り出し中のレコード */
+    private PendingRecord current;
+    
+    RecordConversionPipeline(final XlsMapperConfig config) {
+        this.config = config;
+    }
+    
+    /**
+     * レコードの値の取り出しを開始する。
+     * @param record マッピング先のオブジェクト
+     * @param callbacks レコードのクラスのコールバックメソッドの情報
+     */
+    void startRecord(final Object record, final LifecycleCallbacks callbacks) {
+        this.current = new PendingRecord(record, callbacks);
+        records.add(current);
+    }
+    
+    /**
+     * レコードの値の取り出しを終了する。
+     * @param terminal 表の終端のレコードの場合はtrue。終端のレコードは、エラーのみ登録し結果には含めない。
+     */
+    void endRecord(final boolean terminal) {
+        current.terminal = terminal;
+        current = null;
+    }
+    
+    /**
+     * 取り出しを開始したレコードの数を取得する。
+     * @return
+     */
+    int getRecordCount() {
+        return records.size();
+    }
+    
+    /**
+     * カラムの値を取り出す。
+     * @param cell 値のセル
+     * @param converter 変換に利用するConverter
+     * @param property マッピング先のフィールド
+     * @param label 見出し
+     */
+    void addColumn(final Cell cell, final CellConverter<?> converter, final FieldAdaptor property, final String label) {
+        current.conversions.add(new Conversion(POIUtils.snapshotCell(cell, config.getCellFormatter()),
+                converter, property, property.getName(), label, null, null));
+    }
+    
+    /**
+     * マップのカラムの項目の値を取り出す。
+     * @param cell 値のセル
+     * @param converter 変換に利用するConverter
+     * @param property マッピング先のフィールド
+     * @param label 見出し。マップのキーとなる。
+     * @param itemClass マップの項目のクラスタイプ
+     * @param map 変換した値を格納するマップ
+     */
+    void addMapColumn(final Cell cell, final CellConverter<?> converter, final FieldAdaptor property, final String label,
+            final Class<?> itemClass, final Map<String, Object> map) {
+        current.conversions.add(new Conversion(POIUtils.snapshotCell(cell, config.getCellFormatter()),
+                converter, property, String.format("%s[%s]", property.getName(), label), label, itemClass, map));
+    }
+    
+    /**
+     * マップのカラムの項目を全て取り出したマップを、フィールドに設定する。
+     * <p>マップへの値の格納は変換時に行うため、フィールドへの設定も変換時に行う。
+     * @param property マッピング先のフィールド
+     * @param map 変換した値を格納するマップ
+     */
+    void addMapValue(final FieldAdaptor property, final Map<String, Object> map) {
+        current.conversions.add(new Conversion(null, null, property, null, null, null, map));
+    }
+    
+    /**
+     * 取り出した値を、レコードごとに並列に変換する。
+     * @param pool 並列に変換する処理
+     */
+    void convert(final ForkJoinPool pool) {
+        
+        if(records.size() <= THRESHOLD) {
+            new ConvertTask(0, records.size()).compute();
+        } else {
+            pool.invoke(new ConvertTask(0, records.size()));
+        }
+    }
+    
+    /**
+     * 変換時のエラーをレコードの順番に登録し、結果のレコードを取得する。
+     * @param fieldName レコードのリストのフィールド名
+     * @param work 作業用のオブジェクト
+     * @return 終端のレコードを除いた、レコードの一覧
+     * @throws XlsMapperException 変換に失敗し、処理を続けない場合。
+     */
+    List<Object> merge(final String fieldName, final LoadingWorkObject work) throws XlsMapperException {
+        
+        final List<Object> result = new ArrayList<>();
+        for(PendingRecord pending : records) {
+            
+            // パスの位置の変更
+            work.getErrors().pushNestedPath(fieldName, result.size());
+            
+            for(Conversion conversion : pending.conversions) {
+                if(conversion.error == null) {
+                    continue;
+                }
+                
+                if(conversion.error instanceof TypeBindException) {
+                    final TypeBindException e = (TypeBindException) conversion.error;
+                    work.addTypeBindError(e, conversion.cell, conversion.fieldName, conversion.label);
+                    if(!config.isSkipTypeBindFailure()) {
+                        throw e;
+                    }
+                    
+                } else if(conversion.error instanceof XlsMapperException) {
+                    throw (XlsMapperException) conversion.error;
+                    
+                } else {
+                    throw (RuntimeException) conversion.error;
+                }
+            }
+            
+            // パスの位置の変更
+            work.getErrors().popNestedPath();
+            
+            if(pending.terminal) {
+                break;
+            }
+            
+            result.add(pending.record);
+            
+            // set PostProcess method
+            for(Method method : pending.callbacks.getPostLoadMethods()) {
+                work.addNeedPostProcess(new NeedProcess(pending.record, method));
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * 値を取り出したレコード
+     */
+    private static class PendingRecord {
+        
+        private final Object record;
+        
+        private final LifecycleCallbacks callbacks;
+        
+        private final List<Conversion> conversions = new ArrayList<>();
+        
+        private boolean terminal;
+        
+        private PendingRecord(final Object record, final LifecycleCallbacks callbacks) {
+            this.record = record;
+            this.callbacks = callbacks;
+        }
+        
+        /**
+         * 取り出した値を変換し、レコードに設定する。
+         * <p>変換に失敗した場合は、例外を保持して残りの値の変換を続ける。
+         */
+        private void convert(final XlsMapperConfig config) {
+            
+            for(Conversion conversion : conversions) {
+                try {
+                    if(conversion.cell == null) {
+                        conversion.property.setValue(record, conversion.map);
+                        continue;
+                    }
+                    
+                    final Object value = conversion.converter.toObject(conversion.cell, conversion.property, config);
+                    if(conversion.map != null) {
+                        conversion.map.put(conversion.label, value);
+                    } else {
+                        conversion.property.setValue(record, value);
+                    }
+                    
+                } catch(TypeBindException e) {
+                    if(conversion.itemClass != null) {
+                        e.setBindClass(conversion.itemClass);  // マップの項目のタイプに変更
+                    }
+                    conversion.error = e;
+                    
+                } catch(XlsMapperException | RuntimeException e) {
+                    conversion.error = e;
+                }
+            }
+        }
+        
+    }
+    
+    /**
+     * レコードの1つの値の変換
+     */
+    private static class Conversion {
+        
+        /** 値を取り出したセル。マップをフィールドに設定する場合はnull。 */
+        private final Cell cell;
+        
+        private final CellConverter<?> converter;
+        
+        private final FieldAdaptor property;
+        
+        /** エラー時のフィールド名 */
+        private final String fieldName;
+        
+        private final String label;
+        
+        /** マップの項目のクラスタイプ */
+        private final Class<?> itemClass;
+        
+        /** マップのカラムの場合、変換した値を格納するマップ */
+        private final Map<String, Object> map;
+        
+        /** 変換時の例外 */
+        private Exception error;
+        
+        private Conversion(final Cell cell, final CellConverter<?> converter, final FieldAdaptor property,
+                final String fieldName, final String label, final Class<?> itemClass, final Map<String, Object> map) {
+            this.cell = cell;
+            this.converter = converter;
+            this.property = property;
+            this.fieldName = fieldName;
+            this.label = label;
+            this.itemClass = itemClass;
+            this.map = map;
+        }
+        
+    }
+    
+    /**
+     * レコードを分割して並列に変換するタスク
+     */
+    private class ConvertTask extends RecursiveAction {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final int from;
+        
+        private final int to;
+        
+        private ConvertTask(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            
+            if(to - from <= THRESHOLD) {
+                for(int i=from; i < to; i++) {
+                    records.get(i).convert(config);
+                }
+                return;
+            }
+            
+            final int middle = (from + to) >>> 1;
+            invokeAll(new ConvertTask(from, middle), new ConvertTask(middle, to));
+        }
+        
+    }
+
+}
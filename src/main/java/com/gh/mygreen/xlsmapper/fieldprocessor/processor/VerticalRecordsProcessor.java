@@ -23,6 +23,7 @@ import org.apache.poi.ss.util.CellRangeAddressList;
 import org.apache.poi.ss.util.CellReference;
 
 import com.gh.mygreen.xlsmapper.AnnotationInvalidException;
+import com.gh.mygreen.xlsmapper.LifecycleCallbacks;
 import com.gh.mygreen.xlsmapper.LoadingWorkObject;
 import com.gh.mygreen.xlsmapper.NeedProcess;
 import com.gh.mygreen.xlsmapper.POIUtils;
@@ -36,20 +37,15 @@ import com.gh.mygreen.xlsmapper.annotation.RemainedRecordOperate;
 import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
 import com.gh.mygreen.xlsmapper.annotation.XlsIsEmpty;
 import com.gh.mygreen.xlsmapper.annotation.XlsMapColumns;
-import com.gh.mygreen.xlsmapper.annotation.XlsPostLoad;
-import com.gh.mygreen.xlsmapper.annotation.XlsPostSave;
-import com.gh.mygreen.xlsmapper.annotation.XlsPreLoad;
-import com.gh.mygreen.xlsmapper.annotation.XlsPreSave;
 import com.gh.mygreen.xlsmapper.annotation.XlsVerticalRecords;
 import com.gh.mygreen.xlsmapper.cellconvert.CellConverter;
 import com.gh.mygreen.xlsmapper.cellconvert.TypeBindException;
 import com.gh.mygreen.xlsmapper.fieldprocessor.AbstractFieldProcessor;
 import com.gh.mygreen.xlsmapper.fieldprocessor.CellNotFoundException;
 import com.gh.mygreen.xlsmapper.fieldprocessor.FieldAdaptor;
+import com.gh.mygreen.xlsmapper.fieldprocessor.RecordColumnIndex;
 import com.gh.mygreen.xlsmapper.fieldprocessor.RecordHeader;
 import com.gh.mygreen.xlsmapper.fieldprocessor.RecordsProcessorUtil;
-import com.gh.mygreen.xlsmapper.xml.AnnotationReadException;
-import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
 
 
 /**
@@ -175,14 +171,15 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
         }
         
         // Check for columns
-        RecordsProcessorUtil.checkColumns(sheet, recordClass, headers, work.getAnnoReader());
+        RecordsProcessorUtil.checkColumns(sheet,
+                config.getBindingPlanCache().getRecordColumnIndex(recordClass, work.getAnnoReader()), headers);
         
         RecordTerminal terminal = anno.terminal();
         if(terminal == null){
             terminal = RecordTerminal.Empty;
         }
         
-        final int startHeaderIndex = getStartHeaderIndex(headers, recordClass, work);
+        final int startHeaderIndex = getStartHeaderIndex(headers, recordClass, config, work);
         
         // get records
         hColumn++;
@@ -192,16 +189,15 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
             boolean emptyFlag = true;
             // recordは、マッピング先のオブジェクトのインスタンス。
             final Object record = config.createBean(recordClass);
+            final RecordColumnIndex columnIndex = config.getBindingPlanCache().getRecordColumnIndex(record.getClass(), work.getAnnoReader());
+            final LifecycleCallbacks callbacks = config.getBindingPlanCache().getLifecycleCallbacks(record.getClass(), work.getAnnoReader());
             
             // パスの位置の変更
             work.getErrors().pushNestedPath(adaptor.getName(), result.size());
             
             // set PostProcess method
-            for(Method method : record.getClass().getMethods()) {
-                final XlsPreLoad preProcessAnno = work.getAnnoReader().getAnnotation(record.getClass(), method, XlsPreLoad.class);
-                if(preProcessAnno != null) {
-                    Utils.invokeNeedProcessMethod(method, record, sheet, config, work.getErrors());
-                }
+            for(Method method : callbacks.getPreLoadMethods()) {
+                Utils.invokeNeedProcessMethod(method, record, sheet, config, work.getErrors());
             }
             
             loadMapColumns(sheet, headers, hRow, hColumn, record, config, work);
@@ -234,8 +230,7 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
                 }
                 
                 // mapping from Excel columns to Object properties.
-                final List<FieldAdaptor> propeties = Utils.getLoadingColumnProperties(
-                        record.getClass(), headerInfo.getHeaderLabel(), work.getAnnoReader());
+                final List<FieldAdaptor> propeties = columnIndex.getLoadingColumnProperties(headerInfo.getHeaderLabel());
                 for(FieldAdaptor property : propeties) {
                     Cell valueCell = cell;
                     final XlsColumn column = property.getLoadingAnnotation(XlsColumn.class);
@@ -294,17 +289,14 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
                 break;
             }
             
-            if(!anno.skipEmptyRecord() || !isEmptyRecord(record, work.getAnnoReader())) {
+            if(!anno.skipEmptyRecord() || !isEmptyRecord(record, callbacks)) {
                 result.add(record);
                 
             }
             
             // set PostProcess method
-            for(Method method : record.getClass().getMethods()) {
-                final XlsPostLoad postProcessAnno = work.getAnnoReader().getAnnotation(record.getClass(), method, XlsPostLoad.class);
-                if(postProcessAnno != null) {
-                    work.addNeedPostProcess(new NeedProcess(record, method));
-                }
+            for(Method method : callbacks.getPostLoadMethods()) {
+                work.addNeedPostProcess(new NeedProcess(record, method));
             }
             
             // パスの位置の変更
@@ -376,19 +368,21 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
      * ・カラムの定義とは、アノテーション「@XlsColumn」が付与されたもの。
      * @param headers
      * @param recordClass
+     * @param config
      * @param work
      * @return
      */
-    private int getStartHeaderIndex(List<RecordHeader> headers, Class<?> recordClass, LoadingWorkObject work) {
+    private int getStartHeaderIndex(List<RecordHeader> headers, Class<?> recordClass, XlsMapperConfig config, LoadingWorkObject work) {
         
         // レコードクラスが不明の場合、0を返す。
         if((recordClass == null || recordClass.equals(Object.class))) {
             return 0;
         }
         
+        final RecordColumnIndex columnIndex = config.getBindingPlanCache().getRecordColumnIndex(recordClass, work.getAnnoReader());
         for(int i=0; i < headers.size(); i++) {
             RecordHeader headerInfo = headers.get(i);
-            final List<FieldAdaptor> propeties = Utils.getLoadingColumnProperties(recordClass, headerInfo.getHeaderLabel(), work.getAnnoReader());
+            final List<FieldAdaptor> propeties = columnIndex.getLoadingColumnProperties(headerInfo.getHeaderLabel());
             if(!propeties.isEmpty()) {
                 return i;
             }
@@ -401,7 +395,8 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
     private void loadMapColumns(Sheet sheet, List<RecordHeader> headerInfos, 
            int begin, int column, Object record, XlsMapperConfig config, LoadingWorkObject work) throws XlsMapperException {
         
-        final List<FieldAdaptor> properties = Utils.getLoadingMapColumnProperties(record.getClass(), work.getAnnoReader());
+        final List<FieldAdaptor> properties = config.getBindingPlanCache().getRecordColumnIndex(record.getClass(), work.getAnnoReader())
+                .getLoadingMapColumnProperties();
         
         for(FieldAdaptor property : properties) {
             final XlsMapColumns mapAnno = property.getLoadingAnnotation(XlsMapColumns.class);
@@ -453,31 +448,26 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
      * レコードの値か空かどうか判定する。
      * <p>アノテーション<code>@XlsIsEmpty</code>のメソッドで判定を行う。
      * @param record
-     * @param annoReader
+     * @param callbacks レコードのクラスのコールバックメソッドの情報
      * @return アノテーションがない場合はfalseを返す。
-     * @throws AnnotationReadException 
      * @throws AnnotationInvalidException 
      */
-    private boolean isEmptyRecord(final Object record, final AnnotationReader annoReader) throws AnnotationReadException, AnnotationInvalidException {
+    private boolean isEmptyRecord(final Object record, final LifecycleCallbacks callbacks) throws AnnotationInvalidException {
         
-        for(Method method : record.getClass().getMethods()) {
-            final XlsIsEmpty emptyAnno = annoReader.getAnnotation(record.getClass(), method, XlsIsEmpty.class);
-            if(emptyAnno == null) {
-                continue;
-            }
-            
-            try {
-                method.setAccessible(true);
-                return (boolean) method.invoke(record);
-            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                throw new AnnotationInvalidException(
-                        String.format("@XlsIsEmpty should be appended method that no args and returning boolean type."),
-                        emptyAnno);
-            }
+        final Method method = callbacks.getIsEmptyMethod();
+        if(method == null) {
+            // メソッドが見つからない場合。
+            return false;
         }
         
-        // メソッドが見つからない場合。
-        return false;
+        try {
+            method.setAccessible(true);
+            return (boolean) method.invoke(record);
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            throw new AnnotationInvalidException(
+                    String.format("@XlsIsEmpty should be appended method that no args and returning boolean type."),
+                    callbacks.getIsEmptyAnnotation());
+        }
     }
     
     @Override
@@ -531,10 +521,12 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
      * ・カラムの定義とは、アノテーション「@XlsColumn」が付与されたもの。
      * @param headers
      * @param recordClass
+     * @param config
      * @param work
      * @return
      */
-    private int getStartHeaderIndex(List<RecordHeader> headers, final List<Object> result, Class<?> recordClass, SavingWorkObject work) {
+    private int getStartHeaderIndex(List<RecordHeader> headers, final List<Object> result, Class<?> recordClass,
+            XlsMapperConfig config, SavingWorkObject work) {
         
         // レコードクラスが不明の場合、実際のリストオブジェクトの要素から取得する
         if((recordClass == null || recordClass.equals(Object.class)) && !result.isEmpty()) {
@@ -542,9 +534,10 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
            
         }
         
+        final RecordColumnIndex columnIndex = config.getBindingPlanCache().getRecordColumnIndex(recordClass, work.getAnnoReader());
         for(int i=0; i < headers.size(); i++) {
             RecordHeader headerInfo = headers.get(i);
-            final List<FieldAdaptor> propeties = Utils.getSavingColumnProperties(recordClass, headerInfo.getHeaderLabel(), work.getAnnoReader());
+            final List<FieldAdaptor> propeties = columnIndex.getSavingColumnProperties(headerInfo.getHeaderLabel());
             if(!propeties.isEmpty()) {
                 return i;
             }
@@ -606,7 +599,8 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
         }
         
         // Check for columns
-        RecordsProcessorUtil.checkColumns(sheet, recordClass, headers, work.getAnnoReader());
+        RecordsProcessorUtil.checkColumns(sheet,
+                config.getBindingPlanCache().getRecordColumnIndex(recordClass, work.getAnnoReader()), headers);
         
         /*
          * 書き込む時には終了位置の判定は、Borderで固定する必要がある。
@@ -627,7 +621,7 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
         final RecordOperation recordOperation = new RecordOperation();
         recordOperation.setupCellPositoin(initRow, hColumn+1);
         
-        final int startHeaderIndex = getStartHeaderIndex(headers, result, recordClass, work);
+        final int startHeaderIndex = getStartHeaderIndex(headers, result, recordClass, config, work);
         
         // get records
         hColumn++;
@@ -647,11 +641,9 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
             
             if(record != null) {
                 // set PreProcess method
-                for(Method method : record.getClass().getMethods()) {
-                    final XlsPreSave preProcessAnno = work.getAnnoReader().getAnnotation(record.getClass(), method, XlsPreSave.class);
-                    if(preProcessAnno != null) {
-                        Utils.invokeNeedProcessMethod(method, record, sheet, config, work.getErrors());                    
-                    }
+                for(Method method : config.getBindingPlanCache().getLifecycleCallbacks(record.getClass(), work.getAnnoReader())
+                        .getPreSaveMethods()) {
+                    Utils.invokeNeedProcessMethod(method, record, sheet, config, work.getErrors());
                 }
             }
             
@@ -690,7 +682,8 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
                 
                 // mapping from Excel columns to Object properties.
                 if(record != null) {
-                    final List<FieldAdaptor> propeties = Utils.getSavingColumnProperties(record.getClass(), headerInfo.getHeaderLabel(), work.getAnnoReader());
+                    final List<FieldAdaptor> propeties = config.getBindingPlanCache().getRecordColumnIndex(record.getClass(), work.getAnnoReader())
+                            .getSavingColumnProperties(headerInfo.getHeaderLabel());
                     for(FieldAdaptor property : propeties) {
                         Cell valueCell = cell;
                         final XlsColumn column = property.getSavingAnnotation(XlsColumn.class);
@@ -793,11 +786,9 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
             
             if(record != null) {
                 // set PostProcess method
-                for(Method method : record.getClass().getMethods()) {
-                    final XlsPostSave postProcessAnno = work.getAnnoReader().getAnnotation(record.getClass(), method, XlsPostSave.class);
-                    if(postProcessAnno != null) {
-                        work.addNeedPostProcess(new NeedProcess(record, method));
-                    }
+                for(Method method : config.getBindingPlanCache().getLifecycleCallbacks(record.getClass(), work.getAnnoReader())
+                        .getPostSaveMethods()) {
+                    work.addNeedPostProcess(new NeedProcess(record, method));
                 }
             }
             
@@ -889,7 +880,8 @@ public class VerticalRecordsProcessor extends AbstractFieldProcessor<XlsVertical
             XlsVerticalRecords anno, XlsMapperConfig config, SavingWorkObject work,
             RecordOperation recordOperation) throws XlsMapperException {
         
-        final List<FieldAdaptor> properties = Utils.getSavingMapColumnProperties(record.getClass(), work.getAnnoReader());
+        final List<FieldAdaptor> properties = config.getBindingPlanCache().getRecordColumnIndex(record.getClass(), work.getAnnoReader())
+                .getSavingMapColumnProperties();
         for(FieldAdaptor property : properties) {
             
             final XlsMapColumns mapAnno = property.getSavingAnnotation(XlsMapColumns.class);
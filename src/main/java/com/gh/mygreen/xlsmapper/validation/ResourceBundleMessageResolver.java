@@ -10,6 +10,7 @@ import java.util.ResourceBundle;
 
 /**
  * Default implementation that resolves messages based on the registered resource bundles.
+ * <p>This class is thread-safe.
  * 
  * @author T.TSUCHIE
  *
@@ -51,7 +52,7 @@ public class ResourceBundleMessageResolver implements MessageResolver {
     /**
      * {@inheritDoc}
      */
-    public String getMessage(final String code) {
+    public synchronized String getMessage(final String code) {
         for (final ResourceBundle bundle : messageBundles) {
             final List<String> keys = messageBundleKeys.get(bundle);
             if (keys.contains(code)) return bundle.getString(code);
@@ -65,7 +66,7 @@ public class ResourceBundleMessageResolver implements MessageResolver {
      * @param messageBundle
      * @return true if the bundle was registered and false if it was already registered
      */
-    public final boolean addMessageBundle(final ResourceBundle messageBundle) {
+    public final synchronized boolean addMessageBundle(final ResourceBundle messageBundle) {
         if (messageBundles.contains(messageBundle)) return false;
         
         messageBundles.addFirst(messageBundle);
@@ -86,7 +87,7 @@ public class ResourceBundleMessageResolver implements MessageResolver {
      * @param messageBundle
      * @return true if the bundle was registered and false if it wasn't registered
      */
-    public boolean removeMessageBundle(final ResourceBundle messageBundle) {
+    public synchronized boolean removeMessageBundle(final ResourceBundle messageBundle) {
         if (!messageBundles.contains(messageBundle)) return false;
         
         messageBundles.remove(messageBundle);
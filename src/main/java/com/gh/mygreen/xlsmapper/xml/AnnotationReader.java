@@ -16,6 +16,8 @@ import com.gh.mygreen.xlsmapper.xml.bind.XmlInfo;
 /**
  * フィールド、メソッドのアノテーションへアクセスするためのクラス。
  * <p>Javaソースに直接アノテーションを付与する場合と、XMLで定義する方法の両方をサポートする。
+ * <p>XMLで定義したアノテーションは、{@link DynamicAnnotationBuilder#getAnnotation(AnnotationInfo)}により
+ *    定義情報ごとに一度だけ組み立てられる。
  * 
  * @version 1.0
  * @author Naoki Takezoe
@@ -30,6 +32,12 @@ public class AnnotationReader {
      */
     private final XmlInfo xmlInfo;
     
+    /**
+     * 解析結果のキャッシュを共有する単位を表すキー。
+     * XMLで定義していない場合はnull。
+     */
+    private final Object cacheKey;
+    
     /**
      * アノテーションを動的に組み立てるクラス。
      */
@@ -41,6 +49,19 @@ public class AnnotationReader {
      */
     public AnnotationReader(final XmlInfo xmlInfo) {
         this.xmlInfo = xmlInfo;
+        
+        // 外部で変更される可能性があるため、インスタンスごとにキャッシュを分ける
+        this.cacheKey = xmlInfo != null ? this : null;
+    }
+    
+    /**
+     * {@link XmlMapping}から作成する場合のコンストラクタ。
+     * @param xmlInfo XMLで定義したアノテーションの情報。
+     * @param cacheKey 解析結果のキャッシュを共有する単位を表すキー。
+     */
+    AnnotationReader(final XmlInfo xmlInfo, final Object cacheKey) {
+        this.xmlInfo = xmlInfo;
+        this.cacheKey = cacheKey;
     }
     
     /**
@@ -63,12 +84,7 @@ public class AnnotationReader {
             }
             
             for(AnnotationInfo annInfo: classInfo.getAnnotationInfos()){
-                try {
-                    map.put(annInfo.getAnnotationClass(),
-                            annotationBuilder.buildAnnotation(Class.forName(annInfo.getAnnotationClass()), annInfo));
-                } catch (ClassNotFoundException e) {
-                    throw new AnnotationReadException(String.format("not found class '%s'", annInfo.getAnnotationClass()), e);
-                }
+                map.put(annInfo.getAnnotationClass(), annotationBuilder.getAnnotation(annInfo));
             }
             
             return map.values().toArray(new Annotation[map.size()]);
@@ -93,11 +109,7 @@ public class AnnotationReader {
             
             if(classInfo.getAnnotationInfo(annClass.getName()) != null){
                 AnnotationInfo annInfo = classInfo.getAnnotationInfo(annClass.getName());
-                try {
-                    return (A)annotationBuilder.buildAnnotation(Class.forName(annInfo.getAnnotationClass()), annInfo);
-                } catch (ClassNotFoundException e) {
-                    throw new AnnotationReadException(String.format("not found class '%s'", annInfo.getAnnotationClass()), e);
-                }
+                return (A)annotationBuilder.getAnnotation(annInfo);
             }
         }
         
@@ -122,11 +134,7 @@ public class AnnotationReader {
                 MethodInfo methodInfo = classInfo.getMethodInfo(method.getName());
                 if(methodInfo!=null && methodInfo.getAnnotationInfo(annClas.getName()) != null){
                     AnnotationInfo annInfo = methodInfo.getAnnotationInfo(annClas.getName());
-                    try {
-                        return (A)annotationBuilder.buildAnnotation(Class.forName(annInfo.getAnnotationClass()), annInfo);
-                    } catch (ClassNotFoundException e) {
-                        throw new AnnotationReadException(String.format("not found class '%s'", annInfo.getAnnotationClass()), e);
-                    }
+                    return (A)annotationBuilder.getAnnotation(annInfo);
                 }
             }
         }
@@ -156,12 +164,7 @@ public class AnnotationReader {
                 }
                 
                 for(AnnotationInfo annInfo: methodInfo.getAnnotationInfos()){
-                    try {
-                        map.put(annInfo.getAnnotationClass(),
-                                annotationBuilder.buildAnnotation(Class.forName(annInfo.getAnnotationClass()), annInfo));
-                    } catch (ClassNotFoundException e) {
-                        throw new AnnotationReadException(String.format("not found class '%s'", annInfo.getAnnotationClass()), e);
-                    }
+                    map.put(annInfo.getAnnotationClass(), annotationBuilder.getAnnotation(annInfo));
                 }
                 
                 return map.values().toArray(new Annotation[map.size()]);
@@ -187,11 +190,7 @@ public class AnnotationReader {
                 FieldInfo fieldInfo = classInfo.getFieldInfo(field.getName());
                 if(fieldInfo != null && fieldInfo.getAnnotationInfo(annClass.getName()) != null){
                     AnnotationInfo annInfo = fieldInfo.getAnnotationInfo(annClass.getName());
-                    try {
-                        return (A)annotationBuilder.buildAnnotation(Class.forName(annInfo.getAnnotationClass()), annInfo);
-                    } catch (ClassNotFoundException e) {
-                        throw new AnnotationReadException(String.format("not found class '%s'", annInfo.getAnnotationClass()), e);
-                    }
+                    return (A)annotationBuilder.getAnnotation(annInfo);
                 }
             }
         }
@@ -220,12 +219,7 @@ public class AnnotationReader {
                 }
                 
                 for(AnnotationInfo annInfo: fieldInfo.getAnnotationInfos()){
-                    try {
-                        map.put(annInfo.getAnnotationClass(), 
-                                annotationBuilder.buildAnnotation(Class.forName(annInfo.getAnnotationClass()), annInfo));
-                    } catch (ClassNotFoundException e) {
-                        throw new AnnotationReadException(String.format("not found class '%s'", annInfo.getAnnotationClass()), e);
-                    }
+                    map.put(annInfo.getAnnotationClass(), annotationBuilder.getAnnotation(annInfo));
                 }
                 return map.values().toArray(new Annotation[map.size()]);
             }
@@ -233,6 +227,17 @@ public class AnnotationReader {
         return field.getAnnotations();
     }
     
+    /**
+     * 解析結果のキャッシュを共有する単位を表すキーを取得する。
+     * <p>同じ{@link XmlMapping}から作成したインスタンスは、同じキーを返す。
+     *    キーは同一性のみで比較し、XMLで定義した情報にはアクセスできない。
+     * @since 1.0
+     * @return XMLで定義していない場合はnullを返す。
+     */
+    public Object getCacheKey() {
+        return cacheKey;
+    }
+    
     public DynamicAnnotationBuilder getAnnotationBuilder() {
         return annotationBuilder;
     }
@@ -4,8 +4,10 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import com.gh.mygreen.xlsmapper.xml.bind.AnnotationInfo;
 
@@ -36,6 +38,13 @@ public class DynamicAnnotationBuilder {
     
     private OgnlContext ognlContext;
     
+    /**
+     * 組み立てたアノテーションのキャッシュ。
+     * <p>キーはアノテーションの定義情報のインスタンス。定義情報が参照されなくなった場合は、自動的に破棄される。
+     */
+    private final Map<AnnotationInfo, Annotation> annotationCache =
+            Collections.synchronizedMap(new WeakHashMap<AnnotationInfo, Annotation>());
+    
     private DynamicAnnotationBuilder() {
         this.ognlContext = new OgnlContext();
         this.ognlContext.setMemberAccess(new DefaultMemberAccess(true));
@@ -57,6 +66,7 @@ public class DynamicAnnotationBuilder {
      */
     public static void init(final ClassLoader classLoader) {
         getInstance().classLoader = classLoader;
+        getInstance().clearAnnotationCache();
     }
     
     /**
@@ -78,6 +88,45 @@ public class DynamicAnnotationBuilder {
             getInstance().ognlContext.setClassResolver(new MultipleLoaderClassResolver());
             
         }
+        
+        getInstance().clearAnnotationCache();
+    }
+    
+    /**
+     * アノテーションの定義情報から、アノテーションのインスタンスを取得する。
+     * <p>組み立てたインスタンスは定義情報ごとにキャッシュし、2回目以降はキャッシュしたインスタンスを返す。
+     * <p>読み込み後にXMLの定義情報を変更した場合は、{@link #clearAnnotationCache()}を呼ぶ必要がある。
+     * @since 1.0
+     * @param info アノテーションの情報
+     * @return アノテーションのインスタンス。
+     * @throws AnnotationReadException アノテーションのクラスが見つからない場合など。
+     */
+    public Annotation getAnnotation(final AnnotationInfo info) throws AnnotationReadException {
+        
+        Annotation anno = annotationCache.get(info);
+        if(anno != null) {
+            return anno;
+        }
+        
+        final Class<?> annoClass;
+        try {
+            annoClass = Class.forName(info.getAnnotationClass());
+        } catch (ClassNotFoundException e) {
+            throw new AnnotationReadException(String.format("not found class '%s'", info.getAnnotationClass()), e);
+        }
+        
+        anno = buildAnnotation(annoClass, info);
+        annotationCache.put(info, anno);
+        
+        return anno;
+    }
+    
+    /**
+     * 組み立てたアノテーションのキャッシュを破棄する。
+     * @since 1.0
+     */
+    public void clearAnnotationCache() {
+        annotationCache.clear();
     }
     
     /**
@@ -7,8 +7,9 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 
-import javax.xml.bind.DataBindingException;
-import javax.xml.bind.JAXB;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.transform.stream.StreamSource;
 
 import com.gh.mygreen.xlsmapper.ArgUtils;
 import com.gh.mygreen.xlsmapper.xml.bind.XmlInfo;
@@ -22,6 +23,26 @@ import com.gh.mygreen.xlsmapper.xml.bind.XmlInfo;
  */
 public class XmlLoader {
     
+    /**
+     * {@link XmlInfo}用のJAXBのコンテキスト。
+     * <p>作成のコストが高いため、一度作成したものを使いまわす。
+     */
+    private static volatile JAXBContext jaxbContext;
+    
+    /**
+     * JAXBのコンテキストを取得する。
+     * @return
+     * @throws JAXBException
+     */
+    private static JAXBContext getJAXBContext() throws JAXBException {
+        JAXBContext context = jaxbContext;
+        if(context == null) {
+            context = JAXBContext.newInstance(XmlInfo.class);
+            jaxbContext = context;
+        }
+        return context;
+    }
+    
     /**
      * XMLを読み込み、{@link XmlInfo}として取得する。
      * @param in
@@ -35,8 +56,8 @@ public class XmlLoader {
         final XmlInfo xmlInfo;
         
         try {
-            xmlInfo = JAXB.unmarshal(in, XmlInfo.class);
-        } catch (DataBindingException e) {
+            xmlInfo = getJAXBContext().createUnmarshaller().unmarshal(new StreamSource(in), XmlInfo.class).getValue();
+        } catch (JAXBException e) {
             throw new XmlLoadException("fail load xml with JAXB.", e);
         }
         
@@ -57,8 +78,8 @@ public class XmlLoader {
         final XmlInfo xmlInfo;
         
         try {
-            xmlInfo = JAXB.unmarshal(reader, XmlInfo.class);
-        } catch (DataBindingException e) {
+            xmlInfo = getJAXBContext().createUnmarshaller().unmarshal(new StreamSource(reader), XmlInfo.class).getValue();
+        } catch (JAXBException e) {
             throw new XmlLoadException("fail load xml with JAXB.", e);
         }
         
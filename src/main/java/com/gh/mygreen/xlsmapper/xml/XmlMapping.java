@@ -0,0 +1,104 @@
+package com.gh.mygreen.xlsmapper.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Reader;
+
+import com.gh.mygreen.xlsmapper.ArgUtils;
+import com.gh.mygreen.xlsmapper.xml.bind.XmlInfo;
+
+
+/**
+ * 読み込み済みのXMLのマッピング情報。
+ * <p>XMLの読み込みを一度だけ行い、{@link com.gh.mygreen.xlsmapper.XlsLoader}/{@link com.gh.mygreen.xlsmapper.XlsSaver}の
+ *    呼び出しごとに使いまわすために利用する。
+ * <p>保持する{@link XmlInfo}は外部から変更できないため、複数のスレッドから共有して利用できる。
+ *    また、XMLで定義したアノテーションやバインディングの情報は、このインスタンスが参照されている間キャッシュされる。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public final class XmlMapping {
+    
+    /** XMLで定義した情報 */
+    private final XmlInfo xmlInfo;
+    
+    private XmlMapping(final XmlInfo xmlInfo) {
+        this.xmlInfo = xmlInfo;
+    }
+    
+    /**
+     * XMLを読み込み、マッピング情報を作成する。
+     * @param in XMLの入力
+     * @return
+     * @throws XmlLoadException XMLの読み込みに失敗した場合。
+     * @throws IllegalArgumentException in is null.
+     */
+    public static XmlMapping load(final InputStream in) throws XmlLoadException {
+        return new XmlMapping(XmlLoader.load(in));
+    }
+    
+    /**
+     * XMLを読み込み、マッピング情報を作成する。
+     * @param reader XMLの入力
+     * @return
+     * @throws XmlLoadException XMLの読み込みに失敗した場合。
+     * @throws IllegalArgumentException reader is null.
+     */
+    public static XmlMapping load(final Reader reader) throws XmlLoadException {
+        return new XmlMapping(XmlLoader.load(reader));
+    }
+    
+    /**
+     * XMLファイルを読み込み、マッピング情報を作成する。
+     * @param file 読み込むファイル
+     * @param encoding 読み込むファイルの文字コード
+     * @return
+     * @throws XmlLoadException XMLの読み込みに失敗した場合。
+     * @throws IllegalArgumentException file is null or encoding is empty.
+     */
+    public static XmlMapping load(final File file, final String encoding) throws XmlLoadException {
+        return new XmlMapping(XmlLoader.load(file, encoding));
+    }
+    
+    /**
+     * 作成済みの{@link XmlInfo}から、マッピング情報を作成する。
+     * <p>引数で渡した{@link XmlInfo}はコピーして保持するため、作成後に変更しても影響はない。
+     * @param xmlInfo XMLで定義した情報
+     * @return
+     * @throws XmlLoadException 情報のコピーに失敗した場合。
+     * @throws IllegalArgumentException xmlInfo is null.
+     */
+    public static XmlMapping copyOf(final XmlInfo xmlInfo) throws XmlLoadException {
+        ArgUtils.notNull(xmlInfo, "xmlInfo");
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(xmlInfo);
+        } catch(IOException e) {
+            throw new XmlLoadException("fail copy xml info.", e);
+        }
+        
+        try(ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return new XmlMapping((XmlInfo) ois.readObject());
+        } catch(IOException | ClassNotFoundException e) {
+            throw new XmlLoadException("fail copy xml info.", e);
+        }
+    }
+    
+    /**
+     * マッピング情報をもとに、アノテーションの読み込みクラスを作成する。
+     * <p>作成したインスタンスは、解析結果のキャッシュをこのマッピング情報の単位で共有する。
+     * @return 新たに作成したインスタンス。
+     */
+    public AnnotationReader createAnnotationReader() {
+        return new AnnotationReader(xmlInfo, this);
+    }
+
+}
@@ -6,19 +6,26 @@ import static org.junit.Assert.*;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.util.List;
+import java.util.Locale;
 
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.DataValidation;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellRangeAddressList;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import com.gh.mygreen.xlsmapper.POIUtils;
 import com.gh.mygreen.xlsmapper.cellconvert.LinkType;
+import com.github.mygreen.cellformatter.POICellFormatter;
 
 
 public class POIUtilsTest {
@@ -227,4 +234,328 @@ public class POIUtilsTest {
 //        
 //        
 //    }
+    
+    /**
+     * {@link POIUtils#getMergedRegion(Sheet, int, int)}、{@link POIUtils#removeMergedRange(Sheet, CellRangeAddress)}
+     * ・結合範囲の索引を利用する場合
+     * @since 1.0
+     */
+    @Test
+    public void testMergedRegion_index() throws Exception {
+        
+        try(XSSFWorkbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            sheet.addMergedRegion(new CellRangeAddress(0, 1, 0, 2));
+            sheet.addMergedRegion(new CellRangeAddress(3, 200, 1, 1));
+            
+            final SheetScope scope = SheetScope.open(sheet).enableMergedRegionIndex();
+            try {
+                assertThat(POIUtils.getMergedRegion(sheet, 1, 2).formatAsString(), is("A1:C2"));
+                assertThat(POIUtils.getMergedRegion(sheet, 150, 1).formatAsString(), is("B4:B201"));
+                assertThat(POIUtils.getMergedRegion(sheet, 2, 0), is(nullValue()));
+                
+                // 結合の追加
+                POIUtils.mergeCells(sheet, 4, 2, 5, 2);
+                assertThat(POIUtils.getMergedRegion(sheet, 2, 5).formatAsString(), is("E3:F3"));
+                
+                // 結合の解除
+                assertThat(POIUtils.removeMergedRange(sheet, new CellRangeAddress(0, 1, 0, 2)), is(true));
+                assertThat(POIUtils.removeMergedRange(sheet, new CellRangeAddress(0, 1, 0, 2)), is(false));
+                assertThat(POIUtils.getMergedRegion(sheet, 1, 2), is(nullValue()));
+                assertThat(sheet.getNumMergedRegions(), is(2));
+                
+                // 行の挿入
+                POIUtils.insertRow(sheet, 1);
+                assertThat(POIUtils.getMergedRegion(sheet, 3, 4).formatAsString(), is("E4:F4"));
+                
+            } finally {
+                scope.close();
+            }
+            
+            // 索引を利用しない場合と一致すること
+            assertThat(POIUtils.getMergedRegion(sheet, 3, 4).formatAsString(), is("E4:F4"));
+            assertThat(POIUtils.getMergedRegion(sheet, 2, 5), is(nullValue()));
+        }
+    }
+    
+    /**
+     * {@link POIUtils#getColumns(Sheet)}
+     * ・シートの最大列数を保持する場合
+     * @since 1.0
+     */
+    @Test
+    public void testGetColumns_extents() throws Exception {
+        
+        try(XSSFWorkbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            sheet.createRow(0).createCell(2);
+            sheet.createRow(1).createCell(5);
+            
+            final SheetScope scope = SheetScope.open(sheet).enableExtents();
+            try {
+                assertThat(POIUtils.getColumns(sheet), is(6));
+                
+                // セルの作成
+                POIUtils.getCell(sheet, 7, 3);
+                assertThat(POIUtils.getColumns(sheet), is(8));
+                
+                // 行の削除
+                POIUtils.removeRow(sheet, 3);
+                assertThat(POIUtils.getColumns(sheet), is(6));
+                POIUtils.removeRow(sheet, 1);
+                assertThat(POIUtils.getColumns(sheet), is(3));
+                
+            } finally {
+                scope.close();
+            }
+            
+            assertThat(POIUtils.getColumns(sheet), is(3));
+        }
+    }
+    
+    /**
+     * {@link POIUtils#getCell(Sheet, int, int)}
+     * ・読み込み専用のシートの場合
+     * @since 1.0
+     */
+    @Test
+    public void testGetCell_readOnly() throws Exception {
+        
+        try(XSSFWorkbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            sheet.createRow(0).createCell(0).setCellValue("abc");
+            
+            final SheetScope scope = SheetScope.open(sheet).enableReadOnly();
+            try {
+                assertThat(POIUtils.getCell(sheet, 0, 0).getStringCellValue(), is("abc"));
+                
+                // 存在しないセルは作成しない
+                final Cell cell = POIUtils.getCell(sheet, 3, 5);
+                assertThat(cell.getColumnIndex(), is(3));
+                assertThat(cell.getRowIndex(), is(5));
+                assertThat(cell.getCellType(), is(Cell.CELL_TYPE_BLANK));
+                assertThat(POIUtils.getCellContents(cell, new DefaultCellFormatter()), is(""));
+                assertThat(POIUtils.isEmptyCellContents(cell, new DefaultCellFormatter()), is(true));
+                
+                assertThat(POIUtils.getCell(sheet, 2, 0).getCellType(), is(Cell.CELL_TYPE_BLANK));
+                assertThat(POIUtils.getColumn(sheet, 1).length, is(1));
+                
+                assertThat(sheet.getRow(5), is(nullValue()));
+                assertThat(sheet.getRow(0).getLastCellNum(), is((short)1));
+                
+                try {
+                    cell.setCellValue("def");
+                    fail();
+                } catch(UnsupportedOperationException e) {
+                    
+                }
+                
+            } finally {
+                scope.close();
+            }
+            
+            // 読み込み専用でない場合は作成する
+            POIUtils.getCell(sheet, 3, 5);
+            assertThat(sheet.getRow(5).getCell(3), is(notNullValue()));
+        }
+    }
+    
+    /**
+     * セルの値のキャッシュを有効にした場合
+     */
+    @Test
+    public void testGetCellContents_cache() throws Exception {
+        
+        try(XSSFWorkbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            final Cell cell = sheet.createRow(0).createCell(0);
+            cell.setCellValue("abc");
+            
+            final int[] count = new int[1];
+            final CellFormatter formatter = new DefaultCellFormatter() {
+                
+                @Override
+                public String format(final Cell cell) {
+                    count[0]++;
+                    return super.format(cell);
+                }
+            };
+            
+            final SheetScope scope = SheetScope.open(sheet).enableTextCache();
+            try {
+                assertThat(POIUtils.getCellContents(cell, formatter), is("abc"));
+                assertThat(POIUtils.isEmptyCellContents(cell, formatter), is(false));
+                assertThat(POIUtils.getCellContents(POIUtils.getCell(sheet, 0, 0), formatter), is("abc"));
+                assertThat(count[0], is(1));
+                
+                // 異なるフォーマッタの場合はフォーマットし直す
+                assertThat(POIUtils.getCellContents(cell, new DefaultCellFormatter()), is("abc"));
+                
+            } finally {
+                scope.close();
+            }
+            
+            // キャッシュが無効な場合は毎回フォーマットする
+            cell.setCellValue("def");
+            assertThat(POIUtils.getCellContents(cell, formatter), is("def"));
+            assertThat(count[0], is(2));
+        }
+    }
+    
+    /**
+     * セルのタイプによる空セルの判定
+     */
+    @Test
+    public void testIsEmptyCellContents_byType() throws Exception {
+        
+        try(XSSFWorkbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            final Row row = sheet.createRow(0);
+            
+            final int[] count = new int[1];
+            final DefaultCellFormatter formatter = new DefaultCellFormatter();
+            formatter.setPoiCellFormatter(new POICellFormatter() {
+                
+                @Override
+                public String formatAsString(final Cell cell, final Locale locale) {
+                    count[0]++;
+                    return super.formatAsString(cell, locale);
+                }
+            });
+            
+            final Cell blankCell = row.createCell(0);
+            final Cell stringCell = row.createCell(1);
+            stringCell.setCellValue("abc");
+            final Cell emptyStringCell = row.createCell(2);
+            emptyStringCell.setCellValue("");
+            final Cell booleanCell = row.createCell(3);
+            booleanCell.setCellValue(true);
+            final Cell numberCell = row.createCell(4);
+            numberCell.setCellValue(0);
+            
+            assertThat(POIUtils.isEmptyCellContents(blankCell, formatter), is(true));
+            assertThat(POIUtils.isEmptyCellContents(stringCell, formatter), is(false));
+            assertThat(POIUtils.isEmptyCellContents(emptyStringCell, formatter), is(true));
+            assertThat(POIUtils.isEmptyCellContents(booleanCell, formatter), is(false));
+            assertThat(POIUtils.isEmptyCellContents(numberCell, formatter), is(false));
+            assertThat(count[0], is(0));
+            
+            // ゼロを表示しない書式の場合はフォーマットして判定する
+            final CellStyle style = workbook.createCellStyle();
+            style.setDataFormat(POIUtils.getDataFormatIndex(sheet, "#"));
+            numberCell.setCellStyle(style);
+            assertThat(POIUtils.isEmptyCellContents(numberCell, formatter), is(true));
+            assertThat(count[0], is(1));
+            
+            // 文字列の書式のみの場合はフォーマットしない
+            final CellStyle textStyle = workbook.createCellStyle();
+            textStyle.setDataFormat(POIUtils.getDataFormatIndex(sheet, "@"));
+            emptyStringCell.setCellStyle(textStyle);
+            assertThat(POIUtils.isEmptyCellContents(emptyStringCell, formatter), is(true));
+            assertThat(count[0], is(1));
+            
+            // 文字列のセクションにリテラルを含む書式の場合は、空文字もフォーマットして判定する
+            final CellStyle literalStyle = workbook.createCellStyle();
+            literalStyle.setDataFormat(POIUtils.getDataFormatIndex(sheet, "\"x\"@"));
+            emptyStringCell.setCellStyle(literalStyle);
+            assertThat(POIUtils.getCellContents(emptyStringCell, formatter), is("x"));
+            assertThat(POIUtils.isEmptyCellContents(emptyStringCell, formatter), is(false));
+            assertThat(count[0], is(3));
+            
+            // 常にフォーマットする場合
+            formatter.setFormatOnEmptyCheck(true);
+            assertThat(POIUtils.isEmptyCellContents(blankCell, formatter), is(true));
+            assertThat(POIUtils.isEmptyCellContents(stringCell, formatter), is(false));
+            assertThat(count[0], is(5));
+        }
+    }
+    
+    /**
+     * セルの値が空かどうかの判定
+     * ・結合範囲内のブランクセルは、フォーマットして判定する
+     * ・フォーマットを上書きしたサブクラスは、常にフォーマットして判定する
+     * @since 1.0
+     */
+    @Test
+    public void testIsEmptyCellContents_mergedBlank() throws Exception {
+        
+        try(XSSFWorkbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            final Row row = sheet.createRow(0);
+            row.createCell(1).setCellValue("B");
+            final Cell mergedBlankCell = row.createCell(2);
+            final Cell blankCell = row.createCell(3);
+            sheet.addMergedRegion(new CellRangeAddress(0, 0, 1, 2));
+            
+            final DefaultCellFormatter formatter = new DefaultCellFormatter();
+            assertThat(POIUtils.getCellContents(mergedBlankCell, formatter), is("B"));
+            assertThat(POIUtils.isEmptyCellContents(mergedBlankCell, formatter), is(false));
+            assertThat(POIUtils.isEmptyCellContents(blankCell, formatter), is(true));
+            
+            // 結合範囲の索引を利用する場合
+            final SheetScope scope = SheetScope.open(sheet).enableMergedRegionIndex();
+            try {
+                assertThat(POIUtils.isEmptyCellContents(mergedBlankCell, formatter), is(false));
+            } finally {
+                scope.close();
+            }
+            
+            final DefaultCellFormatter customFormatter = new DefaultCellFormatter() {
+                
+                @Override
+                public String format(final Cell cell) {
+                    return "-";
+                }
+            };
+            assertThat(POIUtils.isEmptyCellContents(blankCell, customFormatter), is(false));
+        }
+    }
+    
+    /**
+     * 数式のセルの評価
+     */
+    @Test
+    public void testEvaluateFormulaCell() throws Exception {
+        
+        try(XSSFWorkbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            final Row row = sheet.createRow(0);
+            row.createCell(0).setCellValue(1);
+            final Cell formulaCell = row.createCell(1);
+            formulaCell.setCellFormula("A1+1");
+            
+            POIUtils.registerFormulaEvaluator(workbook);
+            try {
+                assertThat(POIUtils.getFormulaEvaluator(workbook), is(sameInstance(POIUtils.getFormulaEvaluator(workbook))));
+                
+                final Cell evalCell = POIUtils.evaluateFormulaCell(formulaCell);
+                assertThat(evalCell.getCellType(), is(Cell.CELL_TYPE_NUMERIC));
+                assertThat(evalCell.getNumericCellValue(), is(2.0));
+                assertThat(new DefaultCellFormatter().format(formulaCell), is("2"));
+                
+                // 元のセルの数式は変更しない
+                assertThat(formulaCell.getCellType(), is(Cell.CELL_TYPE_FORMULA));
+                assertThat(formulaCell.getCellFormula(), is("A1+1"));
+                
+            } finally {
+                POIUtils.unregisterFormulaEvaluator(workbook);
+            }
+            
+            // 同じワークブックを同時に読み込む場合は、全ての読み込みで破棄されるまで共有する
+            POIUtils.registerFormulaEvaluator(workbook);
+            POIUtils.registerFormulaEvaluator(workbook);
+            final FormulaEvaluator shared = POIUtils.getFormulaEvaluator(workbook);
+            POIUtils.unregisterFormulaEvaluator(workbook);
+            assertThat(POIUtils.getFormulaEvaluator(workbook), is(sameInstance(shared)));
+            POIUtils.unregisterFormulaEvaluator(workbook);
+            assertThat(POIUtils.getFormulaEvaluator(workbook), is(not(sameInstance(shared))));
+            
+            // 評価に失敗する数式は、エラーの値としてフォーマットし、元のセルの数式は変更しない
+            final Cell errorCell = row.createCell(2);
+            errorCell.setCellFormula("CELL(\"type\",A1)");
+            assertThat(new DefaultCellFormatter().format(errorCell), is("#VALUE!"));
+            assertThat(errorCell.getCellType(), is(Cell.CELL_TYPE_FORMULA));
+            assertThat(errorCell.getCellFormula(), is("CELL(\"type\",A1)"));
+        }
+    }
 }
@@ -0,0 +1,178 @@
+package com.gh.mygreen.xlsmapper;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gh.mygreen.xlsmapper.annotation.XlsCell;
+import com.gh.mygreen.xlsmapper.annotation.XlsHint;
+import com.gh.mygreen.xlsmapper.annotation.XlsPostLoad;
+import com.gh.mygreen.xlsmapper.annotation.XlsPreLoad;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheetName;
+import com.gh.mygreen.xlsmapper.fieldprocessor.FieldProcessorRegstry;
+import com.gh.mygreen.xlsmapper.fieldprocessor.processor.CellProcessor;
+import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
+import com.gh.mygreen.xlsmapper.xml.XmlMapping;
+import com.gh.mygreen.xlsmapper.xml.bind.XmlInfo;
+
+/**
+ * {@link SheetBindingPlanCache}のテスタ
+ * 
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class SheetBindingPlanCacheTest {
+    
+    private SheetBindingPlanCache cache;
+    
+    private FieldProcessorRegstry registry;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.cache = new SheetBindingPlanCache();
+        this.registry = new FieldProcessorRegstry();
+    }
+    
+    /**
+     * 同じクラスの場合、キャッシュしたプランを返すこと。
+     */
+    @Test
+    public void test_cached_plan() throws Exception {
+        
+        final AnnotationReader reader = new AnnotationReader(null);
+        
+        SheetBindingPlan plan1 = cache.getLoadingPlan(SampleSheet.class, reader, registry);
+        SheetBindingPlan plan2 = cache.getLoadingPlan(SampleSheet.class, new AnnotationReader(null), registry);
+        assertThat(plan1, is(sameInstance(plan2)));
+        
+        // 読み込み用と書き込み用は別に保持する
+        SheetBindingPlan plan3 = cache.getSavingPlan(SampleSheet.class, reader, registry);
+        assertThat(plan3, is(not(sameInstance(plan1))));
+        
+        // XMLのマッピング情報ごとに別に保持する
+        final XmlMapping xmlMapping = XmlMapping.copyOf(new XmlInfo());
+        SheetBindingPlan plan4 = cache.getLoadingPlan(SampleSheet.class, xmlMapping.createAnnotationReader(), registry);
+        assertThat(plan4, is(not(sameInstance(plan1))));
+        assertThat(cache.getLoadingPlan(SampleSheet.class, xmlMapping.createAnnotationReader(), registry), is(sameInstance(plan4)));
+        assertThat(cache.getLoadingPlan(SampleSheet.class, XmlMapping.copyOf(new XmlInfo()).createAnnotationReader(), registry),
+                is(not(sameInstance(plan4))));
+        
+        // XMLの定義情報から直接作成した場合は、変更される可能性があるため共有しない
+        final XmlInfo xmlInfo = new XmlInfo();
+        final AnnotationReader xmlReader = new AnnotationReader(xmlInfo);
+        SheetBindingPlan plan5 = cache.getLoadingPlan(SampleSheet.class, xmlReader, registry);
+        assertThat(cache.getLoadingPlan(SampleSheet.class, xmlReader, registry), is(sameInstance(plan5)));
+        assertThat(cache.getLoadingPlan(SampleSheet.class, new AnnotationReader(xmlInfo), registry), is(not(sameInstance(plan5))));
+        
+        // 破棄した場合
+        cache.clear();
+        assertThat(cache.getLoadingPlan(SampleSheet.class, reader, registry), is(not(sameInstance(plan1))));
+        
+    }
+    
+    /**
+     * プロセッサの登録を変更した場合、プランを作成し直すこと。
+     */
+    @Test
+    public void test_registry_changed() throws Exception {
+        
+        final AnnotationReader reader = new AnnotationReader(null);
+        
+        SheetBindingPlan plan1 = cache.getLoadingPlan(SampleSheet.class, reader, registry);
+        assertThat(plan1.getAdaptorProxies().get(1).getProcessor(), is(instanceOf(CellProcessor.class)));
+        
+        // プロセッサを追加登録した場合
+        final CellProcessor processor = new CellProcessor();
+        registry.registerProcessor(XlsCell.class, processor);
+        
+        SheetBindingPlan plan2 = cache.getLoadingPlan(SampleSheet.class, reader, registry);
+        assertThat(plan2, is(not(sameInstance(plan1))));
+        assertThat(plan2.getAdaptorProxies().get(1).getProcessor(), is(sameInstance((Object)processor)));
+        assertThat(cache.getLoadingPlan(SampleSheet.class, reader, registry), is(sameInstance(plan2)));
+        
+        // 異なる管理クラスを指定した場合
+        final FieldProcessorRegstry otherRegistry = new FieldProcessorRegstry();
+        SheetBindingPlan plan3 = cache.getLoadingPlan(SampleSheet.class, reader, otherRegistry);
+        assertThat(plan3, is(not(sameInstance(plan2))));
+        assertThat(plan3.getAdaptorProxies().get(1).getProcessor(), is(not(sameInstance((Object)processor))));
+        
+    }
+    
+    /**
+     * プランの内容
+     */
+    @Test
+    public void test_plan_contents() throws Exception {
+        
+        final AnnotationReader reader = new AnnotationReader(null);
+        
+        SheetBindingPlan loadingPlan = cache.getLoadingPlan(SampleSheet.class, reader, registry);
+        assertThat(loadingPlan.getBeanClass(), is((Object)SampleSheet.class));
+        assertThat(loadingPlan.getPreProcessMethods(), hasSize(1));
+        assertThat(loadingPlan.getPostProcessMethods(), hasSize(1));
+        
+        // @XlsHintの順番に並んでいること
+        assertThat(loadingPlan.getAdaptorProxies(), hasSize(3));
+        assertThat(loadingPlan.getAdaptorProxies().get(0).getAdaptor().getName(), is("sheetName"));
+        assertThat(loadingPlan.getAdaptorProxies().get(1).getAdaptor().getName(), is("c2"));
+        assertThat(loadingPlan.getAdaptorProxies().get(2).getAdaptor().getName(), is("c1"));
+        assertThat(loadingPlan.getSheetNameAdaptor(), is(nullValue()));
+        
+        SheetBindingPlan savingPlan = cache.getSavingPlan(SampleSheet.class, reader, registry);
+        assertThat(savingPlan.getPreProcessMethods(), hasSize(0));
+        assertThat(savingPlan.getPostProcessMethods(), hasSize(0));
+        assertThat(savingPlan.getAdaptorProxies(), hasSize(3));
+        assertThat(savingPlan.getSheetNameAdaptor().getName(), is("sheetName"));
+        
+    }
+    
+    /**
+     * コールバックメソッドの情報
+     */
+    @Test
+    public void test_lifecycle_callbacks() throws Exception {
+        
+        final AnnotationReader reader = new AnnotationReader(null);
+        
+        LifecycleCallbacks callbacks = cache.getLifecycleCallbacks(SampleSheet.class, reader);
+        assertThat(cache.getLifecycleCallbacks(SampleSheet.class, reader), is(sameInstance(callbacks)));
+        
+        assertThat(callbacks.getPreLoadMethods(), hasSize(1));
+        assertThat(callbacks.getPreLoadMethods().get(0).getName(), is("initLoad"));
+        assertThat(callbacks.getPostLoadMethods(), hasSize(1));
+        assertThat(callbacks.getPostLoadMethods().get(0).getName(), is("destroyLoad"));
+        assertThat(callbacks.getPreSaveMethods(), hasSize(0));
+        assertThat(callbacks.getPostSaveMethods(), hasSize(0));
+        assertThat(callbacks.getIsEmptyMethod(), is(nullValue()));
+        
+    }
+    
+    @XlsSheet(name="Sample")
+    private static class SampleSheet {
+        
+        @XlsSheetName
+        private String sheetName;
+        
+        @XlsHint(order=2)
+        @XlsCell(address="A1")
+        private String c1;
+        
+        @XlsHint(order=1)
+        @XlsCell(address="B1")
+        private String c2;
+        
+        @XlsPreLoad
+        public void initLoad() {
+            
+        }
+        
+        @XlsPostLoad
+        public void destroyLoad() {
+            
+        }
+    }
+}
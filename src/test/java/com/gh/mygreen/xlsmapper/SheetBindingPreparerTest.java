@@ -0,0 +1,124 @@
+package com.gh.mygreen.xlsmapper;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gh.mygreen.xlsmapper.annotation.XlsCell;
+import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+import com.gh.mygreen.xlsmapper.cellconvert.ConversionException;
+import com.gh.mygreen.xlsmapper.fieldprocessor.RecordColumnIndex;
+import com.gh.mygreen.xlsmapper.xml.AnnotationReader;
+
+/**
+ * {@link SheetBindingPreparer}、{@link XlsMapper#prepare(Class...)}のテスタ
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class SheetBindingPreparerTest {
+    
+    private XlsMapper mapper;
+    
+    @Before
+    public void setUp() throws Exception {
+        this.mapper = new XlsMapper();
+    }
+    
+    /**
+     * 事前に解決した情報がキャッシュされていること。
+     */
+    @Test
+    public void test_prepare() throws Exception {
+        
+        mapper.prepare(SampleSheet.class);
+        
+        final SheetBindingPlanCache cache = mapper.getConig().getBindingPlanCache();
+        
+        // 新たなキャッシュの読み込みクラスでも、同じインスタンスを返すこと
+        final AnnotationReader reader = new AnnotationReader(null);
+        final SheetBindingPlan plan = cache.getLoadingPlan(SampleSheet.class, reader, mapper.getConig().getFieldProcessorRegistry());
+        mapper.prepare(SampleSheet.class);
+        assertThat(cache.getLoadingPlan(SampleSheet.class, reader, mapper.getConig().getFieldProcessorRegistry()), is(sameInstance(plan)));
+        
+        final RecordColumnIndex columnIndex = cache.getRecordColumnIndex(SampleRecord.class, reader);
+        assertThat(columnIndex.getLoadingColumnProperties(), hasSize(2));
+    
+    }
+    
+    /**
+     * アノテーション「@XlsSheet」が付与されていない場合
+     */
+    @Test(expected=AnnotationInvalidException.class)
+    public void test_prepare_noSheet() throws Exception {
+        
+        mapper.prepare(NoSheet.class);
+        fail();
+    }
+    
+    /**
+     * Converterが見つからない場合
+     */
+    @Test(expected=ConversionException.class)
+    public void test_prepare_notFoundConverter() throws Exception {
+        
+        mapper.prepare(NotFoundConverterSheet.class);
+        fail();
+    }
+    
+    /**
+     * レコードのアノテーションの定義が不正な場合
+     */
+    @Test(expected=AnnotationInvalidException.class)
+    public void test_prepare_wrongRecords() throws Exception {
+        
+        mapper.prepare(WrongRecordsSheet.class);
+        fail();
+    }
+    
+    @XlsSheet(name="Sample")
+    private static class SampleSheet {
+        
+        @XlsCell(address="A1")
+        private String name;
+        
+        @XlsHorizontalRecords(tableLabel="一覧")
+        private List<SampleRecord> records;
+    }
+    
+    private static class SampleRecord {
+        
+        @XlsColumn(columnName="No.")
+        private int no;
+        
+        @XlsColumn(columnName="名前")
+        private String name;
+    }
+    
+    private static class NoSheet {
+        
+        @XlsCell(address="A1")
+        private String name;
+    }
+    
+    @XlsSheet(name="Sample")
+    private static class NotFoundConverterSheet {
+        
+        @XlsCell(address="A1")
+        private SampleRecord record;
+    }
+    
+    @XlsSheet(name="Sample")
+    private static class WrongRecordsSheet {
+        
+        @XlsHorizontalRecords(tableLabel="一覧", headerAddress="1A")
+        private List<SampleRecord> records;
+    }
+}
@@ -0,0 +1,102 @@
+package com.gh.mygreen.xlsmapper;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+/**
+ * {@link SheetScope}のテスタ
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class SheetScopeTest {
+    
+    /**
+     * 入れ子に作成した状態が、破棄すると呼び出し元の状態に戻ること。
+     */
+    @Test
+    public void test_nested() throws Exception {
+        
+        try(XSSFWorkbook book = new XSSFWorkbook()) {
+            final Sheet sheet1 = book.createSheet("sheet1");
+            final Sheet sheet2 = book.createSheet("sheet2");
+            
+            assertThat(SheetScope.find(sheet1), is(nullValue()));
+            
+            final SheetScope outer = SheetScope.open(sheet1).enableLabelIndex();
+            try {
+                final SheetScope inner = SheetScope.open(sheet2);
+                try {
+                    assertThat(SheetScope.find(sheet1), is(sameInstance(outer)));
+                    assertThat(SheetScope.find(sheet2), is(sameInstance(inner)));
+                    assertThat(CellLabelIndex.get(sheet2), is(nullValue()));
+                    
+                    // 外側の状態は、内側の状態を破棄するまで破棄できない
+                    try {
+                        outer.close();
+                        fail();
+                    } catch(IllegalStateException e) {
+                        
+                    }
+                    
+                } finally {
+                    inner.close();
+                }
+                
+                assertThat(SheetScope.find(sheet2), is(nullValue()));
+                assertThat(CellLabelIndex.get(sheet1), is(notNullValue()));
+                
+            } finally {
+                outer.close();
+            }
+            
+            assertThat(SheetScope.find(sheet1), is(nullValue()));
+            assertThat(CellLabelIndex.get(sheet1), is(nullValue()));
+        }
+        
+    }
+    
+    /**
+     * 作成したスレッド以外では、状態が有効にならないこと。
+     */
+    @Test
+    public void test_otherThread() throws Exception {
+        
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try(XSSFWorkbook book = new XSSFWorkbook()) {
+            final Sheet sheet = book.createSheet("sheet");
+            
+            final SheetScope scope = SheetScope.open(sheet).enableLabelIndex().enableReadOnly();
+            try {
+                final boolean found = executor.submit(new Callable<Boolean>() {
+                    
+                    @Override
+                    public Boolean call() throws Exception {
+                        return SheetScope.find(sheet) != null || POIUtils.isReadOnly(sheet);
+                    }
+                }).get();
+                
+                assertThat(found, is(false));
+                assertThat(SheetScope.find(sheet), is(sameInstance(scope)));
+                assertThat(POIUtils.isReadOnly(sheet), is(true));
+                
+            } finally {
+                scope.close();
+            }
+            
+        } finally {
+            executor.shutdownNow();
+        }
+        
+    }
+
+}
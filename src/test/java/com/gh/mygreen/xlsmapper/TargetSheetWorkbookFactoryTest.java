@@ -0,0 +1,155 @@
+package com.gh.mygreen.xlsmapper;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+
+/**
+ * {@link TargetSheetWorkbookFactory}のテスタ
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class TargetSheetWorkbookFactoryTest {
+    
+    /**
+     * 対象のシート以外は、名前と順番を保ったまま空のシートとなること。
+     */
+    @Test
+    public void test_create_xlsx() throws Exception {
+        
+        final byte[] xlsx = createBook(new XSSFWorkbook());
+        
+        final Workbook book = TargetSheetWorkbookFactory.create(new ByteArrayInputStream(xlsx),
+                Arrays.asList(NameSheet.class.getAnnotation(XlsSheet.class), NumberSheet.class.getAnnotation(XlsSheet.class)));
+        
+        assertThat(book.getNumberOfSheets(), is(3));
+        assertThat(book.getSheetName(0), is("シート1"));
+        assertThat(book.getSheetName(1), is("シート2"));
+        assertThat(book.getSheetName(2), is("シート3"));
+        
+        assertThat(book.getSheetAt(0).getPhysicalNumberOfRows(), is(0));
+        assertThat(book.getSheetAt(1).getPhysicalNumberOfRows(), is(4));
+        assertThat(book.getSheetAt(2).getPhysicalNumberOfRows(), is(4));
+        
+    }
+    
+    /**
+     * シートの条件を指定していない場合は、全てのシートを読み込むこと。
+     */
+    @Test
+    public void test_create_noCondition() throws Exception {
+        
+        final byte[] xlsx = createBook(new XSSFWorkbook());
+        
+        final Workbook book = TargetSheetWorkbookFactory.create(new ByteArrayInputStream(xlsx),
+                Arrays.asList(NameSheet.class.getAnnotation(XlsSheet.class), AllSheet.class.getAnnotation(XlsSheet.class)));
+        
+        for(int i=0; i < 3; i++) {
+            assertThat(book.getSheetAt(i).getPhysicalNumberOfRows(), is(4));
+        }
+        
+    }
+    
+    /**
+     * Excel(.xls)の場合は、全てのシートを読み込むこと。
+     */
+    @Test
+    public void test_create_xls() throws Exception {
+        
+        final byte[] xls = createBook(new HSSFWorkbook());
+        
+        final Workbook book = TargetSheetWorkbookFactory.create(new ByteArrayInputStream(xls),
+                Arrays.asList(NameSheet.class.getAnnotation(XlsSheet.class)));
+        
+        assertThat(book, is(instanceOf(HSSFWorkbook.class)));
+        for(int i=0; i < 3; i++) {
+            assertThat(book.getSheetAt(i).getPhysicalNumberOfRows(), is(4));
+        }
+        
+    }
+    
+    /**
+     * 設定を有効にした場合に、通常と同じ結果を読み込めること。
+     */
+    @Test
+    public void test_loadMultiple() throws Exception {
+        
+        final byte[] xlsx = createBook(new XSSFWorkbook());
+        
+        final XlsMapper mapper = new XlsMapper();
+        mapper.getConig().setLoadOnlyTargetSheets(true);
+        
+        final Object[] sheets = mapper.loadMultiple(new ByteArrayInputStream(xlsx),
+                new Class<?>[]{NameSheet.class, NumberSheet.class});
+        
+        assertThat(sheets, arrayWithSize(2));
+        assertThat(((NameSheet) sheets[0]).records, hasSize(3));
+        assertThat(((NameSheet) sheets[0]).records.get(2).name, is("シート2-2"));
+        assertThat(((NumberSheet) sheets[1]).records, hasSize(3));
+        assertThat(((NumberSheet) sheets[1]).records.get(0).name, is("シート3-0"));
+        
+    }
+    
+    /**
+     * 見出しと3件のレコードを持つシートを、3つ作成する。
+     */
+    private byte[] createBook(final Workbook book) throws Exception {
+        
+        for(int i=1; i <= 3; i++) {
+            final Sheet sheet = book.createSheet("シート" + i);
+            sheet.createRow(0).createCell(0).setCellValue("名称");
+            for(int j=0; j < 3; j++) {
+                sheet.createRow(j + 1).createCell(0).setCellValue("シート" + i + "-" + j);
+            }
+        }
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        book.write(out);
+        return out.toByteArray();
+    }
+    
+    @XlsSheet(name="シート2")
+    private static class NameSheet {
+        
+        @XlsHorizontalRecords(headerAddress="A1")
+        private List<NormalRecord> records;
+        
+    }
+    
+    @XlsSheet(number=2)
+    private static class NumberSheet {
+        
+        @XlsHorizontalRecords(headerAddress="A1")
+        private List<NormalRecord> records;
+        
+    }
+    
+    @XlsSheet
+    private static class AllSheet {
+        
+    }
+    
+    private static class NormalRecord {
+        
+        @XlsColumn(columnName="名称")
+        private String name;
+        
+    }
+
+}
@@ -18,10 +18,14 @@ import java.util.Set;
 import java.util.Stack;
 import java.util.Vector;
 
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Before;
 import org.junit.Test;
 
 import com.gh.mygreen.xlsmapper.Utils;
+import com.gh.mygreen.xlsmapper.fieldprocessor.CellNotFoundException;
 
 /**
  * {@link Utils}のテスタ
@@ -181,4 +185,65 @@ public class UtilsTest {
         assertThat(value, is(instanceOf(ArrayList.class)));
         
     }
+    
+    /**
+     * {@link Utils#getCell(Sheet, String, int, int, boolean, XlsMapperConfig)}など。
+     * <p>ラベルの索引を利用した場合も、シートを走査した場合と同じセルを返すこと。
+     */
+    @Test
+    public void testGetCell_labelIndex() throws Exception {
+        
+        final XlsMapperConfig config = new XlsMapperConfig();
+        try(XSSFWorkbook book = new XSSFWorkbook()) {
+            final Sheet sheet = book.createSheet("test");
+            sheet.createRow(0).createCell(3).setCellValue("見出し");
+            sheet.createRow(2).createCell(1).setCellValue("見出し");
+            sheet.getRow(2).createCell(4).setCellValue("見出し");
+            sheet.createRow(5).createCell(0).setCellValue("見出し");
+            sheet.getRow(5).createCell(2).setCellValue("その他");
+            
+            for(int i=0; i < 2; i++) {
+                final SheetScope scope = SheetScope.open(sheet);
+                if(i == 1) {
+                    scope.enableLabelIndex();
+                }
+                
+                try {
+                    // 列→行の順
+                    assertCell(Utils.getCell(sheet, "見出し", 0, config), 0, 5);
+                    assertCell(Utils.getCell(sheet, "見出し", 6, false, config), -1, -1);
+                    
+                    // 行→列の順
+                    assertCell(Utils.getCell(sheet, "見出し", 0, 0, config), 3, 0);
+                    assertCell(Utils.getCell(sheet, "見出し", 2, 1, config), 4, 2);
+                    assertCell(Utils.getCell(sheet, "その他", 3, 0, false, config), -1, -1);
+                    
+                    // 指定したセル以降
+                    final Cell after = sheet.getRow(2).getCell(1);
+                    assertCell(Utils.getCell(sheet, "見出し", after, true, config), 1, 2);
+                    assertCell(Utils.getCell(sheet, "見出し", after, config), 4, 2);
+                    assertCell(Utils.getCell(sheet, "見出し", (Cell)null, config), 3, 0);
+                    
+                } finally {
+                    scope.close();
+                }
+            }
+            
+            try {
+                Utils.getCell(sheet, "なし", 0, 0, config);
+                fail();
+            } catch(CellNotFoundException e) {
+                
+            }
+        }
+    }
+    
+    private static void assertCell(final Cell cell, final int column, final int row) {
+        if(column < 0) {
+            assertThat(cell, is(nullValue()));
+        } else {
+            assertThat(cell.getColumnIndex(), is(column));
+            assertThat(cell.getRowIndex(), is(row));
+        }
+    }
 }
@@ -0,0 +1,168 @@
+package com.gh.mygreen.xlsmapper;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+
+/**
+ * {@link WorkbookFile}と、ファイルやワークブックを指定した読み込み、書き込みのテスタ
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class WorkbookFileTest {
+    
+    /**
+     * テスト結果ファイルの出力ディレクトリ
+     */
+    private static File OUT_DIR;
+    
+    @BeforeClass
+    public static void setupBeforeClass() throws Exception {
+        OUT_DIR = new File("src/test/out");
+        OUT_DIR.mkdirs();
+    }
+    
+    /**
+     * ファイルを指定して読み込めること。
+     */
+    @Test
+    public void test_load_file() throws Exception {
+        
+        final XlsMapper mapper = new XlsMapper();
+        
+        for(File file : new File[]{createFile(new XSSFWorkbook(), "workbook_file.xlsx"), createFile(new HSSFWorkbook(), "workbook_file.xls")}) {
+            final FirstSheet sheet = mapper.load(file, FirstSheet.class);
+            assertThat(sheet.records, hasSize(3));
+            assertThat(sheet.records.get(0).name, is("シート1-0"));
+            
+            final SecondSheet sheet2 = mapper.load(file.toPath(), SecondSheet.class);
+            assertThat(sheet2.records.get(2).name, is("シート2-2"));
+        }
+        
+    }
+    
+    /**
+     * 読み込み済みのワークブックから、複数のクラスを読み込めること。
+     */
+    @Test
+    public void test_loadMultiple_workbook() throws Exception {
+        
+        final File file = createFile(new XSSFWorkbook(), "workbook_file_multiple.xlsx");
+        
+        final XlsMapper mapper = new XlsMapper();
+        try(WorkbookFile bookFile = WorkbookFile.open(file, false)) {
+            final Object[] sheets = mapper.loadMultiple(bookFile.getWorkbook(), new Class<?>[]{FirstSheet.class, SecondSheet.class});
+            assertThat(sheets, arrayWithSize(2));
+            assertThat(((FirstSheet) sheets[0]).records.get(1).name, is("シート1-1"));
+            assertThat(((SecondSheet) sheets[1]).records.get(1).name, is("シート2-1"));
+            
+            final FirstSheet sheet = mapper.load(bookFile.getWorkbook(), FirstSheet.class);
+            assertThat(sheet.records, hasSize(3));
+        }
+        
+    }
+    
+    /**
+     * 雛形のファイルを指定して書き込めること。雛形のファイルは変更されないこと。
+     */
+    @Test
+    public void test_save_file() throws Exception {
+        
+        final XlsMapper mapper = new XlsMapper();
+        
+        for(File template : new File[]{createFile(new XSSFWorkbook(), "workbook_file_template.xlsx"), createFile(new HSSFWorkbook(), "workbook_file_template.xls")}) {
+            final byte[] templateBytes = Files.readAllBytes(template.toPath());
+            
+            final FirstSheet outSheet = new FirstSheet();
+            outSheet.records = new ArrayList<>();
+            for(int i=0; i < 3; i++) {
+                final NormalRecord record = new NormalRecord();
+                record.name = "出力" + i;
+                outSheet.records.add(record);
+            }
+            
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            mapper.save(template, out, outSheet);
+            
+            assertThat(Arrays.equals(Files.readAllBytes(template.toPath()), templateBytes), is(true));
+            
+            final FirstSheet inSheet = mapper.load(new ByteArrayInputStream(out.toByteArray()), FirstSheet.class);
+            assertThat(inSheet.records, hasSize(3));
+            assertThat(inSheet.records.get(2).name, is("出力2"));
+        }
+        
+    }
+    
+    /**
+     * 見出しと罫線付きの3件のレコードを持つシートを、2つ持つファイルを作成する。
+     */
+    private File createFile(final Workbook book, final String fileName) throws Exception {
+        
+        final CellStyle style = book.createCellStyle();
+        style.setBorderLeft(CellStyle.BORDER_THIN);
+        
+        for(int i=1; i <= 2; i++) {
+            final Sheet sheet = book.createSheet("シート" + i);
+            sheet.createRow(0).createCell(0).setCellValue("名称");
+            for(int j=0; j < 3; j++) {
+                final Cell cell = sheet.createRow(j + 1).createCell(0);
+                cell.setCellValue("シート" + i + "-" + j);
+                cell.setCellStyle(style);
+            }
+        }
+        
+        final File file = new File(OUT_DIR, fileName);
+        try(OutputStream out = new FileOutputStream(file)) {
+            book.write(out);
+        }
+        return file;
+    }
+    
+    @XlsSheet(name="シート1")
+    private static class FirstSheet {
+        
+        @XlsHorizontalRecords(headerAddress="A1")
+        private List<NormalRecord> records;
+        
+    }
+    
+    @XlsSheet(number=1)
+    private static class SecondSheet {
+        
+        @XlsHorizontalRecords(headerAddress="A1")
+        private List<NormalRecord> records;
+        
+    }
+    
+    private static class NormalRecord {
+        
+        @XlsColumn(columnName="名称")
+        private String name;
+        
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.gh.mygreen.xlsmapper;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheetName;
+
+/**
+ * {@link XlsMapperConfig#setParallelLoadExecutor(ExecutorService)}を設定した、複数シートの読み込みのテスタ
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class XlsLoaderParallelTest {
+    
+    private static final int SHEET_SIZE = 30;
+    
+    private ExecutorService executor;
+    
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(4);
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * 並列に読み込んだ結果が、シートの順番に並ぶこと。
+     */
+    @Test
+    public void test_loadMultiple() throws Exception {
+        
+        final byte[] content = createBook(-1);
+        
+        final XlsMapper mapper = new XlsMapper();
+        mapper.getConig().setParallelLoadExecutor(executor);
+        
+        final MonthSheet[] sheets = mapper.loadMultiple(new ByteArrayInputStream(content), MonthSheet.class);
+        assertThat(sheets, arrayWithSize(SHEET_SIZE));
+        
+        for(int i=0; i < SHEET_SIZE; i++) {
+            assertThat(sheets[i].sheetName, is("月" + i));
+            assertThat(sheets[i].records, hasSize(3));
+            assertThat(sheets[i].records.get(2).name, is("月" + i + "-2"));
+            
+            // 他のシートを参照する数式
+            assertThat(sheets[i].records.get(2).value, is(3 + i));
+        }
+        
+    }
+    
+    /**
+     * エラー情報が、シートの順番に格納されること。
+     */
+    @Test
+    public void test_loadMultiple_errors() throws Exception {
+        
+        final byte[] content = createBook(7);
+        
+        final XlsMapper mapper = new XlsMapper();
+        mapper.getConig().setParallelLoadExecutor(executor)
+            .setSkipTypeBindFailure(true);
+        
+        final SheetBindingErrorsContainer container = new SheetBindingErrorsContainer(MonthSheet.class);
+        final MonthSheet[] sheets = mapper.loadMultiple(new ByteArrayInputStream(content), MonthSheet.class, container);
+        assertThat(sheets, arrayWithSize(SHEET_SIZE));
+        
+        for(int i=0; i < SHEET_SIZE; i++) {
+            assertThat(container.getBindingResult(i).getSheetName(), is("月" + i));
+            assertThat(container.getBindingResult(i).hasErrors(), is(i == 7));
+        }
+        
+    }
+    
+    /**
+     * HSSF形式のワークブックは、並列に読み込まないこと。
+     */
+    @Test
+    public void test_loadMultiple_hssf() throws Exception {
+        
+        final byte[] content = createBook(-1, new HSSFWorkbook());
+        
+        // 処理を終了しておき、利用した場合は失敗させる
+        executor.shutdownNow();
+        
+        final XlsMapper mapper = new XlsMapper();
+        mapper.getConig().setParallelLoadExecutor(executor);
+        
+        final MonthSheet[] sheets = mapper.loadMultiple(new ByteArrayInputStream(content), MonthSheet.class);
+        assertThat(sheets, arrayWithSize(SHEET_SIZE));
+        
+        for(int i=0; i < SHEET_SIZE; i++) {
+            assertThat(sheets[i].sheetName, is("月" + i));
+            assertThat(sheets[i].records.get(2).value, is(3 + i));
+        }
+        
+    }
+    
+    private byte[] createBook(final int errorSheetIndex) throws Exception {
+        return createBook(errorSheetIndex, new XSSFWorkbook());
+    }
+    
+    /**
+     * 見出しと罫線付きの3件のレコードを持つシートを作成する。
+     * <p>値の列は、先頭のシートのセルを参照する数式とする。
+     * @param errorSheetIndex 値を数値に変換できないシートのインデックス。
+     * @param book 作成先のワークブック
+     */
+    private byte[] createBook(final int errorSheetIndex, final Workbook book) throws Exception {
+        
+        final CellStyle style = book.createCellStyle();
+        style.setBorderLeft(CellStyle.BORDER_THIN);
+        
+        for(int i=0; i < SHEET_SIZE; i++) {
+            final Sheet sheet = book.createSheet("月" + i);
+            final Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("名称");
+            header.createCell(1).setCellValue("値");
+            
+            for(int j=0; j < 3; j++) {
+                final Row row = sheet.createRow(j + 1);
+                final Cell nameCell = row.createCell(0);
+                nameCell.setCellValue("月" + i + "-" + j);
+                nameCell.setCellStyle(style);
+                
+                if(i == errorSheetIndex) {
+                    row.createCell(1).setCellValue("abc");
+                } else {
+                    row.createCell(1).setCellFormula(String.format("'月0'!D%d+%d", j + 2, i));
+                }
+                
+                // 数式から参照する値
+                row.createCell(3).setCellValue(j + 1);
+            }
+        }
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        book.write(out);
+        return out.toByteArray();
+    }
+    
+    @XlsSheet(regex="月.+")
+    private static class MonthSheet {
+        
+        @XlsSheetName
+        private String sheetName;
+        
+        @XlsHorizontalRecords(headerAddress="A1")
+        private List<MonthRecord> records;
+        
+    }
+    
+    private static class MonthRecord {
+        
+        @XlsColumn(columnName="名称")
+        private String name;
+        
+        @XlsColumn(columnName="値")
+        private Integer value;
+        
+    }
+
+}
@@ -0,0 +1,293 @@
+package com.gh.mygreen.xlsmapper;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.gh.mygreen.xlsmapper.annotation.XlsCell;
+import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+import com.gh.mygreen.xlsmapper.cellconvert.converter.StringCellConverter;
+import com.gh.mygreen.xlsmapper.fieldprocessor.processor.CellProcessor;
+import com.github.mygreen.cellformatter.POICellFormatter;
+
+/**
+ * {@link XlsMapperConfig}のテスタ
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class XlsMapperConfigTest {
+    
+    /**
+     * 変更不可にした後は、設定を変更できないこと。
+     */
+    @Test
+    public void test_freeze() throws Exception {
+        
+        final XlsMapperConfig config = new XlsMapperConfig()
+                .setSkipTypeBindFailure(true)
+                .freeze();
+        
+        assertThat(config.isFrozen(), is(true));
+        assertThat(config.isSkipTypeBindFailure(), is(true));
+        assertThat(config.getConverterRegistry().isFrozen(), is(true));
+        assertThat(config.getFieldProcessorRegistry().isFrozen(), is(true));
+        
+        try {
+            config.setSkipTypeBindFailure(false);
+            fail();
+        } catch(IllegalStateException e) {
+            
+        }
+        
+        try {
+            config.setCellFormatter(new DefaultCellFormatter());
+            fail();
+        } catch(IllegalStateException e) {
+            
+        }
+        
+        try {
+            config.getConverterRegistry().registerConverter(String.class, new StringCellConverter());
+            fail();
+        } catch(IllegalStateException e) {
+            
+        }
+        
+        try {
+            config.getFieldProcessorRegistry().registerProcessor(XlsCell.class, new CellProcessor());
+            fail();
+        } catch(IllegalStateException e) {
+            
+        }
+        
+        assertThat(config.isSkipTypeBindFailure(), is(true));
+        
+    }
+    
+    /**
+     * 変更不可にした後は、セルのフォーマッターや雛形の登録情報の設定も変更できないこと。
+     */
+    @Test
+    public void test_freeze_nested() throws Exception {
+        
+        final XlsMapperConfig config = new XlsMapperConfig().freeze();
+        
+        final DefaultCellFormatter cellFormatter = (DefaultCellFormatter) config.getCellFormatter();
+        assertThat(cellFormatter.isFrozen(), is(true));
+        
+        try {
+            cellFormatter.setFormatOnEmptyCheck(true);
+            fail();
+        } catch(IllegalStateException e) {
+            
+        }
+        
+        try {
+            cellFormatter.setPoiCellFormatter(new POICellFormatter());
+            fail();
+        } catch(IllegalStateException e) {
+            
+        }
+        
+        assertThat(cellFormatter.isFormatOnEmptyCheck(), is(false));
+        
+        final XlsTemplateRegistry templateRegistry = config.getTemplateRegistry();
+        assertThat(templateRegistry.isFrozen(), is(true));
+        
+        try {
+            templateRegistry.setSpareCount(3);
+            fail();
+        } catch(IllegalStateException e) {
+            
+        }
+        
+        try {
+            templateRegistry.setExecutor(null);
+            fail();
+        } catch(IllegalStateException e) {
+            
+        }
+        
+        assertThat(templateRegistry.getSpareCount(), is(1));
+        assertThat(templateRegistry.getExecutor(), is(notNullValue()));
+        
+        // 雛形の登録は行える
+        templateRegistry.register("list", new ByteArrayInputStream(createBook()));
+        assertThat(templateRegistry.get("list"), is(notNullValue()));
+        
+    }
+    
+    /**
+     * 変更不可にした後は、読み込み・書き込みクラスの設定を差し替えられないこと。
+     */
+    @Test
+    public void test_freeze_setConfig() throws Exception {
+        
+        final XlsMapperConfig config = new XlsMapperConfig().freeze();
+        final XlsMapper mapper = new XlsMapper(config);
+        final XlsMapperConfig other = new XlsMapperConfig();
+        
+        try {
+            mapper.setConig(other);
+            fail();
+        } catch(IllegalStateException e) {
+            
+        }
+        
+        try {
+            mapper.getLoader().setConfig(other);
+            fail();
+        } catch(IllegalStateException e) {
+            
+        }
+        
+        try {
+            mapper.getSaver().setConfig(other);
+            fail();
+        } catch(IllegalStateException e) {
+            
+        }
+        
+        try {
+            mapper.getStreamingLoader().setConfig(other);
+            fail();
+        } catch(IllegalStateException e) {
+            
+        }
+        
+        try {
+            mapper.getStreamingSaver().setConfig(other);
+            fail();
+        } catch(IllegalStateException e) {
+            
+        }
+        
+        assertThat(mapper.getConig(), is(sameInstance(config)));
+        assertThat(mapper.getLoader().getConfig(), is(sameInstance(config)));
+        assertThat(mapper.getSaver().getConfig(), is(sameInstance(config)));
+        assertThat(mapper.getStreamingLoader().getConfig(), is(sameInstance(config)));
+        assertThat(mapper.getStreamingSaver().getConfig(), is(sameInstance(config)));
+        
+        // 変更可能な設定の場合は、差し替えられる
+        final XlsMapper mapper2 = new XlsMapper();
+        mapper2.setConig(other);
+        assertThat(mapper2.getLoader().getConfig(), is(sameInstance(other)));
+        
+    }
+    
+    /**
+     * 変更不可にした設定を持つインスタンスを、複数のスレッドで共有して読み込み・書き込みできること。
+     */
+    @Test
+    public void test_concurrent() throws Exception {
+        
+        final XlsMapper mapper = new XlsMapper(new XlsMapperConfig());
+        final XlsTemplate template = mapper.getConig().getTemplateRegistry()
+                .register("list", new ByteArrayInputStream(createBook()));
+        mapper.getConig().freeze();
+        
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<String>> futures = new ArrayList<>();
+            for(int i=0; i < 40; i++) {
+                final int no = i;
+                futures.add(executor.submit(new Callable<String>() {
+                    
+                    @Override
+                    public String call() throws Exception {
+                        
+                        final ListSheet outSheet = new ListSheet();
+                        outSheet.records = new ArrayList<>();
+                        for(int j=0; j < 3; j++) {
+                            final NormalRecord record = new NormalRecord();
+                            record.name = "出力" + no + "-" + j;
+                            record.value = no * 10 + j;
+                            outSheet.records.add(record);
+                        }
+                        
+                        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        mapper.save(template, out, outSheet);
+                        
+                        final ListSheet inSheet = mapper.load(new ByteArrayInputStream(out.toByteArray()), ListSheet.class);
+                        assertThat(inSheet.records, hasSize(3));
+                        assertThat(inSheet.records.get(2).value, is(no * 10 + 2));
+                        return inSheet.records.get(2).name;
+                    }
+                }));
+            }
+            
+            for(int i=0; i < futures.size(); i++) {
+                assertThat(futures.get(i).get(), is("出力" + i + "-2"));
+            }
+            
+        } finally {
+            executor.shutdownNow();
+        }
+        
+    }
+    
+    /**
+     * 見出しと罫線付きの3件のレコードを持つシートを作成する。
+     */
+    private byte[] createBook() throws Exception {
+        
+        final Workbook book = new XSSFWorkbook();
+        final Sheet sheet = book.createSheet("一覧");
+        final Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("名称");
+        header.createCell(1).setCellValue("値");
+        
+        final CellStyle style = book.createCellStyle();
+        style.setBorderLeft(CellStyle.BORDER_THIN);
+        for(int i=1; i <= 3; i++) {
+            final Row row = sheet.createRow(i);
+            for(int j=0; j < 2; j++) {
+                final Cell cell = row.createCell(j);
+                cell.setCellStyle(style);
+            }
+        }
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        book.write(out);
+        return out.toByteArray();
+    }
+    
+    @XlsSheet(name="一覧")
+    private static class ListSheet {
+        
+        @XlsHorizontalRecords(headerAddress="A1")
+        private List<NormalRecord> records;
+        
+    }
+    
+    private static class NormalRecord {
+        
+        @XlsColumn(columnName="名称")
+        private String name;
+        
+        @XlsColumn(columnName="値")
+        private Integer value;
+        
+    }
+
+}
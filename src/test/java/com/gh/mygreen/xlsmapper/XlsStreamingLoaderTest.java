@@ -0,0 +1,389 @@
+package com.gh.mygreen.xlsmapper;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.gh.mygreen.xlsmapper.annotation.RecordTerminal;
+import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
+import com.gh.mygreen.xlsmapper.annotation.XlsHint;
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheetName;
+import com.gh.mygreen.xlsmapper.validation.SheetBindingErrors;
+
+/**
+ * {@link XlsStreamingLoader}のテスタ
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class XlsStreamingLoaderTest {
+    
+    /**
+     * 通常の読み込みと同じ結果になること。
+     */
+    @Test
+    public void test_load_sameAsLoader() throws Exception {
+        
+        final XlsMapper mapper = new XlsMapper();
+        mapper.getConig().setSkipTypeBindFailure(true);
+        
+        final StartedPositionSheet expected;
+        try(InputStream in = new FileInputStream("src/test/data/anno_HorizonalRecords.xlsx")) {
+            expected = mapper.load(in, StartedPositionSheet.class);
+        }
+        
+        final StartedPositionSheet actual;
+        try(InputStream in = new FileInputStream("src/test/data/anno_HorizonalRecords.xlsx")) {
+            SheetBindingErrors errors = new SheetBindingErrors(StartedPositionSheet.class);
+            actual = mapper.getStreamingLoader().load(in, StartedPositionSheet.class, errors);
+            assertThat(errors.hasErrors(), is(false));
+        }
+        
+        assertThat(actual.sheetName, is("開始位置の指定"));
+        assertRecords(actual.normalRecords1, expected.normalRecords1);
+        assertRecords(actual.normalRecords2, expected.normalRecords2);
+        assertRecords(actual.normalRecords3, expected.normalRecords3);
+        assertRecords(actual.normalRecords4, expected.normalRecords4);
+        assertThat(actual.normalRecords5, is(nullValue()));
+        
+    }
+    
+    /**
+     * リスナーを指定した場合、レコードを1件ずつ受け取ること。
+     */
+    @Test
+    public void test_load_listener() throws Exception {
+        
+        final XlsStreamingLoader loader = new XlsStreamingLoader();
+        loader.getConfig().setSkipTypeBindFailure(true);
+        
+        final List<String> fieldNames = new ArrayList<>();
+        final List<Object> records = new ArrayList<>();
+        
+        final StartedPositionSheet sheet;
+        try(InputStream in = new FileInputStream("src/test/data/anno_HorizonalRecords.xlsx")) {
+            sheet = loader.load(in, StartedPositionSheet.class, new StreamingRecordListener() {
+                
+                @Override
+                public void onRecord(final Object beanObj, final String fieldName, final Object record) {
+                    assertThat(beanObj, is(instanceOf(StartedPositionSheet.class)));
+                    fieldNames.add(fieldName);
+                    records.add(record);
+                }
+            });
+        }
+        
+        // リストには保持しない
+        assertThat(sheet.normalRecords1, is(nullValue()));
+        
+        assertThat(records, hasSize(8));
+        assertThat(fieldNames.subList(0, 2), contains("normalRecords1", "normalRecords1"));
+        for(Object record : records) {
+            assertThat(record, is(instanceOf(NormalRecord.class)));
+        }
+        
+    }
+    
+    /**
+     * シートが存在しない場合
+     */
+    @Test(expected=SheetNotFoundException.class)
+    public void test_load_sheetNotFound() throws Exception {
+        
+        final XlsStreamingLoader loader = new XlsStreamingLoader();
+        
+        try(InputStream in = new FileInputStream("src/test/data/anno_HorizonalRecords.xlsx")) {
+            loader.load(in, NotFoundSheet.class);
+        }
+        
+        fail();
+    }
+    
+    /**
+     * シート名の大文字・小文字を区別しないこと。
+     */
+    @Test
+    public void test_load_ignoreCase() throws Exception {
+        
+        final XlsStreamingLoader loader = new XlsStreamingLoader();
+        final byte[] content = createXlsx(null, "Name", "abc");
+        
+        final IgnoreCaseSheet sheet = loader.load(new ByteArrayInputStream(content), IgnoreCaseSheet.class);
+        assertThat(sheet.records, hasSize(1));
+        assertThat(sheet.records.get(0).name, is("abc"));
+        
+    }
+    
+    /**
+     * シートのXMLにDOCTYPE宣言がある場合、外部エンティティを読み込まないこと。
+     */
+    @Test
+    public void test_load_externalEntity() throws Exception {
+        
+        final File secretFile = File.createTempFile("xlsmapper", ".txt");
+        try {
+            Files.write(secretFile.toPath(), "secret".getBytes("UTF-8"));
+            
+            final String doctype = String.format("<!DOCTYPE worksheet [<!ENTITY xxe SYSTEM \"%s\">]>",
+                    secretFile.toURI().toString());
+            final byte[] content = createXlsx(doctype, "名称", "a&xxe;b");
+            
+            final XlsStreamingLoader loader = new XlsStreamingLoader();
+            final XlsxSheetList sheet = loader.load(new ByteArrayInputStream(content), XlsxSheetList.class);
+            assertThat(sheet.records, hasSize(1));
+            assertThat(sheet.records.get(0).name, is("ab"));
+            
+        } finally {
+            secretFile.delete();
+        }
+        
+    }
+    
+    /**
+     * Excel(.xls)の場合、通常の読み込みと同じ結果になること。
+     */
+    @Test
+    public void test_load_xls() throws Exception {
+        
+        final byte[] xls = createXls();
+        
+        final XlsMapper mapper = new XlsMapper();
+        final XlsSheetList expected = mapper.load(new ByteArrayInputStream(xls), XlsSheetList.class);
+        
+        final SheetBindingErrors errors = new SheetBindingErrors(XlsSheetList.class);
+        final XlsSheetList actual = mapper.getStreamingLoader().load(new ByteArrayInputStream(xls), XlsSheetList.class, errors);
+        assertThat(errors.hasErrors(), is(false));
+        
+        assertThat(actual.sheetName, is("一覧"));
+        assertThat(actual.records, hasSize(3));
+        assertRecords(actual.records, expected.records);
+        
+        // 数式は計算結果を読み込む
+        assertThat(actual.records.get(2).name, is("名前2"));
+        
+    }
+    
+    /**
+     * Excel(.xls)で、シートが存在しない場合
+     */
+    @Test(expected=SheetNotFoundException.class)
+    public void test_load_xls_sheetNotFound() throws Exception {
+        
+        final XlsStreamingLoader loader = new XlsStreamingLoader();
+        loader.load(new ByteArrayInputStream(createXls()), NotFoundSheet.class);
+        
+        fail();
+    }
+    
+    /**
+     * 2番目のシートに、見出しと罫線付きのレコードを持つExcel(.xls)を作成する。
+     */
+    private byte[] createXls() throws Exception {
+        
+        final Workbook book = new HSSFWorkbook();
+        book.createSheet("先頭").createRow(0).createCell(0).setCellValue("No.");
+        
+        final Sheet sheet = book.createSheet("一覧");
+        
+        final Row headerRow = sheet.createRow(1);
+        headerRow.createCell(1).setCellValue("No.");
+        headerRow.createCell(2).setCellValue("名称");
+        headerRow.createCell(3).setCellValue("値");
+        
+        final CellStyle style = book.createCellStyle();
+        style.setBorderLeft(CellStyle.BORDER_THIN);
+        style.setBorderRight(CellStyle.BORDER_THIN);
+        style.setBorderTop(CellStyle.BORDER_THIN);
+        style.setBorderBottom(CellStyle.BORDER_THIN);
+        
+        for(int i=0; i < 3; i++) {
+            final Row row = sheet.createRow(2 + i);
+            for(int j=1; j <= 3; j++) {
+                row.createCell(j).setCellStyle(style);
+            }
+            
+            row.getCell(1).setCellValue(i + 1);
+            if(i < 2) {
+                row.getCell(2).setCellValue("名前" + i);
+            } else {
+                row.getCell(2).setCellFormula("\"名前\"&(B5-1)");
+            }
+            row.getCell(3).setCellValue(i * 1.5);
+        }
+        
+        book.getCreationHelper().createFormulaEvaluator().evaluateAll();
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        book.write(out);
+        return out.toByteArray();
+    }
+    
+    /**
+     * シート「LIST」に、見出しと1件のレコードを持つExcel(.xlsx)を作成する。
+     * <p>シートのXMLは、文字列をインラインで持つように書き換える。
+     * @param doctype シートのXMLに追加するDOCTYPE宣言。追加しない場合はnull。
+     * @param label 見出し
+     * @param value レコードの値。XMLにそのまま埋め込む。
+     */
+    private byte[] createXlsx(final String doctype, final String label, final String value) throws Exception {
+        
+        final Workbook book = new XSSFWorkbook();
+        book.createSheet("LIST");
+        
+        final ByteArrayOutputStream template = new ByteArrayOutputStream();
+        book.write(template);
+        
+        final StringBuilder sheetXml = new StringBuilder();
+        sheetXml.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+        if(doctype != null) {
+            sheetXml.append(doctype);
+        }
+        sheetXml.append("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>")
+            .append("<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>").append(label).append("</t></is></c></row>")
+            .append("<row r=\"2\"><c r=\"A2\" t=\"inlineStr\"><is><t>").append(value).append("</t></is></c></row>")
+            .append("</sheetData></worksheet>");
+        
+        // シートのエントリのみを書き換えて、ZIPをコピーする
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(template.toByteArray()));
+                ZipOutputStream zipOut = new ZipOutputStream(out)) {
+            
+            ZipEntry entry;
+            while((entry = zipIn.getNextEntry()) != null) {
+                zipOut.putNextEntry(new ZipEntry(entry.getName()));
+                if(entry.getName().equals("xl/worksheets/sheet1.xml")) {
+                    zipOut.write(sheetXml.toString().getBytes("UTF-8"));
+                } else {
+                    final byte[] buf = new byte[1024];
+                    int len;
+                    while((len = zipIn.read(buf)) > 0) {
+                        zipOut.write(buf, 0, len);
+                    }
+                }
+                zipOut.closeEntry();
+            }
+        }
+        
+        return out.toByteArray();
+    }
+    
+    private void assertRecords(final List<NormalRecord> actual, final List<NormalRecord> expected) {
+        
+        assertThat(actual, hasSize(expected.size()));
+        for(int i=0; i < expected.size(); i++) {
+            assertThat(actual.get(i).no, is(expected.get(i).no));
+            assertThat(actual.get(i).name, is(expected.get(i).name));
+            assertThat(actual.get(i).value, is(expected.get(i).value));
+        }
+    }
+    
+    @XlsSheet(name="開始位置の指定")
+    private static class StartedPositionSheet {
+        
+        @XlsSheetName
+        private String sheetName;
+        
+        @XlsHint(order=1)
+        @XlsHorizontalRecords(tableLabel="○×一覧", skipEmptyRecord=true)
+        private List<NormalRecord> normalRecords1;
+        
+        @XlsHint(order=2)
+        @XlsHorizontalRecords(headerAddress="B9", skipEmptyRecord=true)
+        private List<NormalRecord> normalRecords2;
+        
+        @XlsHint(order=3)
+        @XlsHorizontalRecords(headerColumn=2, headerRow=13, skipEmptyRecord=true)
+        private List<NormalRecord> normalRecords3;
+        
+        @XlsHint(order=4)
+        @XlsHorizontalRecords(tableLabel="◆△一覧", bottom=2, skipEmptyRecord=true)
+        private List<NormalRecord> normalRecords4;
+        
+        @XlsHint(order=5)
+        @XlsHorizontalRecords(tableLabel="存在しない", optional=true, skipEmptyRecord=true)
+        private List<NormalRecord> normalRecords5;
+        
+    }
+    
+    @XlsSheet(name="一覧")
+    private static class XlsSheetList {
+        
+        @XlsSheetName
+        private String sheetName;
+        
+        @XlsHorizontalRecords(headerAddress="B2", terminal=RecordTerminal.Border)
+        private List<NormalRecord> records;
+        
+    }
+    
+    @XlsSheet(name="LIST")
+    private static class XlsxSheetList {
+        
+        @XlsHorizontalRecords(headerAddress="A1")
+        private List<NameRecord> records;
+        
+    }
+    
+    @XlsSheet(name="list")
+    private static class IgnoreCaseSheet {
+        
+        @XlsHorizontalRecords(headerAddress="A1")
+        private List<IgnoreCaseRecord> records;
+        
+    }
+    
+    @XlsSheet(name="存在しないシート")
+    private static class NotFoundSheet {
+        
+    }
+    
+    private static class NormalRecord {
+        
+        @XlsColumn(columnName="No.")
+        private int no;
+        
+        @XlsColumn(columnName="名称")
+        private String name;
+        
+        @XlsColumn(columnName="値")
+        private Double value;
+        
+    }
+    
+    private static class NameRecord {
+        
+        @XlsColumn(columnName="名称")
+        private String name;
+        
+    }
+    
+    private static class IgnoreCaseRecord {
+        
+        @XlsColumn(columnName="Name")
+        private String name;
+        
+    }
+
+}
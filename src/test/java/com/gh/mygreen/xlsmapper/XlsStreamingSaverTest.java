@@ -0,0 +1,184 @@
+package com.gh.mygreen.xlsmapper;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.gh.mygreen.xlsmapper.annotation.LabelledCellType;
+import com.gh.mygreen.xlsmapper.annotation.RecordTerminal;
+import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsLabelledCell;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+
+/**
+ * {@link XlsStreamingSaver}のテスタ
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class XlsStreamingSaverTest {
+    
+    /**
+     * 書き込んだレコードを、通常の読み込みで読み込めること。
+     */
+    @Test
+    public void test_save() throws Exception {
+        
+        final XlsMapper mapper = new XlsMapper();
+        mapper.getConig().setStreamingRowWindowSize(10);
+        
+        final ListSheet outSheet = new ListSheet();
+        outSheet.title = "サンプル";
+        outSheet.records = new ArrayList<>();
+        for(int i=0; i < 500; i++) {
+            final NormalRecord record = new NormalRecord();
+            record.no = i + 1;
+            record.name = "名前" + i;
+            record.value = i * 1.5;
+            outSheet.records.add(record);
+        }
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mapper.getStreamingSaver().save(new ByteArrayInputStream(createTemplate()), out, outSheet);
+        
+        // 書式を引き継いでいること
+        final Workbook book = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()));
+        final Sheet sheet = book.getSheet("一覧");
+        assertThat(sheet.getLastRowNum(), is(2 + 499));
+        assertThat(sheet.getRow(2 + 499).getCell(1).getCellStyle().getBorderLeft(), is(CellStyle.BORDER_THIN));
+        
+        final ListSheet inSheet = mapper.load(new ByteArrayInputStream(out.toByteArray()), ListSheet.class);
+        assertThat(inSheet.title, is("サンプル"));
+        assertThat(inSheet.records, hasSize(500));
+        for(int i=0; i < 500; i++) {
+            final NormalRecord inRecord = inSheet.records.get(i);
+            final NormalRecord outRecord = outSheet.records.get(i);
+            assertThat(inRecord.no, is(outRecord.no));
+            assertThat(inRecord.name, is(outRecord.name));
+            assertThat(inRecord.value, is(outRecord.value));
+        }
+        
+    }
+    
+    /**
+     * テンプレートがxlsの場合
+     */
+    @Test(expected=XlsMapperException.class)
+    public void test_save_notXlsx() throws Exception {
+        
+        final ByteArrayOutputStream template = new ByteArrayOutputStream();
+        new org.apache.poi.hssf.usermodel.HSSFWorkbook().write(template);
+        
+        final XlsStreamingSaver saver = new XlsStreamingSaver();
+        saver.save(new ByteArrayInputStream(template.toByteArray()), new ByteArrayOutputStream(), new ListSheet());
+        
+        fail();
+    }
+    
+    /**
+     * テンプレートの表の下に、値を持つ行がある場合
+     */
+    @Test
+    public void test_save_contentBelowTable() throws Exception {
+        
+        final ListSheet outSheet = new ListSheet();
+        outSheet.records = new ArrayList<>();
+        outSheet.records.add(new NormalRecord());
+        
+        final XlsStreamingSaver saver = new XlsStreamingSaver();
+        try {
+            saver.save(new ByteArrayInputStream(createTemplate("合計")), new ByteArrayOutputStream(), outSheet);
+            fail();
+            
+        } catch(XlsMapperException e) {
+            assertThat(e.getMessage(), containsString("B5"));
+        }
+        
+        // 値を持たない行は、レコードの行とともに削除する
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        saver.save(new ByteArrayInputStream(createTemplate("")), out, outSheet);
+        
+        final Workbook book = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(book.getSheet("一覧").getLastRowNum(), is(2));
+    }
+    
+    private byte[] createTemplate() throws Exception {
+        return createTemplate(null);
+    }
+    
+    /**
+     * 見出しの行の下に、罫線付きのレコードの行を1行持つテンプレートを作成する。
+     * @param footer 表の1行下の行に設定する値。nullの場合は設定しない。
+     */
+    private byte[] createTemplate(final String footer) throws Exception {
+        
+        final Workbook book = new XSSFWorkbook();
+        final Sheet sheet = book.createSheet("一覧");
+        
+        final Row titleRow = sheet.createRow(0);
+        titleRow.createCell(0).setCellValue("タイトル");
+        
+        final Row headerRow = sheet.createRow(1);
+        headerRow.createCell(1).setCellValue("No.");
+        headerRow.createCell(2).setCellValue("名称");
+        headerRow.createCell(3).setCellValue("値");
+        
+        final CellStyle style = book.createCellStyle();
+        style.setBorderLeft(CellStyle.BORDER_THIN);
+        style.setBorderRight(CellStyle.BORDER_THIN);
+        style.setBorderTop(CellStyle.BORDER_THIN);
+        style.setBorderBottom(CellStyle.BORDER_THIN);
+        
+        final Row recordRow = sheet.createRow(2);
+        for(int i=1; i <= 3; i++) {
+            recordRow.createCell(i).setCellStyle(style);
+        }
+        
+        if(footer != null) {
+            sheet.createRow(4).createCell(1).setCellValue(footer);
+        }
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        book.write(out);
+        return out.toByteArray();
+    }
+    
+    @XlsSheet(name="一覧")
+    private static class ListSheet {
+        
+        @XlsLabelledCell(label="タイトル", type=LabelledCellType.Right)
+        private String title;
+        
+        @XlsHorizontalRecords(headerAddress="B2", terminal=RecordTerminal.Border)
+        private List<NormalRecord> records;
+        
+    }
+    
+    private static class NormalRecord {
+        
+        @XlsColumn(columnName="No.")
+        private int no;
+        
+        @XlsColumn(columnName="名称")
+        private String name;
+        
+        @XlsColumn(columnName="値")
+        private Double value;
+        
+    }
+
+}
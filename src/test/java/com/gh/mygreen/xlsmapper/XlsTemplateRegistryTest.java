@@ -0,0 +1,229 @@
+package com.gh.mygreen.xlsmapper;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import com.gh.mygreen.xlsmapper.annotation.RecordTerminal;
+import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+
+/**
+ * {@link XlsTemplateRegistry}、{@link XlsTemplate}のテスタ
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class XlsTemplateRegistryTest {
+    
+    /**
+     * 同じ雛形に繰り返し書き込んでも、前の書き込みの影響を受けないこと。
+     */
+    @Test
+    public void test_save() throws Exception {
+        
+        final XlsMapper mapper = new XlsMapper();
+        final XlsTemplate template = mapper.getConig().getTemplateRegistry()
+                .register("list", new ByteArrayInputStream(createTemplate()));
+        assertThat(mapper.getConig().getTemplateRegistry().get("list"), is(sameInstance(template)));
+        
+        for(int i=0; i < 3; i++) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            mapper.save(template, out, createSheet("出力" + i, 3));
+            
+            final ListSheet inSheet = mapper.load(new ByteArrayInputStream(out.toByteArray()), ListSheet.class);
+            assertThat(inSheet.records, hasSize(3));
+            assertThat(inSheet.records.get(0).name, is("出力" + i + "-0"));
+            assertThat(inSheet.records.get(2).name, is("出力" + i + "-2"));
+        }
+        
+    }
+    
+    /**
+     * 処理を設定した場合、予備のワークブックを事前に作成すること。
+     */
+    @Test
+    public void test_createWorkbook_spare() throws Exception {
+        
+        final List<Runnable> tasks = new ArrayList<>();
+        final XlsTemplateRegistry registry = new XlsTemplateRegistry()
+                .setSpareCount(2)
+                .setExecutor(new Executor() {
+                    
+                    @Override
+                    public void execute(final Runnable command) {
+                        tasks.add(command);
+                        command.run();
+                    }
+                });
+        
+        final XlsTemplate template = registry.register("list", new ByteArrayInputStream(createTemplate()));
+        assertThat(tasks, hasSize(1));
+        
+        final Workbook book1 = template.createWorkbook();
+        final Workbook book2 = template.createWorkbook();
+        assertThat(book1, is(not(sameInstance(book2))));
+        assertThat(tasks, hasSize(3));
+        
+        // 取得したワークブックを変更しても、雛形には影響しない
+        book1.getSheet("一覧").createRow(10).createCell(0).setCellValue("変更");
+        assertThat(template.createWorkbook().getSheet("一覧").getRow(10), is(nullValue()));
+        
+    }
+    
+    /**
+     * 繰り返し書き込んでも、書き込むスレッドでは雛形を解析しないこと。
+     */
+    @Test
+    public void test_save_parseCount() throws Exception {
+        
+        final List<Runnable> tasks = new ArrayList<>();
+        final XlsMapper mapper = new XlsMapper();
+        mapper.getConig().getTemplateRegistry().setExecutor(new Executor() {
+            
+            @Override
+            public void execute(final Runnable command) {
+                tasks.add(command);
+            }
+        });
+        
+        final XlsTemplate template = mapper.getConig().getTemplateRegistry()
+                .register("list", new ByteArrayInputStream(createTemplate()));
+        assertThat(template.getParseCount(), is(1));
+        
+        for(int i=0; i < 5; i++) {
+            // 予備の作成を終えてから書き込む
+            runTasks(tasks);
+            final int count = template.getParseCount();
+            
+            mapper.save(template, new ByteArrayOutputStream(), createSheet("出力" + i, 3));
+            assertThat(template.getParseCount(), is(count));
+        }
+        
+        // 解析は、登録時の1回と、書き込みごとの予備の作成のみ
+        runTasks(tasks);
+        assertThat(template.getParseCount(), is(1 + 5));
+        
+    }
+    
+    /**
+     * 予備を作成しない場合は、最初の書き込みを除いて、書き込みの度に雛形を解析すること。
+     */
+    @Test
+    public void test_save_parseCount_noExecutor() throws Exception {
+        
+        final XlsMapper mapper = new XlsMapper();
+        mapper.getConig().getTemplateRegistry().setExecutor(null);
+        
+        final XlsTemplate template = mapper.getConig().getTemplateRegistry()
+                .register("list", new ByteArrayInputStream(createTemplate()));
+        assertThat(template.getParseCount(), is(1));
+        
+        for(int i=0; i < 5; i++) {
+            mapper.save(template, new ByteArrayOutputStream(), createSheet("出力" + i, 3));
+            assertThat(template.getParseCount(), is(i + 1));
+        }
+        
+    }
+    
+    /**
+     * 既定の処理で、予備のワークブックを別スレッドで作成すること。
+     */
+    @Test
+    public void test_createWorkbook_defaultExecutor() throws Exception {
+        
+        final XlsTemplateRegistry registry = new XlsTemplateRegistry();
+        assertThat(registry.getExecutor(), is(notNullValue()));
+        
+        final XlsTemplate template = registry.register("list", new ByteArrayInputStream(createTemplate()));
+        template.createWorkbook();
+        
+        final long timeout = System.currentTimeMillis() + 10000L;
+        while(template.getParseCount() < 2 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10L);
+        }
+        assertThat(template.getParseCount(), is(2));
+        
+    }
+    
+    private void runTasks(final List<Runnable> tasks) {
+        while(!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+    
+    /**
+     * Excelファイルでない場合
+     */
+    @Test(expected=XlsMapperException.class)
+    public void test_register_invalid() throws Exception {
+        
+        new XlsTemplateRegistry().register("invalid", new ByteArrayInputStream("abc".getBytes()));
+        
+        fail();
+    }
+    
+    private ListSheet createSheet(final String prefix, final int size) {
+        
+        final ListSheet sheet = new ListSheet();
+        sheet.records = new ArrayList<>();
+        for(int i=0; i < size; i++) {
+            final NormalRecord record = new NormalRecord();
+            record.name = prefix + "-" + i;
+            sheet.records.add(record);
+        }
+        
+        return sheet;
+    }
+    
+    /**
+     * 見出しの下に、罫線付きの空のレコードを3行持つ雛形を作成する。
+     */
+    private byte[] createTemplate() throws Exception {
+        
+        final Workbook book = new XSSFWorkbook();
+        final Sheet sheet = book.createSheet("一覧");
+        sheet.createRow(0).createCell(0).setCellValue("名称");
+        
+        final CellStyle style = book.createCellStyle();
+        style.setBorderLeft(CellStyle.BORDER_THIN);
+        for(int i=1; i <= 3; i++) {
+            final Cell cell = sheet.createRow(i).createCell(0);
+            cell.setCellStyle(style);
+        }
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        book.write(out);
+        return out.toByteArray();
+    }
+    
+    @XlsSheet(name="一覧")
+    private static class ListSheet {
+        
+        @XlsHorizontalRecords(headerAddress="A1", terminal=RecordTerminal.Border)
+        private List<NormalRecord> records;
+        
+    }
+    
+    private static class NormalRecord {
+        
+        @XlsColumn(columnName="名称")
+        private String name;
+        
+    }
+
+}
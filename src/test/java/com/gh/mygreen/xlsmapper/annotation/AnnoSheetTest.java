@@ -254,6 +254,39 @@ public class AnnoSheetTest {
         
     }
     
+    /**
+     * アノテーションの定義をするXMLにnullを指定した場合
+     * <p>XMLのストリームと、読み込み済みのマッピング情報のどちらを指定する場合も、同じ結果になること。
+     */
+    @Test
+    public void test_load_save_nullXml() throws Exception {
+        
+        final NamedSheet outSheet = new NamedSheet();
+        
+        XlsMapper mapper = new XlsMapper();
+        mapper.getConig().setSkipTypeBindFailure(true);
+        
+        File outFile = new File("src/test/out/anno_Sheet_out.xlsx");
+        try(InputStream template = new FileInputStream("src/test/data/anno_Sheet_template.xlsx");
+                OutputStream out = new FileOutputStream(outFile)) {
+            
+            mapper.save(template, out, outSheet, null);
+        }
+        
+        try(InputStream in = new FileInputStream(outFile)) {
+            SheetBindingErrors errors = new SheetBindingErrors(NamedSheet.class);
+            NamedSheet sheet = mapper.load(in, NamedSheet.class, null, errors);
+            assertThat(sheet.sheetName, is(outSheet.sheetName));
+        }
+        
+        try(InputStream in = new FileInputStream(outFile)) {
+            SheetBindingErrors errors = new SheetBindingErrors(NamedSheet.class);
+            NamedSheet sheet = mapper.loadWithMapping(in, NamedSheet.class, null, errors);
+            assertThat(sheet.sheetName, is(outSheet.sheetName));
+        }
+        
+    }
+    
     /**
      * 書き込みのテスト - シート名の指定：指定したシートが存在しない。
      */
@@ -0,0 +1,110 @@
+package com.gh.mygreen.xlsmapper.fieldprocessor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * {@link FieldAdaptor}の、MethodHandleとリフレクションによる値の取得・設定の処理時間を比較する。
+ * <p>計測に時間がかかるため、テストとしては実行せず、{@link #main(String[])}から実行する。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class FieldAdaptorBenchmark {
+    
+    private static final int WARMUP_COUNT = 5;
+    
+    private static final int MEASURE_COUNT = 5;
+    
+    private static final int LOOP_COUNT = 5_000_000;
+    
+    /** 最適化で処理が省略されないように、結果を保持する */
+    private static long sink;
+    
+    public static void main(final String[] args) throws Exception {
+        
+        final Field field = SampleBean.class.getDeclaredField("name");
+        field.setAccessible(true);
+        final Method getter = SampleBean.class.getDeclaredMethod("getTitle");
+        final Method setter = SampleBean.class.getDeclaredMethod("setTitle", String.class);
+        getter.setAccessible(true);
+        setter.setAccessible(true);
+        
+        final FieldAdaptor fieldAdaptor = new FieldAdaptor(SampleBean.class, field);
+        final FieldAdaptor methodAdaptor = new FieldAdaptor(SampleBean.class, getter);
+        
+        final SampleBean bean = new SampleBean();
+        
+        for(int i=0; i < WARMUP_COUNT; i++) {
+            runAll(bean, field, getter, setter, fieldAdaptor, methodAdaptor, false);
+        }
+        
+        for(int i=0; i < MEASURE_COUNT; i++) {
+            runAll(bean, field, getter, setter, fieldAdaptor, methodAdaptor, true);
+        }
+        
+        System.out.println("(sink=" + sink + ")");
+    }
+    
+    private static void runAll(final SampleBean bean, final Field field, final Method getter, final Method setter,
+            final FieldAdaptor fieldAdaptor, final FieldAdaptor methodAdaptor, final boolean print) throws Exception {
+        
+        long time;
+        
+        time = System.nanoTime();
+        for(int i=0; i < LOOP_COUNT; i++) {
+            fieldAdaptor.setValue(bean, "abc");
+            sink += fieldAdaptor.getValue(bean).hashCode();
+        }
+        report("field  : MethodHandle", time, print);
+        
+        time = System.nanoTime();
+        for(int i=0; i < LOOP_COUNT; i++) {
+            field.set(bean, "abc");
+            sink += field.get(bean).hashCode();
+        }
+        report("field  : reflection  ", time, print);
+        
+        time = System.nanoTime();
+        for(int i=0; i < LOOP_COUNT; i++) {
+            methodAdaptor.setValue(bean, "abc");
+            sink += methodAdaptor.getValue(bean).hashCode();
+        }
+        report("method : MethodHandle", time, print);
+        
+        time = System.nanoTime();
+        for(int i=0; i < LOOP_COUNT; i++) {
+            setter.invoke(bean, "abc");
+            sink += getter.invoke(bean).hashCode();
+        }
+        report("method : reflection  ", time, print);
+        
+    }
+    
+    private static void report(final String label, final long startTime, final boolean print) {
+        if(!print) {
+            return;
+        }
+        
+        final double nanosPerOp = (double)(System.nanoTime() - startTime) / LOOP_COUNT;
+        System.out.printf("%s %8.2f ns/op%n", label, nanosPerOp);
+    }
+    
+    private static class SampleBean {
+        
+        private String name;
+        
+        private String title;
+        
+        private String getTitle() {
+            return title;
+        }
+        
+        private void setTitle(String title) {
+            this.title = title;
+        }
+        
+    }
+
+}
@@ -0,0 +1,239 @@
+package com.gh.mygreen.xlsmapper.fieldprocessor;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+/**
+ * {@link FieldAdaptor}のテスタ
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class FieldAdaptorTest {
+    
+    /**
+     * privateフィールドの値の取得・設定
+     */
+    @Test
+    public void test_value_field() throws Exception {
+    
+        final Field field = SampleBean.class.getDeclaredField("name");
+        final FieldAdaptor adaptor = new FieldAdaptor(SampleBean.class, field);
+    
+        final SampleBean bean = new SampleBean();
+        adaptor.setValue(bean, "abc");
+    
+        assertThat(bean.name, is("abc"));
+        assertThat(adaptor.getValue(bean), is((Object)"abc"));
+    }
+    
+    /**
+     * プリミティブ型のフィールドの値の取得・設定
+     */
+    @Test
+    public void test_value_field_primitive() throws Exception {
+    
+        final Field field = SampleBean.class.getDeclaredField("count");
+        final FieldAdaptor adaptor = new FieldAdaptor(SampleBean.class, field);
+    
+        final SampleBean bean = new SampleBean();
+        adaptor.setValue(bean, 12);
+    
+        assertThat(bean.count, is(12));
+        assertThat(adaptor.getValue(bean), is((Object)12));
+    }
+    
+    /**
+     * setter/getterメソッドによる値の取得・設定
+     */
+    @Test
+    public void test_value_method() throws Exception {
+    
+        final Method getter = SampleBean.class.getMethod("getTitle");
+        final FieldAdaptor adaptor = new FieldAdaptor(SampleBean.class, getter);
+    
+        final SampleBean bean = new SampleBean();
+        adaptor.setValue(bean, "abc");
+    
+        assertThat(bean.title, is("[abc]"));
+        assertThat(adaptor.getValue(bean), is((Object)"[abc]"));
+    }
+    
+    /**
+     * 型が異なる値を設定した場合
+     */
+    @Test
+    public void test_setValue_wrongType() throws Exception {
+    
+        final Field field = SampleBean.class.getDeclaredField("count");
+        final FieldAdaptor adaptor = new FieldAdaptor(SampleBean.class, field);
+    
+        try {
+            adaptor.setValue(new SampleBean(), "abc");
+            fail();
+        } catch(RuntimeException e) {
+            assertThat(e.getMessage(), is("fail set field value."));
+            assertThat(e.getCause(), is(instanceOf(ClassCastException.class)));
+        }
+    }
+    
+    /**
+     * プリミティブ型にnullを設定した場合
+     */
+    @Test
+    public void test_setValue_primitiveNull() throws Exception {
+    
+        final Field field = SampleBean.class.getDeclaredField("count");
+        final FieldAdaptor adaptor = new FieldAdaptor(SampleBean.class, field);
+    
+        try {
+            adaptor.setValue(new SampleBean(), null);
+            fail();
+        } catch(RuntimeException e) {
+            assertThat(e.getMessage(), is("fail set field value."));
+            assertThat(e.getCause(), is(instanceOf(NullPointerException.class)));
+        }
+    }
+    
+    /**
+     * リフレクションでアクセスするstaticフィールドの場合も、同じ例外にラップすること。
+     */
+    @Test
+    public void test_setValue_primitiveNull_reflection() throws Exception {
+        
+        final Field field = StaticBean.class.getDeclaredField("count");
+        final FieldAdaptor adaptor = new FieldAdaptor(StaticBean.class, field);
+        
+        adaptor.setValue(new StaticBean(), 12);
+        assertThat(adaptor.getValue(new StaticBean()), is((Object)12));
+        
+        try {
+            adaptor.setValue(new StaticBean(), null);
+            fail();
+        } catch(RuntimeException e) {
+            assertThat(e.getMessage(), is("fail set field value."));
+            assertThat(e.getCause(), is(instanceOf(IllegalArgumentException.class)));
+        }
+    }
+    
+    /**
+     * getterメソッドが実行時例外を投げた場合、原因として保持してラップすること。
+     */
+    @Test
+    public void test_getValue_nonPublicGetter() throws Exception {
+        
+        final Method getter = ThrowingBean.class.getDeclaredMethod("getState");
+        final FieldAdaptor adaptor = new FieldAdaptor(ThrowingBean.class, getter);
+        
+        final ThrowingBean bean = new ThrowingBean();
+        try {
+            adaptor.getValue(bean);
+            fail();
+        } catch(RuntimeException e) {
+            assertThat(e.getMessage(), is("fail get field value."));
+            assertThat(e.getCause(), is(sameInstance((Throwable)bean.stateException)));
+        }
+    }
+    
+    /**
+     * getterメソッドがエラーを投げた場合、ラップせずにそのまま伝播すること。
+     */
+    @Test
+    public void test_getValue_error() throws Exception {
+        
+        final Method getter = ThrowingBean.class.getDeclaredMethod("getDepth");
+        final FieldAdaptor adaptor = new FieldAdaptor(ThrowingBean.class, getter);
+        
+        final ThrowingBean bean = new ThrowingBean();
+        try {
+            adaptor.getValue(bean);
+            fail();
+        } catch(StackOverflowError e) {
+            assertThat(e, is(sameInstance(bean.depthError)));
+        }
+    }
+    
+    /**
+     * setterメソッドが検査例外を投げた場合、実行時例外にラップすること。
+     */
+    @Test
+    public void test_setValue_checkedException() throws Exception {
+        
+        final Method getter = ThrowingBean.class.getDeclaredMethod("getPath");
+        final FieldAdaptor adaptor = new FieldAdaptor(ThrowingBean.class, getter);
+        
+        final ThrowingBean bean = new ThrowingBean();
+        try {
+            adaptor.setValue(bean, "abc");
+            fail();
+        } catch(RuntimeException e) {
+            assertThat(e.getMessage(), is("fail set field value."));
+            assertThat(e.getCause(), is(sameInstance((Throwable)bean.pathException)));
+        }
+    }
+    
+    private static class SampleBean {
+    
+        private String name;
+    
+        private int count;
+    
+        private String title;
+    
+        public String getTitle() {
+            return title;
+        }
+    
+        public void setTitle(String title) {
+            this.title = "[" + title + "]";
+        }
+    
+    }
+    
+    private static class ThrowingBean {
+        
+        private final IllegalStateException stateException = new IllegalStateException("state");
+        
+        private final StackOverflowError depthError = new StackOverflowError("depth");
+        
+        private final IOException pathException = new IOException("path");
+        
+        String getState() {
+            throw stateException;
+        }
+        
+        void setState(String state) {
+            
+        }
+        
+        protected int getDepth() {
+            throw depthError;
+        }
+        
+        protected void setDepth(int depth) {
+            
+        }
+        
+        String getPath() {
+            return null;
+        }
+        
+        void setPath(String path) throws IOException {
+            throw pathException;
+        }
+        
+    }
+    
+    private static class StaticBean {
+        
+        private static int count;
+        
+    }
+}
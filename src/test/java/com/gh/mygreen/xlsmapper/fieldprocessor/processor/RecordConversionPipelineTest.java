@@ -0,0 +1,210 @@
+package com.gh.mygreen.xlsmapper.fieldprocessor.processor;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.gh.mygreen.xlsmapper.XlsMapper;
+import com.gh.mygreen.xlsmapper.annotation.XlsColumn;
+import com.gh.mygreen.xlsmapper.annotation.XlsHorizontalRecords;
+import com.gh.mygreen.xlsmapper.annotation.XlsMapColumns;
+import com.gh.mygreen.xlsmapper.annotation.XlsSheet;
+import com.gh.mygreen.xlsmapper.cellconvert.TypeBindException;
+import com.gh.mygreen.xlsmapper.validation.FieldError;
+import com.gh.mygreen.xlsmapper.validation.SheetBindingErrors;
+
+/**
+ * {@link RecordConversionPipeline}のテスタ
+ * <p>値の変換を並列に行った場合に、並列に行わない場合と同じ結果になること。
+ *
+ * @since 1.0
+ * @author T.TSUCHIE
+ *
+ */
+public class RecordConversionPipelineTest {
+    
+    private static final int RECORD_SIZE = 200;
+    
+    private ForkJoinPool pool;
+    
+    @Before
+    public void setUp() throws Exception {
+        pool = new ForkJoinPool(4);
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        pool.shutdownNow();
+    }
+    
+    /**
+     * 変換エラーを無視する場合
+     */
+    @Test
+    public void test_load_skipTypeBindFailure() throws Exception {
+        
+        final byte[] content = createBook();
+        
+        final XlsMapper sequentialMapper = new XlsMapper();
+        sequentialMapper.getConig().setSkipTypeBindFailure(true);
+        final SheetBindingErrors sequentialErrors = new SheetBindingErrors(ListSheet.class);
+        final ListSheet expected = sequentialMapper.load(new ByteArrayInputStream(content), ListSheet.class, sequentialErrors);
+        
+        final XlsMapper mapper = new XlsMapper();
+        mapper.getConig().setSkipTypeBindFailure(true).setParallelConversionPool(pool);
+        final SheetBindingErrors errors = new SheetBindingErrors(ListSheet.class);
+        final ListSheet actual = mapper.load(new ByteArrayInputStream(content), ListSheet.class, errors);
+        
+        assertThat(actual.records, hasSize(RECORD_SIZE));
+        for(int i=0; i < RECORD_SIZE; i++) {
+            final NormalRecord expectedRecord = expected.records.get(i);
+            final NormalRecord actualRecord = actual.records.get(i);
+            assertThat(actualRecord.name, is(expectedRecord.name));
+            assertThat(actualRecord.date, is(expectedRecord.date));
+            assertThat(actualRecord.value, is(expectedRecord.value));
+            assertThat(actualRecord.calc, is(expectedRecord.calc));
+            assertThat(actualRecord.attributes, is(expectedRecord.attributes));
+        }
+        
+        assertThat(actual.records.get(10).name, is("名前10"));
+        assertThat(actual.records.get(10).calc, is(20));
+        assertThat(actual.records.get(10).attributes.get("属性2"), is(12));
+        
+        assertThat(errors.getFieldErrors(), hasSize(greaterThan(0)));
+        assertThat(toFieldPaths(errors.getFieldErrors()), is(toFieldPaths(sequentialErrors.getFieldErrors())));
+        
+    }
+    
+    /**
+     * 変換エラーで処理を中断する場合
+     */
+    @Test
+    public void test_load_typeBindFailure() throws Exception {
+        
+        final byte[] content = createBook();
+        
+        final XlsMapper sequentialMapper = new XlsMapper();
+        final SheetBindingErrors sequentialErrors = new SheetBindingErrors(ListSheet.class);
+        try {
+            sequentialMapper.load(new ByteArrayInputStream(content), ListSheet.class, sequentialErrors);
+            fail();
+        } catch(TypeBindException e) {
+            
+        }
+        
+        final XlsMapper mapper = new XlsMapper();
+        mapper.getConig().setParallelConversionPool(pool);
+        final SheetBindingErrors errors = new SheetBindingErrors(ListSheet.class);
+        try {
+            mapper.load(new ByteArrayInputStream(content), ListSheet.class, errors);
+            fail();
+        } catch(TypeBindException e) {
+            
+        }
+        
+        assertThat(toFieldPaths(errors.getFieldErrors()), contains("records[5].value"));
+        assertThat(toFieldPaths(errors.getFieldErrors()), is(toFieldPaths(sequentialErrors.getFieldErrors())));
+        
+    }
+    
+    private List<String> toFieldPaths(final List<FieldError> errors) {
+        final List<String> paths = new ArrayList<>();
+        for(FieldError error : errors) {
+            paths.add(error.getFieldPath());
+        }
+        return paths;
+    }
+    
+    /**
+     * 日付、数式、マップのカラムを持つレコードのシートを作成する。
+     * <p>一部のレコードは、数値に変換できない値を持つ。
+     */
+    private byte[] createBook() throws Exception {
+        
+        final Workbook book = new XSSFWorkbook();
+        final Sheet sheet = book.createSheet("一覧");
+        
+        final CellStyle dateStyle = book.createCellStyle();
+        dateStyle.setDataFormat(book.getCreationHelper().createDataFormat().getFormat("yyyy/m/d"));
+        
+        final Row header = sheet.createRow(0);
+        final String[] labels = {"名称", "日付", "数値", "計算", "属性1", "属性2"};
+        for(int i=0; i < labels.length; i++) {
+            header.createCell(i).setCellValue(labels[i]);
+        }
+        
+        final Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(2015, 3, 1);
+        
+        for(int i=0; i < RECORD_SIZE; i++) {
+            final Row row = sheet.createRow(i + 1);
+            row.createCell(0).setCellValue("名前" + i);
+            
+            final Cell dateCell = row.createCell(1);
+            dateCell.setCellValue(cal.getTime());
+            dateCell.setCellStyle(dateStyle);
+            cal.add(Calendar.DATE, 1);
+            
+            if(i % 37 == 5) {
+                row.createCell(2).setCellValue("abc");
+            } else {
+                row.createCell(2).setCellValue(i);
+            }
+            
+            row.createCell(3).setCellFormula(String.format("C%d*2", i + 2));
+            row.createCell(4).setCellValue(i % 50 == 7 ? "x" : String.valueOf(i + 1));
+            row.createCell(5).setCellValue(i + 2);
+        }
+        
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        book.write(out);
+        return out.toByteArray();
+    }
+    
+    @XlsSheet(name="一覧")
+    private static class ListSheet {
+        
+        @XlsHorizontalRecords(headerAddress="A1")
+        private List<NormalRecord> records;
+        
+    }
+    
+    private static class NormalRecord {
+        
+        @XlsColumn(columnName="名称")
+        private String name;
+        
+        @XlsColumn(columnName="日付")
+        private Date date;
+        
+        @XlsColumn(columnName="数値")
+        private Integer value;
+        
+        @XlsColumn(columnName="計算")
+        private Integer calc;
+        
+        @XlsMapColumns(previousColumnName="計算")
+        private Map<String, Integer> attributes;
+        
+    }
+
+}
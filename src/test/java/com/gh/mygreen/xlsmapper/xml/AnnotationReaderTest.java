@@ -87,6 +87,54 @@ public class AnnotationReaderTest {
         fail();
     }
     
+    /**
+     * XMLに定義されているアノテーションは、定義情報ごとにキャッシュされること
+     * @throws Exception
+     */
+    @Test
+    public void test_readAnnotation_cached() throws Exception {
+        
+        XmlInfo xmlInfo = XmlLoader.load(new File("src/test/data/xml/anno_test.xml"), "UTF-8");
+        
+        XlsSheet sheetAnno1 = new AnnotationReader(xmlInfo).getAnnotation(SimpleSheet.class, XlsSheet.class);
+        XlsSheet sheetAnno2 = new AnnotationReader(xmlInfo).getAnnotation(SimpleSheet.class, XlsSheet.class);
+        assertThat(sheetAnno1, is(sameInstance(sheetAnno2)));
+        
+        // 別のXMLの定義情報の場合
+        XmlInfo otherXmlInfo = XmlLoader.load(new File("src/test/data/xml/anno_test.xml"), "UTF-8");
+        XlsSheet sheetAnno3 = new AnnotationReader(otherXmlInfo).getAnnotation(SimpleSheet.class, XlsSheet.class);
+        assertThat(sheetAnno3, is(not(sameInstance(sheetAnno1))));
+        assertThat(sheetAnno3.name(), is("単純なシート"));
+        
+    }
+    
+    /**
+     * 読み込み済みのマッピング情報から、アノテーションを読み込む
+     * @throws Exception
+     */
+    @Test
+    public void test_xmlMapping() throws Exception {
+        
+        XmlMapping xmlMapping = XmlMapping.load(new File("src/test/data/xml/anno_test.xml"), "UTF-8");
+        
+        AnnotationReader reader1 = xmlMapping.createAnnotationReader();
+        AnnotationReader reader2 = xmlMapping.createAnnotationReader();
+        assertThat(reader1, is(not(sameInstance(reader2))));
+        
+        XlsSheet sheetAnno = reader1.getAnnotation(SimpleSheet.class, XlsSheet.class);
+        assertThat(sheetAnno.name(), is("単純なシート"));
+        assertThat(reader2.getAnnotation(SimpleSheet.class, XlsSheet.class), is(sameInstance(sheetAnno)));
+        
+        // コピーしたものは、元の情報を変更しても影響を受けない
+        XmlInfo xmlInfo = XmlLoader.load(new File("src/test/data/xml/anno_test.xml"), "UTF-8");
+        XmlMapping copied = XmlMapping.copyOf(xmlInfo);
+        xmlInfo.getClassInfo(SimpleSheet.class.getName()).getAnnotationInfo(XlsSheet.class.getName())
+            .addAnnotationAttribute("name", "'変更したシート'");
+        
+        assertThat(copied.createAnnotationReader().getAnnotation(SimpleSheet.class, XlsSheet.class).name(), is("単純なシート"));
+        
+    }
+    
     /**
      * XMLに定義されている単純な読み込み
      * @throws Exception